@@ -0,0 +1,25 @@
+package com.example.weuniteauth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "admin.stats")
+public class AdminStatsProperties {
+
+    // Day boundaries of the rollup; blank uses the server's zone, like the dashboard always did
+    private String zone = "";
+
+    // Dashboard responses are reused for this long; the rollup itself refreshes every refresh-interval-ms
+    private long cacheTtlSeconds = 60;
+
+    public ZoneId zoneId() {
+        return zone == null || zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.weuniteauth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "chat.attachments")
+public class ChatAttachmentProperties {
+
+    // Content-addressed files live under <root>/<2 hex>/<2 hex>/<sha-256><ext>
+    private String root = "uploads/attachments";
+
+    private long maxSizeBytes = 10 * 1024 * 1024;
+
+    private int cacheMaxAgeSeconds = 31536000;
+}
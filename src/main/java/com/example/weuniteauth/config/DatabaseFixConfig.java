@@ -51,5 +51,25 @@ public class DatabaseFixConfig {
             // Não lançamos a exceção para não impedir a inicialização da aplicação, 
             // mas o erro ficará no log se falhar.
         }
+
+        // --- UNICIDADE DE CURTIDAS ---
+        // A unique (user_id, post_id, comment_id) não impede duplicatas quando comment_id é NULL,
+        // o que quebraria os contadores like_count sob toggles concorrentes
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_post_like_user_post ON tb_post_like (user_id, post_id) WHERE comment_id IS NULL");
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_post_like_user_comment ON tb_post_like (user_id, comment_id) WHERE comment_id IS NOT NULL");
+        } catch (Exception e) {
+            System.out.println("Aviso: Não foi possível criar os índices únicos de curtidas: " + e.getMessage());
+        }
+
+        // --- ÍNDICE DA CAIXA DE NOTIFICAÇÕES ---
+        // A caixa é ordenada pela última atividade; o Hibernate não gera índices de expressão.
+        // O índice antigo por (user_id, created_at) deixou de ser usado e só encarecia as escritas
+        try {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_notifications_user_activity ON notifications (user_id, COALESCE(updated_at, created_at) DESC, id DESC)");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_notifications_user_created");
+        } catch (Exception e) {
+            System.out.println("Aviso: Não foi possível criar o índice da caixa de notificações: " + e.getMessage());
+        }
     }
 }
@@ -1,5 +1,7 @@
 package com.example.weuniteauth.config;
 
+import com.example.weuniteauth.repository.ConversationReadCursorRepository;
+import com.example.weuniteauth.repository.ConversationRepository;
 import com.example.weuniteauth.repository.MessageRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.CommandLineRunner;
@@ -11,6 +13,8 @@ import org.springframework.transaction.annotation.Transactional;
 public class DatabaseMigration implements CommandLineRunner {
 
     private final MessageRepository messageRepository;
+    private final ConversationRepository conversationRepository;
+    private final ConversationReadCursorRepository readCursorRepository;
 
     @Override
     @Transactional
@@ -18,6 +22,8 @@ public class DatabaseMigration implements CommandLineRunner {
         messageRepository.updateNullIsReadToFalse();
         messageRepository.updateNullDeletedToFalse();
         messageRepository.updateNullEditedToFalse();
+        conversationRepository.backfillLastMessages();
+        readCursorRepository.backfillFromReadFlags();
         System.out.println("✅ Database migration completed: null values fixed");
     }
 }
\ No newline at end of file
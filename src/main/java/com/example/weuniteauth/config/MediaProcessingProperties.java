@@ -0,0 +1,32 @@
+package com.example.weuniteauth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "media.processing")
+public class MediaProcessingProperties {
+
+    private int workers = 4;
+
+    // Uploads arriving while the queue is full wait in memory, still PENDING_MEDIA, until a worker frees up
+    private int queueCapacity = 100;
+
+    private int maxAttempts = 3;
+
+    // Doubled after every failed attempt
+    private long retryBackoffMs = 2000;
+
+    // Uploads are copied here before the request ends, since the multipart temp file is removed with it
+    private String spoolDir = "uploads/spool";
+
+    // Posts still in PENDING_MEDIA this long after creation lost their job and are recovered on startup
+    private int staleAfterMinutes = 30;
+
+    // Dead letters and their spooled files are kept this long for replay, then purged
+    private int deadLetterRetentionHours = 168;
+}
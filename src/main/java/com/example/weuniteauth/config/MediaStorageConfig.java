@@ -0,0 +1,34 @@
+package com.example.weuniteauth.config;
+
+import com.example.weuniteauth.service.media.CloudinaryMediaStorage;
+import com.example.weuniteauth.service.media.LocalMediaStorage;
+import com.example.weuniteauth.service.media.MediaKind;
+import com.example.weuniteauth.service.media.MediaStorage;
+import com.example.weuniteauth.service.media.MeteredMediaStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+public class MediaStorageConfig {
+
+    @Bean
+    @Primary
+    public MediaStorage mediaStorage(MediaStorageProperties properties,
+                                     CloudinaryMediaStorage cloudinaryStorage,
+                                     LocalMediaStorage localStorage,
+                                     MeterRegistry meterRegistry) {
+        Map<MediaKind, MediaStorage> backends = new EnumMap<>(MediaKind.class);
+        for (MediaKind kind : MediaKind.values()) {
+            MediaStorageProperties.Backend backend = kind == MediaKind.CHAT_ATTACHMENT
+                    ? properties.getChatBackend()
+                    : properties.getBackend();
+            backends.put(kind, backend == MediaStorageProperties.Backend.LOCAL ? localStorage : cloudinaryStorage);
+        }
+        return new MeteredMediaStorage(backends, meterRegistry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.weuniteauth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "media.storage")
+public class MediaStorageProperties {
+
+    public enum Backend {
+        // Uploaded to Cloudinary, which applies the transformations and serves the files
+        CLOUDINARY,
+        // Content-addressed files on this node's disk, resized variants generated on request
+        LOCAL
+    }
+
+    // Backend for post, profile and banner media
+    private Backend backend = Backend.CLOUDINARY;
+
+    // Chat attachments default to local disk so downloads keep ETag and range support
+    private Backend chatBackend = Backend.LOCAL;
+}
@@ -0,0 +1,36 @@
+package com.example.weuniteauth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "notifications")
+public class NotificationProperties {
+
+    // Events beyond this are dropped until the workers catch up
+    private int queueCapacity = 10000;
+
+    private int workers = 2;
+
+    private int batchSize = 200;
+
+    private Aggregation aggregation = new Aggregation();
+
+    @Getter
+    @Setter
+    public static class Aggregation {
+
+        private boolean enabled = true;
+
+        // Notifications of the same kind about the same entity within this window share one row
+        private long windowMinutes = 60;
+
+        private Set<String> types = Set.of("POST_LIKE", "COMMENT_LIKE", "POST_REPOST", "NEW_FOLLOWER");
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.weuniteauth.config;
+
+import com.example.weuniteauth.service.presence.InMemoryPresenceStore;
+import com.example.weuniteauth.service.presence.JdbcPresenceStore;
+import com.example.weuniteauth.service.presence.PresenceStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@Configuration
+public class PresenceConfig {
+
+    @Bean
+    public PresenceStore presenceStore(PresenceProperties properties, NamedParameterJdbcTemplate jdbcTemplate) {
+        if (properties.getStore() == PresenceProperties.Store.JDBC) {
+            return new JdbcPresenceStore(jdbcTemplate);
+        }
+        return new InMemoryPresenceStore();
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.weuniteauth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "presence")
+public class PresenceProperties {
+
+    public enum Store {
+        // Sessions kept in this node's memory, enough for a single instance
+        MEMORY,
+        // Sessions kept in tb_presence_session, shared by every node
+        JDBC
+    }
+
+    private Store store = Store.MEMORY;
+
+    // A session not refreshed by a heartbeat within this time is considered gone
+    private long ttlSeconds = 90;
+
+    private long sweepIntervalMs = 15000;
+
+    private Fanout fanout = new Fanout();
+
+    @Getter
+    @Setter
+    public static class Fanout {
+
+        // Pending status changes are coalesced and pushed once per interval
+        private long flushIntervalMs = 1000;
+
+        // Minimum time between two frames about the same user; changes in between wait for the next flush
+        private long minIntervalMs = 5000;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.weuniteauth.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Pool for the @Scheduled jobs, sized by {@code spring.task.scheduling.pool.*}. Spring Boot
+ * skips its own scheduler once the STOMP broker registers one, so without this bean the jobs
+ * would fall back to the broker's heartbeat scheduler. A long counter reconciliation or stats
+ * rebuild would then hold up the like flush while its buffer keeps growing.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    // @Scheduled resolves the bean with this name when several TaskSchedulers exist
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
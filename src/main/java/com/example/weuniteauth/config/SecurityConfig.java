@@ -26,6 +26,7 @@ public class SecurityConfig {
 
 
                         .requestMatchers("/uploads/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/attachments/**").permitAll()
 
                         // Auth endpoints
                         .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
@@ -48,6 +49,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/api/posts/update/{userId}/{postId}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/posts/get/{postId}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/posts/get").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/posts/feed").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/posts/timeline/{userId}").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/api/posts/timeline/rebuild/{userId}").permitAll()
                         .requestMatchers(HttpMethod.DELETE, "/api/posts/delete/{userId}/{postId}").permitAll()
 
                         // Likes endpoints
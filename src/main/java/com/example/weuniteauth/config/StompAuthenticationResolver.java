@@ -0,0 +1,94 @@
+package com.example.weuniteauth.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves the bearer token of a STOMP CONNECT into a {@link StompPrincipal}. Decoded tokens
+ * are kept in a bounded LRU until they expire, so clients that reconnect often do not pay
+ * for signature verification and claim probing every time.
+ */
+@Component
+public class StompAuthenticationResolver {
+
+    private final JwtDecoder jwtDecoder;
+    private final Map<String, CachedPrincipal> cache;
+
+    private record CachedPrincipal(StompPrincipal principal, Instant expiresAt) {
+    }
+
+    public StompAuthenticationResolver(JwtDecoder jwtDecoder,
+                                       @Value("${websocket.auth.cache-size:10000}") int cacheSize) {
+        this.jwtDecoder = jwtDecoder;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    public StompPrincipal resolve(String token) {
+        CachedPrincipal cached = cache.get(token);
+        if (cached != null && (cached.expiresAt() == null || cached.expiresAt().isAfter(Instant.now()))) {
+            return cached.principal();
+        }
+
+        Jwt jwt = jwtDecoder.decode(token);
+
+        String username = jwt.getSubject();
+        if (username == null || username.isEmpty()) {
+            throw new IllegalArgumentException("Token inválido");
+        }
+
+        StompPrincipal principal = new StompPrincipal(username, extractUserId(jwt));
+        cache.put(token, new CachedPrincipal(principal, jwt.getExpiresAt()));
+        return principal;
+    }
+
+    private Long extractUserId(Jwt jwt) {
+        Object userIdClaim = jwt.getClaim("userId");
+        if (userIdClaim != null) {
+            return convertToLong(userIdClaim);
+        }
+
+        Object idClaim = jwt.getClaim("id");
+        if (idClaim != null) {
+            return convertToLong(idClaim);
+        }
+
+        Object userIdSnakeClaim = jwt.getClaim("user_id");
+        if (userIdSnakeClaim != null) {
+            return convertToLong(userIdSnakeClaim);
+        }
+
+        try {
+            return Long.parseLong(jwt.getSubject());
+        } catch (Exception e) {
+            // Subject não é um número
+        }
+
+        return null;
+    }
+
+    private Long convertToLong(Object value) {
+        try {
+            if (value instanceof Number number) {
+                return number.longValue();
+            } else if (value instanceof String string) {
+                return Long.parseLong(string);
+            } else {
+                return null;
+            }
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.weuniteauth.config;
+
+import java.security.Principal;
+
+/**
+ * Principal attached to a STOMP session on CONNECT. It carries the user id resolved from
+ * the token, so later frames are authorized without decoding the token or reading the user.
+ */
+public record StompPrincipal(String name, Long userId) implements Principal {
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.weuniteauth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "timeline")
+public class TimelineProperties {
+
+    // Entries kept per user inbox; older ones are trimmed
+    private int maxEntries = 800;
+
+    // Authors with more accepted followers than this are pulled at read time instead of pushed
+    private int fanoutThreshold = 5000;
+
+    private long trimIntervalMs = 300000;
+
+    private long highFanoutRefreshIntervalMs = 60000;
+}
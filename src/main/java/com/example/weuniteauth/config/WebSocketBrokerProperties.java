@@ -0,0 +1,42 @@
+package com.example.weuniteauth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "websocket.broker")
+public class WebSocketBrokerProperties {
+
+    public enum Mode {
+        // In-memory broker, subscribers only receive messages sent on the same node
+        SIMPLE,
+        // STOMP relay to an external broker (ActiveMQ Artemis, RabbitMQ STOMP), shared by every node
+        RELAY
+    }
+
+    private Mode mode = Mode.SIMPLE;
+
+    private String relayHost = "localhost";
+
+    private int relayPort = 61613;
+
+    private String virtualHost;
+
+    // Credentials of the connections opened on behalf of clients
+    private String clientLogin = "guest";
+
+    private String clientPasscode = "guest";
+
+    // Credentials of the shared connection used by the application to send messages
+    private String systemLogin = "guest";
+
+    private String systemPasscode = "guest";
+
+    private long systemHeartbeatSendIntervalMs = 10000;
+
+    private long systemHeartbeatReceiveIntervalMs = 10000;
+}
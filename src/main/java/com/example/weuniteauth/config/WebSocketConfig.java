@@ -1,35 +1,71 @@
 package com.example.weuniteauth.config;
 
+import com.example.weuniteauth.service.UserStatusService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
-import java.util.Collections;
+import java.util.function.Supplier;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Autowired
-    private JwtDecoder jwtDecoder;
+    private StompAuthenticationResolver authenticationResolver;
+
+    @Autowired
+    private WebSocketBrokerProperties brokerProperties;
+
+    @Autowired
+    private WebSocketTransportProperties transportProperties;
+
+    // Looked up lazily: the presence service depends on the messaging template this configuration builds
+    @Autowired
+    private ObjectProvider<UserStatusService> userStatusService;
+
+    private ThreadPoolTaskExecutor inboundExecutor;
+
+    private ThreadPoolTaskExecutor outboundExecutor;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if (brokerProperties.getMode() == WebSocketBrokerProperties.Mode.RELAY) {
+            // Every node relays to the same broker, so a push from any node reaches subscribers on all of them
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(brokerProperties.getRelayHost())
+                    .setRelayPort(brokerProperties.getRelayPort())
+                    .setClientLogin(brokerProperties.getClientLogin())
+                    .setClientPasscode(brokerProperties.getClientPasscode())
+                    .setSystemLogin(brokerProperties.getSystemLogin())
+                    .setSystemPasscode(brokerProperties.getSystemPasscode())
+                    .setSystemHeartbeatSendInterval(brokerProperties.getSystemHeartbeatSendIntervalMs())
+                    .setSystemHeartbeatReceiveInterval(brokerProperties.getSystemHeartbeatReceiveIntervalMs());
+
+            if (brokerProperties.getVirtualHost() != null) {
+                relay.setVirtualHost(brokerProperties.getVirtualHost());
+            }
+        } else {
+            config.enableSimpleBroker("/topic", "/queue");
+        }
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
     }
@@ -41,8 +77,65 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(transportProperties.getSendTimeLimitMs())
+                .setSendBufferSizeLimit(transportProperties.getSendBufferSizeLimit())
+                .setMessageSizeLimit(transportProperties.getMessageSizeLimit())
+                .setTimeToFirstMessage(transportProperties.getTimeToFirstMessageMs());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        outboundExecutor = channelExecutor(transportProperties.getOutbound(), "ws-outbound-");
+        registration.taskExecutor(outboundExecutor);
+    }
+
+    /**
+     * Exposes queue depth and active threads of the inbound and outbound channel executors.
+     */
+    @Bean
+    public MeterBinder webSocketChannelMetrics() {
+        return registry -> {
+            bindExecutorMetrics(registry, "inbound", () -> inboundExecutor);
+            bindExecutorMetrics(registry, "outbound", () -> outboundExecutor);
+        };
+    }
+
+    private static void bindExecutorMetrics(MeterRegistry registry, String channel, Supplier<ThreadPoolTaskExecutor> executor) {
+        Gauge.builder("websocket.channel.queue.size", executor, supplier -> queueSize(supplier.get()))
+                .tag("channel", channel)
+                .register(registry);
+        Gauge.builder("websocket.channel.active.threads", executor,
+                        supplier -> supplier.get() != null ? supplier.get().getActiveCount() : 0)
+                .tag("channel", channel)
+                .register(registry);
+    }
+
+    private static double queueSize(ThreadPoolTaskExecutor executor) {
+        try {
+            return executor != null ? executor.getThreadPoolExecutor().getQueue().size() : 0;
+        } catch (IllegalStateException e) {
+            // Not initialized yet
+            return 0;
+        }
+    }
+
+    private static ThreadPoolTaskExecutor channelExecutor(WebSocketTransportProperties.Pool pool, String threadNamePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pool.getCorePoolSize());
+        executor.setMaxPoolSize(pool.getMaxPoolSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds(pool.getKeepAliveSeconds());
+        executor.setThreadNamePrefix(threadNamePrefix);
+        return executor;
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        inboundExecutor = channelExecutor(transportProperties.getInbound(), "ws-inbound-");
+        registration.taskExecutor(inboundExecutor);
+
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel) {
@@ -56,26 +149,14 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                         String token = authHeader.substring(7);
 
                         try {
-                            Jwt jwt = jwtDecoder.decode(token);
-
-                            String username = jwt.getSubject();
-                            if (username == null || username.isEmpty()) {
-                                throw new IllegalArgumentException("Token inválido");
-                            }
-
-                            Long userId = extractUserId(jwt);
-
-                            Authentication auth = new UsernamePasswordAuthenticationToken(
-                                    username,
-                                    null,
-                                    Collections.emptyList()
-                            );
+                            StompPrincipal principal = authenticationResolver.resolve(token);
 
-                            accessor.setUser(auth);
+                            // The principal lives for the whole session; later frames read the user id from it
+                            accessor.setUser(principal);
 
                             if (accessor.getSessionAttributes() != null) {
-                                accessor.getSessionAttributes().put("userId", userId);
-                                accessor.getSessionAttributes().put("username", username);
+                                accessor.getSessionAttributes().put("userId", principal.userId());
+                                accessor.getSessionAttributes().put("username", principal.getName());
                             }
 
                         } catch (Exception e) {
@@ -84,53 +165,14 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                     } else {
                         throw new IllegalArgumentException("Token não fornecido");
                     }
+                } else if (accessor != null && accessor.getUser() != null
+                        && !StompCommand.DISCONNECT.equals(accessor.getCommand())) {
+                    // Any frame or heart-beat from the client shows the session is still alive
+                    userStatusService.getObject().touch(accessor.getSessionId());
                 }
 
                 return message;
             }
-
-            private Long extractUserId(Jwt jwt) {
-                Object userIdClaim = jwt.getClaim("userId");
-                if (userIdClaim != null) {
-                    return convertToLong(userIdClaim, "userId");
-                }
-
-                Object idClaim = jwt.getClaim("id");
-                if (idClaim != null) {
-                    return convertToLong(idClaim, "id");
-                }
-
-                Object userIdSnakeClaim = jwt.getClaim("user_id");
-                if (userIdSnakeClaim != null) {
-                    return convertToLong(userIdSnakeClaim, "user_id");
-                }
-
-                try {
-                    return Long.parseLong(jwt.getSubject());
-                } catch (Exception e) {
-                    // Subject não é um número
-                }
-
-                return null;
-            }
-
-            private Long convertToLong(Object value, String claimName) {
-                try {
-                    if (value instanceof Long) {
-                        return (Long) value;
-                    } else if (value instanceof Integer) {
-                        return ((Integer) value).longValue();
-                    } else if (value instanceof String) {
-                        return Long.parseLong((String) value);
-                    } else if (value instanceof Number) {
-                        return ((Number) value).longValue();
-                    } else {
-                        return null;
-                    }
-                } catch (Exception e) {
-                    return null;
-                }
-            }
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.example.weuniteauth.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "websocket.transport")
+public class WebSocketTransportProperties {
+
+    private Pool inbound = new Pool();
+
+    private Pool outbound = new Pool();
+
+    // Session is closed when a single send to a slow client takes longer than this
+    private int sendTimeLimitMs = 15000;
+
+    // Bytes buffered for a slow client before its session is closed
+    private int sendBufferSizeLimit = 512 * 1024;
+
+    // Largest inbound STOMP message accepted
+    private int messageSizeLimit = 64 * 1024;
+
+    // Connections that send nothing within this time after opening are closed
+    private int timeToFirstMessageMs = 30000;
+
+    @Getter
+    @Setter
+    public static class Pool {
+
+        private int corePoolSize = Runtime.getRuntime().availableProcessors() * 2;
+
+        private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 4;
+
+        // Bounded so bursts are rejected instead of piling up without limit
+        private int queueCapacity = 10000;
+
+        private int keepAliveSeconds = 60;
+    }
+}
@@ -6,10 +6,12 @@ import com.example.weuniteauth.dto.PostDTO;
 import com.example.weuniteauth.dto.ResponseDTO;
 import com.example.weuniteauth.dto.admin.AdminStatsDTO;
 import com.example.weuniteauth.dto.admin.BanUserRequestDTO;
+import com.example.weuniteauth.dto.admin.BulkReportActionRequestDTO;
 import com.example.weuniteauth.dto.admin.MonthlyDataDTO;
 import com.example.weuniteauth.dto.admin.SuspendUserRequestDTO;
 import com.example.weuniteauth.dto.admin.UserTypeDataDTO;
 import com.example.weuniteauth.dto.admin.OpportunityCategoryWithSkillsDTO;
+import com.example.weuniteauth.dto.report.ReportQueuePageDTO;
 import com.example.weuniteauth.dto.report.ReportSummaryDTO;
 import com.example.weuniteauth.dto.report.ReportedPostDetailDTO;
 import com.example.weuniteauth.dto.report.ReportedOpportunityDetailDTO;
@@ -52,8 +54,10 @@ public class AdminController {
     }
 
     @GetMapping("/stats/opportunities-skills")
-    public ResponseEntity<List<OpportunityCategoryWithSkillsDTO>> getOpportunitiesWithSkills() {
-        List<OpportunityCategoryWithSkillsDTO> opportunitiesWithSkills = adminService.getOpportunitiesWithSkills();
+    public ResponseEntity<List<OpportunityCategoryWithSkillsDTO>> getOpportunitiesWithSkills(
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) Integer days) {
+        List<OpportunityCategoryWithSkillsDTO> opportunitiesWithSkills = adminService.getOpportunitiesWithSkills(limit, days);
         return ResponseEntity.ok(opportunitiesWithSkills);
     }
 
@@ -71,6 +75,14 @@ public class AdminController {
         return ResponseEntity.ok(reportedPosts);
     }
 
+    @GetMapping("/posts/reported/queue")
+    public ResponseEntity<ReportQueuePageDTO> getReportedPostsQueue(@RequestParam(required = false) Long cursorCount,
+                                                                    @RequestParam(required = false) Long cursorId,
+                                                                    @RequestParam(defaultValue = "20") int size) {
+        ReportQueuePageDTO page = adminService.getReportedPostsQueue(cursorCount, cursorId, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/posts/reported/{postId}")
     public ResponseEntity<ReportedPostDetailDTO> getReportedPostDetail(@PathVariable Long postId) {
         ReportedPostDetailDTO reportedPost = adminService.getReportedPostDetail(postId);
@@ -89,6 +101,14 @@ public class AdminController {
         return ResponseEntity.ok(reportedOpportunities);
     }
 
+    @GetMapping("/opportunities/reported/queue")
+    public ResponseEntity<ReportQueuePageDTO> getReportedOpportunitiesQueue(@RequestParam(required = false) Long cursorCount,
+                                                                            @RequestParam(required = false) Long cursorId,
+                                                                            @RequestParam(defaultValue = "20") int size) {
+        ReportQueuePageDTO page = adminService.getReportedOpportunitiesQueue(cursorCount, cursorId, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/opportunities/reported/{opportunityId}")
     public ResponseEntity<ReportedOpportunityDetailDTO> getReportedOpportunityDetail(@PathVariable Long opportunityId) {
         ReportedOpportunityDetailDTO reportedOpportunity = adminService.getReportedOpportunityDetail(opportunityId);
@@ -131,6 +151,14 @@ public class AdminController {
         return ResponseEntity.ok(reportedComments);
     }
 
+    @GetMapping("/comments/reported/queue")
+    public ResponseEntity<ReportQueuePageDTO> getReportedCommentsQueue(@RequestParam(required = false) Long cursorCount,
+                                                                       @RequestParam(required = false) Long cursorId,
+                                                                       @RequestParam(defaultValue = "20") int size) {
+        ReportQueuePageDTO page = adminService.getReportedCommentsQueue(cursorCount, cursorId, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/comments/reported/{commentId}")
     public ResponseEntity<ReportedCommentDetailDTO> getReportedCommentDetail(@PathVariable Long commentId) {
         ReportedCommentDetailDTO reportedComment = adminService.getReportedCommentDetail(commentId);
@@ -173,6 +201,12 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/reports/bulk")
+    public ResponseEntity<ResponseDTO<String>> applyBulkReportAction(@Valid @RequestBody BulkReportActionRequestDTO request) {
+        ResponseDTO<String> response = adminService.applyBulkReportAction(request);
+        return ResponseEntity.ok(response);
+    }
+
     // ========== Endpoints de Moderação de Usuários ==========
 
     /**
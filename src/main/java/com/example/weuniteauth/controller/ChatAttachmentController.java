@@ -0,0 +1,220 @@
+package com.example.weuniteauth.controller;
+
+import com.example.weuniteauth.config.ChatAttachmentProperties;
+import com.example.weuniteauth.exceptions.BusinessRuleException;
+import com.example.weuniteauth.exceptions.UnauthorizedException;
+import com.example.weuniteauth.service.ConversationMembershipCache;
+import com.example.weuniteauth.service.media.LocalMediaStorage;
+import com.example.weuniteauth.service.media.MediaKind;
+import com.example.weuniteauth.service.media.MediaStorage;
+import com.example.weuniteauth.service.media.MediaUpload;
+import com.example.weuniteauth.service.media.StoredMedia;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Streaming upload and download of chat attachments. Uploads read the raw request body
+ * instead of a multipart form, so nothing is buffered before the size check. Downloads
+ * honour ETag and single byte ranges and are written with sendfile when the connector
+ * supports it, or {@link FileChannel#transferTo} otherwise, never through a heap copy of the file.
+ * The download side also serves media stored by {@link LocalMediaStorage}, including resized
+ * variants requested with {@code w} and {@code h}, limited to the sizes its URLs hand out.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+public class ChatAttachmentController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MediaStorage mediaStorage;
+    private final LocalMediaStorage localMediaStorage;
+    private final ChatAttachmentProperties properties;
+    private final ConversationMembershipCache membershipCache;
+    private final MeterRegistry meterRegistry;
+
+    record ByteRange(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    @PostMapping("/messages/attachments")
+    public ResponseEntity<Map<String, Object>> uploadAttachment(
+            @RequestParam Long conversationId,
+            @RequestParam String filename,
+            @AuthenticationPrincipal Jwt jwt,
+            HttpServletRequest request
+    ) throws IOException {
+        String contentType = request.getContentType();
+        if (contentType != null && contentType.startsWith(MediaType.MULTIPART_FORM_DATA_VALUE)) {
+            throw new BusinessRuleException("Envie o arquivo como corpo da requisição, não como formulário");
+        }
+
+        // The sender is whoever the token belongs to, never an id chosen by the client
+        Long senderId = authenticatedUserId(jwt);
+        if (!membershipCache.isParticipant(conversationId, senderId)) {
+            throw new UnauthorizedException("User is not a participant of this conversation");
+        }
+
+        StoredMedia stored = mediaStorage.store(
+                new MediaUpload(MediaKind.CHAT_ATTACHMENT, conversationId.toString(), contentType, filename),
+                request.getInputStream(), request.getContentLengthLong());
+
+        String fileType = contentType != null && contentType.startsWith("image/") ? "IMAGE" : "FILE";
+
+        return ResponseEntity.ok(Map.of(
+                "fileUrl", stored.url(),
+                "fileType", fileType,
+                "size", stored.size()
+        ));
+    }
+
+    @GetMapping("/attachments/{fileName:.+}")
+    public void downloadAttachment(@PathVariable String fileName,
+                                   @RequestParam(name = "w", defaultValue = "0") int width,
+                                   @RequestParam(name = "h", defaultValue = "0") int height,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        LocalMediaStorage.Variant variant = localMediaStorage.variant(fileName, width, height).orElse(null);
+        if (variant == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Path path = variant.path();
+        String etag = "\"" + variant.etag() + "\"";
+        long fileLength = Files.size(path);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Stored names are content hashes, so a URL always points to the same bytes
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + properties.getCacheMaxAgeSeconds() + ", immutable");
+        response.setContentType(MediaTypeFactory.getMediaType(fileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        ByteRange range = new ByteRange(0, fileLength - 1);
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            ByteRange requested = parseRange(rangeHeader, fileLength);
+            if (requested == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileLength);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (requested.length() < fileLength) {
+                range = requested;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + range.start() + "-" + range.end() + "/" + fileLength);
+            }
+        }
+
+        response.setContentLengthLong(range.length());
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        meterRegistry.summary("media.storage.served.bytes", "backend", localMediaStorage.backend()).record(range.length());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file straight from the page cache to the socket after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long written = file.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    // Tokens issued by JwtService carry the user id in the "id" claim
+    private static Long authenticatedUserId(Jwt jwt) {
+        String id = jwt != null ? jwt.getClaimAsString("id") : null;
+        if (id == null) {
+            throw new UnauthorizedException("Token sem identificação do usuário");
+        }
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new UnauthorizedException("Token sem identificação do usuário");
+        }
+    }
+
+    /**
+     * Parses a single "bytes=" range. Multiple ranges are answered with the whole file, which
+     * RFC 9110 allows; returns null when the range cannot be satisfied.
+     */
+    static ByteRange parseRange(String header, long fileLength) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new ByteRange(0, fileLength - 1);
+        }
+
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new ByteRange(0, fileLength - 1);
+        }
+
+        try {
+            String startPart = spec.substring(0, dash).trim();
+            String endPart = spec.substring(dash + 1).trim();
+
+            if (startPart.isEmpty()) {
+                long suffix = Long.parseLong(endPart);
+                if (suffix <= 0) {
+                    return null;
+                }
+                return new ByteRange(Math.max(fileLength - suffix, 0), fileLength - 1);
+            }
+
+            long start = Long.parseLong(startPart);
+            long end = endPart.isEmpty() ? fileLength - 1 : Math.min(Long.parseLong(endPart), fileLength - 1);
+            if (start >= fileLength || start > end) {
+                return null;
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return new ByteRange(0, fileLength - 1);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.weuniteauth.controller;
 
+import com.example.weuniteauth.config.StompPrincipal;
 import com.example.weuniteauth.dto.chat.MessageDTO;
 import com.example.weuniteauth.dto.chat.SendMessageRequestDTO;
+import com.example.weuniteauth.exceptions.UnauthorizedException;
 import com.example.weuniteauth.service.MessageService;
+import com.example.weuniteauth.service.media.MediaKind;
+import com.example.weuniteauth.service.media.MediaStorage;
+import com.example.weuniteauth.service.media.MediaUpload;
+import com.example.weuniteauth.service.media.StoredMedia;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -13,12 +19,9 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.security.Principal;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @Controller
 @RequiredArgsConstructor
@@ -27,9 +30,17 @@ public class ChatController {
 
     private final MessageService messageService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final MediaStorage mediaStorage;
 
     @MessageMapping("/chat.sendMessage")
-    public void sendMessage(@Payload @Valid SendMessageRequestDTO request) {
+    public void sendMessage(@Payload @Valid SendMessageRequestDTO request, Principal principal) {
+        // The session principal is resolved once on CONNECT; a frame may only speak for its own user
+        if (principal instanceof StompPrincipal stompPrincipal
+                && stompPrincipal.userId() != null
+                && !stompPrincipal.userId().equals(request.senderId())) {
+            throw new UnauthorizedException("User is not allowed to send messages as another user");
+        }
+
         MessageDTO messageDTO = messageService.sendMessage(request);
 
         messagingTemplate.convertAndSend(
@@ -111,24 +122,12 @@ public class ChatController {
                 return ResponseEntity.badRequest().body(Map.of("error", "Arquivo vazio"));
             }
 
-            if (file.getSize() > 10 * 1024 * 1024) {
-                return ResponseEntity.badRequest().body(Map.of("error", "Arquivo muito grande. Máximo 10MB"));
-            }
-
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String filename = UUID.randomUUID().toString() + extension;
-
-            Path uploadPath = Paths.get("uploads");
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath);
+            MediaUpload upload = new MediaUpload(MediaKind.CHAT_ATTACHMENT, conversationId.toString(),
+                    file.getContentType(), file.getOriginalFilename());
+            StoredMedia stored = mediaStorage.store(upload, file.getInputStream(), file.getSize());
 
-            String fileUrl = "/uploads/" + filename;
-            String fileType = file.getContentType().startsWith("image/") ? "IMAGE" : "FILE";
+            String fileUrl = stored.url();
+            String fileType = file.getContentType() != null && file.getContentType().startsWith("image/") ? "IMAGE" : "FILE";
 
             return ResponseEntity.ok(Map.of(
                     "fileUrl", fileUrl,
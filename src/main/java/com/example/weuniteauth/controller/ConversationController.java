@@ -3,6 +3,7 @@ package com.example.weuniteauth.controller;
 import com.example.weuniteauth.dto.chat.ConversationDTO;
 import com.example.weuniteauth.dto.chat.CreateConversationRequestDTO;
 import com.example.weuniteauth.dto.chat.MessageDTO;
+import com.example.weuniteauth.dto.chat.MessagePageDTO;
 import com.example.weuniteauth.service.ConversationService;
 import com.example.weuniteauth.service.MessageService;
 import jakarta.validation.Valid;
@@ -49,6 +50,15 @@ public class ConversationController {
         return ResponseEntity.ok(messages);
     }
 
+    @GetMapping("/{conversationId}/messages/{userId}/page")
+    public ResponseEntity<MessagePageDTO> getConversationMessagesPage(@PathVariable Long conversationId,
+                                                                      @PathVariable Long userId,
+                                                                      @RequestParam(required = false) Long beforeId,
+                                                                      @RequestParam(defaultValue = "50") int size) {
+        MessagePageDTO page = messageService.getConversationMessagesPage(conversationId, userId, beforeId, size);
+        return ResponseEntity.ok(page);
+    }
+
     @PutMapping("/{conversationId}/read/{userId}")
     public ResponseEntity<Void> markMessagesAsRead(@PathVariable Long conversationId,
                                                    @PathVariable Long userId) {
@@ -1,11 +1,14 @@
 package com.example.weuniteauth.controller;
 
 import com.example.weuniteauth.domain.notification.Notification;
+import com.example.weuniteauth.dto.notification.NotificationPageDTO;
 import com.example.weuniteauth.service.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +26,15 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<NotificationPageDTO> getNotificationPage(@PathVariable Long userId,
+                                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorAt,
+                                                                   @RequestParam(required = false) Long cursorId,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        NotificationPageDTO page = notificationService.getNotificationPage(userId, cursorAt, cursorId, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/user/{userId}/unread-count")
     public ResponseEntity<Map<String, Long>> getUnreadCount(@PathVariable Long userId) {
         Long count = notificationService.getUnreadCount(userId);
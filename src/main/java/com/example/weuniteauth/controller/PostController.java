@@ -3,6 +3,7 @@ package com.example.weuniteauth.controller;
 import com.example.weuniteauth.dto.PostDTO;
 import com.example.weuniteauth.dto.RepostDTO;
 import com.example.weuniteauth.dto.ResponseDTO;
+import com.example.weuniteauth.dto.post.FeedPageDTO;
 import com.example.weuniteauth.dto.post.PostRequestDTO;
 import com.example.weuniteauth.service.PostService;
 import com.example.weuniteauth.service.RepostService;
@@ -14,6 +15,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -64,6 +66,30 @@ public class PostController {
         return ResponseEntity.status(HttpStatus.OK).body(posts);
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<FeedPageDTO> getFeed(@RequestParam(required = false) Long viewerId,
+                                               @RequestParam(required = false) Instant cursorAt,
+                                               @RequestParam(required = false) Long cursorId,
+                                               @RequestParam(defaultValue = "20") int size) {
+        FeedPageDTO feed = postService.getFeed(viewerId, cursorAt, cursorId, size);
+        return ResponseEntity.status(HttpStatus.OK).body(feed);
+    }
+
+    @GetMapping("/timeline/{userId}")
+    public ResponseEntity<FeedPageDTO> getTimeline(@PathVariable Long userId,
+                                                   @RequestParam(required = false) Instant cursorAt,
+                                                   @RequestParam(required = false) Long cursorId,
+                                                   @RequestParam(defaultValue = "20") int size) {
+        FeedPageDTO timeline = postService.getTimeline(userId, cursorAt, cursorId, size);
+        return ResponseEntity.status(HttpStatus.OK).body(timeline);
+    }
+
+    @PostMapping("/timeline/rebuild/{userId}")
+    public ResponseEntity<ResponseDTO<Integer>> rebuildTimeline(@PathVariable Long userId) {
+        int entries = postService.rebuildTimeline(userId);
+        return ResponseEntity.status(HttpStatus.OK).body(new ResponseDTO<>("Timeline reconstruída com sucesso!", entries));
+    }
+
     @DeleteMapping("/delete/{userId}/{postId}")
     public ResponseEntity<ResponseDTO<PostDTO>> deletePost(@PathVariable Long userId, @PathVariable Long postId) {
         ResponseDTO<PostDTO> post = postService.deletePost(userId, postId);
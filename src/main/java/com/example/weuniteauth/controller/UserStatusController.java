@@ -1,35 +1,58 @@
 package com.example.weuniteauth.controller;
 
+import com.example.weuniteauth.config.StompPrincipal;
 import com.example.weuniteauth.dto.chat.UserStatusDTO;
 import com.example.weuniteauth.service.UserStatusService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.security.Principal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Controller
 @RequiredArgsConstructor
 public class UserStatusController {
 
-    private final SimpMessagingTemplate messagingTemplate;
     private final UserStatusService userStatusService;
 
+    private static final int MAX_BULK_STATUS_IDS = 500;
+
     @MessageMapping("/user.status")
-    public void updateUserStatus(@Payload UserStatusDTO statusUpdate) {
+    public void updateUserStatus(@Payload UserStatusDTO statusUpdate,
+                                 Principal principal,
+                                 @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String sessionId) {
+        if (!(principal instanceof StompPrincipal stompPrincipal) || stompPrincipal.userId() == null) {
+            return;
+        }
+
+        // The status always belongs to the authenticated user, whatever id the payload carries
+        statusUpdate.setUserId(stompPrincipal.userId());
         statusUpdate.setTimestamp(LocalDateTime.now());
-        userStatusService.updateUserStatus(statusUpdate);
+        userStatusService.updateUserStatus(statusUpdate, sessionId);
+    }
 
-        messagingTemplate.convertAndSend(
-                "/topic/user/" + statusUpdate.getUserId() + "/status",
-                statusUpdate
-        );
+    @MessageMapping("/user.heartbeat")
+    public void heartbeat(@Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String sessionId) {
+        userStatusService.heartbeat(sessionId);
+    }
+
+    @GetMapping("/api/users/status")
+    @ResponseBody
+    public ResponseEntity<List<UserStatusDTO>> getUserStatuses(@RequestParam List<Long> ids) {
+        if (ids.size() > MAX_BULK_STATUS_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(List.copyOf(userStatusService.getUserStatuses(ids).values()));
     }
 
     @GetMapping("/api/users/{userId}/status")
@@ -0,0 +1,54 @@
+package com.example.weuniteauth.domain.admin;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One pre-aggregated dashboard counter for one day. Rows are rewritten by the rollup job from
+ * the source tables, so the admin dashboard reads a few rows per day instead of counting them.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "tb_daily_metric",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"metric_day", "metric"}),
+        indexes = @Index(name = "idx_daily_metric_metric_day", columnList = "metric, metric_day"))
+public class DailyMetric {
+
+    public enum Metric {
+        POSTS,
+        OPPORTUNITIES,
+        // Likes on posts; comment likes are not part of the dashboard
+        LIKES,
+        COMMENTS,
+        SIGNUPS,
+        // Distinct users who posted that day
+        ACTIVE_USERS,
+        // Distinct users who posted in the 10 and 30 days up to the row's day, written for the current day only
+        ACTIVE_USERS_10D,
+        ACTIVE_USERS_30D
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "metric_day", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Metric metric;
+
+    @Column(name = "metric_value", nullable = false)
+    private long value;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -32,6 +32,13 @@ public class Conversation {
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<Message> messages = new HashSet<>();
 
+    // Snapshot of the newest message, maintained by MessageService with conditional updates
+    @Column(name = "last_message_id", insertable = false, updatable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_message_at", insertable = false, updatable = false)
+    private Instant lastMessageAt;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -0,0 +1,38 @@
+package com.example.weuniteauth.domain.chat;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * How far a participant has read a conversation. Every message with an id up to
+ * {@code lastReadMessageId} counts as read by that user, so marking a conversation as read
+ * is a single-row upsert and unread counts and receipts are derived from the cursor.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "tb_conversation_read_cursor",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"conversation_id", "user_id"}))
+public class ConversationReadCursor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "conversation_id", nullable = false)
+    private Long conversationId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private Long lastReadMessageId;
+
+    @Column(name = "read_at", nullable = false)
+    private Instant readAt;
+}
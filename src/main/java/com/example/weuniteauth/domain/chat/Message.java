@@ -12,7 +12,10 @@ import java.time.Instant;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "tb_message")
+@Table(name = "tb_message", indexes = {
+        @Index(name = "idx_message_conversation_created_id", columnList = "conversation_id, created_at, id"),
+        @Index(name = "idx_message_conversation_id", columnList = "conversation_id, id")
+})
 public class Message {
 
     @Id
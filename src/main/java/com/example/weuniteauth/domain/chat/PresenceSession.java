@@ -0,0 +1,40 @@
+package com.example.weuniteauth.domain.chat;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One live WebSocket session of a user, used by the shared presence store. A user is online
+ * while at least one of their sessions has not expired; heartbeats push {@code expiresAt}
+ * forward and rows left behind by crashed nodes are swept once they expire.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "tb_presence_session", indexes = {
+        @Index(name = "idx_presence_session_user", columnList = "user_id"),
+        @Index(name = "idx_presence_session_expires", columnList = "expires_at")
+})
+public class PresenceSession {
+
+    @Id
+    @Column(name = "session_id", length = 128)
+    private String sessionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 32)
+    private String status;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
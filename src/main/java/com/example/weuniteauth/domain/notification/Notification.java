@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_read_created", columnList = "is_read, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -44,11 +46,19 @@ public class Notification {
     @Column(nullable = false)
     private Boolean isRead = false;
 
+    // Number of actors folded into this row when notifications are aggregated
+    @Column(nullable = false, columnDefinition = "integer default 1")
+    private Integer actorCount = 1;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    @Column
+    private LocalDateTime updatedAt;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
     }
 }
\ No newline at end of file
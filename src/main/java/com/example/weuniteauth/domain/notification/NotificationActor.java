@@ -0,0 +1,34 @@
+package com.example.weuniteauth.domain.notification;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * One distinct actor folded into an aggregated notification. The row's {@code actor_count}
+ * is derived from these entries, so the same user liking, unliking and liking again is
+ * counted once.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "notification_actors",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"notification_id", "actor_id"}))
+public class NotificationActor {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "notification_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Notification notification;
+
+    @Column(name = "actor_id", nullable = false)
+    private Long actorId;
+}
@@ -0,0 +1,15 @@
+package com.example.weuniteauth.domain.notification;
+
+/**
+ * Request to notify a user, published by the service that caused it and delivered by
+ * the dispatcher once the publishing transaction has committed. Identical events still
+ * waiting in the queue are merged, so record equality is part of the contract.
+ */
+public record NotificationEvent(
+        Long userId,
+        String type,
+        Long actorId,
+        Long relatedEntityId,
+        String message
+) {
+}
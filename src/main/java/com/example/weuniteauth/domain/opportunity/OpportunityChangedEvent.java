@@ -0,0 +1,7 @@
+package com.example.weuniteauth.domain.opportunity;
+
+/**
+ * Published when an opportunity is created, edited or deleted, so derived data can be refreshed after commit.
+ */
+public record OpportunityChangedEvent(Long opportunityId) {
+}
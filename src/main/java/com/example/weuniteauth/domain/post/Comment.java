@@ -60,6 +60,10 @@ public class Comment {
     @Column(nullable = false, columnDefinition = "boolean default false")
     private boolean deleted = false;
 
+    // Denormalized counter: only changed by atomic UPDATEs in CommentRepository, never by entity flushes
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long likeCount;
+
     public void addLike(Like like) {
         this.likes.add(like);
         like.setComment(this);
@@ -0,0 +1,30 @@
+package com.example.weuniteauth.domain.post;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.Instant;
+
+/**
+ * An author above the fan-out threshold, whose posts are pulled at read time instead of pushed.
+ * {@code since} is when the author crossed the threshold; {@code droppedAt} is set when they fall
+ * back below it, and the row is kept until the posts written in between are pushed to followers.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "tb_timeline_high_fanout_author")
+public class HighFanoutAuthor {
+
+    @Id
+    @Column(name = "author_id")
+    private Long authorId;
+
+    @Column(name = "since", nullable = false)
+    private Instant since;
+
+    @Column(name = "dropped_at")
+    private Instant droppedAt;
+}
@@ -0,0 +1,49 @@
+package com.example.weuniteauth.domain.post;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Dead letter of a post media upload that failed every attempt. The spooled file is kept
+ * at {@code spoolPath} so the upload can be replayed once the cause is fixed; both are
+ * purged after the configured retention.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "tb_media_upload_failure", indexes = @Index(name = "idx_media_upload_failure_post", columnList = "post_id"))
+public class MediaUploadFailure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "original_filename", length = 255)
+    private String originalFilename;
+
+    @Column(name = "spool_path", nullable = false, length = 500)
+    private String spoolPath;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "failed_at", nullable = false)
+    private Instant failedAt;
+}
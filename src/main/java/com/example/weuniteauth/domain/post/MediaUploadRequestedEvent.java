@@ -0,0 +1,9 @@
+package com.example.weuniteauth.domain.post;
+
+import java.nio.file.Path;
+
+/**
+ * Published when a post is saved in PENDING_MEDIA; the upload starts once the post is committed.
+ */
+public record MediaUploadRequestedEvent(Long postId, Long userId, String contentType, String originalFilename, Path spoolPath) {
+}
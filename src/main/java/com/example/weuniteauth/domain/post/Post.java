@@ -14,6 +14,10 @@ import java.util.Set;
 @Setter
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_post_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_post_media_status_created", columnList = "media_status, created_at")
+})
 public class Post {
 
     public Post (User user, String text, String imageUrl) {
@@ -52,6 +56,27 @@ public class Post {
     @Column(nullable = false, columnDefinition = "boolean default false")
     private boolean deleted = false;
 
+    public enum MediaStatus {
+        READY,
+        // Saved before its media finished uploading; image/video URLs are filled in by the media worker
+        PENDING_MEDIA,
+        FAILED
+    }
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, columnDefinition = "varchar(20) default 'READY'")
+    private MediaStatus mediaStatus = MediaStatus.READY;
+
+    // Denormalized counters: only changed by atomic UPDATEs in PostRepository, never by entity flushes
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long likeCount;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long commentCount;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long repostCount;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<Like> likes = new HashSet<>();
 
@@ -11,7 +11,9 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "tb_post_repost", uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "post_id"}))
+@Table(name = "tb_post_repost",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "post_id"}),
+        indexes = @Index(name = "idx_repost_created_at_id", columnList = "created_at, id"))
 public class Repost {
 
     public Repost(Post post, User user) {
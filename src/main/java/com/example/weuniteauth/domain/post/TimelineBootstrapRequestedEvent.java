@@ -0,0 +1,7 @@
+package com.example.weuniteauth.domain.post;
+
+/**
+ * Published when a home timeline is read with an empty inbox; the inbox is rebuilt off the request thread.
+ */
+public record TimelineBootstrapRequestedEvent(Long userId) {
+}
@@ -0,0 +1,46 @@
+package com.example.weuniteauth.domain.post;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.Instant;
+
+/**
+ * One row of a user's materialized home timeline. Rows are written on post/repost
+ * (fan-out-on-write) and only reference ids, so the inbox stays compact.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Entity
+@Table(name = "tb_timeline_entry",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"owner_id", "entry_key"}),
+        indexes = {
+                @Index(name = "idx_timeline_owner_effective_at", columnList = "owner_id, effective_at, entry_key"),
+                @Index(name = "idx_timeline_post", columnList = "post_id")
+        })
+public class TimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "repost_id")
+    private Long repostId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "effective_at", nullable = false)
+    private Instant effectiveAt;
+
+    @Column(name = "entry_key", nullable = false)
+    private Long entryKey;
+}
@@ -10,7 +10,8 @@ import java.time.Instant;
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"follower_id", "followed_id"}))
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"follower_id", "followed_id"}),
+        indexes = @Index(name = "idx_follow_followed_status", columnList = "followed_id, status"))
 @Entity
 public class Follow {
     @Id
@@ -8,6 +8,7 @@ public record PostDTO(
         String text,
         String imageUrl,
         String videoUrl,
+        String mediaStatus,
         List<LikeDTO> likes,
         List<CommentDTO> comments,
         List<RepostDTO> reposts,
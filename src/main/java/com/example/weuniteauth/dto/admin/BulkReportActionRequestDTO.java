@@ -0,0 +1,20 @@
+package com.example.weuniteauth.dto.admin;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkReportActionRequestDTO(
+        @NotBlank(message = "Tipo do conteúdo é obrigatório")
+        String type,
+
+        @NotEmpty(message = "Informe ao menos um item")
+        @Size(max = 500, message = "No máximo 500 itens por ação")
+        List<Long> entityIds,
+
+        @NotBlank(message = "Ação é obrigatória")
+        String action // DISMISS, REVIEW, RESOLVE ou REMOVE_CONTENT
+) {
+}
@@ -0,0 +1,14 @@
+package com.example.weuniteauth.dto.chat;
+
+import java.util.List;
+
+/**
+ * A page of conversation history in chronological order. {@code nextBeforeId} is the id of
+ * the oldest message in the page, to be passed back to load the previous page.
+ */
+public record MessagePageDTO(
+        List<MessageDTO> messages,
+        Long nextBeforeId,
+        boolean hasMore
+) {
+}
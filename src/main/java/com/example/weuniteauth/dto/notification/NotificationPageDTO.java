@@ -0,0 +1,14 @@
+package com.example.weuniteauth.dto.notification;
+
+import com.example.weuniteauth.domain.notification.Notification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record NotificationPageDTO(
+        List<Notification> notifications,
+        LocalDateTime nextCursorAt,
+        Long nextCursorId,
+        boolean hasMore
+) {
+}
@@ -0,0 +1,60 @@
+package com.example.weuniteauth.dto.post;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+public record FeedEntryDTO(
+        Long postId,
+        Long repostId,
+        Instant effectiveAt,
+        Long entryKey
+) {
+
+    // entryKey is unique across posts and reposts: even for posts, odd for reposts
+    public static long postKey(Long postId) {
+        return postId * 2;
+    }
+
+    public static long repostKey(Long repostId) {
+        return repostId * 2 + 1;
+    }
+
+    public boolean isRepost() {
+        return repostId != null;
+    }
+
+    /**
+     * Builds an entry from a native feed row shaped as (post_id, repost_id, effective_at, entry_key).
+     */
+    public static FeedEntryDTO fromRow(Object[] row) {
+        return new FeedEntryDTO(
+                toLong(row[0]),
+                row[1] != null ? toLong(row[1]) : null,
+                toInstant(row[2]),
+                toLong(row[3])
+        );
+    }
+
+    private static Long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Instant instant) {
+            return instant;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toInstant(ZoneOffset.UTC);
+        }
+        throw new IllegalStateException("Tipo de data inesperado no feed: " + value);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.weuniteauth.dto.post;
+
+import java.time.Instant;
+import java.util.List;
+
+public record FeedPageDTO(
+        List<FeedPostDTO> posts,
+        Instant nextCursorAt,
+        Long nextCursorId,
+        boolean hasMore
+) {
+}
@@ -0,0 +1,26 @@
+package com.example.weuniteauth.dto.post;
+
+import com.example.weuniteauth.dto.CommentDTO;
+import com.example.weuniteauth.dto.UserDTO;
+
+import java.time.Instant;
+import java.util.List;
+
+public record FeedPostDTO(
+        String id,
+        String text,
+        String imageUrl,
+        String videoUrl,
+        long likeCount,
+        long commentCount,
+        long repostCount,
+        boolean likedByViewer,
+        boolean repostedByViewer,
+        List<CommentDTO> previewComments,
+        Instant createdAt,
+        Instant updatedAt,
+        UserDTO user,
+        UserDTO repostedBy,
+        Instant repostedAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.weuniteauth.dto.post;
+
+public record PostMediaEventDTO(
+        Long postId,
+        String mediaStatus,
+        String imageUrl,
+        String videoUrl
+) {
+}
@@ -0,0 +1,19 @@
+package com.example.weuniteauth.dto.post;
+
+public record PostStatsDTO(
+        Long postId,
+        long likeCount,
+        long commentCount,
+        long repostCount,
+        boolean likedByViewer,
+        boolean repostedByViewer
+) {
+
+    public static PostStatsDTO empty(Long postId) {
+        return new PostStatsDTO(postId, 0, 0, 0, false, false);
+    }
+
+    public PostStatsDTO withLikes(long likeCount, boolean likedByViewer) {
+        return new PostStatsDTO(postId, Math.max(likeCount, 0), commentCount, repostCount, likedByViewer, repostedByViewer);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.weuniteauth.dto.report;
+
+import java.time.Instant;
+
+public record ReportEntryDTO(
+        Long id,
+        Long reporterId,
+        String reporterUsername,
+        String reason,
+        String status,
+        String actionTaken,
+        Instant createdAt,
+        Instant resolvedAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.weuniteauth.dto.report;
+
+import java.util.List;
+
+public record ReportQueueItemDTO(
+        ReportedContentSummaryDTO content,
+        List<ReportEntryDTO> reports,
+        Long totalReports,
+        String status
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.weuniteauth.dto.report;
+
+import java.util.List;
+
+public record ReportQueuePageDTO(
+        List<ReportQueueItemDTO> items,
+        Long nextCursorCount,
+        Long nextCursorId,
+        boolean hasMore
+) {
+}
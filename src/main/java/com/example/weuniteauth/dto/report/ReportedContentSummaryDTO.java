@@ -0,0 +1,24 @@
+package com.example.weuniteauth.dto.report;
+
+import java.time.Instant;
+
+/**
+ * Resumo do conteúdo denunciado exibido na fila de moderação. Para posts e comentários
+ * {@code title} é nulo; para comentários {@code parentId} é o post ao qual pertencem.
+ */
+public record ReportedContentSummaryDTO(
+        Long id,
+        String type,
+        String title,
+        String text,
+        String mediaUrl,
+        Long parentId,
+        Long authorId,
+        String authorName,
+        String authorUsername,
+        String authorProfileImg,
+        boolean deleted,
+        boolean exists,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.weuniteauth.exceptions.chat;
+
+import com.example.weuniteauth.exceptions.BaseException;
+
+public class AttachmentTooLargeException extends BaseException {
+    public AttachmentTooLargeException(long maxSizeBytes) {
+        super("Arquivo muito grande. Máximo " + (maxSizeBytes / (1024 * 1024)) + "MB", "ATTACHMENT_TOO_LARGE");
+    }
+}
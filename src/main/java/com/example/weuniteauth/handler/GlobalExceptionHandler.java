@@ -4,6 +4,7 @@ import com.example.weuniteauth.exceptions.BusinessRuleException;
 import com.example.weuniteauth.exceptions.DuplicateResourceException;
 import com.example.weuniteauth.exceptions.NotFoundResourceException;
 import com.example.weuniteauth.exceptions.UnauthorizedException;
+import com.example.weuniteauth.exceptions.chat.AttachmentTooLargeException;
 import com.example.weuniteauth.exceptions.mail.EmailSendingException;
 import com.example.weuniteauth.exceptions.mail.LoadingEmailTemplateException;
 import com.example.weuniteauth.response.ErrorResponse;
@@ -52,6 +53,13 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(AttachmentTooLargeException.class)
+    public ResponseEntity<ErrorResponse> handleAttachmentTooLargeException(AttachmentTooLargeException ex) {
+        logger.error(ex.getMessage(), ex.getError());
+        ErrorResponse response = new ErrorResponse(ex.getMessage(), ex.getError());
+        return new ResponseEntity<>(response, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     @ExceptionHandler(EmailSendingException.class)
     public ResponseEntity<ErrorResponse> handleEmailSendingException(EmailSendingException ex) {
         logger.error(ex.getMessage(), ex.getCause());
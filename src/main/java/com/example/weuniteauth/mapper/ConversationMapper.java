@@ -12,7 +12,12 @@ import org.mapstruct.Mapping;
 import org.mapstruct.Named;
 import org.springframework.beans.factory.annotation.Autowired;
 
-import java.util.Comparator;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -42,14 +47,11 @@ public abstract class ConversationMapper {
 
     @Named("getLastMessage")
     protected MessageDTO getLastMessage(Conversation conversation) {
-        if (conversation.getMessages() == null || conversation.getMessages().isEmpty()) {
+        if (conversation.getLastMessageId() == null) {
             return null;
         }
 
-        Message lastMessage = conversation.getMessages().stream()
-                .max(Comparator.comparing(Message::getCreatedAt))
-                .orElse(null);
-
+        Message lastMessage = messageRepository.findById(conversation.getLastMessageId()).orElse(null);
         if (lastMessage == null) {
             return null;
         }
@@ -69,6 +71,63 @@ public abstract class ConversationMapper {
         );
     }
 
+    /**
+     * Maps a row of {@link com.example.weuniteauth.repository.ConversationRepository#findInboxByUserId}.
+     */
+    public ConversationDTO fromInboxRow(Object[] row) {
+        Long conversationId = toLong(row[0]);
+
+        Set<Long> participantIds = row[3] == null ? Set.of() : Arrays.stream(((String) row[3]).split(","))
+                .map(Long::valueOf)
+                .collect(Collectors.toSet());
+
+        MessageDTO lastMessage = null;
+        if (row[4] != null) {
+            lastMessage = new MessageDTO(
+                    toLong(row[4]),
+                    conversationId,
+                    toLong(row[5]),
+                    (String) row[6],
+                    Boolean.TRUE.equals(row[7]),
+                    toInstant(row[8]),
+                    toInstant(row[9]),
+                    Message.MessageType.valueOf((String) row[10]),
+                    Boolean.TRUE.equals(row[11]),
+                    Boolean.TRUE.equals(row[12]),
+                    toInstant(row[13])
+            );
+        }
+
+        return new ConversationDTO(
+                conversationId,
+                participantIds,
+                lastMessage,
+                toInstant(row[1]),
+                toInstant(row[2]),
+                ((Number) row[14]).intValue()
+        );
+    }
+
+    private static Long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value == null || value instanceof Instant) {
+            return (Instant) value;
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toInstant(ZoneOffset.UTC);
+        }
+        throw new IllegalStateException("Tipo de data inesperado na conversa: " + value);
+    }
+
     @Named("getUnreadCount")
     protected int getUnreadCount(Conversation conversation, @Context Long userId) {
         if (userId == null) {
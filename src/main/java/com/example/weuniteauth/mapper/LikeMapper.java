@@ -5,6 +5,7 @@ import com.example.weuniteauth.domain.post.Post;
 import com.example.weuniteauth.dto.LikeDTO;
 import com.example.weuniteauth.dto.PostDTO;
 import com.example.weuniteauth.dto.ResponseDTO;
+import com.example.weuniteauth.dto.UserDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -49,6 +50,17 @@ public interface LikeMapper {
         return new ResponseDTO<>(message, likeDTOs);
     }
 
+    /**
+     * Payload for a toggle still buffered by the write-behind pipeline. Only the ids are known
+     * until the flush writes the row, and nothing is loaded just to fill in the rest.
+     */
+    default ResponseDTO<LikeDTO> toPendingResponseDTO(String message, Long userId, Long postId) {
+        UserDTO user = new UserDTO(userId.toString(), null, null, null, null, null, null, null, false,
+                null, null, null, null, null, null, null, null);
+        PostDTO post = new PostDTO(postId.toString(), null, null, null, null, null, null, null, null, null, null, null, null);
+        return new ResponseDTO<>(message, new LikeDTO(null, user, post));
+    }
+
     @Named("mapLikes")
     default List<LikeDTO> mapLikes(Set<Like> likes) {
         if (likes == null || likes.isEmpty()) {
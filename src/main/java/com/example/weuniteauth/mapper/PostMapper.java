@@ -9,6 +9,8 @@ import com.example.weuniteauth.dto.LikeDTO;
 import com.example.weuniteauth.dto.PostDTO;
 import com.example.weuniteauth.dto.RepostDTO;
 import com.example.weuniteauth.dto.ResponseDTO;
+import com.example.weuniteauth.dto.post.FeedPostDTO;
+import com.example.weuniteauth.dto.post.PostStatsDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Named;
@@ -23,6 +25,7 @@ public interface PostMapper {
     @Mapping(target = "id", source = "post.id", resultType = String.class)
     @Mapping(target = "text", source = "post.text")
     @Mapping(target = "imageUrl", source = "post.imageUrl")
+    @Mapping(target = "mediaStatus", source = "post.mediaStatus")
     @Mapping(target = "likes", source = "post.likes", qualifiedByName = "mapLikesWithoutPost")
     @Mapping(target = "comments", source = "post.comments", qualifiedByName = "mapCommentsWithoutPost")
     @Mapping(target = "reposts", source = "post.reposts", qualifiedByName = "mapRepostsWithoutPost")
@@ -37,6 +40,7 @@ public interface PostMapper {
     @Mapping(target = "text", source = "repost.post.text")
     @Mapping(target = "imageUrl", source = "repost.post.imageUrl")
     @Mapping(target = "videoUrl", source = "repost.post.videoUrl")
+    @Mapping(target = "mediaStatus", source = "repost.post.mediaStatus")
     @Mapping(target = "likes", source = "repost.post.likes", qualifiedByName = "mapLikesWithoutPost")
     @Mapping(target = "comments", source = "repost.post.comments", qualifiedByName = "mapCommentsWithoutPost")
     @Mapping(target = "reposts", source = "repost.post.reposts", qualifiedByName = "mapRepostsWithoutPost")
@@ -47,6 +51,40 @@ public interface PostMapper {
     @Mapping(target = "repostedAt", source = "repost.createdAt")
     PostDTO toPostDTOFromRepost(Repost repost);
 
+    @Mapping(target = "id", source = "post.id", resultType = String.class)
+    @Mapping(target = "text", source = "post.text")
+    @Mapping(target = "imageUrl", source = "post.imageUrl")
+    @Mapping(target = "videoUrl", source = "post.videoUrl")
+    @Mapping(target = "likeCount", source = "stats.likeCount")
+    @Mapping(target = "commentCount", source = "stats.commentCount")
+    @Mapping(target = "repostCount", source = "stats.repostCount")
+    @Mapping(target = "likedByViewer", source = "stats.likedByViewer")
+    @Mapping(target = "repostedByViewer", source = "stats.repostedByViewer")
+    @Mapping(target = "previewComments", source = "previewComments", qualifiedByName = "mapCommentsWithoutPost")
+    @Mapping(target = "createdAt", source = "post.createdAt")
+    @Mapping(target = "updatedAt", source = "post.updatedAt")
+    @Mapping(target = "user", source = "post.user")
+    @Mapping(target = "repostedBy", ignore = true)
+    @Mapping(target = "repostedAt", ignore = true)
+    FeedPostDTO toFeedPostDTO(Post post, PostStatsDTO stats, List<Comment> previewComments);
+
+    @Mapping(target = "id", source = "repost.post.id", resultType = String.class)
+    @Mapping(target = "text", source = "repost.post.text")
+    @Mapping(target = "imageUrl", source = "repost.post.imageUrl")
+    @Mapping(target = "videoUrl", source = "repost.post.videoUrl")
+    @Mapping(target = "likeCount", source = "stats.likeCount")
+    @Mapping(target = "commentCount", source = "stats.commentCount")
+    @Mapping(target = "repostCount", source = "stats.repostCount")
+    @Mapping(target = "likedByViewer", source = "stats.likedByViewer")
+    @Mapping(target = "repostedByViewer", source = "stats.repostedByViewer")
+    @Mapping(target = "previewComments", source = "previewComments", qualifiedByName = "mapCommentsWithoutPost")
+    @Mapping(target = "createdAt", source = "repost.post.createdAt")
+    @Mapping(target = "updatedAt", source = "repost.post.updatedAt")
+    @Mapping(target = "user", source = "repost.post.user")
+    @Mapping(target = "repostedBy", source = "repost.user")
+    @Mapping(target = "repostedAt", source = "repost.createdAt")
+    FeedPostDTO toFeedPostDTOFromRepost(Repost repost, PostStatsDTO stats, List<Comment> previewComments);
+
     default List<PostDTO> toPostDTOListFromReposts(List<Repost> reposts) {
         if (reposts == null || reposts.isEmpty()) {
             return List.of();
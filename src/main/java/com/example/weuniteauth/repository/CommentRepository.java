@@ -2,8 +2,12 @@ package com.example.weuniteauth.repository;
 
 import com.example.weuniteauth.domain.post.Comment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -14,6 +18,38 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("SELECT c FROM Comment c WHERE c.user.id = :userId AND c.deleted = false ORDER BY COALESCE(c.updatedAt, c.createdAt) DESC")
     List<Comment> findByUserId(Long userId);
 
+    @Query(value = "SELECT ranked.id FROM (" +
+            "SELECT c.id AS id, ROW_NUMBER() OVER (PARTITION BY c.post_id ORDER BY c.created_at DESC, c.id DESC) AS rn " +
+            "FROM comment c WHERE c.post_id IN (:postIds) AND c.deleted = false AND c.parent_id IS NULL) ranked " +
+            "WHERE ranked.rn <= :perPost",
+            nativeQuery = true)
+    List<Long> findPreviewCommentIds(@Param("postIds") Collection<Long> postIds, @Param("perPost") int perPost);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user JOIN FETCH c.post WHERE c.id IN :ids ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT c.id, c.text, c.imageUrl, c.deleted, c.createdAt, u.id, u.name, u.username, u.profileImg, c.post.id " +
+           "FROM Comment c JOIN c.user u WHERE c.id IN :ids")
+    List<Object[]> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.likeCount = CASE WHEN c.likeCount + :delta < 0 THEN 0 ELSE c.likeCount + :delta END WHERE c.id = :commentId")
+    int adjustLikeCount(@Param("commentId") Long commentId, @Param("delta") long delta);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM Comment c")
+    Long findMaxId();
+
+    // Same guard as PostRepository#reconcileCounters: a comment liked concurrently is left for the next run
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE comment c SET like_count = s.like_count " +
+            "FROM (SELECT c2.id AS id, c2.like_count AS read_like_count, " +
+            "(SELECT COUNT(*) FROM tb_post_like l WHERE l.comment_id = c2.id) AS like_count " +
+            "FROM comment c2 WHERE c2.id BETWEEN :fromId AND :toId) s " +
+            "WHERE c.id = s.id AND c.like_count <> s.like_count AND c.like_count = s.read_like_count",
+            nativeQuery = true)
+    int reconcileLikeCounts(@Param("fromId") long fromId, @Param("toId") long toId);
+
 }
 
 
@@ -0,0 +1,46 @@
+package com.example.weuniteauth.repository;
+
+import com.example.weuniteauth.domain.chat.ConversationReadCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ConversationReadCursorRepository extends JpaRepository<ConversationReadCursor, Long> {
+
+    List<ConversationReadCursor> findByConversationId(Long conversationId);
+
+    /**
+     * Moves the cursor of a participant forward; a stale read event never moves it back.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_conversation_read_cursor (conversation_id, user_id, last_read_message_id, read_at) " +
+            "VALUES (:conversationId, :userId, :messageId, :readAt) " +
+            "ON CONFLICT (conversation_id, user_id) DO UPDATE " +
+            "SET last_read_message_id = EXCLUDED.last_read_message_id, read_at = EXCLUDED.read_at " +
+            "WHERE tb_conversation_read_cursor.last_read_message_id < EXCLUDED.last_read_message_id",
+            nativeQuery = true)
+    int advance(@Param("conversationId") Long conversationId,
+                @Param("userId") Long userId,
+                @Param("messageId") Long messageId,
+                @Param("readAt") Instant readAt);
+
+    /**
+     * Seeds cursors from the legacy per-message isRead flags. Does nothing once any cursor exists.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_conversation_read_cursor (conversation_id, user_id, last_read_message_id, read_at) " +
+            "SELECT m.conversation_id, p.user_id, MAX(m.id), COALESCE(MAX(m.read_at), MAX(m.created_at)) " +
+            "FROM tb_message m " +
+            "JOIN tb_conversation_participants p ON p.conversation_id = m.conversation_id AND p.user_id <> m.sender_id " +
+            "WHERE m.is_read = true AND NOT EXISTS (SELECT 1 FROM tb_conversation_read_cursor) " +
+            "GROUP BY m.conversation_id, p.user_id " +
+            "ON CONFLICT (conversation_id, user_id) DO NOTHING",
+            nativeQuery = true)
+    int backfillFromReadFlags();
+}
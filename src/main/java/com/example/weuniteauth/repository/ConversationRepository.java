@@ -2,10 +2,12 @@ package com.example.weuniteauth.repository;
 
 import com.example.weuniteauth.domain.chat.Conversation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +17,97 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     @Query("SELECT c FROM Conversation c JOIN c.participants p WHERE p.id = :userId ORDER BY c.updatedAt DESC")
     List<Conversation> findAllByUserId(@Param("userId") Long userId);
 
+    /**
+     * Inbox of a user in one statement: one row per conversation shaped as
+     * (id, created_at, updated_at, participant_ids, message_id, sender_id, content, is_read,
+     * message_created_at, read_at, type, deleted, edited, edited_at, unread_count), where
+     * participant_ids is a comma-separated list and the message columns are null when the
+     * conversation has no messages yet. Read state and unread counts come from read cursors.
+     */
+    @Query(value = """
+            SELECT c.id, c.created_at, c.updated_at,
+                   (SELECT string_agg(CAST(cp.user_id AS text), ',')
+                    FROM tb_conversation_participants cp
+                    WHERE cp.conversation_id = c.id) AS participant_ids,
+                   m.id AS message_id, m.sender_id, m.content,
+                   EXISTS (SELECT 1 FROM tb_conversation_read_cursor rr
+                           WHERE rr.conversation_id = c.id AND rr.user_id <> m.sender_id
+                             AND rr.last_read_message_id >= m.id) AS is_read,
+                   m.created_at AS message_created_at,
+                   (SELECT MAX(rr.read_at) FROM tb_conversation_read_cursor rr
+                    WHERE rr.conversation_id = c.id AND rr.user_id <> m.sender_id
+                      AND rr.last_read_message_id >= m.id) AS read_at,
+                   m.type, m.deleted, m.edited, m.edited_at,
+                   (SELECT COUNT(*)
+                    FROM tb_message u
+                    WHERE u.conversation_id = c.id AND u.sender_id <> :userId
+                      AND u.id > COALESCE(r.last_read_message_id, 0)) AS unread_count
+            FROM tb_conversation c
+            JOIN tb_conversation_participants p ON p.conversation_id = c.id AND p.user_id = :userId
+            LEFT JOIN tb_conversation_read_cursor r ON r.conversation_id = c.id AND r.user_id = :userId
+            LEFT JOIN tb_message m ON m.id = c.last_message_id
+            ORDER BY c.updated_at DESC
+            """, nativeQuery = true)
+    List<Object[]> findInboxByUserId(@Param("userId") Long userId);
+
+    /**
+     * Moves the last-message snapshot forward; an older message arriving late never replaces a newer one.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE tb_conversation
+            SET last_message_id = :messageId, last_message_at = :messageAt
+            WHERE id = :conversationId
+              AND (last_message_at IS NULL OR last_message_at < :messageAt
+                   OR (last_message_at = :messageAt AND last_message_id < :messageId))
+            """, nativeQuery = true)
+    int advanceLastMessage(@Param("conversationId") Long conversationId,
+                           @Param("messageId") Long messageId,
+                           @Param("messageAt") Instant messageAt);
+
+    /**
+     * Recomputes the last-message snapshot from the messages table, for deletes and backfill.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE tb_conversation c
+            SET last_message_id = m.id, last_message_at = m.created_at
+            FROM tb_conversation c2
+            LEFT JOIN LATERAL (
+                SELECT id, created_at FROM tb_message
+                WHERE conversation_id = c2.id
+                ORDER BY created_at DESC, id DESC
+                LIMIT 1
+            ) m ON true
+            WHERE c.id = c2.id AND c2.id = :conversationId
+            """, nativeQuery = true)
+    int refreshLastMessage(@Param("conversationId") Long conversationId);
+
+    @Modifying
+    @Query(value = """
+            UPDATE tb_conversation c
+            SET last_message_id = m.id, last_message_at = m.created_at
+            FROM tb_conversation c2
+            CROSS JOIN LATERAL (
+                SELECT id, created_at FROM tb_message
+                WHERE conversation_id = c2.id
+                ORDER BY created_at DESC, id DESC
+                LIMIT 1
+            ) m
+            WHERE c.id = c2.id AND c2.last_message_id IS NULL
+            """, nativeQuery = true)
+    int backfillLastMessages();
+
+    @Query("SELECT p.id FROM Conversation c JOIN c.participants p WHERE c.id = :conversationId")
+    List<Long> findParticipantIds(@Param("conversationId") Long conversationId);
+
+    @Modifying
+    @Query("UPDATE Conversation c SET c.updatedAt = :updatedAt WHERE c.id = :conversationId")
+    int touchUpdatedAt(@Param("conversationId") Long conversationId, @Param("updatedAt") Instant updatedAt);
+
+    @Query("SELECT c.lastMessageId FROM Conversation c WHERE c.id = :conversationId")
+    Optional<Long> findLastMessageId(@Param("conversationId") Long conversationId);
+
     @Query("SELECT c FROM Conversation c JOIN c.participants p1 JOIN c.participants p2 " +
            "WHERE p1.id = :userId1 AND p2.id = :userId2 AND SIZE(c.participants) = 2")
     Optional<Conversation> findConversationBetweenTwoUsers(@Param("userId1") Long userId1,
@@ -0,0 +1,128 @@
+package com.example.weuniteauth.repository;
+
+import com.example.weuniteauth.domain.admin.DailyMetric;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC side of the daily dashboard rollup: per-day counts grouped straight from the source
+ * tables, and replacement of the rollup rows of a day range.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DailyMetricBatchRepository {
+
+    private static final Map<DailyMetric.Metric, String> COUNT_PER_DAY = new EnumMap<>(Map.of(
+            DailyMetric.Metric.POSTS,
+            "SELECT CAST(created_at AT TIME ZONE ? AS date), COUNT(*) FROM post " +
+                    "WHERE created_at >= ? AND created_at < ? GROUP BY 1",
+            DailyMetric.Metric.OPPORTUNITIES,
+            "SELECT CAST(created_at AT TIME ZONE ? AS date), COUNT(*) FROM opportunity " +
+                    "WHERE created_at >= ? AND created_at < ? GROUP BY 1",
+            DailyMetric.Metric.LIKES,
+            "SELECT CAST(created_at AT TIME ZONE ? AS date), COUNT(*) FROM tb_post_like " +
+                    "WHERE comment_id IS NULL AND created_at >= ? AND created_at < ? GROUP BY 1",
+            DailyMetric.Metric.COMMENTS,
+            "SELECT CAST(created_at AT TIME ZONE ? AS date), COUNT(*) FROM comment " +
+                    "WHERE created_at >= ? AND created_at < ? GROUP BY 1",
+            DailyMetric.Metric.SIGNUPS,
+            "SELECT CAST(created_at AT TIME ZONE ? AS date), COUNT(*) FROM tb_user " +
+                    "WHERE created_at >= ? AND created_at < ? GROUP BY 1",
+            DailyMetric.Metric.ACTIVE_USERS,
+            "SELECT CAST(created_at AT TIME ZONE ? AS date), COUNT(DISTINCT user_id) FROM post " +
+                    "WHERE created_at >= ? AND created_at < ? GROUP BY 1"
+    ));
+
+    private static final String COUNT_DISTINCT_POSTERS =
+            "SELECT COUNT(DISTINCT user_id) FROM post WHERE created_at >= ? AND created_at < ?";
+
+    private static final String DELETE_RANGE =
+            "DELETE FROM tb_daily_metric WHERE metric = ? AND metric_day >= ? AND metric_day < ?";
+
+    private static final String INSERT_METRIC =
+            "INSERT INTO tb_daily_metric (metric_day, metric, metric_value, updated_at) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record MetricRow(LocalDate day, DailyMetric.Metric metric, long value) {
+    }
+
+    /**
+     * Metrics that can be counted per day from the source tables.
+     */
+    public static List<DailyMetric.Metric> dailyMetrics() {
+        return List.copyOf(COUNT_PER_DAY.keySet());
+    }
+
+    /**
+     * One grouped query per metric over [from, to); days without activity are absent.
+     */
+    public List<MetricRow> countPerDay(Instant from, Instant to, ZoneId zone) {
+        List<MetricRow> rows = new ArrayList<>();
+        COUNT_PER_DAY.forEach((metric, sql) -> rows.addAll(jdbcTemplate.query(sql,
+                (rs, rowNum) -> new MetricRow(rs.getDate(1).toLocalDate(), metric, rs.getLong(2)),
+                zone.getId(), Timestamp.from(from), Timestamp.from(to))));
+        return rows;
+    }
+
+    public long countDistinctPosters(Instant from, Instant to) {
+        Long count = jdbcTemplate.queryForObject(COUNT_DISTINCT_POSTERS, Long.class,
+                Timestamp.from(from), Timestamp.from(to));
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Deletes the given metrics for days in [fromDay, toDay) and inserts the new rows. Run it in
+     * a transaction so readers never see the range half rewritten.
+     */
+    public void replace(List<DailyMetric.Metric> metrics, LocalDate fromDay, LocalDate toDay, List<MetricRow> rows) {
+        jdbcTemplate.batchUpdate(DELETE_RANGE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, metrics.get(i).name());
+                ps.setDate(2, Date.valueOf(fromDay));
+                ps.setDate(3, Date.valueOf(toDay));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return metrics.size();
+            }
+        });
+
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_METRIC, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                MetricRow row = rows.get(i);
+                ps.setDate(1, Date.valueOf(row.day()));
+                ps.setString(2, row.metric().name());
+                ps.setLong(3, row.value());
+                ps.setTimestamp(4, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+}
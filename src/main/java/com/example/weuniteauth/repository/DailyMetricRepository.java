@@ -0,0 +1,27 @@
+package com.example.weuniteauth.repository;
+
+import com.example.weuniteauth.domain.admin.DailyMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface DailyMetricRepository extends JpaRepository<DailyMetric, Long> {
+
+    @Query("SELECT m.metric, SUM(m.value) FROM DailyMetric m WHERE m.metric IN :metrics GROUP BY m.metric")
+    List<Object[]> sumByMetric(@Param("metrics") Collection<DailyMetric.Metric> metrics);
+
+    @Query("SELECT m.metric, SUM(m.value) FROM DailyMetric m " +
+            "WHERE m.metric IN :metrics AND m.day >= :fromDay AND m.day < :toDay GROUP BY m.metric")
+    List<Object[]> sumByMetricBetween(@Param("metrics") Collection<DailyMetric.Metric> metrics,
+                                      @Param("fromDay") LocalDate fromDay,
+                                      @Param("toDay") LocalDate toDay);
+
+    List<DailyMetric> findByMetricInAndDayGreaterThanEqual(Collection<DailyMetric.Metric> metrics, LocalDate fromDay);
+
+    Optional<DailyMetric> findFirstByMetricOrderByDayDesc(DailyMetric.Metric metric);
+}
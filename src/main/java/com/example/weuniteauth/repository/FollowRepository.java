@@ -3,7 +3,10 @@ package com.example.weuniteauth.repository;
 import com.example.weuniteauth.domain.users.Follow;
 import com.example.weuniteauth.domain.users.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +22,12 @@ public interface FollowRepository extends JpaRepository<Follow,Long> {
     List<Follow> findAllByFollowedAndStatus(User user, Follow.FollowStatus status);
 
     List<Follow> findAllByFollowerAndStatus(User user, Follow.FollowStatus status);
+
+    @Query("SELECT f.followed.id FROM Follow f WHERE f.follower.id = :followerId AND f.status = :status")
+    List<Long> findFollowedIds(@Param("followerId") Long followerId, @Param("status") Follow.FollowStatus status);
+
+    @Query("SELECT f.followed.id FROM Follow f WHERE f.follower.id = :followerId AND f.status = :status AND f.followed.id IN :candidateIds")
+    List<Long> findFollowedIdsAmong(@Param("followerId") Long followerId,
+                                    @Param("status") Follow.FollowStatus status,
+                                    @Param("candidateIds") Collection<Long> candidateIds);
 }
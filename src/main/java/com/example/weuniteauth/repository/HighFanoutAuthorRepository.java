@@ -0,0 +1,38 @@
+package com.example.weuniteauth.repository;
+
+import com.example.weuniteauth.domain.post.HighFanoutAuthor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface HighFanoutAuthorRepository extends JpaRepository<HighFanoutAuthor, Long> {
+
+    /**
+     * Records authors that now have more accepted followers than the threshold. Authors already
+     * recorded keep their crossing time; one that had dropped below counts as above again.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_timeline_high_fanout_author (author_id, since, dropped_at) " +
+            "SELECT f.followed_id, :now, NULL FROM follow f WHERE f.status = 'ACCEPTED' " +
+            "GROUP BY f.followed_id HAVING COUNT(*) > :threshold " +
+            "ON CONFLICT (author_id) DO UPDATE SET dropped_at = NULL",
+            nativeQuery = true)
+    int recordCrossedAbove(@Param("threshold") long threshold, @Param("now") Instant now);
+
+    @Modifying
+    @Query(value = "UPDATE tb_timeline_high_fanout_author h SET dropped_at = :now " +
+            "WHERE h.dropped_at IS NULL AND (SELECT COUNT(*) FROM follow f " +
+            "WHERE f.followed_id = h.author_id AND f.status = 'ACCEPTED') <= :threshold",
+            nativeQuery = true)
+    int recordDroppedBelow(@Param("threshold") long threshold, @Param("now") Instant now);
+
+    // Leaves the row alone when the author crossed above the threshold again in the meantime
+    @Modifying
+    @Query("DELETE FROM HighFanoutAuthor h WHERE h.authorId = :authorId AND h.droppedAt IS NOT NULL")
+    int deleteDropped(@Param("authorId") Long authorId);
+}
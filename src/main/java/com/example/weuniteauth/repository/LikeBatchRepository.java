@@ -0,0 +1,93 @@
+package com.example.weuniteauth.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch statements used by the write-behind like pipeline. Inserts and deletes are
+ * idempotent, so replaying a toggle that was already applied is a no-op.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LikeBatchRepository {
+
+    private static final String INSERT_POST_LIKE =
+            "INSERT INTO tb_post_like (user_id, post_id, created_at) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String DELETE_POST_LIKE =
+            "DELETE FROM tb_post_like WHERE user_id = ? AND post_id = ? AND comment_id IS NULL";
+
+    private static final String ADJUST_POST_LIKE_COUNT =
+            "UPDATE post SET like_count = GREATEST(like_count + ?, 0) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record UserPostPair(Long userId, Long postId) {
+    }
+
+    /**
+     * Returns the affected row count of each insert: 1 when the like was created, 0 when it already existed.
+     */
+    public int[] insertPostLikes(List<UserPostPair> pairs) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return jdbcTemplate.batchUpdate(INSERT_POST_LIKE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, pairs.get(i).userId());
+                ps.setLong(2, pairs.get(i).postId());
+                ps.setTimestamp(3, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return pairs.size();
+            }
+        });
+    }
+
+    public int[] deletePostLikes(List<UserPostPair> pairs) {
+        return jdbcTemplate.batchUpdate(DELETE_POST_LIKE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, pairs.get(i).userId());
+                ps.setLong(2, pairs.get(i).postId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return pairs.size();
+            }
+        });
+    }
+
+    public void adjustPostLikeCounts(Map<Long, Long> deltaByPostId) {
+        List<Map.Entry<Long, Long>> deltas = deltaByPostId.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .toList();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(ADJUST_POST_LIKE_COUNT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, deltas.get(i).getValue());
+                ps.setLong(2, deltas.get(i).getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+}
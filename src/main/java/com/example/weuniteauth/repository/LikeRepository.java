@@ -15,6 +15,8 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
 
     Optional<Like> findByUserAndPost(User user, Post post);
 
+    boolean existsByUserIdAndPostId(Long userId, Long postId);
+
     Optional<Like> findByUserAndComment(User user, Comment comment);
 
     Set<Like> findByUser(User user);
@@ -0,0 +1,15 @@
+package com.example.weuniteauth.repository;
+
+import com.example.weuniteauth.domain.post.MediaUploadFailure;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface MediaUploadFailureRepository extends JpaRepository<MediaUploadFailure, Long> {
+
+    List<MediaUploadFailure> findByFailedAtBeforeOrderByFailedAt(Instant cutoff, Pageable pageable);
+}
@@ -1,25 +1,48 @@
 package com.example.weuniteauth.repository;
 
 import com.example.weuniteauth.domain.chat.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
     List<Message> findByConversationIdOrderByCreatedAtAsc(Long conversationId);
 
-
-    @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId AND m.sender.id <> :userId AND m.isRead = false")
-    List<Message> findUnreadMessagesByConversationAndUser(@Param("conversationId") Long conversationId,
-                                                          @Param("userId") Long userId);
-
-    @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation.id = :conversationId AND m.sender.id <> :userId AND m.isRead = false")
+    /**
+     * Keyset page of a conversation's history, newest first, strictly older than the
+     * (createdAt, id) cursor. The sender is fetched in the same query.
+     */
+    @Query("""
+            SELECT m FROM Message m
+            JOIN FETCH m.sender
+            WHERE m.conversation.id = :conversationId
+              AND (m.createdAt < :cursorAt OR (m.createdAt = :cursorAt AND m.id < :cursorId))
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<Message> findPageBefore(@Param("conversationId") Long conversationId,
+                                 @Param("cursorAt") Instant cursorAt,
+                                 @Param("cursorId") Long cursorId,
+                                 Pageable pageable);
+
+    @Query("SELECT m.createdAt FROM Message m WHERE m.id = :messageId AND m.conversation.id = :conversationId")
+    Optional<Instant> findCreatedAtInConversation(@Param("messageId") Long messageId,
+                                                  @Param("conversationId") Long conversationId);
+
+
+    @Query(value = "SELECT COUNT(*) FROM tb_message m " +
+            "LEFT JOIN tb_conversation_read_cursor r ON r.conversation_id = m.conversation_id AND r.user_id = :userId " +
+            "WHERE m.conversation_id = :conversationId AND m.sender_id <> :userId " +
+            "AND m.id > COALESCE(r.last_read_message_id, 0)",
+            nativeQuery = true)
     int countUnreadMessagesByConversationAndUser(@Param("conversationId") Long conversationId,
                                                  @Param("userId") Long userId);
 
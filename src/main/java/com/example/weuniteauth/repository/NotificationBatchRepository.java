@@ -0,0 +1,245 @@
+package com.example.weuniteauth.repository;
+
+import com.example.weuniteauth.domain.notification.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * JDBC batch inserts used by the notification dispatcher.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchRepository {
+
+    private static final String INSERT_NOTIFICATION = """
+            INSERT INTO notifications (user_id, type, actor_id, actor_name, actor_username, actor_profile_img,
+                                       related_entity_id, message, is_read, actor_count, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Held until commit, so two workers cannot both find no recent row for a group and insert one each
+    private static final String LOCK_GROUP = "SELECT pg_advisory_xact_lock(?)";
+
+    // Most recent row of the same group still inside the window, locked until the merge commits
+    private static final String LOCK_RECENT = """
+            SELECT id, is_read FROM notifications
+            WHERE user_id = ? AND type = ? AND related_entity_id = ?
+              AND COALESCE(updated_at, created_at) >= ?
+            ORDER BY id DESC
+            LIMIT 1
+            FOR UPDATE
+            """;
+
+    private static final String INSERT_ACTOR =
+            "INSERT INTO notification_actors (notification_id, actor_id) VALUES (?, ?) " +
+            "ON CONFLICT (notification_id, actor_id) DO NOTHING";
+
+    // The count is derived from the distinct actors, so repeated actions by one user do not inflate it
+    private static final String MERGE_INTO_RECENT = """
+            UPDATE notifications n
+            SET actor_count = (SELECT COUNT(*) FROM notification_actors a WHERE a.notification_id = n.id),
+                actor_id = ?, actor_name = ?, actor_username = ?, actor_profile_img = ?, message = ?,
+                is_read = false, updated_at = ?
+            WHERE n.id = ?
+            RETURNING n.id, n.user_id, n.type, n.actor_id, n.actor_name, n.actor_username, n.actor_profile_img,
+                      n.related_entity_id, n.message, n.is_read, n.actor_count, n.created_at, n.updated_at
+            """;
+
+    private static final RowMapper<Notification> NOTIFICATION_ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new Notification(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getString("type"),
+                rs.getLong("actor_id"),
+                rs.getString("actor_name"),
+                rs.getString("actor_username"),
+                rs.getString("actor_profile_img"),
+                rs.getLong("related_entity_id"),
+                rs.getString("message"),
+                rs.getBoolean("is_read"),
+                rs.getInt("actor_count"),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                updatedAt != null ? updatedAt.toLocalDateTime() : null
+        );
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Aggregated notification carrying the latest actor, together with every distinct actor
+     * folded into it.
+     */
+    public record AggregatedNotification(Notification notification, Set<Long> actorIds) {
+    }
+
+    /**
+     * Row updated by an aggregation merge and whether it had already been read before it.
+     * {@code notification} is null when every actor was already counted, so the row did not
+     * change and there is nothing to push.
+     */
+    public record MergeResult(Notification notification, boolean wasRead) {
+
+        public boolean changed() {
+            return notification != null;
+        }
+    }
+
+    /**
+     * Outcome of {@link #mergeOrInsert}: merges into existing rows and rows newly inserted.
+     */
+    public record AggregationResult(List<MergeResult> merged, List<Notification> inserted) {
+    }
+
+    /**
+     * Inserts all notifications in a single batch and fills in their generated ids.
+     */
+    @Transactional
+    public List<Notification> insertAll(List<Notification> notifications) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Notification>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_NOTIFICATION, new String[]{"id"})) {
+                for (Notification notification : notifications) {
+                    ps.setLong(1, notification.getUserId());
+                    ps.setString(2, notification.getType());
+                    ps.setLong(3, notification.getActorId());
+                    ps.setString(4, notification.getActorName());
+                    ps.setString(5, notification.getActorUsername());
+                    if (notification.getActorProfileImg() != null) {
+                        ps.setString(6, notification.getActorProfileImg());
+                    } else {
+                        ps.setNull(6, Types.VARCHAR);
+                    }
+                    ps.setLong(7, notification.getRelatedEntityId());
+                    ps.setString(8, notification.getMessage());
+                    ps.setBoolean(9, notification.getIsRead());
+                    ps.setInt(10, notification.getActorCount());
+                    ps.setTimestamp(11, Timestamp.valueOf(notification.getCreatedAt()));
+                    ps.setTimestamp(12, Timestamp.valueOf(notification.getUpdatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < notifications.size()) {
+                        notifications.get(i++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return notifications;
+        });
+    }
+
+    /**
+     * Inserts aggregated notifications and records the actors already folded into each one,
+     * so later merges count them only once.
+     */
+    @Transactional
+    public List<Notification> insertAggregated(List<AggregatedNotification> aggregated) {
+        List<Notification> notifications = aggregated.stream().map(AggregatedNotification::notification).toList();
+        insertAll(notifications);
+
+        List<Object[]> actors = new ArrayList<>();
+        for (AggregatedNotification group : aggregated) {
+            for (Long actorId : group.actorIds()) {
+                actors.add(new Object[]{group.notification().getId(), actorId});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ACTOR, actors);
+        return notifications;
+    }
+
+    /**
+     * Merges each group into the newest notification of the same (user, type, entity) updated
+     * since {@code windowStart}, and inserts the groups with nothing recent to merge into.
+     * Every group is guarded by a transaction-scoped advisory lock on its key, taken in key
+     * order so that workers sharing groups do not deadlock. The row lock alone would not be
+     * enough, because it only exists once a row does.
+     */
+    @Transactional
+    public AggregationResult mergeOrInsert(Collection<AggregatedNotification> groups, LocalDateTime windowStart) {
+        groups.stream()
+                .map(group -> lockKey(group.notification()))
+                .sorted()
+                .distinct()
+                .forEach(key -> jdbcTemplate.query(LOCK_GROUP, rs -> null, key));
+
+        List<MergeResult> merged = new ArrayList<>();
+        List<AggregatedNotification> toInsert = new ArrayList<>();
+        for (AggregatedNotification group : groups) {
+            Optional<MergeResult> result = mergeIntoRecent(group, windowStart);
+            if (result.isPresent()) {
+                merged.add(result.get());
+            } else {
+                toInsert.add(group);
+            }
+        }
+
+        List<Notification> inserted = toInsert.isEmpty() ? List.of() : insertAggregated(toInsert);
+        return new AggregationResult(merged, inserted);
+    }
+
+    // Two groups sharing a key only serialize each other, so a rare hash collision is harmless
+    private static long lockKey(Notification notification) {
+        return ((long) Objects.hash(notification.getType(), notification.getRelatedEntityId()) << 32)
+                ^ notification.getUserId();
+    }
+
+    /**
+     * Adds the actors of {@code group} to the newest notification of the same (user, type,
+     * entity) updated since {@code windowStart}. Returns the merge outcome, or empty when
+     * there is nothing recent to merge into and a new row must be inserted.
+     */
+    private Optional<MergeResult> mergeIntoRecent(AggregatedNotification group, LocalDateTime windowStart) {
+        Notification latest = group.notification();
+        List<Map.Entry<Long, Boolean>> targets = jdbcTemplate.query(LOCK_RECENT,
+                (rs, rowNum) -> Map.entry(rs.getLong("id"), rs.getBoolean("is_read")),
+                latest.getUserId(),
+                latest.getType(),
+                latest.getRelatedEntityId(),
+                Timestamp.valueOf(windowStart));
+        if (targets.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Long targetId = targets.get(0).getKey();
+        boolean wasRead = targets.get(0).getValue();
+
+        List<Object[]> actors = group.actorIds().stream()
+                .map(actorId -> new Object[]{targetId, actorId})
+                .toList();
+        // Drivers reporting SUCCESS_NO_INFO (-2) count as added, which at worst re-pushes an unchanged row
+        boolean added = Arrays.stream(jdbcTemplate.batchUpdate(INSERT_ACTOR, actors)).anyMatch(count -> count != 0);
+        if (!added) {
+            return Optional.of(new MergeResult(null, wasRead));
+        }
+
+        List<Notification> updated = jdbcTemplate.query(MERGE_INTO_RECENT, NOTIFICATION_ROW_MAPPER,
+                latest.getActorId(),
+                latest.getActorName(),
+                latest.getActorUsername(),
+                latest.getActorProfileImg(),
+                latest.getMessage(),
+                Timestamp.valueOf(latest.getUpdatedAt()),
+                targetId);
+        return updated.stream().findFirst().map(notification -> new MergeResult(notification, wasRead));
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.weuniteauth.repository;
 
 import com.example.weuniteauth.domain.notification.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -16,7 +19,39 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     Long countByUserIdAndIsReadFalse(Long userId);
 
+    /**
+     * Keyset page of a user's inbox, most recently active first, strictly after the
+     * (COALESCE(updatedAt, createdAt), id) cursor. Aggregated rows move up when a new actor
+     * is merged into them. Served by the idx_notifications_user_activity expression index.
+     */
+    @Query("""
+            SELECT n FROM Notification n
+            WHERE n.userId = :userId
+              AND (COALESCE(n.updatedAt, n.createdAt) < :cursorAt
+                   OR (COALESCE(n.updatedAt, n.createdAt) = :cursorAt AND n.id < :cursorId))
+            ORDER BY COALESCE(n.updatedAt, n.createdAt) DESC, n.id DESC
+            """)
+    List<Notification> findInboxPage(@Param("userId") Long userId,
+                                     @Param("cursorAt") LocalDateTime cursorAt,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true WHERE n.userId = :userId AND n.isRead = false")
-    void markAllAsReadByUserId(@Param("userId") Long userId);
+    int markAllAsReadByUserId(@Param("userId") Long userId);
+
+    /**
+     * Deletes up to {@code batchSize} read notifications created before the cutoff.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM notifications
+            WHERE id IN (
+                SELECT id FROM notifications
+                WHERE is_read = true AND created_at < :cutoff
+                LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int deleteReadBefore(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
 }
\ No newline at end of file
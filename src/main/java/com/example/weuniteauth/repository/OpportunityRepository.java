@@ -2,11 +2,13 @@ package com.example.weuniteauth.repository;
 
 
 import com.example.weuniteauth.domain.opportunity.Opportunity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface OpportunityRepository extends JpaRepository<Opportunity, Long> {
@@ -22,6 +24,21 @@ public interface OpportunityRepository extends JpaRepository<Opportunity, Long>
     @Query("SELECT FUNCTION('MONTH', o.createdAt) as month, COUNT(o) FROM Opportunity o WHERE o.createdAt >= :startDate GROUP BY FUNCTION('MONTH', o.createdAt) ORDER BY month")
     List<Object[]> countOpportunitiesByMonth(@Param("startDate") Instant startDate);
 
+    @Query("SELECT s.name, COUNT(o) FROM Opportunity o JOIN o.skills s WHERE o.deleted = false " +
+           "GROUP BY s.id, s.name ORDER BY COUNT(o) DESC, s.name")
+    List<Object[]> findTopSkills(Pageable pageable);
+
+    @Query("SELECT s.name, COUNT(o) FROM Opportunity o JOIN o.skills s WHERE o.deleted = false AND o.createdAt >= :since " +
+           "GROUP BY s.id, s.name ORDER BY COUNT(o) DESC, s.name")
+    List<Object[]> findTopSkillsSince(@Param("since") Instant since, Pageable pageable);
+
+    @Query("SELECT o FROM Opportunity o JOIN FETCH o.company WHERE o.id IN :ids")
+    List<Opportunity> findAllWithCompanyByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o.id, o.title, o.description, o.deleted, o.createdAt, c.id, c.name, c.username, c.profileImg " +
+           "FROM Opportunity o JOIN o.company c WHERE o.id IN :ids")
+    List<Object[]> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT DISTINCT o FROM Opportunity o LEFT JOIN FETCH o.skills")
     List<Opportunity> findAllWithSkills();
 }
@@ -1,28 +1,155 @@
 package com.example.weuniteauth.repository;
 
 import com.example.weuniteauth.domain.post.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
 
     @Query("SELECT p FROM Post p WHERE p.deleted = false ORDER BY COALESCE(p.updatedAt, p.createdAt) DESC")
     List<Post> findAllOrderedByCreationDate();
 
+    /**
+     * Returns one page of the home feed as (post_id, repost_id, effective_at, entry_key) rows.
+     * Posts and reposts are merged by the database, each branch bounded by the cursor and the limit,
+     * so the cost of a page does not depend on the table size. entry_key is the tie-breaker:
+     * even for posts (id * 2) and odd for reposts (id * 2 + 1), keeping it unique across both sources.
+     */
+    @Query(value = "(SELECT p.id AS post_id, CAST(NULL AS BIGINT) AS repost_id, p.created_at AS effective_at, p.id * 2 AS entry_key " +
+            "FROM post p " +
+            "WHERE p.deleted = false AND (p.created_at < :cursorAt OR (p.created_at = :cursorAt AND p.id * 2 < :cursorId)) " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT r.post_id AS post_id, r.id AS repost_id, r.created_at AS effective_at, r.id * 2 + 1 AS entry_key " +
+            "FROM tb_post_repost r JOIN post rp ON rp.id = r.post_id " +
+            "WHERE rp.deleted = false AND (r.created_at < :cursorAt OR (r.created_at = :cursorAt AND r.id * 2 + 1 < :cursorId)) " +
+            "ORDER BY r.created_at DESC, r.id DESC LIMIT :limit) " +
+            "ORDER BY effective_at DESC, entry_key DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findFeedEntriesBefore(@Param("cursorAt") Instant cursorAt,
+                                         @Param("cursorId") Long cursorId,
+                                         @Param("limit") int limit);
+
+    /**
+     * Same shape as {@link #findFeedEntriesBefore} restricted to the given authors;
+     * used to pull high fan-out accounts into a home timeline at read time.
+     */
+    @Query(value = "(SELECT p.id AS post_id, CAST(NULL AS BIGINT) AS repost_id, p.created_at AS effective_at, p.id * 2 AS entry_key " +
+            "FROM post p " +
+            "WHERE p.deleted = false AND p.user_id IN (:authorIds) " +
+            "AND (p.created_at < :cursorAt OR (p.created_at = :cursorAt AND p.id * 2 < :cursorId)) " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT r.post_id AS post_id, r.id AS repost_id, r.created_at AS effective_at, r.id * 2 + 1 AS entry_key " +
+            "FROM tb_post_repost r JOIN post rp ON rp.id = r.post_id " +
+            "WHERE rp.deleted = false AND r.user_id IN (:authorIds) " +
+            "AND (r.created_at < :cursorAt OR (r.created_at = :cursorAt AND r.id * 2 + 1 < :cursorId)) " +
+            "ORDER BY r.created_at DESC, r.id DESC LIMIT :limit) " +
+            "ORDER BY effective_at DESC, entry_key DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findFeedEntriesByAuthorsBefore(@Param("authorIds") Collection<Long> authorIds,
+                                                  @Param("cursorAt") Instant cursorAt,
+                                                  @Param("cursorId") Long cursorId,
+                                                  @Param("limit") int limit);
+
+    @Query("SELECT p FROM Post p JOIN FETCH p.user WHERE p.id IN :ids")
+    List<Post> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id, p.text, p.imageUrl, p.videoUrl, p.deleted, p.createdAt, u.id, u.name, u.username, u.profileImg " +
+           "FROM Post p JOIN p.user u WHERE p.id IN :ids")
+    List<Object[]> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reads, in one round-trip, the counters and viewer flags for a page of posts:
+     * [postId, likeCount, commentCount, repostCount, viewerLikes, viewerReposts].
+     */
+    @Query("SELECT p.id, p.likeCount, p.commentCount, p.repostCount, " +
+            "(SELECT COUNT(vl) FROM Like vl WHERE vl.post = p AND vl.user.id = :viewerId), " +
+            "(SELECT COUNT(vr) FROM Repost vr WHERE vr.post = p AND vr.user.id = :viewerId) " +
+            "FROM Post p WHERE p.id IN :ids")
+    List<Object[]> findStatsByIdIn(@Param("ids") Collection<Long> ids, @Param("viewerId") Long viewerId);
+
     @Query("SELECT COUNT(p) FROM Post p WHERE p.createdAt >= :startDate AND p.createdAt < :endDate")
     Long countPostsBetweenDates(@Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 
     @Query("SELECT FUNCTION('MONTH', p.createdAt) as month, COUNT(p) FROM Post p WHERE p.createdAt >= :startDate GROUP BY FUNCTION('MONTH', p.createdAt) ORDER BY month")
     List<Object[]> countPostsByMonth(@Param("startDate") Instant startDate);
 
-    @Query("SELECT COUNT(l) FROM Like l WHERE l.post IS NOT NULL")
+    @Query("SELECT COALESCE(SUM(p.likeCount), 0) FROM Post p")
     Long countTotalLikes();
 
     @Query("SELECT COUNT(c) FROM Comment c")
     Long countTotalComments();
 
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = CASE WHEN p.likeCount + :delta < 0 THEN 0 ELSE p.likeCount + :delta END WHERE p.id = :postId")
+    int adjustLikeCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = CASE WHEN p.commentCount + :delta < 0 THEN 0 ELSE p.commentCount + :delta END WHERE p.id = :postId")
+    int adjustCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.repostCount = CASE WHEN p.repostCount + :delta < 0 THEN 0 ELSE p.repostCount + :delta END WHERE p.id = :postId")
+    int adjustRepostCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM Post p")
+    Long findMaxId();
+
+    /**
+     * Attaches uploaded media to a post still waiting for it; a post deleted in the meantime is left alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.imageUrl = :imageUrl, p.videoUrl = :videoUrl, " +
+            "p.mediaStatus = com.example.weuniteauth.domain.post.Post.MediaStatus.READY " +
+            "WHERE p.id = :postId AND p.mediaStatus = com.example.weuniteauth.domain.post.Post.MediaStatus.PENDING_MEDIA")
+    int completeMedia(@Param("postId") Long postId, @Param("imageUrl") String imageUrl, @Param("videoUrl") String videoUrl);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.mediaStatus = :status WHERE p.id = :postId")
+    int updateMediaStatus(@Param("postId") Long postId, @Param("status") Post.MediaStatus status);
+
+    /**
+     * Posts created before the cutoff that are still waiting for their media, as (id, author id) rows.
+     */
+    @Query("SELECT p.id, p.user.id FROM Post p " +
+            "WHERE p.mediaStatus = com.example.weuniteauth.domain.post.Post.MediaStatus.PENDING_MEDIA " +
+            "AND p.createdAt < :cutoff AND p.deleted = false ORDER BY p.createdAt")
+    List<Object[]> findStalePendingMedia(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    @Query("SELECT p.user.id FROM Post p WHERE p.id = :postId AND p.deleted = false")
+    Optional<Long> findActiveAuthorId(@Param("postId") Long postId);
+
+    /**
+     * Recomputes the counters of the posts in [fromId, toId] from the source tables and
+     * rewrites only the rows that drifted. Returns the number of repaired posts.
+     * A row is only rewritten while its counters still hold the values read with the counts:
+     * a post whose counter was adjusted concurrently is skipped, since the counts would be
+     * stale, and is left for the next run instead of losing the adjustment.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE post p SET like_count = s.like_count, comment_count = s.comment_count, repost_count = s.repost_count " +
+            "FROM (SELECT p2.id AS id, " +
+            "p2.like_count AS read_like_count, p2.comment_count AS read_comment_count, p2.repost_count AS read_repost_count, " +
+            "(SELECT COUNT(*) FROM tb_post_like l WHERE l.post_id = p2.id) AS like_count, " +
+            "(SELECT COUNT(*) FROM comment c WHERE c.post_id = p2.id AND c.deleted = false) AS comment_count, " +
+            "(SELECT COUNT(*) FROM tb_post_repost r WHERE r.post_id = p2.id) AS repost_count " +
+            "FROM post p2 WHERE p2.id BETWEEN :fromId AND :toId) s " +
+            "WHERE p.id = s.id AND (p.like_count <> s.like_count OR p.comment_count <> s.comment_count OR p.repost_count <> s.repost_count) " +
+            "AND p.like_count = s.read_like_count AND p.comment_count = s.read_comment_count AND p.repost_count = s.read_repost_count",
+            nativeQuery = true)
+    int reconcileCounters(@Param("fromId") long fromId, @Param("toId") long toId);
+
 }
@@ -2,12 +2,14 @@ package com.example.weuniteauth.repository;
 
 import com.example.weuniteauth.domain.report.Report;
 import com.example.weuniteauth.domain.users.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface ReportRepository extends JpaRepository<Report, Long> {
@@ -28,6 +30,37 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
            "ORDER BY COUNT(r) DESC")
     List<Object[]> findAllEntitiesWithReports(@Param("type") Report.ReportType type, @Param("threshold") Long threshold);
 
+    /**
+     * Keyset page of reported entities of one type, most reported first, strictly after the
+     * (reportCount, entityId) cursor. Only reports in the given statuses are counted, so
+     * entities whose reports were all handled drop out of the queue.
+     */
+    @Query("""
+            SELECT r.entityId, COUNT(r) FROM Report r
+            WHERE r.type = :type AND r.status IN :statuses
+            GROUP BY r.entityId
+            HAVING COUNT(r) >= :threshold
+               AND (COUNT(r) < :cursorCount OR (COUNT(r) = :cursorCount AND r.entityId < :cursorId))
+            ORDER BY COUNT(r) DESC, r.entityId DESC
+            """)
+    List<Object[]> findReportQueuePage(@Param("type") Report.ReportType type,
+                                       @Param("statuses") Collection<Report.ReportStatus> statuses,
+                                       @Param("threshold") Long threshold,
+                                       @Param("cursorCount") Long cursorCount,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+
+    @Query("SELECT r FROM Report r JOIN FETCH r.reporter WHERE r.type = :type AND r.entityId IN :entityIds ORDER BY r.createdAt DESC, r.id DESC")
+    List<Report> findWithReporterByTypeAndEntityIdIn(@Param("type") Report.ReportType type,
+                                                     @Param("entityIds") Collection<Long> entityIds);
+
+    @Query("SELECT r.id, r.entityId, u.id, u.username, r.reason, r.status, r.actionTaken, r.createdAt, r.resolvedAt " +
+           "FROM Report r JOIN r.reporter u " +
+           "WHERE r.type = :type AND r.entityId IN :entityIds " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Object[]> findEntriesByTypeAndEntityIdIn(@Param("type") Report.ReportType type,
+                                                  @Param("entityIds") Collection<Long> entityIds);
+
     Long countByEntityIdAndTypeAndStatus(Long entityId, Report.ReportType type, Report.ReportStatus status);
 
     List<Report> findByEntityIdAndTypeAndStatus(Long entityId, Report.ReportType type, Report.ReportStatus status);
@@ -47,6 +80,33 @@ public interface ReportRepository extends JpaRepository<Report, Long> {
     @Query("SELECT r FROM Report r WHERE r.reporter = :user AND r.status = com.example.weuniteauth.domain.report.Report.ReportStatus.PENDING")
     List<Report> findPendingReportsByUser(@Param("user") User user);
 
+    /**
+     * Moves every report of the given entities that is currently in one of {@code fromStatuses}
+     * to {@code status} in a single statement, returning how many reports changed.
+     */
+    @Modifying
+    @Query("UPDATE Report r SET r.status = :status, r.actionTaken = :action, r.resolvedAt = :now, r.updatedAt = :now " +
+           "WHERE r.type = :type AND r.entityId IN :entityIds AND r.status IN :fromStatuses")
+    int transitionReports(@Param("type") Report.ReportType type,
+                          @Param("entityIds") Collection<Long> entityIds,
+                          @Param("fromStatuses") Collection<Report.ReportStatus> fromStatuses,
+                          @Param("status") Report.ReportStatus status,
+                          @Param("action") Report.ActionTaken action,
+                          @Param("now") Instant now);
+
+    /**
+     * Same as {@link #transitionReports} but leaves {@code actionTaken} as it is, for moves such
+     * as PENDING to REVIEWED that do not record a moderation outcome.
+     */
+    @Modifying
+    @Query("UPDATE Report r SET r.status = :status, r.resolvedAt = :now, r.updatedAt = :now " +
+           "WHERE r.type = :type AND r.entityId IN :entityIds AND r.status IN :fromStatuses")
+    int transitionReportStatus(@Param("type") Report.ReportType type,
+                               @Param("entityIds") Collection<Long> entityIds,
+                               @Param("fromStatuses") Collection<Report.ReportStatus> fromStatuses,
+                               @Param("status") Report.ReportStatus status,
+                               @Param("now") Instant now);
+
     @Modifying
     @Query("UPDATE Report r SET r.status = :status, r.actionTaken = :action, r.resolvedByAdminId = :adminId, r.resolvedAt = :resolvedAt WHERE r.id = :reportId")
     void updateReportStatus(
@@ -5,8 +5,10 @@ import com.example.weuniteauth.domain.post.Repost;
 import com.example.weuniteauth.domain.users.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +18,7 @@ public interface RepostRepository extends JpaRepository<Repost, Long> {
 
     @Query("SELECT r FROM Repost r WHERE r.post.deleted = false")
     List<Repost> findAllActiveReposts();
+
+    @Query("SELECT r FROM Repost r JOIN FETCH r.user JOIN FETCH r.post p JOIN FETCH p.user WHERE r.id IN :ids")
+    List<Repost> findAllWithPostByIdIn(@Param("ids") Collection<Long> ids);
 }
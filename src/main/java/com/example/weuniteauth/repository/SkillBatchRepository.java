@@ -0,0 +1,38 @@
+package com.example.weuniteauth.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Batch insert of skill names. Names that already exist, or are inserted concurrently by
+ * another request, are skipped by the unique constraint instead of failing the batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SkillBatchRepository {
+
+    private static final String INSERT_SKILL =
+            "INSERT INTO skill (name) VALUES (?) ON CONFLICT (name) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int[] insertMissing(List<String> names) {
+        return jdbcTemplate.batchUpdate(INSERT_SKILL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, names.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return names.size();
+            }
+        });
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.weuniteauth.repository;
 
 import com.example.weuniteauth.domain.opportunity.Skill;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface SkillRepository extends JpaRepository<Skill, Long> {
@@ -14,4 +17,9 @@ public interface SkillRepository extends JpaRepository<Skill, Long> {
     List<Skill> findAllByName(String name);
 
     List<Skill> findByOpportunitiesTitle(String title);
+
+    List<Skill> findByNameIn(Collection<String> names);
+
+    @Query("SELECT s.name, s.id FROM Skill s ORDER BY s.id")
+    List<Object[]> findNamesAndIds(Pageable pageable);
 }
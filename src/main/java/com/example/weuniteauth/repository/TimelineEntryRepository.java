@@ -0,0 +1,130 @@
+package com.example.weuniteauth.repository;
+
+import com.example.weuniteauth.domain.post.TimelineEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+
+    @Query(value = "SELECT t.post_id, t.repost_id, t.effective_at, t.entry_key FROM tb_timeline_entry t " +
+            "WHERE t.owner_id = :ownerId AND (t.effective_at < :cursorAt OR (t.effective_at = :cursorAt AND t.entry_key < :cursorId)) " +
+            "ORDER BY t.effective_at DESC, t.entry_key DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findEntriesBefore(@Param("ownerId") Long ownerId,
+                                     @Param("cursorAt") Instant cursorAt,
+                                     @Param("cursorId") Long cursorId,
+                                     @Param("limit") int limit);
+
+    /**
+     * Pushes a post into the inbox of the author and of every accepted follower in a single statement.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_timeline_entry (owner_id, post_id, repost_id, author_id, effective_at, entry_key) " +
+            "SELECT owners.owner_id, :postId, NULL, :authorId, :effectiveAt, :entryKey FROM (" +
+            "SELECT f.follower_id AS owner_id FROM follow f WHERE f.followed_id = :authorId AND f.status = 'ACCEPTED' " +
+            "UNION SELECT CAST(:authorId AS BIGINT)) owners " +
+            "ON CONFLICT (owner_id, entry_key) DO NOTHING",
+            nativeQuery = true)
+    int fanOutPost(@Param("authorId") Long authorId,
+                   @Param("postId") Long postId,
+                   @Param("effectiveAt") Instant effectiveAt,
+                   @Param("entryKey") Long entryKey);
+
+    @Modifying
+    @Query(value = "INSERT INTO tb_timeline_entry (owner_id, post_id, repost_id, author_id, effective_at, entry_key) " +
+            "SELECT owners.owner_id, :postId, :repostId, :authorId, :effectiveAt, :entryKey FROM (" +
+            "SELECT f.follower_id AS owner_id FROM follow f WHERE f.followed_id = :authorId AND f.status = 'ACCEPTED' " +
+            "UNION SELECT CAST(:authorId AS BIGINT)) owners " +
+            "ON CONFLICT (owner_id, entry_key) DO NOTHING",
+            nativeQuery = true)
+    int fanOutRepost(@Param("authorId") Long authorId,
+                     @Param("postId") Long postId,
+                     @Param("repostId") Long repostId,
+                     @Param("effectiveAt") Instant effectiveAt,
+                     @Param("entryKey") Long entryKey);
+
+    /**
+     * Pushes the latest posts an author wrote since {@code since} into the inbox of the author
+     * and of every accepted follower; used once an author falls back below the fan-out threshold.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_timeline_entry (owner_id, post_id, repost_id, author_id, effective_at, entry_key) " +
+            "SELECT owners.owner_id, src.id, NULL, :authorId, src.created_at, src.id * 2 FROM (" +
+            "SELECT p.id, p.created_at FROM post p WHERE p.user_id = :authorId AND p.deleted = false AND p.created_at >= :since " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :maxEntries) src CROSS JOIN (" +
+            "SELECT f.follower_id AS owner_id FROM follow f WHERE f.followed_id = :authorId AND f.status = 'ACCEPTED' " +
+            "UNION SELECT CAST(:authorId AS BIGINT)) owners " +
+            "ON CONFLICT (owner_id, entry_key) DO NOTHING",
+            nativeQuery = true)
+    int backfillAuthorPosts(@Param("authorId") Long authorId,
+                            @Param("since") Instant since,
+                            @Param("maxEntries") int maxEntries);
+
+    @Modifying
+    @Query(value = "INSERT INTO tb_timeline_entry (owner_id, post_id, repost_id, author_id, effective_at, entry_key) " +
+            "SELECT owners.owner_id, src.post_id, src.id, :authorId, src.created_at, src.id * 2 + 1 FROM (" +
+            "SELECT r.id, r.post_id, r.created_at FROM tb_post_repost r JOIN post rp ON rp.id = r.post_id " +
+            "WHERE r.user_id = :authorId AND rp.deleted = false AND r.created_at >= :since " +
+            "ORDER BY r.created_at DESC, r.id DESC LIMIT :maxEntries) src CROSS JOIN (" +
+            "SELECT f.follower_id AS owner_id FROM follow f WHERE f.followed_id = :authorId AND f.status = 'ACCEPTED' " +
+            "UNION SELECT CAST(:authorId AS BIGINT)) owners " +
+            "ON CONFLICT (owner_id, entry_key) DO NOTHING",
+            nativeQuery = true)
+    int backfillAuthorReposts(@Param("authorId") Long authorId,
+                              @Param("since") Instant since,
+                              @Param("maxEntries") int maxEntries);
+
+    /**
+     * Refills an inbox from the latest posts and reposts of the owner and of everyone they follow.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO tb_timeline_entry (owner_id, post_id, repost_id, author_id, effective_at, entry_key) " +
+            "SELECT :ownerId, src.post_id, src.repost_id, src.author_id, src.effective_at, src.entry_key FROM (" +
+            "(SELECT p.id AS post_id, CAST(NULL AS BIGINT) AS repost_id, p.user_id AS author_id, p.created_at AS effective_at, p.id * 2 AS entry_key " +
+            "FROM post p WHERE p.deleted = false AND (p.user_id = :ownerId OR p.user_id IN " +
+            "(SELECT f.followed_id FROM follow f WHERE f.follower_id = :ownerId AND f.status = 'ACCEPTED')) " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :maxEntries) " +
+            "UNION ALL " +
+            "(SELECT r.post_id AS post_id, r.id AS repost_id, r.user_id AS author_id, r.created_at AS effective_at, r.id * 2 + 1 AS entry_key " +
+            "FROM tb_post_repost r JOIN post rp ON rp.id = r.post_id WHERE rp.deleted = false AND (r.user_id = :ownerId OR r.user_id IN " +
+            "(SELECT f.followed_id FROM follow f WHERE f.follower_id = :ownerId AND f.status = 'ACCEPTED')) " +
+            "ORDER BY r.created_at DESC, r.id DESC LIMIT :maxEntries) " +
+            "ORDER BY effective_at DESC, entry_key DESC LIMIT :maxEntries) src " +
+            "ON CONFLICT (owner_id, entry_key) DO NOTHING",
+            nativeQuery = true)
+    int rebuildForOwner(@Param("ownerId") Long ownerId, @Param("maxEntries") int maxEntries);
+
+    @Modifying
+    @Query(value = "DELETE FROM tb_timeline_entry WHERE owner_id = :ownerId AND id NOT IN (" +
+            "SELECT t.id FROM tb_timeline_entry t WHERE t.owner_id = :ownerId " +
+            "ORDER BY t.effective_at DESC, t.entry_key DESC LIMIT :maxEntries)",
+            nativeQuery = true)
+    int trimOwner(@Param("ownerId") Long ownerId, @Param("maxEntries") int maxEntries);
+
+    @Query(value = "SELECT t.owner_id FROM tb_timeline_entry t GROUP BY t.owner_id HAVING COUNT(*) > :maxEntries",
+            nativeQuery = true)
+    List<Long> findOwnersAbove(@Param("maxEntries") long maxEntries);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerId = :ownerId")
+    int deleteByOwner(@Param("ownerId") Long ownerId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.postId = :postId")
+    int deleteByPost(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.repostId = :repostId")
+    int deleteByRepost(@Param("repostId") Long repostId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.ownerId = :ownerId AND t.authorId = :authorId")
+    int deleteByOwnerAndAuthor(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+}
@@ -1,15 +1,18 @@
 package com.example.weuniteauth.service;
 
+import com.example.weuniteauth.domain.report.Report;
 import com.example.weuniteauth.dto.CommentDTO;
 import com.example.weuniteauth.dto.OpportunityDTO;
 import com.example.weuniteauth.dto.PostDTO;
 import com.example.weuniteauth.dto.ResponseDTO;
 import com.example.weuniteauth.dto.admin.AdminStatsDTO;
 import com.example.weuniteauth.dto.admin.BanUserRequestDTO;
+import com.example.weuniteauth.dto.admin.BulkReportActionRequestDTO;
 import com.example.weuniteauth.dto.admin.MonthlyDataDTO;
 import com.example.weuniteauth.dto.admin.SuspendUserRequestDTO;
 import com.example.weuniteauth.dto.admin.UserTypeDataDTO;
 import com.example.weuniteauth.dto.admin.OpportunityCategoryWithSkillsDTO;
+import com.example.weuniteauth.dto.report.ReportQueuePageDTO;
 import com.example.weuniteauth.dto.report.ReportSummaryDTO;
 import com.example.weuniteauth.dto.report.ReportedPostDetailDTO;
 import com.example.weuniteauth.dto.report.ReportedOpportunityDetailDTO;
@@ -57,8 +60,8 @@ public class AdminService {
         return adminStatsService.getUserTypeData();
     }
 
-    public List<OpportunityCategoryWithSkillsDTO> getOpportunitiesWithSkills() {
-        return adminStatsService.getOpportunitiesWithSkills();
+    public List<OpportunityCategoryWithSkillsDTO> getOpportunitiesWithSkills(int limit, Integer days) {
+        return adminStatsService.getOpportunitiesWithSkills(limit, days);
     }
 
     // ========== Delegação para AdminReportService ==========
@@ -71,6 +74,10 @@ public class AdminService {
         return adminReportService.getReportedPostsDetails();
     }
 
+    public ReportQueuePageDTO getReportedPostsQueue(Long cursorCount, Long cursorId, int size) {
+        return adminReportService.getReportQueue(Report.ReportType.POST, cursorCount, cursorId, size);
+    }
+
     public ReportedPostDetailDTO getReportedPostDetail(Long postId) {
         return adminReportService.getReportedPostDetail(postId);
     }
@@ -91,6 +98,10 @@ public class AdminService {
         return adminReportService.getReportedOpportunitiesDetails();
     }
 
+    public ReportQueuePageDTO getReportedOpportunitiesQueue(Long cursorCount, Long cursorId, int size) {
+        return adminReportService.getReportQueue(Report.ReportType.OPPORTUNITY, cursorCount, cursorId, size);
+    }
+
     public ReportedOpportunityDetailDTO getReportedOpportunityDetail(Long opportunityId) {
         return adminReportService.getReportedOpportunityDetail(opportunityId);
     }
@@ -111,6 +122,10 @@ public class AdminService {
         return adminReportService.getReportedCommentsDetails();
     }
 
+    public ReportQueuePageDTO getReportedCommentsQueue(Long cursorCount, Long cursorId, int size) {
+        return adminReportService.getReportQueue(Report.ReportType.COMMENT, cursorCount, cursorId, size);
+    }
+
     public ReportedCommentDetailDTO getReportedCommentDetail(Long commentId) {
         return adminReportService.getReportedCommentDetail(commentId);
     }
@@ -135,6 +150,10 @@ public class AdminService {
         return adminReportService.resolveReports(entityId, type);
     }
 
+    public ResponseDTO<String> applyBulkReportAction(BulkReportActionRequestDTO request) {
+        return adminReportService.applyBulkAction(request);
+    }
+
     // ========== Delegação para AdminModerationService ==========
 
     public ResponseDTO<String> banUser(BanUserRequestDTO request) {
@@ -0,0 +1,157 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.ChatAttachmentProperties;
+import com.example.weuniteauth.exceptions.BusinessRuleException;
+import com.example.weuniteauth.exceptions.chat.AttachmentTooLargeException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed storage for chat attachments. Uploads are streamed to a temporary file
+ * while being hashed and size-checked, then moved to a path derived from their SHA-256, so
+ * identical files are stored once. Files are sharded into two levels of subdirectories to
+ * keep directory sizes small.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChatAttachmentStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern EXTENSION = Pattern.compile("^[a-z0-9]{1,10}$");
+    private static final Pattern STORED_NAME = Pattern.compile("^[0-9a-f]{64}(\\.[a-z0-9]{1,10})?$");
+
+    private final ChatAttachmentProperties properties;
+
+    public record StoredAttachment(String hash, String fileName, long size, boolean deduplicated) {
+    }
+
+    /**
+     * Streams the body into storage. A declared length over the limit is rejected before
+     * anything is read; bodies without one are cut off as soon as they cross it.
+     */
+    public StoredAttachment store(InputStream body, long declaredLength, String originalFilename) throws IOException {
+        return store(body, declaredLength, originalFilename, properties.getMaxSizeBytes());
+    }
+
+    /**
+     * Same as {@link #store(InputStream, long, String)} with an explicit size limit, for media
+     * that is not a chat attachment.
+     */
+    public StoredAttachment store(InputStream body, long declaredLength, String originalFilename, long maxSize) throws IOException {
+        if (declaredLength > maxSize) {
+            throw new AttachmentTooLargeException(maxSize);
+        }
+
+        Path root = root();
+        Path tmpDir = Files.createDirectories(root.resolve("tmp"));
+        Path tmp = Files.createTempFile(tmpDir, "upload-", ".part");
+
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            byte[] buffer = new byte[BUFFER_SIZE];
+
+            try (OutputStream out = Files.newOutputStream(tmp, StandardOpenOption.WRITE)) {
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new AttachmentTooLargeException(maxSize);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+
+            if (size == 0) {
+                throw new BusinessRuleException("Arquivo vazio");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String fileName = hash + extensionOf(originalFilename);
+            Path target = resolve(fileName);
+
+            if (Files.exists(target)) {
+                return new StoredAttachment(hash, fileName, size, true);
+            }
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content stored concurrently by another upload
+                return new StoredAttachment(hash, fileName, size, true);
+            }
+            return new StoredAttachment(hash, fileName, size, false);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Returns the stored file for a name produced by {@link #store}, or empty when the name is
+     * malformed or the file does not exist.
+     */
+    public Optional<Path> find(String fileName) {
+        if (fileName == null || !STORED_NAME.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        Path path = resolve(fileName);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * The SHA-256 part of a stored name, usable as a strong ETag since content never changes.
+     */
+    public String hashOf(String fileName) {
+        int dot = fileName.indexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+
+    private Path resolve(String fileName) {
+        return root().resolve(fileName.substring(0, 2)).resolve(fileName.substring(2, 4)).resolve(fileName);
+    }
+
+    /**
+     * Directory under the storage root reserved for derived files such as resized variants;
+     * its name can never collide with a shard directory.
+     */
+    public Path derivedDir(String name) {
+        return root().resolve(name);
+    }
+
+    private Path root() {
+        return Paths.get(properties.getRoot()).toAbsolutePath().normalize();
+    }
+
+    private String extensionOf(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
+        }
+        String extension = originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -49,6 +49,7 @@ public class CommentService {
         );
 
         commentRepository.save(newComment);
+        postRepository.adjustCommentCount(postId, 1);
 
         // Create notification for post owner (if not commenting on own post)
         Long postOwnerId = post.getUser().getId();
@@ -114,6 +115,10 @@ public class CommentService {
             throw new UnauthorizedException("Você precisa estar logado para deletar esse comentário!");
         }
 
+        if (!comment.isDeleted()) {
+            postRepository.adjustCommentCount(comment.getPost().getId(), -1);
+        }
+
         comment.setDeleted(true);
         commentRepository.save(comment);
 
@@ -0,0 +1,62 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.repository.ConversationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Participant ids per conversation, kept in a bounded LRU so authorizing a chat frame does
+ * not load the conversation and its participants. Anything that changes the participants
+ * of a conversation must call {@link #invalidate(Long)}.
+ */
+@Component
+public class ConversationMembershipCache {
+
+    private final ConversationRepository conversationRepository;
+    private final Map<Long, Set<Long>> participants;
+
+    public ConversationMembershipCache(ConversationRepository conversationRepository,
+                                       @Value("${chat.membership-cache.size:10000}") int cacheSize) {
+        this.conversationRepository = conversationRepository;
+        this.participants = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Set<Long>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Returns the participant ids of the conversation, or an empty set when it does not exist.
+     * Empty results are not cached so a conversation created on another node is seen right away.
+     */
+    public Set<Long> getParticipantIds(Long conversationId) {
+        Set<Long> cached = participants.get(conversationId);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<Long> ids = conversationRepository.findParticipantIds(conversationId);
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<Long> loaded = Set.copyOf(ids);
+        participants.put(conversationId, loaded);
+        return loaded;
+    }
+
+    public boolean isParticipant(Long conversationId, Long userId) {
+        return userId != null && getParticipantIds(conversationId).contains(userId);
+    }
+
+    public void invalidate(Long conversationId) {
+        participants.remove(conversationId);
+    }
+}
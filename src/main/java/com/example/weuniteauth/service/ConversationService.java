@@ -26,6 +26,7 @@ public class ConversationService {
     private final UserRepository userRepository;
     private final MessageRepository messageRepository;
     private final ConversationMapper conversationMapper;
+    private final ConversationMembershipCache membershipCache;
 
     @Transactional
     public ConversationDTO createConversation(CreateConversationRequestDTO request) {
@@ -55,6 +56,7 @@ public class ConversationService {
         conversation.setParticipants(participants);
 
         Conversation savedConversation = conversationRepository.save(conversation);
+        membershipCache.invalidate(savedConversation.getId());
         return conversationMapper.toDTO(savedConversation, request.initiatorUserId());
     }
 
@@ -64,9 +66,9 @@ public class ConversationService {
             throw new NotFoundResourceException("User not found with id: " + userId);
         }
 
-        List<Conversation> conversations = conversationRepository.findAllByUserId(userId);
-        return conversations.stream()
-                .map(conversation -> conversationMapper.toDTO(conversation, userId))
+        // Last message and unread count come back with each conversation row
+        return conversationRepository.findInboxByUserId(userId).stream()
+                .map(conversationMapper::fromInboxRow)
                 .collect(Collectors.toList());
     }
 
@@ -0,0 +1,50 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.repository.CommentRepository;
+import com.example.weuniteauth.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Repairs drift in the denormalized like/comment/repost counters of posts and comments.
+ * Counters are recomputed from the source tables in id ranges, each range in its own
+ * transaction, so the job never holds long locks over the whole table.
+ */
+@Service
+@RequiredArgsConstructor
+public class CounterReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterReconciliationService.class);
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+
+    @Value("${counters.reconcile-batch-size:1000}")
+    private long batchSize;
+
+    @Scheduled(fixedDelayString = "${counters.reconcile-interval-ms:3600000}",
+            initialDelayString = "${counters.reconcile-initial-delay-ms:60000}")
+    public void reconcileCounters() {
+        long repairedPosts = reconcileInBatches(postRepository.findMaxId(), postRepository::reconcileCounters);
+        long repairedComments = reconcileInBatches(commentRepository.findMaxId(), commentRepository::reconcileLikeCounts);
+
+        if (repairedPosts > 0 || repairedComments > 0) {
+            logger.warn("Counter reconciliation repaired {} posts and {} comments", repairedPosts, repairedComments);
+        }
+    }
+
+    private long reconcileInBatches(Long maxId, LongBinaryOperator reconcileRange) {
+        long repaired = 0;
+        long upperBound = maxId != null ? maxId : 0;
+        for (long fromId = 1; fromId <= upperBound; fromId += batchSize) {
+            repaired += reconcileRange.applyAsLong(fromId, fromId + batchSize - 1);
+        }
+        return repaired;
+    }
+}
@@ -25,6 +25,7 @@ public class FollowService {
     private final FollowMapper followMapper;
     private final UserService userService;
     private final NotificationService notificationService;
+    private final TimelineService timelineService;
 
     @Transactional
     public ResponseDTO<FollowDTO> followUser(User follower, User followed) {
@@ -51,6 +52,7 @@ public class FollowService {
     @Transactional
     public ResponseDTO<FollowDTO> unfollowUser(Follow follow) {
         followRepository.delete(follow);
+        timelineService.removeAuthor(follow.getFollower().getId(), follow.getFollowed().getId());
 
         return followMapper.toResponseDTO("Deixou de seguir com sucesso", follow);
     }
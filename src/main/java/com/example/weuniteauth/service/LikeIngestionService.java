@@ -0,0 +1,393 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.WebSocketBrokerProperties;
+import com.example.weuniteauth.exceptions.post.PostNotFoundException;
+import com.example.weuniteauth.exceptions.user.UserNotFoundException;
+import com.example.weuniteauth.repository.LikeBatchRepository;
+import com.example.weuniteauth.repository.LikeBatchRepository.UserPostPair;
+import com.example.weuniteauth.repository.LikeRepository;
+import com.example.weuniteauth.repository.PostRepository;
+import com.example.weuniteauth.repository.user.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind ingestion for post like toggles. Toggles are collapsed in memory per
+ * (post, user) so only the final state of a burst is written, then flushed periodically
+ * with JDBC batches and bulk counter updates. Pending toggles are exposed as an overlay
+ * so the feed, the single post and the likes lists see them before they reach the database.
+ * <p>
+ * The buffer lives in the memory of one node, so two toggles of the same (post, user) that
+ * reach different nodes would be written in flush order rather than click order. Write-behind
+ * is therefore limited to single-node deployments and turns itself off when the STOMP broker
+ * relay, which is how several nodes are run, is configured.
+ */
+@Service
+public class LikeIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeIngestionService.class);
+
+    private final LikeRepository likeRepository;
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final LikeBatchRepository likeBatchRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final WebSocketBrokerProperties brokerProperties;
+
+    // postId -> (userId -> pending toggle)
+    private final ConcurrentHashMap<Long, Map<Long, PendingLike>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    // Toggles drained by the running flush, visible until its transaction has committed
+    private volatile Map<Long, Map<Long, PendingLike>> inFlight = Map.of();
+
+    @Value("${likes.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${likes.write-behind.max-pending:10000}")
+    private int maxPending;
+
+    // Flushes a toggle may fail before it is given up on
+    private static final int MAX_ATTEMPTS = 3;
+
+    record PendingLike(Long userId, Long postId, Long postOwnerId, boolean persistedLiked, boolean liked, int attempts) {
+
+        boolean changed() {
+            return liked != persistedLiked;
+        }
+
+        PendingLike toggled() {
+            return new PendingLike(userId, postId, postOwnerId, persistedLiked, !liked, attempts);
+        }
+    }
+
+    public LikeIngestionService(LikeRepository likeRepository,
+                                PostRepository postRepository,
+                                UserRepository userRepository,
+                                LikeBatchRepository likeBatchRepository,
+                                NotificationService notificationService,
+                                PlatformTransactionManager transactionManager,
+                                WebSocketBrokerProperties brokerProperties) {
+        this.likeRepository = likeRepository;
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.likeBatchRepository = likeBatchRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.brokerProperties = brokerProperties;
+    }
+
+    @PostConstruct
+    void requireSingleNode() {
+        if (enabled && brokerProperties.getMode() == WebSocketBrokerProperties.Mode.RELAY) {
+            logger.warn("Curtidas em write-behind desativadas: o broker em modo RELAY indica vários nós, " +
+                    "e o buffer em memória de cada nó não preservaria a ordem dos cliques");
+            enabled = false;
+        }
+    }
+
+    /**
+     * Whether toggles should go through the pipeline. Once the buffer is full, callers fall
+     * back to the synchronous path until the next flush drains it.
+     */
+    public boolean accepts() {
+        return enabled && pendingCount.get() < maxPending;
+    }
+
+    /**
+     * Same as {@link #accepts()}, but a toggle that already has one pending for the same
+     * (user, post) is always taken: writing it synchronously would be undone or reversed by
+     * the stale pending toggle on the next flush.
+     */
+    public boolean accepts(Long userId, Long postId) {
+        return accepts() || (enabled && pendingLikeState(postId, userId) != null);
+    }
+
+    /**
+     * Records a like toggle and returns the resulting state: true when the post ends up liked.
+     */
+    public boolean toggle(Long userId, Long postId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException();
+        }
+
+        Long postOwnerId = postRepository.findActiveAuthorId(postId)
+                .orElseThrow(PostNotFoundException::new);
+
+        // Resolve the persisted state outside the map lock; only used when no toggle is pending
+        Boolean persistedLiked = pendingLikeState(postId, userId) == null ? persistedState(userId, postId) : null;
+
+        PendingLike[] result = new PendingLike[1];
+        pending.compute(postId, (id, byUser) -> {
+            Map<Long, PendingLike> toggles = byUser != null ? byUser : new ConcurrentHashMap<>();
+            PendingLike current = toggles.get(userId);
+
+            PendingLike next;
+            if (current != null) {
+                next = current.toggled();
+            } else {
+                boolean persisted = persistedLiked != null ? persistedLiked : persistedState(userId, postId);
+                next = new PendingLike(userId, postId, postOwnerId, persisted, !persisted, 0);
+                pendingCount.incrementAndGet();
+            }
+
+            toggles.put(userId, next);
+            result[0] = next;
+            return toggles;
+        });
+
+        return result[0].liked();
+    }
+
+    /**
+     * Net change that pending toggles will apply to the like counter of a post.
+     */
+    public long pendingLikeDelta(Long postId) {
+        return deltaOf(pending.get(postId)) + deltaOf(inFlight.get(postId));
+    }
+
+    /**
+     * Pending like state of a user on a post, or null when nothing is pending.
+     */
+    public Boolean pendingLikeState(Long postId, Long userId) {
+        PendingLike toggle = find(pending.get(postId), userId);
+        if (toggle == null) {
+            toggle = find(inFlight.get(postId), userId);
+        }
+        return toggle != null ? toggle.liked() : null;
+    }
+
+    /**
+     * Pending like states on a post by user id, for reads that list who liked it.
+     */
+    public Map<Long, Boolean> pendingLikesOnPost(Long postId) {
+        Map<Long, Boolean> states = new HashMap<>();
+        // Toggles still in the buffer were recorded after the in-flight ones
+        collectStates(inFlight.get(postId), states);
+        collectStates(pending.get(postId), states);
+        return states;
+    }
+
+    /**
+     * Pending like states of a user by post id, for reads that list what the user liked.
+     * Scans the buffer, which {@code likes.write-behind.max-pending} keeps bounded.
+     */
+    public Map<Long, Boolean> pendingLikesOfUser(Long userId) {
+        Map<Long, Boolean> states = new HashMap<>();
+        for (Map<Long, PendingLike> byUser : inFlight.values()) {
+            collectState(byUser.get(userId), states);
+        }
+        for (Map<Long, PendingLike> byUser : pending.values()) {
+            collectState(byUser.get(userId), states);
+        }
+        return states;
+    }
+
+    @Scheduled(fixedDelayString = "${likes.write-behind.flush-interval-ms:500}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        ConcurrentHashMap<Long, Map<Long, PendingLike>> batch = new ConcurrentHashMap<>();
+        inFlight = batch;
+
+        try {
+            // Move each post atomically so a concurrent toggle lands either in this batch or in the next one
+            for (Long postId : pending.keySet()) {
+                pending.computeIfPresent(postId, (id, byUser) -> {
+                    batch.put(id, byUser);
+                    return null;
+                });
+            }
+
+            List<PendingLike> toggles = batch.values().stream()
+                    .flatMap(byUser -> byUser.values().stream())
+                    .toList();
+            pendingCount.addAndGet(-toggles.size());
+
+            // Toggles that ended where they started collapse to nothing
+            List<PendingLike> changed = toggles.stream().filter(PendingLike::changed).toList();
+            if (changed.isEmpty()) {
+                return;
+            }
+
+            List<PendingLike> created;
+            try {
+                created = transactionTemplate.execute(status -> applyBatch(changed));
+            } catch (Exception e) {
+                // One bad row must not roll back the whole batch; find it by writing row by row
+                logger.warn("Falha ao gravar lote de {} curtidas, gravando individualmente: {}", changed.size(), e.getMessage());
+                created = applyIndividually(changed);
+            }
+            notifyCreated(created);
+        } catch (Exception e) {
+            logger.error("Falha ao gravar {} curtidas pendentes", batch.size(), e);
+        } finally {
+            inFlight = Map.of();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private List<PendingLike> applyBatch(List<PendingLike> changed) {
+        List<PendingLike> likes = changed.stream().filter(PendingLike::liked).toList();
+        List<PendingLike> unlikes = changed.stream().filter(toggle -> !toggle.liked()).toList();
+
+        Map<Long, Long> deltaByPostId = new HashMap<>();
+        List<PendingLike> created = new ArrayList<>();
+
+        // Counters follow the rows actually affected, so replays and races do not drift them.
+        // Drivers reporting SUCCESS_NO_INFO are counted as applied; the reconciliation job repairs any gap.
+        if (!likes.isEmpty()) {
+            int[] inserted = likeBatchRepository.insertPostLikes(toPairs(likes));
+            for (int i = 0; i < inserted.length; i++) {
+                if (inserted[i] != 0) {
+                    deltaByPostId.merge(likes.get(i).postId(), 1L, Long::sum);
+                    created.add(likes.get(i));
+                }
+            }
+        }
+
+        if (!unlikes.isEmpty()) {
+            int[] deleted = likeBatchRepository.deletePostLikes(toPairs(unlikes));
+            for (int i = 0; i < deleted.length; i++) {
+                if (deleted[i] != 0) {
+                    deltaByPostId.merge(unlikes.get(i).postId(), -1L, Long::sum);
+                }
+            }
+        }
+
+        likeBatchRepository.adjustPostLikeCounts(deltaByPostId);
+        return created;
+    }
+
+    private List<PendingLike> applyIndividually(List<PendingLike> changed) {
+        List<PendingLike> created = new ArrayList<>();
+        for (PendingLike toggle : changed) {
+            try {
+                List<PendingLike> applied = transactionTemplate.execute(status -> applyBatch(List.of(toggle)));
+                if (applied != null) {
+                    created.addAll(applied);
+                }
+            } catch (DataIntegrityViolationException e) {
+                // The post or the user no longer exists, so there is nothing left to like
+                logger.warn("Curtida do usuário {} no post {} descartada: {}", toggle.userId(), toggle.postId(), e.getMessage());
+                restore(toggle, false);
+            } catch (Exception e) {
+                logger.warn("Falha ao gravar curtida do usuário {} no post {}: {}", toggle.userId(), toggle.postId(), e.getMessage());
+                restore(toggle, true);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Puts a toggle that was not written back into the buffer, or only repairs a newer toggle
+     * for the same key when {@code retry} is false or the attempts are exhausted. A newer
+     * toggle was recorded assuming this one had been applied, so its persisted state is reset
+     * to what the database still holds.
+     */
+    private void restore(PendingLike failed, boolean retry) {
+        int attempts = failed.attempts() + 1;
+        boolean requeue = retry && attempts < MAX_ATTEMPTS;
+        if (retry && !requeue) {
+            logger.error("Curtida do usuário {} no post {} descartada após {} tentativas", failed.userId(), failed.postId(), attempts);
+        }
+
+        pending.compute(failed.postId(), (id, byUser) -> {
+            Map<Long, PendingLike> toggles = byUser != null ? byUser : new ConcurrentHashMap<>();
+            PendingLike newer = toggles.get(failed.userId());
+
+            if (newer != null) {
+                toggles.put(failed.userId(), new PendingLike(failed.userId(), failed.postId(), failed.postOwnerId(),
+                        failed.persistedLiked(), newer.liked(), requeue ? attempts : newer.attempts()));
+            } else if (requeue) {
+                toggles.put(failed.userId(), new PendingLike(failed.userId(), failed.postId(), failed.postOwnerId(),
+                        failed.persistedLiked(), failed.liked(), attempts));
+                pendingCount.incrementAndGet();
+            }
+            return toggles.isEmpty() ? null : toggles;
+        });
+    }
+
+    private void notifyCreated(List<PendingLike> created) {
+        if (created == null) {
+            return;
+        }
+
+        for (PendingLike like : created) {
+            if (like.postOwnerId().equals(like.userId())) {
+                continue;
+            }
+            try {
+                notificationService.createNotification(like.postOwnerId(), "POST_LIKE", like.userId(), like.postId(), null);
+            } catch (Exception e) {
+                logger.warn("Falha ao notificar curtida do usuário {} no post {}", like.userId(), like.postId(), e);
+            }
+        }
+    }
+
+    private boolean persistedState(Long userId, Long postId) {
+        PendingLike committing = find(inFlight.get(postId), userId);
+        if (committing != null) {
+            return committing.liked();
+        }
+        return likeRepository.existsByUserIdAndPostId(userId, postId);
+    }
+
+    private static PendingLike find(Map<Long, PendingLike> byUser, Long userId) {
+        return byUser != null ? byUser.get(userId) : null;
+    }
+
+    private static void collectStates(Map<Long, PendingLike> byUser, Map<Long, Boolean> states) {
+        if (byUser != null) {
+            byUser.values().forEach(toggle -> states.put(toggle.userId(), toggle.liked()));
+        }
+    }
+
+    private static void collectState(PendingLike toggle, Map<Long, Boolean> states) {
+        if (toggle != null) {
+            states.put(toggle.postId(), toggle.liked());
+        }
+    }
+
+    private static long deltaOf(Map<Long, PendingLike> byUser) {
+        if (byUser == null) {
+            return 0;
+        }
+
+        long delta = 0;
+        for (PendingLike toggle : byUser.values()) {
+            if (toggle.changed()) {
+                delta += toggle.liked() ? 1 : -1;
+            }
+        }
+        return delta;
+    }
+
+    private static List<UserPostPair> toPairs(List<PendingLike> toggles) {
+        return toggles.stream()
+                .map(toggle -> new UserPostPair(toggle.userId(), toggle.postId()))
+                .toList();
+    }
+}
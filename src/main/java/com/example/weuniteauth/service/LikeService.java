@@ -20,7 +20,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
@@ -33,10 +37,19 @@ public class LikeService {
     private final LikeRepository likeRepository;
     private final LikeMapper likeMapper;
     private final NotificationService notificationService;
+    private final LikeIngestionService likeIngestionService;
 
     @Transactional
     public ResponseDTO<LikeDTO> toggleLike(Long userId, Long postId) {
 
+        // Write-behind path: the toggle is buffered and persisted by the next flush
+        if (likeIngestionService.accepts(userId, postId)) {
+            boolean liked = likeIngestionService.toggle(userId, postId);
+
+            // Built from the ids alone; mapping entity proxies would load the user, the post and its author
+            return likeMapper.toPendingResponseDTO(liked ? "Curtida criada com sucesso!" : "Curtida deletada com sucesso!", userId, postId);
+        }
+
         User user = userRepository.findById(userId).
                 orElseThrow(UserNotFoundException::new);
 
@@ -50,6 +63,7 @@ public class LikeService {
             Like newLike = new Like(post, user);
             post.addLike(newLike);
             likeRepository.save(newLike);
+            postRepository.adjustLikeCount(postId, 1);
 
             // Create notification for post owner (if not liking own post)
             Long postOwnerId = post.getUser().getId();
@@ -67,6 +81,7 @@ public class LikeService {
         } else {
             post.removeLike(existingLike);
             likeRepository.delete(existingLike);
+            postRepository.adjustLikeCount(postId, -1);
             return likeMapper.toResponseDTO("Curtida deletada com sucesso!", existingLike);
         }
 
@@ -88,6 +103,7 @@ public class LikeService {
             Like newLike = new Like(comment, user);
             comment.addLike(newLike);
             likeRepository.save(newLike);
+            commentRepository.adjustLikeCount(commentId, 1);
 
             // Create notification for comment owner (if not liking own comment)
             Long commentOwnerId = comment.getUser().getId();
@@ -105,6 +121,7 @@ public class LikeService {
         } else {
             comment.removeLike(existingLike);
             likeRepository.delete(existingLike);
+            commentRepository.adjustLikeCount(commentId, -1);
             return likeMapper.toResponseDTO("Curtida deletada com sucesso!", existingLike);
         }
 
@@ -117,7 +134,7 @@ public class LikeService {
 
         Set<Like> likes = likeRepository.findByUser(user);
 
-        return likeMapper.toResponseDTO("Likes consultados com sucesso!", likes);
+        return new ResponseDTO<>("Likes consultados com sucesso!", withPendingLikes(user, likes, true));
     }
 
     @Transactional(readOnly = true)
@@ -129,7 +146,46 @@ public class LikeService {
 
         Page<Like> likes = likeRepository.findByUser(user, pageable);
 
-        return likeMapper.toResponseDTO("Likes consultados com sucesso!", likes.getContent());
+        // Likes still buffered are the newest, so they only join the first page
+        return new ResponseDTO<>("Likes consultados com sucesso!", withPendingLikes(user, likes.getContent(), pagina == 0));
+    }
+
+    /**
+     * Applies the user's like toggles still buffered by the write-behind pipeline to the
+     * persisted likes: pending unlikes are dropped and, when {@code addPending} is set,
+     * pending likes are listed first.
+     */
+    private List<LikeDTO> withPendingLikes(User user, Collection<Like> likes, boolean addPending) {
+        Map<Long, Boolean> pendingLikes = likeIngestionService.pendingLikesOfUser(user.getId());
+        if (pendingLikes.isEmpty()) {
+            return likeMapper.mapLikes(new ArrayList<>(likes));
+        }
+
+        List<Like> persisted = likes.stream()
+                .filter(like -> like.getPost() == null || !Boolean.FALSE.equals(pendingLikes.get(like.getPost().getId())))
+                .toList();
+
+        List<Like> merged = new ArrayList<>();
+        if (addPending) {
+            Set<Long> listed = new HashSet<>();
+            persisted.forEach(like -> {
+                if (like.getPost() != null) {
+                    listed.add(like.getPost().getId());
+                }
+            });
+            List<Long> newPostIds = pendingLikes.entrySet().stream()
+                    .filter(entry -> entry.getValue() && !listed.contains(entry.getKey()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            if (!newPostIds.isEmpty()) {
+                postRepository.findAllWithUserByIdIn(newPostIds).stream()
+                        .filter(post -> !post.isDeleted())
+                        .forEach(post -> merged.add(new Like(post, user)));
+            }
+        }
+        merged.addAll(persisted);
+
+        return likeMapper.mapLikes(merged);
     }
 
     @Transactional(readOnly = true)
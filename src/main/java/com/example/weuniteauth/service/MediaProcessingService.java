@@ -0,0 +1,364 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.MediaProcessingProperties;
+import com.example.weuniteauth.domain.post.MediaUploadFailure;
+import com.example.weuniteauth.domain.post.MediaUploadRequestedEvent;
+import com.example.weuniteauth.domain.post.Post;
+import com.example.weuniteauth.dto.post.PostMediaEventDTO;
+import com.example.weuniteauth.repository.MediaUploadFailureRepository;
+import com.example.weuniteauth.repository.PostRepository;
+import com.example.weuniteauth.service.media.MediaKind;
+import com.example.weuniteauth.service.media.MediaStorage;
+import com.example.weuniteauth.service.media.MediaUpload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Uploads post media off the request thread. The post is committed first in PENDING_MEDIA,
+ * then a bounded worker pool uploads the spooled file with retries and either attaches the
+ * URL or records a dead letter; both outcomes are pushed on /topic/posts/{postId}/media.
+ *
+ * Uploads that find the queue full are deferred, not failed: the post stays PENDING_MEDIA and
+ * a scheduled drain hands the job to the pool once it has room.
+ *
+ * Queued and deferred jobs live only in memory. On startup, posts left in PENDING_MEDIA by a
+ * previous run are re-queued from their spool file, which is named after the post, or marked
+ * FAILED when the file is gone. Dead letters are purged with their files after the retention window.
+ */
+@Service
+public class MediaProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaProcessingService.class);
+    private static final int RECOVERY_BATCH_SIZE = 500;
+    private static final int PURGE_BATCH_SIZE = 500;
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[A-Za-z0-9]{1,10}");
+
+    private final MediaStorage mediaStorage;
+    private final PostRepository postRepository;
+    private final MediaUploadFailureRepository failureRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MediaProcessingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter completedCounter;
+    private final Counter retriedCounter;
+    private final Counter deadLetteredCounter;
+
+    // Jobs rejected by a full pool; their files are already spooled, so only the event waits here
+    private final ConcurrentLinkedQueue<MediaUploadRequestedEvent> deferred = new ConcurrentLinkedQueue<>();
+
+    private ThreadPoolExecutor executor;
+
+    public MediaProcessingService(MediaStorage mediaStorage,
+                                  PostRepository postRepository,
+                                  MediaUploadFailureRepository failureRepository,
+                                  SimpMessagingTemplate messagingTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MediaProcessingProperties properties,
+                                  MeterRegistry meterRegistry,
+                                  PlatformTransactionManager transactionManager) {
+        this.mediaStorage = mediaStorage;
+        this.postRepository = postRepository;
+        this.failureRepository = failureRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        // Own transactions: the rejection path runs inside the poster's after-commit callback
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.completedCounter = meterRegistry.counter("media.processing.completed");
+        this.retriedCounter = meterRegistry.counter("media.processing.retried");
+        this.deadLetteredCounter = meterRegistry.counter("media.processing.dead_lettered");
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                properties.getWorkers(), properties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "media-worker-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("media.processing.queue.size", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("media.processing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("media.processing.deferred", deferred, ConcurrentLinkedQueue::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Uploads de mídia ainda em andamento no desligamento; os posts ficarão em PENDING_MEDIA");
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Copies the upload to the spool directory and schedules it for after the current
+     * transaction commits. Must be called from the request thread, while the multipart file exists.
+     */
+    public void submit(Long postId, Long userId, MultipartFile media) {
+        Path spooled = spool(postId, media);
+        eventPublisher.publishEvent(new MediaUploadRequestedEvent(postId, userId, media.getContentType(), media.getOriginalFilename(), spooled));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUploadRequested(MediaUploadRequestedEvent event) {
+        try {
+            executor.execute(() -> process(event));
+        } catch (RejectedExecutionException e) {
+            // Running the upload here would keep the request's connection; defer it until the pool has room
+            logger.warn("Fila de mídia cheia, upload do post {} adiado para reprocessamento", event.postId());
+            deferred.add(event);
+        }
+    }
+
+    /**
+     * Hands deferred uploads back to the pool, oldest first, until it is full again.
+     */
+    @Scheduled(fixedDelayString = "${media.processing.requeue-interval-ms:5000}")
+    public void requeueDeferred() {
+        MediaUploadRequestedEvent job;
+        while ((job = deferred.peek()) != null) {
+            MediaUploadRequestedEvent next = job;
+            try {
+                executor.execute(() -> process(next));
+            } catch (RejectedExecutionException e) {
+                return;
+            }
+            deferred.poll();
+        }
+    }
+
+    /**
+     * Recovers uploads lost when the previous run stopped with jobs still queued or running.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverStalePending() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(properties.getStaleAfterMinutes()));
+        List<Object[]> stale = postRepository.findStalePendingMedia(cutoff, PageRequest.of(0, RECOVERY_BATCH_SIZE));
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        logger.info("Recuperando {} uploads de mídia interrompidos", stale.size());
+        for (Object[] row : stale) {
+            Long postId = (Long) row[0];
+            Long userId = (Long) row[1];
+
+            Optional<Path> spooled = findSpooled(postId);
+            if (spooled.isPresent()) {
+                String filename = spooled.get().getFileName().toString();
+                String contentType = MediaTypeFactory.getMediaType(filename).map(MediaType::toString).orElse(null);
+                onUploadRequested(new MediaUploadRequestedEvent(postId, userId, contentType, filename, spooled.get()));
+            } else {
+                logger.warn("Arquivo temporário da mídia do post {} não encontrado, marcando como FAILED", postId);
+                markFailed(postId);
+            }
+        }
+    }
+
+    /**
+     * Removes dead letters past the retention window together with their spooled files.
+     */
+    @Scheduled(fixedDelayString = "${media.processing.purge-interval-ms:3600000}")
+    public void purgeDeadLetters() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(properties.getDeadLetterRetentionHours()));
+        List<MediaUploadFailure> expired = failureRepository.findByFailedAtBeforeOrderByFailedAt(cutoff, PageRequest.of(0, PURGE_BATCH_SIZE));
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        expired.forEach(failure -> deleteQuietly(Paths.get(failure.getSpoolPath())));
+        transactionTemplate.executeWithoutResult(status -> failureRepository.deleteAllInBatch(expired));
+        logger.info("{} falhas de upload de mídia expiradas removidas", expired.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onUploadAbandoned(MediaUploadRequestedEvent event) {
+        deleteQuietly(event.spoolPath());
+    }
+
+    void process(MediaUploadRequestedEvent job) {
+        int maxAttempts = Math.max(properties.getMaxAttempts(), 1);
+        String lastError = null;
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                String url = upload(job);
+
+                boolean isVideo = job.contentType() != null && job.contentType().startsWith("video/");
+                String imageUrl = isVideo ? null : url;
+                String videoUrl = isVideo ? url : null;
+
+                Integer updated = transactionTemplate.execute(status -> postRepository.completeMedia(job.postId(), imageUrl, videoUrl));
+                if (updated != null && updated > 0) {
+                    push(new PostMediaEventDTO(job.postId(), Post.MediaStatus.READY.name(), imageUrl, videoUrl));
+                }
+                deleteQuietly(job.spoolPath());
+                completedCounter.increment();
+                return;
+            } catch (Exception e) {
+                lastError = e.getMessage();
+                logger.warn("Falha no upload da mídia do post {} (tentativa {}/{}): {}",
+                        job.postId(), attempt, maxAttempts, e.getMessage());
+            }
+
+            if (attempt < maxAttempts) {
+                retriedCounter.increment();
+                if (!sleep(properties.getRetryBackoffMs() << (attempt - 1))) {
+                    break;
+                }
+            }
+        }
+
+        deadLetter(job, maxAttempts, lastError);
+    }
+
+    private String upload(MediaUploadRequestedEvent job) throws IOException {
+        MediaUpload upload = new MediaUpload(MediaKind.POST, job.userId().toString(), job.contentType(), job.originalFilename());
+        try (InputStream in = Files.newInputStream(job.spoolPath())) {
+            return mediaStorage.store(upload, in, Files.size(job.spoolPath())).url();
+        }
+    }
+
+    private void deadLetter(MediaUploadRequestedEvent job, int attempts, String lastError) {
+        try {
+            MediaUploadFailure failure = new MediaUploadFailure();
+            failure.setPostId(job.postId());
+            failure.setUserId(job.userId());
+            failure.setContentType(job.contentType());
+            failure.setOriginalFilename(job.originalFilename());
+            failure.setSpoolPath(job.spoolPath().toString());
+            failure.setAttempts(attempts);
+            failure.setLastError(lastError != null && lastError.length() > 1000 ? lastError.substring(0, 1000) : lastError);
+            failure.setFailedAt(Instant.now());
+
+            transactionTemplate.executeWithoutResult(status -> {
+                failureRepository.save(failure);
+                postRepository.updateMediaStatus(job.postId(), Post.MediaStatus.FAILED);
+            });
+            push(new PostMediaEventDTO(job.postId(), Post.MediaStatus.FAILED.name(), null, null));
+        } catch (Exception e) {
+            logger.error("Não foi possível registrar a falha de upload do post {}", job.postId(), e);
+        }
+        deadLetteredCounter.increment();
+    }
+
+    private void markFailed(Long postId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> postRepository.updateMediaStatus(postId, Post.MediaStatus.FAILED));
+            push(new PostMediaEventDTO(postId, Post.MediaStatus.FAILED.name(), null, null));
+        } catch (Exception e) {
+            logger.error("Não foi possível marcar a mídia do post {} como FAILED", postId, e);
+        }
+    }
+
+    private Optional<Path> findSpooled(Long postId) {
+        Path dir = Paths.get(properties.getSpoolDir());
+        if (!Files.isDirectory(dir)) {
+            return Optional.empty();
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "post-media-" + postId + ".*")) {
+            Iterator<Path> iterator = files.iterator();
+            return iterator.hasNext() ? Optional.of(iterator.next()) : Optional.empty();
+        } catch (IOException e) {
+            logger.warn("Não foi possível procurar o arquivo temporário do post {}: {}", postId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void push(PostMediaEventDTO event) {
+        try {
+            messagingTemplate.convertAndSend("/topic/posts/" + event.postId() + "/media", event);
+        } catch (Exception e) {
+            logger.warn("Falha ao enviar evento de mídia do post {}: {}", event.postId(), e.getMessage());
+        }
+    }
+
+    // Named after the post, keeping the extension, so a restart can find the file and its content type again
+    private Path spool(Long postId, MultipartFile media) {
+        try {
+            Path dir = Files.createDirectories(Paths.get(properties.getSpoolDir()));
+            Path spooled = dir.resolve("post-media-" + postId + "." + extension(media.getOriginalFilename()));
+            try (InputStream in = media.getInputStream()) {
+                Files.copy(in, spooled, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return spooled;
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao fazer upload do arquivo do post", e);
+        }
+    }
+
+    private static String extension(String filename) {
+        String extension = StringUtils.getFilenameExtension(filename);
+        return extension != null && SAFE_EXTENSION.matcher(extension).matches() ? extension : "upload";
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o arquivo temporário {}", path);
+        }
+    }
+}
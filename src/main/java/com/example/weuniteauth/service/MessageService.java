@@ -1,22 +1,28 @@
 package com.example.weuniteauth.service;
 
 import com.example.weuniteauth.domain.chat.Conversation;
+import com.example.weuniteauth.domain.chat.ConversationReadCursor;
 import com.example.weuniteauth.domain.chat.Message;
-import com.example.weuniteauth.domain.users.User;
 import com.example.weuniteauth.dto.chat.MessageDTO;
+import com.example.weuniteauth.dto.chat.MessagePageDTO;
 import com.example.weuniteauth.dto.chat.SendMessageRequestDTO;
 import com.example.weuniteauth.exceptions.NotFoundResourceException;
 import com.example.weuniteauth.exceptions.UnauthorizedException;
 import com.example.weuniteauth.mapper.MessageMapper;
+import com.example.weuniteauth.repository.ConversationReadCursorRepository;
 import com.example.weuniteauth.repository.ConversationRepository;
 import com.example.weuniteauth.repository.MessageRepository;
 import com.example.weuniteauth.repository.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -24,46 +30,53 @@ public class MessageService {
 
     private final MessageRepository messageRepository;
     private final ConversationRepository conversationRepository;
+    private final ConversationReadCursorRepository readCursorRepository;
     private final UserRepository userRepository;
     private final MessageMapper messageMapper;
     private final NotificationService notificationService;
+    private final ConversationMembershipCache membershipCache;
 
+    private static final int MAX_MESSAGE_PAGE_SIZE = 100;
+    private static final Instant HISTORY_END = Instant.parse("9999-12-31T23:59:59Z");
+
+    /**
+     * Sends a message without loading the conversation or the sender: membership comes from
+     * {@link ConversationMembershipCache} and both associations are set as references.
+     */
     @Transactional
     public MessageDTO sendMessage(SendMessageRequestDTO request) {
-        Conversation conversation = conversationRepository.findById(request.conversationId())
-                .orElseThrow(() -> new NotFoundResourceException("Conversation not found with id: " + request.conversationId()));
-
-        User sender = userRepository.findById(request.senderId())
-                .orElseThrow(() -> new NotFoundResourceException("User not found with id: " + request.senderId()));
+        Long conversationId = request.conversationId();
+        Long senderId = request.senderId();
 
-        boolean isParticipant = conversation.getParticipants().stream()
-                .anyMatch(user -> user.getId().equals(sender.getId()));
+        Set<Long> participantIds = membershipCache.getParticipantIds(conversationId);
+        if (participantIds.isEmpty()) {
+            throw new NotFoundResourceException("Conversation not found with id: " + conversationId);
+        }
 
-        if (!isParticipant) {
+        if (!participantIds.contains(senderId)) {
             throw new UnauthorizedException("User is not a participant of this conversation");
         }
 
         Message message = new Message();
-        message.setConversation(conversation);
-        message.setSender(sender);
+        message.setConversation(conversationRepository.getReferenceById(conversationId));
+        message.setSender(userRepository.getReferenceById(senderId));
         message.setContent(request.content());
         message.setType(request.type());
         message.setRead(false);
 
         Message savedMessage = messageRepository.save(message);
 
-        conversation.setUpdatedAt(Instant.now());
-        conversationRepository.save(conversation);
+        conversationRepository.touchUpdatedAt(conversationId, Instant.now());
+        conversationRepository.advanceLastMessage(conversationId, savedMessage.getId(), savedMessage.getCreatedAt());
 
-        Long senderId = sender.getId();
-        conversation.getParticipants().stream()
-                .filter(participant -> !participant.getId().equals(senderId))
-                .forEach(recipient -> {
+        participantIds.stream()
+                .filter(participantId -> !participantId.equals(senderId))
+                .forEach(recipientId -> {
                     notificationService.createNotification(
-                            recipient.getId(),
+                            recipientId,
                             "NEW_MESSAGE",
                             senderId,
-                            conversation.getId(),
+                            conversationId,
                             null
                     );
                 });
@@ -84,20 +97,88 @@ public class MessageService {
         }
 
         List<Message> messages = messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId);
-        return messageMapper.toDTOList(messages);
+        return withReadReceipts(conversationId, messageMapper.toDTOList(messages));
+    }
+
+    @Transactional(readOnly = true)
+    public MessagePageDTO getConversationMessagesPage(Long conversationId, Long userId, Long beforeId, int size) {
+        Conversation conversation = conversationRepository.findById(conversationId)
+                .orElseThrow(() -> new NotFoundResourceException("Conversation not found with id: " + conversationId));
+
+        boolean isParticipant = conversation.getParticipants().stream()
+                .anyMatch(user -> user.getId().equals(userId));
+
+        if (!isParticipant) {
+            throw new UnauthorizedException("User is not a participant of this conversation");
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_MESSAGE_PAGE_SIZE));
+
+        Instant cursorAt = HISTORY_END;
+        Long cursorId = Long.MAX_VALUE;
+        if (beforeId != null) {
+            cursorAt = messageRepository.findCreatedAtInConversation(beforeId, conversationId)
+                    .orElseThrow(() -> new NotFoundResourceException("Mensagem não encontrada"));
+            cursorId = beforeId;
+        }
+
+        // One extra row tells whether older messages remain
+        List<Message> rows = messageRepository.findPageBefore(conversationId, cursorAt, cursorId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<Message> page = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        Collections.reverse(page);
+
+        Long nextBeforeId = hasMore ? page.get(0).getId() : null;
+        return new MessagePageDTO(withReadReceipts(conversationId, messageMapper.toDTOList(page)), nextBeforeId, hasMore);
     }
 
+    /**
+     * Marks everything up to the conversation's newest message as read for the user by moving
+     * their read cursor, a single-row upsert regardless of how many messages were unread.
+     */
     @Transactional
     public void markMessagesAsRead(Long conversationId, Long userId) {
-        List<Message> unreadMessages = messageRepository.findUnreadMessagesByConversationAndUser(conversationId, userId);
+        conversationRepository.findLastMessageId(conversationId)
+                .ifPresent(lastMessageId -> readCursorRepository.advance(conversationId, userId, lastMessageId, Instant.now()));
+    }
+
+    // Read receipts come from the other participants' cursors; the legacy isRead flag is kept for older messages
+    private List<MessageDTO> withReadReceipts(Long conversationId, List<MessageDTO> messages) {
+        if (messages.isEmpty()) {
+            return messages;
+        }
 
-        for (Message message : unreadMessages) {
-            if (!message.isRead()) {
-                message.setRead(true);
-                message.setReadAt(Instant.now());
+        List<ConversationReadCursor> cursors = readCursorRepository.findByConversationId(conversationId);
+        if (cursors.isEmpty()) {
+            return messages;
+        }
+
+        List<MessageDTO> withReceipts = new ArrayList<>(messages.size());
+        for (MessageDTO message : messages) {
+            Instant readAt = null;
+            for (ConversationReadCursor cursor : cursors) {
+                boolean readByOther = !cursor.getUserId().equals(message.senderId())
+                        && cursor.getLastReadMessageId() >= message.id();
+                if (readByOther && (readAt == null || cursor.getReadAt().isAfter(readAt))) {
+                    readAt = cursor.getReadAt();
+                }
             }
+
+            withReceipts.add(readAt == null ? message : new MessageDTO(
+                    message.id(),
+                    message.conversationId(),
+                    message.senderId(),
+                    message.content(),
+                    true,
+                    message.createdAt(),
+                    readAt,
+                    message.type(),
+                    message.deleted(),
+                    message.edited(),
+                    message.editedAt()
+            ));
         }
-        messageRepository.saveAll(unreadMessages);
+        return withReceipts;
     }
 
     @Transactional
@@ -110,8 +191,11 @@ public class MessageService {
         }
 
         MessageDTO messageDTO = messageMapper.toDTO(message);
+        Long conversationId = message.getConversation().getId();
 
         messageRepository.delete(message);
+        messageRepository.flush();
+        conversationRepository.refreshLastMessage(conversationId);
 
         return messageDTO;
     }
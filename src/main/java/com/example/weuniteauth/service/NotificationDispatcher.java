@@ -0,0 +1,266 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.NotificationProperties;
+import com.example.weuniteauth.domain.notification.Notification;
+import com.example.weuniteauth.domain.notification.NotificationEvent;
+import com.example.weuniteauth.domain.users.User;
+import com.example.weuniteauth.repository.NotificationBatchRepository;
+import com.example.weuniteauth.repository.NotificationBatchRepository.AggregatedNotification;
+import com.example.weuniteauth.repository.NotificationBatchRepository.AggregationResult;
+import com.example.weuniteauth.repository.NotificationBatchRepository.MergeResult;
+import com.example.weuniteauth.repository.user.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers notifications off the request thread. Events are queued after the publishing
+ * transaction commits, drained by a small pool of workers, inserted with one JDBC batch
+ * per drain and pushed over WebSocket once the batch is stored.
+ *
+ * When the queue is saturated new events are dropped; identical events already waiting
+ * are merged instead of queued twice. Both are exported as metrics.
+ *
+ * Likes, reposts and follows can also be aggregated: events for the same recipient, type
+ * and entity inside the configured window update a single row ("Ana e mais 42 pessoas")
+ * instead of inserting one row each, and only that row is pushed again. Actors are counted
+ * once per row, however many times they act on the entity.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final long POLL_TIMEOUT_MS = 500;
+
+    private final NotificationBatchRepository notificationBatchRepository;
+    private final UserRepository userRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationProperties properties;
+    private final UnreadNotificationCounter unreadCounter;
+
+    private final BlockingQueue<NotificationEvent> queue;
+    private final Set<NotificationEvent> queued = ConcurrentHashMap.newKeySet();
+    private final int workers;
+    private final int batchSize;
+
+    private final Counter enqueuedCounter;
+    private final Counter mergedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public NotificationDispatcher(NotificationBatchRepository notificationBatchRepository,
+                                  UserRepository userRepository,
+                                  SimpMessagingTemplate messagingTemplate,
+                                  UnreadNotificationCounter unreadCounter,
+                                  NotificationProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.notificationBatchRepository = notificationBatchRepository;
+        this.userRepository = userRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.unreadCounter = unreadCounter;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.workers = properties.getWorkers();
+        this.batchSize = properties.getBatchSize();
+
+        Gauge.builder("notifications.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("notifications.queue.remaining", queue, BlockingQueue::remainingCapacity).register(meterRegistry);
+        this.enqueuedCounter = meterRegistry.counter("notifications.enqueued");
+        this.mergedCounter = meterRegistry.counter("notifications.merged");
+        this.droppedCounter = meterRegistry.counter("notifications.dropped");
+        this.failedCounter = meterRegistry.counter("notifications.failed");
+        this.batchTimer = meterRegistry.timer("notifications.batch");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "notification-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::runWorker);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    // Runs without a surrounding transaction too, so callers outside one still notify
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationEvent(NotificationEvent event) {
+        if (!queued.add(event)) {
+            mergedCounter.increment();
+            return;
+        }
+
+        if (!queue.offer(event)) {
+            queued.remove(event);
+            droppedCounter.increment();
+            logger.debug("Fila de notificações cheia, descartando {} para o usuário {}", event.type(), event.userId());
+            return;
+        }
+
+        enqueuedCounter.increment();
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Waits for at least one event and delivers it together with whatever else is queued,
+     * up to the batch size. Returns the number of events taken from the queue.
+     */
+    int drainOnce(long timeoutMs) throws InterruptedException {
+        NotificationEvent first = queue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return 0;
+        }
+
+        List<NotificationEvent> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        queue.drainTo(batch, batchSize - 1);
+        batch.forEach(queued::remove);
+
+        try {
+            batchTimer.record(() -> deliver(batch));
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            logger.error("Falha ao entregar lote de {} notificações", batch.size(), e);
+        }
+        return batch.size();
+    }
+
+    private void runWorker() {
+        while (running || !queue.isEmpty()) {
+            try {
+                drainOnce(POLL_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void deliver(List<NotificationEvent> events) {
+        Set<Long> actorIds = events.stream().map(NotificationEvent::actorId).collect(Collectors.toSet());
+        Map<Long, User> actorsById = userRepository.findAllById(actorIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        NotificationProperties.Aggregation aggregation = properties.getAggregation();
+
+        List<Notification> toInsert = new ArrayList<>(events.size());
+        Map<AggregateKey, AggregatedNotification> groups = new LinkedHashMap<>();
+        for (NotificationEvent event : events) {
+            User actor = actorsById.get(event.actorId());
+            if (actor == null) {
+                continue;
+            }
+
+            Notification notification = toNotification(event, actor, now);
+            if (!aggregation.isEnabled() || !aggregation.getTypes().contains(event.type())) {
+                toInsert.add(notification);
+                continue;
+            }
+
+            // Events are drained in publish order, so the last one of a group carries the latest actor
+            Set<Long> groupActorIds = new LinkedHashSet<>(List.of(event.actorId()));
+            groups.merge(new AggregateKey(event.userId(), event.type(), event.relatedEntityId()),
+                    new AggregatedNotification(notification, groupActorIds),
+                    (previous, latest) -> {
+                        previous.actorIds().addAll(latest.actorIds());
+                        latest.notification().setActorCount(previous.actorIds().size());
+                        return new AggregatedNotification(latest.notification(), previous.actorIds());
+                    });
+        }
+
+        List<Notification> toPush = new ArrayList<>(toInsert.size() + groups.size());
+        List<Notification> inserted = new ArrayList<>(toInsert);
+        if (!groups.isEmpty()) {
+            LocalDateTime windowStart = now.minusMinutes(aggregation.getWindowMinutes());
+            AggregationResult aggregated = notificationBatchRepository.mergeOrInsert(groups.values(), windowStart);
+            for (MergeResult merged : aggregated.merged()) {
+                if (merged.changed()) {
+                    toPush.add(merged.notification());
+                    // A merge marks the row unread again
+                    if (merged.wasRead()) {
+                        unreadCounter.increment(merged.notification().getUserId(), 1);
+                    }
+                }
+            }
+            inserted.addAll(aggregated.inserted());
+        }
+
+        if (!toInsert.isEmpty()) {
+            notificationBatchRepository.insertAll(toInsert);
+        }
+        toPush.addAll(inserted);
+        inserted.forEach(notification -> unreadCounter.increment(notification.getUserId(), 1));
+
+        // An aggregated row is pushed again with the same id, so clients replace it in place
+        for (Notification notification : toPush) {
+            messagingTemplate.convertAndSend("/topic/user/" + notification.getUserId() + "/notifications", notification);
+        }
+    }
+
+    private static Notification toNotification(NotificationEvent event, User actor, LocalDateTime now) {
+        Notification notification = new Notification();
+        notification.setUserId(event.userId());
+        notification.setType(event.type());
+        notification.setActorId(event.actorId());
+        notification.setActorName(actor.getName());
+        notification.setActorUsername(actor.getUsername());
+        notification.setActorProfileImg(actor.getProfileImg());
+        notification.setRelatedEntityId(event.relatedEntityId());
+        notification.setMessage(event.message());
+        notification.setIsRead(false);
+        notification.setActorCount(1);
+        notification.setCreatedAt(now);
+        notification.setUpdatedAt(now);
+        return notification;
+    }
+
+    private record AggregateKey(Long userId, String type, Long relatedEntityId) {
+    }
+}
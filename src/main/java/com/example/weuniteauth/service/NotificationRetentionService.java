@@ -0,0 +1,48 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Purges read notifications past the retention period. Rows are deleted in small batches,
+ * each in its own transaction, so the job never locks a large part of the table at once.
+ * Unread notifications are kept regardless of age.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    private final NotificationRepository notificationRepository;
+
+    @Value("${notifications.retention-days:90}")
+    private long retentionDays;
+
+    @Value("${notifications.retention-batch-size:1000}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${notifications.retention-interval-ms:3600000}",
+            initialDelayString = "${notifications.retention-initial-delay-ms:120000}")
+    public void purgeReadNotifications() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = notificationRepository.deleteReadBefore(cutoff, batchSize);
+            purged += deleted;
+        } while (deleted == batchSize);
+
+        if (purged > 0) {
+            logger.info("Notification retention purged {} read notifications older than {}", purged, cutoff);
+        }
+    }
+}
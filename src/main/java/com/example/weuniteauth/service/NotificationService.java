@@ -1,14 +1,16 @@
 package com.example.weuniteauth.service;
 
 import com.example.weuniteauth.domain.notification.Notification;
-import com.example.weuniteauth.domain.users.User;
+import com.example.weuniteauth.domain.notification.NotificationEvent;
+import com.example.weuniteauth.dto.notification.NotificationPageDTO;
 import com.example.weuniteauth.repository.NotificationRepository;
-import com.example.weuniteauth.repository.user.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -16,62 +18,82 @@ import java.util.List;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UnreadNotificationCounter unreadCounter;
 
-    @Transactional
-    public Notification createNotification(Long userId, String type, Long actorId, Long relatedEntityId, String customMessage) {
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final LocalDateTime INBOX_START = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /**
+     * Publishes the notification; it is stored and pushed by {@link NotificationDispatcher}
+     * once the caller's transaction commits, so a rollback never notifies anyone.
+     */
+    public void createNotification(Long userId, String type, Long actorId, Long relatedEntityId, String customMessage) {
         if (userId.equals(actorId)) {
-            return null;
+            return;
         }
 
-        User actor = userRepository.findById(actorId)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-
         String message = customMessage != null ? customMessage : generateMessage(type);
 
-        Notification notification = new Notification();
-        notification.setUserId(userId);
-        notification.setType(type);
-        notification.setActorId(actorId);
-        notification.setActorName(actor.getName());
-        notification.setActorUsername(actor.getUsername());
-        notification.setActorProfileImg(actor.getProfileImg());
-        notification.setRelatedEntityId(relatedEntityId);
-        notification.setMessage(message);
-        notification.setIsRead(false);
-
-        Notification saved = notificationRepository.save(notification);
-
-        messagingTemplate.convertAndSend("/topic/user/" + userId + "/notifications", saved);
-
-        return saved;
+        eventPublisher.publishEvent(new NotificationEvent(userId, type, actorId, relatedEntityId, message));
     }
 
     public List<Notification> getUserNotifications(Long userId) {
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
     }
 
+    @Transactional(readOnly = true)
+    public NotificationPageDTO getNotificationPage(Long userId, LocalDateTime cursorAt, Long cursorId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDateTime startAt = cursorAt != null ? cursorAt : INBOX_START;
+        Long startId = cursorId != null ? cursorId : Long.MAX_VALUE;
+
+        // One extra row tells whether another page exists
+        List<Notification> rows = notificationRepository.findInboxPage(userId, startAt, startId, PageRequest.of(0, pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new NotificationPageDTO(rows, null, null, false);
+        }
+
+        List<Notification> page = rows.subList(0, pageSize);
+        Notification last = page.get(pageSize - 1);
+        LocalDateTime lastActivityAt = last.getUpdatedAt() != null ? last.getUpdatedAt() : last.getCreatedAt();
+        return new NotificationPageDTO(page, lastActivityAt, last.getId(), true);
+    }
+
     public Long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        return unreadCounter.get(userId);
     }
 
     @Transactional
     public void markAsRead(Long notificationId) {
         Notification notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notificação não encontrada"));
+        boolean wasUnread = !Boolean.TRUE.equals(notification.getIsRead());
         notification.setIsRead(true);
         notificationRepository.save(notification);
+
+        if (wasUnread) {
+            unreadCounter.decrement(notification.getUserId());
+        }
     }
 
     @Transactional
     public void markAllAsRead(Long userId) {
         notificationRepository.markAllAsReadByUserId(userId);
+        unreadCounter.reset(userId);
     }
 
     @Transactional
     public void deleteNotification(Long notificationId) {
+        Notification notification = notificationRepository.findById(notificationId).orElse(null);
+        if (notification == null) {
+            return;
+        }
+
         notificationRepository.deleteById(notificationId);
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            unreadCounter.decrement(notification.getUserId());
+        }
     }
 
     private String generateMessage(String type) {
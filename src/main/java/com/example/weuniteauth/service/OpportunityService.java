@@ -1,6 +1,7 @@
 package com.example.weuniteauth.service;
 
 import com.example.weuniteauth.domain.opportunity.Opportunity;
+import com.example.weuniteauth.domain.opportunity.OpportunityChangedEvent;
 import com.example.weuniteauth.domain.opportunity.Skill;
 import com.example.weuniteauth.domain.users.Company;
 import com.example.weuniteauth.domain.users.User;
@@ -13,12 +14,11 @@ import com.example.weuniteauth.exceptions.user.UserNotFoundException;
 import com.example.weuniteauth.mapper.OpportunityMapper;
 import com.example.weuniteauth.repository.CompanyRepository;
 import com.example.weuniteauth.repository.OpportunityRepository;
-import com.example.weuniteauth.repository.SkillRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class OpportunityService {
@@ -26,13 +26,15 @@ public class OpportunityService {
     private final CompanyRepository companyRepository;
     private final OpportunityRepository opportunityRepository;
     private final OpportunityMapper opportunityMapper;
-    private final SkillRepository skillRepository;
+    private final SkillResolver skillResolver;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public OpportunityService(CompanyRepository companyRepository, OpportunityRepository opportunityRepository, OpportunityMapper opportunityMapper, SkillRepository skillRepository) {
+    public OpportunityService(CompanyRepository companyRepository, OpportunityRepository opportunityRepository, OpportunityMapper opportunityMapper, SkillResolver skillResolver, ApplicationEventPublisher eventPublisher) {
         this.companyRepository = companyRepository;
         this.opportunityRepository = opportunityRepository;
         this.opportunityMapper = opportunityMapper;
-        this.skillRepository = skillRepository;
+        this.skillResolver = skillResolver;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -46,21 +48,11 @@ public class OpportunityService {
                 opportunityDTO.description(),
                 opportunityDTO.location(),
                 opportunityDTO.dateEnd(),
-                opportunityDTO.skills().stream()
-                        .map(skill -> {
-                            Skill existingSkill = skillRepository.findByName(skill.getName());
-                            if (existingSkill != null) {
-                                return existingSkill;
-                            } else {
-                                Skill newSkill = new Skill(skill.getName());
-                                skillRepository.save(newSkill);
-                                return newSkill;
-                            }
-                        })
-                        .collect(Collectors.toSet())
+                skillResolver.resolve(opportunityDTO.skills().stream().map(Skill::getName).toList())
         );
 
         opportunityRepository.save(createdOpportunity);
+        eventPublisher.publishEvent(new OpportunityChangedEvent(createdOpportunity.getId()));
 
         return opportunityMapper.toResponseDTO("Oportunidade criada com sucesso!", createdOpportunity);
     }
@@ -81,16 +73,12 @@ public class OpportunityService {
 
         existingOpportunity.getSkills().clear();
 
-        updatedOpportunityDTO.skills().forEach(skillDTO -> {
-            Skill skill = skillRepository.findByName(skillDTO.getName());
-            if (skill == null) {
-                skill = new Skill(skillDTO.getName());
-                skillRepository.save(skill);
-            }
-            existingOpportunity.addSkill(skill);
-        });
+        // Opportunity owns the association; touching each skill's inverse collection would load it
+        existingOpportunity.getSkills().addAll(
+                skillResolver.resolve(updatedOpportunityDTO.skills().stream().map(Skill::getName).toList()));
 
         opportunityRepository.save(existingOpportunity);
+        eventPublisher.publishEvent(new OpportunityChangedEvent(opportunityId));
 
         return opportunityMapper.toResponseDTO("Oportunidade atualizada com sucesso!", existingOpportunity);
     }
@@ -106,6 +94,7 @@ public class OpportunityService {
 
         existingOpportunity.setDeleted(true);
         opportunityRepository.save(existingOpportunity);
+        eventPublisher.publishEvent(new OpportunityChangedEvent(opportunityId));
 
         return opportunityMapper.toResponseDTO("Oportunidade deletada com sucesso!", existingOpportunity);
 
@@ -1,47 +1,73 @@
 package com.example.weuniteauth.service;
 
+import com.example.weuniteauth.domain.post.Comment;
+import com.example.weuniteauth.domain.post.Like;
 import com.example.weuniteauth.domain.post.Post;
 import com.example.weuniteauth.domain.post.Repost;
 import com.example.weuniteauth.domain.users.User;
+import com.example.weuniteauth.dto.LikeDTO;
 import com.example.weuniteauth.dto.PostDTO;
 import com.example.weuniteauth.dto.ResponseDTO;
+import com.example.weuniteauth.dto.post.FeedEntryDTO;
+import com.example.weuniteauth.dto.post.FeedPageDTO;
+import com.example.weuniteauth.dto.post.FeedPostDTO;
 import com.example.weuniteauth.dto.post.PostRequestDTO;
+import com.example.weuniteauth.dto.post.PostStatsDTO;
 import com.example.weuniteauth.exceptions.UnauthorizedException;
 import com.example.weuniteauth.exceptions.user.UserNotFoundException;
 import com.example.weuniteauth.exceptions.post.PostNotFoundException;
 import com.example.weuniteauth.mapper.PostMapper;
+import com.example.weuniteauth.repository.CommentRepository;
 import com.example.weuniteauth.repository.PostRepository;
 import com.example.weuniteauth.repository.RepostRepository;
 import com.example.weuniteauth.repository.user.UserRepository;
-import com.example.weuniteauth.service.cloudinary.CloudinaryService;
+import com.example.weuniteauth.service.media.MediaKind;
+import com.example.weuniteauth.service.media.MediaStorage;
+import com.example.weuniteauth.service.media.MediaUpload;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PostService {
 
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+    private static final int FEED_PREVIEW_COMMENTS = 3;
+    private static final Instant FEED_START = Instant.parse("9999-12-31T23:59:59Z");
+
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final RepostRepository repostRepository;
+    private final CommentRepository commentRepository;
     private final PostMapper postMapper;
-    private final CloudinaryService cloudinaryService;
+    private final MediaStorage mediaStorage;
+    private final TimelineService timelineService;
+    private final LikeIngestionService likeIngestionService;
+    private final MediaProcessingService mediaProcessingService;
 
-    public PostService(UserRepository userRepository, PostRepository postRepository, RepostRepository repostRepository, PostMapper postMapper, CloudinaryService cloudinaryService) {
+    public PostService(UserRepository userRepository, PostRepository postRepository, RepostRepository repostRepository, CommentRepository commentRepository, PostMapper postMapper, MediaStorage mediaStorage, TimelineService timelineService, LikeIngestionService likeIngestionService, MediaProcessingService mediaProcessingService) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.repostRepository = repostRepository;
+        this.commentRepository = commentRepository;
         this.postMapper = postMapper;
-        this.cloudinaryService = cloudinaryService;
-    }
-
-    private boolean isVideoFile(MultipartFile file) {
-        String contentType = file.getContentType();
-        return contentType != null && contentType.startsWith("video/");
+        this.mediaStorage = mediaStorage;
+        this.timelineService = timelineService;
+        this.likeIngestionService = likeIngestionService;
+        this.mediaProcessingService = mediaProcessingService;
     }
 
     @Transactional
@@ -51,20 +77,18 @@ public class PostService {
 
         Post createdPost = new Post(user, post.text());
 
-        // ✅ ATUALIZADO: Diferencia vídeo de imagem
-        if (media != null && !media.isEmpty()) {
-            String mediaUrl = cloudinaryService.uploadPost(media, userId);
-
-            if (isVideoFile(media)) {
-                createdPost.setVideoUrl(mediaUrl);
-                createdPost.setImageUrl(null);
-            } else {
-                createdPost.setImageUrl(mediaUrl);
-                createdPost.setVideoUrl(null);
-            }
+        // A mídia é enviada depois do commit; a URL (de imagem ou vídeo) chega por evento
+        boolean hasMedia = media != null && !media.isEmpty();
+        if (hasMedia) {
+            createdPost.setMediaStatus(Post.MediaStatus.PENDING_MEDIA);
         }
 
         postRepository.save(createdPost);
+        timelineService.fanOutPost(createdPost);
+
+        if (hasMedia) {
+            mediaProcessingService.submit(createdPost.getId(), userId, media);
+        }
 
         return postMapper.toResponseDTO("Publicação criada com sucesso!", createdPost);
     }
@@ -81,7 +105,12 @@ public class PostService {
         String imageUrl = existingPost.getImageUrl();
 
         if (image != null && !image.isEmpty()) {
-            imageUrl = cloudinaryService.uploadPost(image, userId);
+            MediaUpload upload = new MediaUpload(MediaKind.POST, userId.toString(), image.getContentType(), image.getOriginalFilename());
+            try (InputStream in = image.getInputStream()) {
+                imageUrl = mediaStorage.store(upload, in, image.getSize()).url();
+            } catch (IOException e) {
+                throw new RuntimeException("Erro ao fazer upload do arquivo do post", e);
+            }
         }
 
         existingPost.setText(updatedPost.text());
@@ -100,7 +129,41 @@ public class PostService {
             throw new PostNotFoundException();
         }
 
-        return postMapper.toResponseDTO("Publicação consultada com sucesso!", post);
+        ResponseDTO<PostDTO> response = postMapper.toResponseDTO("Publicação consultada com sucesso!", post);
+        return new ResponseDTO<>(response.message(), withPendingLikes(post, response.data()));
+    }
+
+    /**
+     * Applies like toggles still buffered by the write-behind pipeline to the likes of a post,
+     * so a like the viewer just made does not vanish until the next flush.
+     */
+    private PostDTO withPendingLikes(Post post, PostDTO dto) {
+        Map<Long, Boolean> pendingLikes = likeIngestionService.pendingLikesOnPost(post.getId());
+        if (pendingLikes.isEmpty()) {
+            return dto;
+        }
+
+        List<LikeDTO> likes = new ArrayList<>();
+        Set<Long> listed = new HashSet<>();
+        for (LikeDTO like : dto.likes()) {
+            Long likerId = Long.valueOf(like.user().id());
+            if (!Boolean.FALSE.equals(pendingLikes.get(likerId))) {
+                likes.add(like);
+                listed.add(likerId);
+            }
+        }
+
+        List<Long> newLikerIds = pendingLikes.entrySet().stream()
+                .filter(entry -> entry.getValue() && !listed.contains(entry.getKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!newLikerIds.isEmpty()) {
+            userRepository.findAllById(newLikerIds)
+                    .forEach(user -> likes.add(postMapper.mapLikeWithoutPost(new Like(post, user))));
+        }
+
+        return new PostDTO(dto.id(), dto.text(), dto.imageUrl(), dto.videoUrl(), dto.mediaStatus(), likes,
+                dto.comments(), dto.reposts(), dto.createdAt(), dto.updatedAt(), dto.user(), dto.repostedBy(), dto.repostedAt());
     }
 
     @Transactional(readOnly = true)
@@ -120,6 +183,149 @@ public class PostService {
         return postDTOs;
     }
 
+    @Transactional(readOnly = true)
+    public FeedPageDTO getFeed(Long viewerId, Instant cursorAt, Long cursorId, int size) {
+        int pageSize = clampPageSize(size);
+
+        Instant boundAt = cursorAt != null ? cursorAt : FEED_START;
+        Long boundId = cursorAt != null && cursorId != null ? cursorId : Long.MAX_VALUE;
+
+        // Fetch one extra row to know whether another page exists
+        List<FeedEntryDTO> entries = postRepository.findFeedEntriesBefore(boundAt, boundId, pageSize + 1).stream()
+                .map(FeedEntryDTO::fromRow)
+                .toList();
+
+        return buildFeedPage(entries, pageSize, viewerId);
+    }
+
+    @Transactional(readOnly = true)
+    public FeedPageDTO getTimeline(Long userId, Instant cursorAt, Long cursorId, int size) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException();
+        }
+
+        int pageSize = clampPageSize(size);
+
+        Instant boundAt = cursorAt != null ? cursorAt : FEED_START;
+        Long boundId = cursorAt != null && cursorId != null ? cursorId : Long.MAX_VALUE;
+
+        List<FeedEntryDTO> entries = timelineService.findEntriesBefore(userId, boundAt, boundId, pageSize + 1, cursorAt == null);
+
+        return buildFeedPage(entries, pageSize, userId);
+    }
+
+    @Transactional
+    public int rebuildTimeline(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException();
+        }
+
+        return timelineService.rebuildTimeline(userId);
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+    }
+
+    private FeedPageDTO buildFeedPage(List<FeedEntryDTO> entries, int pageSize, Long viewerId) {
+        boolean hasMore = entries.size() > pageSize;
+        List<FeedEntryDTO> pageEntries = hasMore ? entries.subList(0, pageSize) : entries;
+
+        Set<Long> feedPostIds = new HashSet<>();
+        Set<Long> postIds = new HashSet<>();
+        Set<Long> repostIds = new HashSet<>();
+        for (FeedEntryDTO entry : pageEntries) {
+            feedPostIds.add(entry.postId());
+            if (entry.isRepost()) {
+                repostIds.add(entry.repostId());
+            } else {
+                postIds.add(entry.postId());
+            }
+        }
+
+        Map<Long, Post> postsById = postIds.isEmpty() ? Map.of() : postRepository.findAllWithUserByIdIn(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        Map<Long, Repost> repostsById = repostIds.isEmpty() ? Map.of() : repostRepository.findAllWithPostByIdIn(repostIds).stream()
+                .collect(Collectors.toMap(Repost::getId, Function.identity()));
+        Map<Long, PostStatsDTO> statsByPostId = loadPostStats(feedPostIds, viewerId);
+        Map<Long, List<Comment>> previewsByPostId = loadPreviewComments(feedPostIds);
+
+        List<FeedPostDTO> posts = new ArrayList<>(pageEntries.size());
+        for (FeedEntryDTO entry : pageEntries) {
+            Long postId = entry.postId();
+            PostStatsDTO stats = statsByPostId.getOrDefault(postId, PostStatsDTO.empty(postId));
+            List<Comment> previews = previewsByPostId.getOrDefault(postId, List.of());
+
+            // Timeline entries may outlive their post until the cleanup reaches them
+            if (entry.isRepost()) {
+                Repost repost = repostsById.get(entry.repostId());
+                if (repost != null && !repost.getPost().isDeleted()) {
+                    posts.add(postMapper.toFeedPostDTOFromRepost(repost, stats, previews));
+                }
+            } else {
+                Post post = postsById.get(postId);
+                if (post != null && !post.isDeleted()) {
+                    posts.add(postMapper.toFeedPostDTO(post, stats, previews));
+                }
+            }
+        }
+
+        if (!hasMore || pageEntries.isEmpty()) {
+            return new FeedPageDTO(posts, null, null, false);
+        }
+
+        FeedEntryDTO last = pageEntries.get(pageEntries.size() - 1);
+        return new FeedPageDTO(posts, last.effectiveAt(), last.entryKey(), true);
+    }
+
+    private Map<Long, PostStatsDTO> loadPostStats(Set<Long> postIds, Long viewerId) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, PostStatsDTO> statsByPostId = new HashMap<>();
+        for (Object[] row : postRepository.findStatsByIdIn(postIds, viewerId)) {
+            Long postId = toLong(row[0]);
+            statsByPostId.put(postId, new PostStatsDTO(
+                    postId,
+                    toLong(row[1]),
+                    toLong(row[2]),
+                    toLong(row[3]),
+                    toLong(row[4]) > 0,
+                    toLong(row[5]) > 0
+            ));
+        }
+
+        // Overlay like toggles still buffered by the write-behind pipeline
+        statsByPostId.replaceAll((postId, stats) -> {
+            long pendingDelta = likeIngestionService.pendingLikeDelta(postId);
+            Boolean pendingLiked = viewerId != null ? likeIngestionService.pendingLikeState(postId, viewerId) : null;
+            if (pendingDelta == 0 && pendingLiked == null) {
+                return stats;
+            }
+            return stats.withLikes(stats.likeCount() + pendingDelta, pendingLiked != null ? pendingLiked : stats.likedByViewer());
+        });
+        return statsByPostId;
+    }
+
+    private Map<Long, List<Comment>> loadPreviewComments(Set<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> commentIds = commentRepository.findPreviewCommentIds(postIds, FEED_PREVIEW_COMMENTS);
+        if (commentIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return commentRepository.findAllWithUserByIdIn(commentIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getPost().getId()));
+    }
+
+    private static Long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
     @Transactional
     public ResponseDTO<PostDTO> deletePost(Long userId, Long postId) {
         Post post = postRepository.findById(postId)
@@ -131,6 +337,7 @@ public class PostService {
 
         post.setDeleted(true);
         postRepository.save(post);
+        timelineService.removePost(postId);
 
         return postMapper.toResponseDTO("Publicação excluída com sucesso", post);
     }
@@ -24,6 +24,7 @@ public class RepostService {
     private final RepostRepository repostRepository;
     private final RepostMapper repostMapper;
     private final NotificationService notificationService;
+    private final TimelineService timelineService;
 
     @Transactional
     public ResponseDTO<RepostDTO> toggleRepost(Long userId, Long postId) {
@@ -41,6 +42,8 @@ public class RepostService {
             Repost newRepost = new Repost(post, user);
             post.addRepost(newRepost);
             repostRepository.save(newRepost);
+            postRepository.adjustRepostCount(postId, 1);
+            timelineService.fanOutRepost(newRepost);
 
             notificationService.createNotification(
                     post.getUser().getId(),
@@ -54,6 +57,8 @@ public class RepostService {
         } else {
             post.removeRepost(existingRepost);
             repostRepository.delete(existingRepost);
+            postRepository.adjustRepostCount(postId, -1);
+            timelineService.removeRepost(existingRepost.getId());
             return repostMapper.toResponseDTO("Repost removido com sucesso!", existingRepost);
         }
     }
@@ -0,0 +1,139 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.domain.opportunity.Skill;
+import com.example.weuniteauth.repository.SkillBatchRepository;
+import com.example.weuniteauth.repository.SkillRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns skill names into skill entities with a constant number of queries, creating the ones
+ * that do not exist yet. Name to id mappings are kept in a bounded LRU warmed at startup, so
+ * known skills are loaded by primary key and only unknown names are looked up by name.
+ * Anything that deletes a skill must call {@link #evict(String)}.
+ */
+@Component
+public class SkillResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkillResolver.class);
+
+    private final SkillRepository skillRepository;
+    private final SkillBatchRepository skillBatchRepository;
+    private final int cacheSize;
+    private final Map<String, Long> idsByName;
+
+    public SkillResolver(SkillRepository skillRepository,
+                         SkillBatchRepository skillBatchRepository,
+                         @Value("${skills.cache-size:5000}") int cacheSize) {
+        this.skillRepository = skillRepository;
+        this.skillBatchRepository = skillBatchRepository;
+        this.cacheSize = cacheSize;
+        this.idsByName = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            List<Object[]> rows = skillRepository.findNamesAndIds(PageRequest.of(0, cacheSize));
+            for (Object[] row : rows) {
+                idsByName.put((String) row[0], ((Number) row[1]).longValue());
+            }
+            logger.info("Cache de habilidades carregado com {} entradas", rows.size());
+        } catch (Exception e) {
+            logger.warn("Não foi possível pré-carregar o cache de habilidades: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns one managed skill per distinct non-blank name, in the order given. Must run inside
+     * the caller's transaction so the skills can be attached to the owning entity.
+     */
+    public Set<Skill> resolve(Collection<String> names) {
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name != null && !name.isBlank()) {
+                wanted.add(name.trim());
+            }
+        }
+        if (wanted.isEmpty()) {
+            return new LinkedHashSet<>();
+        }
+
+        Map<String, Skill> found = new HashMap<>();
+        List<Long> cachedIds = new ArrayList<>();
+        for (String name : wanted) {
+            Long id = idsByName.get(name);
+            if (id != null) {
+                cachedIds.add(id);
+            }
+        }
+        if (!cachedIds.isEmpty()) {
+            skillRepository.findAllById(cachedIds).forEach(skill -> found.put(skill.getName(), skill));
+        }
+
+        List<String> missing = missingFrom(wanted, found);
+        if (!missing.isEmpty()) {
+            // Cached ids that no longer exist fall through to a lookup by name
+            missing.forEach(idsByName::remove);
+            load(missing, found);
+
+            List<String> unknown = missingFrom(missing, found);
+            if (!unknown.isEmpty()) {
+                skillBatchRepository.insertMissing(unknown);
+                load(unknown, found);
+            }
+        }
+
+        Set<Skill> resolved = new LinkedHashSet<>();
+        for (String name : wanted) {
+            Skill skill = found.get(name);
+            if (skill != null) {
+                resolved.add(skill);
+            }
+        }
+        return resolved;
+    }
+
+    public void evict(String name) {
+        if (name != null) {
+            idsByName.remove(name);
+        }
+    }
+
+    private void load(List<String> names, Map<String, Skill> found) {
+        for (Skill skill : skillRepository.findByNameIn(names)) {
+            found.put(skill.getName(), skill);
+            idsByName.put(skill.getName(), skill.getId());
+        }
+    }
+
+    private static List<String> missingFrom(Collection<String> names, Map<String, Skill> found) {
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            if (!found.containsKey(name)) {
+                missing.add(name);
+            }
+        }
+        return missing;
+    }
+}
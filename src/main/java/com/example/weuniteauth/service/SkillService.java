@@ -16,10 +16,12 @@ public class SkillService {
 
     private final SkillRepository skillRepository;
     private final SkillMapper skillMapper;
+    private final SkillResolver skillResolver;
 
-    public SkillService(SkillRepository skillRepository, SkillMapper skillMapper) {
+    public SkillService(SkillRepository skillRepository, SkillMapper skillMapper, SkillResolver skillResolver) {
         this.skillRepository = skillRepository;
         this.skillMapper = skillMapper;
+        this.skillResolver = skillResolver;
     }
 
     public ResponseDTO<SkillDTO> createSkill (String skillName, SkillRequestDTO skillRequestDTO){
@@ -59,6 +61,7 @@ public class SkillService {
         }
 
         skillRepository.delete(skill);
+        skillResolver.evict(skill.getName());
 
         return skillMapper.toResponseDTO("Skill deletada com sucesso", skill);
     }
@@ -0,0 +1,235 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.TimelineProperties;
+import com.example.weuniteauth.domain.post.HighFanoutAuthor;
+import com.example.weuniteauth.domain.post.Post;
+import com.example.weuniteauth.domain.post.Repost;
+import com.example.weuniteauth.domain.post.TimelineBootstrapRequestedEvent;
+import com.example.weuniteauth.domain.users.Follow;
+import com.example.weuniteauth.dto.post.FeedEntryDTO;
+import com.example.weuniteauth.repository.FollowRepository;
+import com.example.weuniteauth.repository.HighFanoutAuthorRepository;
+import com.example.weuniteauth.repository.PostRepository;
+import com.example.weuniteauth.repository.TimelineEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Materialized per-user home timelines. Posts and reposts are pushed to the inbox of every
+ * accepted follower when they are created; authors above the fan-out threshold are not pushed
+ * and are pulled at read time instead. Threshold crossings are recorded, so when an author falls
+ * back below it the posts written in between are pushed before they stop being pulled.
+ */
+@Service
+@RequiredArgsConstructor
+public class TimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private static final Comparator<FeedEntryDTO> NEWEST_FIRST = Comparator
+            .comparing(FeedEntryDTO::effectiveAt)
+            .thenComparing(FeedEntryDTO::entryKey)
+            .reversed();
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+    private final HighFanoutAuthorRepository highFanoutAuthorRepository;
+    private final TimelineProperties timelineProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Authors whose posts are not pushed
+    private volatile Set<Long> highFanoutAuthorIds = Set.of();
+
+    // Pulled at read time: the authors above plus those that dropped below and are not backfilled yet
+    private volatile Set<Long> pulledAuthorIds = Set.of();
+
+    private final Set<Long> bootstrapping = ConcurrentHashMap.newKeySet();
+
+    @Transactional
+    public void fanOutPost(Post post) {
+        Long authorId = post.getUser().getId();
+        if (isHighFanout(authorId)) {
+            return;
+        }
+
+        timelineEntryRepository.fanOutPost(authorId, post.getId(), post.getCreatedAt(), FeedEntryDTO.postKey(post.getId()));
+    }
+
+    @Transactional
+    public void fanOutRepost(Repost repost) {
+        Long reposterId = repost.getUser().getId();
+        if (isHighFanout(reposterId)) {
+            return;
+        }
+
+        timelineEntryRepository.fanOutRepost(reposterId, repost.getPost().getId(), repost.getId(),
+                repost.getCreatedAt(), FeedEntryDTO.repostKey(repost.getId()));
+    }
+
+    @Transactional
+    public void removePost(Long postId) {
+        timelineEntryRepository.deleteByPost(postId);
+    }
+
+    @Transactional
+    public void removeRepost(Long repostId) {
+        timelineEntryRepository.deleteByRepost(repostId);
+    }
+
+    @Transactional
+    public void removeAuthor(Long ownerId, Long authorId) {
+        timelineEntryRepository.deleteByOwnerAndAuthor(ownerId, authorId);
+    }
+
+    /**
+     * Reads up to {@code limit} entries older than the cursor, merging the pushed inbox with
+     * the posts of followed high fan-out authors. An empty first page is pulled from every
+     * followed author instead, and the inbox of users that predate fan-out is rebuilt in the
+     * background, so reads never write.
+     */
+    @Transactional(readOnly = true)
+    public List<FeedEntryDTO> findEntriesBefore(Long userId, Instant cursorAt, Long cursorId, int limit, boolean firstPage) {
+        List<Object[]> inboxRows = timelineEntryRepository.findEntriesBefore(userId, cursorAt, cursorId, limit);
+        boolean bootstrap = inboxRows.isEmpty() && firstPage;
+
+        List<Long> authorIds = bootstrap ? findFollowedAuthorIds(userId) : findPulledAuthorIds(userId);
+        if (authorIds.isEmpty()) {
+            return inboxRows.stream().map(FeedEntryDTO::fromRow).toList();
+        }
+
+        // Dedupe by entry key: a rebuilt inbox may already hold entries of pulled authors
+        Map<Long, FeedEntryDTO> merged = new LinkedHashMap<>();
+        inboxRows.forEach(row -> {
+            FeedEntryDTO entry = FeedEntryDTO.fromRow(row);
+            merged.put(entry.entryKey(), entry);
+        });
+        postRepository.findFeedEntriesByAuthorsBefore(authorIds, cursorAt, cursorId, limit).forEach(row -> {
+            FeedEntryDTO entry = FeedEntryDTO.fromRow(row);
+            merged.putIfAbsent(entry.entryKey(), entry);
+        });
+
+        // Only worth rebuilding when there is something to fill the inbox with
+        if (bootstrap && !merged.isEmpty() && bootstrapping.add(userId)) {
+            eventPublisher.publishEvent(new TimelineBootstrapRequestedEvent(userId));
+        }
+
+        return merged.values().stream()
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    @Async
+    @EventListener
+    @Transactional
+    public void onBootstrapRequested(TimelineBootstrapRequestedEvent event) {
+        try {
+            rebuildTimeline(event.userId());
+        } finally {
+            bootstrapping.remove(event.userId());
+        }
+    }
+
+    @Transactional
+    public int rebuildTimeline(Long userId) {
+        timelineEntryRepository.deleteByOwner(userId);
+        return timelineEntryRepository.rebuildForOwner(userId, timelineProperties.getMaxEntries());
+    }
+
+    @Scheduled(fixedDelayString = "${timeline.trim-interval-ms:300000}")
+    @Transactional
+    public void trimTimelines() {
+        int maxEntries = timelineProperties.getMaxEntries();
+        List<Long> ownerIds = timelineEntryRepository.findOwnersAbove(maxEntries);
+
+        int removed = 0;
+        for (Long ownerId : ownerIds) {
+            removed += timelineEntryRepository.trimOwner(ownerId, maxEntries);
+        }
+
+        if (removed > 0) {
+            logger.info("Timeline trim removed {} entries from {} inboxes", removed, ownerIds.size());
+        }
+    }
+
+    /**
+     * Records authors crossing the fan-out threshold either way and refreshes the cached sets.
+     * Authors that dropped below are pushed again right away, but keep being pulled until the
+     * posts they wrote while above are backfilled. The backfill waits two refresh intervals, so
+     * every node has stopped skipping the author's new posts by then.
+     */
+    @Scheduled(fixedDelayString = "${timeline.high-fanout-refresh-interval-ms:60000}")
+    @Transactional
+    public void refreshHighFanoutAuthors() {
+        Instant now = Instant.now();
+        long threshold = timelineProperties.getFanoutThreshold();
+        highFanoutAuthorRepository.recordCrossedAbove(threshold, now);
+        highFanoutAuthorRepository.recordDroppedBelow(threshold, now);
+
+        List<HighFanoutAuthor> authors = highFanoutAuthorRepository.findAll();
+        highFanoutAuthorIds = authors.stream()
+                .filter(author -> author.getDroppedAt() == null)
+                .map(HighFanoutAuthor::getAuthorId)
+                .collect(Collectors.toUnmodifiableSet());
+        pulledAuthorIds = authors.stream()
+                .map(HighFanoutAuthor::getAuthorId)
+                .collect(Collectors.toUnmodifiableSet());
+
+        Instant settledBefore = now.minusMillis(2 * timelineProperties.getHighFanoutRefreshIntervalMs());
+        for (HighFanoutAuthor author : authors) {
+            if (author.getDroppedAt() != null && author.getDroppedAt().isBefore(settledBefore)) {
+                backfillDroppedAuthor(author);
+            }
+        }
+    }
+
+    public boolean isHighFanout(Long authorId) {
+        return highFanoutAuthorIds.contains(authorId);
+    }
+
+    private void backfillDroppedAuthor(HighFanoutAuthor author) {
+        int maxEntries = timelineProperties.getMaxEntries();
+        int entries = timelineEntryRepository.backfillAuthorPosts(author.getAuthorId(), author.getSince(), maxEntries)
+                + timelineEntryRepository.backfillAuthorReposts(author.getAuthorId(), author.getSince(), maxEntries);
+        highFanoutAuthorRepository.deleteDropped(author.getAuthorId());
+        logger.info("Author {} fell below the fan-out threshold; backfilled {} timeline entries", author.getAuthorId(), entries);
+    }
+
+    private List<Long> findFollowedAuthorIds(Long userId) {
+        Set<Long> authorIds = new HashSet<>(followRepository.findFollowedIds(userId, Follow.FollowStatus.ACCEPTED));
+        authorIds.add(userId);
+        return new ArrayList<>(authorIds);
+    }
+
+    private List<Long> findPulledAuthorIds(Long userId) {
+        Set<Long> candidates = pulledAuthorIds;
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> pulled = new HashSet<>(followRepository.findFollowedIdsAmong(userId, Follow.FollowStatus.ACCEPTED, candidates));
+        if (candidates.contains(userId)) {
+            pulled.add(userId);
+        }
+        return new ArrayList<>(pulled);
+    }
+}
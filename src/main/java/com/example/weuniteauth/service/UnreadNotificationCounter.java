@@ -0,0 +1,69 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user unread notification counts kept in memory so the bell badge does not run a
+ * COUNT on every poll. A count is loaded on first read and then adjusted as notifications
+ * are created and read; entries expire after a TTL so drift (other instances, races with
+ * the initial load) is bounded.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnreadNotificationCounter {
+
+    private final NotificationRepository notificationRepository;
+
+    private final ConcurrentHashMap<Long, Entry> counts = new ConcurrentHashMap<>();
+
+    @Value("${notifications.unread-cache-ttl-ms:300000}")
+    private long ttlMs;
+
+    private record Entry(AtomicLong count, long loadedAt) {
+    }
+
+    public long get(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = counts.compute(userId, (id, current) -> {
+            if (current != null && now - current.loadedAt() < ttlMs) {
+                return current;
+            }
+            return new Entry(new AtomicLong(notificationRepository.countByUserIdAndIsReadFalse(id)), now);
+        });
+        return entry.count().get();
+    }
+
+    // Only cached counts are adjusted; an uncached count is loaded fresh on the next read
+
+    public void increment(Long userId, long delta) {
+        Entry entry = counts.get(userId);
+        if (entry != null) {
+            entry.count().updateAndGet(count -> Math.max(count + delta, 0));
+        }
+    }
+
+    public void decrement(Long userId) {
+        increment(userId, -1);
+    }
+
+    public void reset(Long userId) {
+        counts.put(userId, new Entry(new AtomicLong(), System.currentTimeMillis()));
+    }
+
+    public void evict(Long userId) {
+        counts.remove(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.unread-cache-ttl-ms:300000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        counts.values().removeIf(entry -> now - entry.loadedAt() >= ttlMs);
+    }
+}
@@ -11,13 +11,11 @@ import com.example.weuniteauth.exceptions.auth.InvalidTokenException;
 import com.example.weuniteauth.exceptions.user.UserAlreadyExistsException;
 import com.example.weuniteauth.exceptions.user.UserNotFoundException;
 import com.example.weuniteauth.mapper.UserMapper;
-import com.example.weuniteauth.domain.opportunity.Skill;
 import com.example.weuniteauth.domain.users.Athlete;
 import com.example.weuniteauth.domain.users.Role;
 import com.example.weuniteauth.domain.users.User;
 import com.example.weuniteauth.repository.RoleRepository;
 import com.example.weuniteauth.repository.user.UserRepository;
-import com.example.weuniteauth.repository.SkillRepository;
 import com.example.weuniteauth.repository.user.AthleteRepository;
 import org.hibernate.Hibernate;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -25,8 +23,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import com.example.weuniteauth.service.cloudinary.CloudinaryService;
+import com.example.weuniteauth.service.media.MediaKind;
+import com.example.weuniteauth.service.media.MediaStorage;
+import com.example.weuniteauth.service.media.MediaUpload;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.HashSet;
@@ -42,8 +44,8 @@ public class UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
-    private final CloudinaryService cloudinaryService;
-    private final SkillRepository skillRepository;
+    private final MediaStorage mediaStorage;
+    private final SkillResolver skillResolver;
     private final AthleteRepository athleteRepository;
 
     public UserService(
@@ -51,16 +53,16 @@ public class UserService {
             UserMapper userMapper,
             PasswordEncoder passwordEncoder,
             RoleRepository roleRepository,
-            CloudinaryService cloudinaryService,
-            SkillRepository skillRepository,
+            MediaStorage mediaStorage,
+            SkillResolver skillResolver,
             AthleteRepository athleteRepository
     ) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.roleRepository = roleRepository;
-        this.cloudinaryService = cloudinaryService;
-        this.skillRepository = skillRepository;
+        this.mediaStorage = mediaStorage;
+        this.skillResolver = skillResolver;
         this.athleteRepository = athleteRepository;
     }
 
@@ -158,12 +160,12 @@ public class UserService {
             if (requestDTO.birthDate() != null) athlete.setBirthDate(requestDTO.birthDate());
 
             if (profileImage != null && !profileImage.isEmpty()) {
-                String imageUrl = cloudinaryService.uploadProfileImg(profileImage, username);
+                String imageUrl = storeImage(MediaKind.PROFILE, profileImage, username, "Erro ao fazer upload da imagem de perfil");
                 athlete.setProfileImg(imageUrl);
             }
 
             if (bannerImage != null && !bannerImage.isEmpty()) {
-                String bannerUrl = cloudinaryService.uploadBannerImg(bannerImage, username);
+                String bannerUrl = storeImage(MediaKind.BANNER, bannerImage, username, "Erro ao fazer upload da imagem de banner");
                 athlete.setBannerImg(bannerUrl);
             }
 
@@ -192,12 +194,12 @@ public class UserService {
             }
 
             if (profileImage != null && !profileImage.isEmpty()) {
-                String imageUrl = cloudinaryService.uploadProfileImg(profileImage, username);
+                String imageUrl = storeImage(MediaKind.PROFILE, profileImage, username, "Erro ao fazer upload da imagem de perfil");
                 user.setProfileImg(imageUrl);
             }
 
             if (bannerImage != null && !bannerImage.isEmpty()) {
-                String bannerUrl = cloudinaryService.uploadBannerImg(bannerImage, username);
+                String bannerUrl = storeImage(MediaKind.BANNER, bannerImage, username, "Erro ao fazer upload da imagem de banner");
                 user.setBannerImg(bannerUrl);
             }
 
@@ -206,6 +208,15 @@ public class UserService {
         }
     }
 
+    private String storeImage(MediaKind kind, MultipartFile image, String username, String errorMessage) {
+        MediaUpload upload = new MediaUpload(kind, username, image.getContentType(), image.getOriginalFilename());
+        try (InputStream in = image.getInputStream()) {
+            return mediaStorage.store(upload, in, image.getSize()).url();
+        } catch (IOException e) {
+            throw new RuntimeException(errorMessage, e);
+        }
+    }
+
     private void updateAthleteSkills(Athlete athlete, List<SkillDTO> skillDTOs) {
         // Limpa as skills antigas
         if (athlete.getSkills() != null) {
@@ -214,17 +225,8 @@ public class UserService {
             athlete.setSkills(new HashSet<>());
         }
         
-        // Adiciona as novas skills
-        for (SkillDTO skillDTO : skillDTOs) {
-            String skillName = skillDTO.name();
-            Skill skill = skillRepository.findByName(skillName);
-            if (skill == null) {
-                skill = new Skill(skillName);
-                // Salva a nova skill antes de associar
-                skill = skillRepository.save(skill);
-            }
-            athlete.getSkills().add(skill);
-        }
+        // Adiciona as novas skills, criando as inexistentes em lote
+        athlete.getSkills().addAll(skillResolver.resolve(skillDTOs.stream().map(SkillDTO::name).toList()));
     }
 
     @Transactional(readOnly = true)
@@ -1,28 +1,172 @@
 package com.example.weuniteauth.service;
 
+import com.example.weuniteauth.config.PresenceProperties;
+import com.example.weuniteauth.config.StompPrincipal;
 import com.example.weuniteauth.dto.chat.UserStatusDTO;
+import com.example.weuniteauth.service.presence.PresenceEntry;
+import com.example.weuniteauth.service.presence.PresenceFanout;
+import com.example.weuniteauth.service.presence.PresenceStore;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.time.ZoneId;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Presence of users, driven by WebSocket sessions. A session is registered on CONNECT,
+ * kept alive by any inbound frame or STOMP heart-beat and removed on DISCONNECT; sessions of crashed clients or nodes
+ * expire after {@code presence.ttl-seconds}. Users go offline when their last session ends;
+ * transitions and explicit status changes are handed to {@link PresenceFanout}, which
+ * throttles delivery on /topic/user/{id}/status.
+ */
 @Service
+@RequiredArgsConstructor
 public class UserStatusService {
 
-    private final Map<Long, UserStatusDTO> userStatusMap = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(UserStatusService.class);
 
-    public void updateUserStatus(UserStatusDTO statusUpdate) {
-        userStatusMap.put(statusUpdate.getUserId(), statusUpdate);
+    private static final String ONLINE = "ONLINE";
+    private static final String OFFLINE = "OFFLINE";
+
+    private final PresenceStore presenceStore;
+    private final PresenceProperties presenceProperties;
+    private final PresenceFanout presenceFanout;
+
+    // When each local session last pushed its expiry forward, so busy sessions do not write on every frame
+    private final Map<String, Instant> lastTouched = new ConcurrentHashMap<>();
+
+    /**
+     * Sets the status shown for the user (ONLINE, AWAY, ...) on the given session. Clients
+     * without a session id get one derived from the user, so the status still expires.
+     */
+    public void updateUserStatus(UserStatusDTO statusUpdate, String sessionId) {
+        if (statusUpdate.getUserId() == null) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        String key = sessionId != null ? sessionId : "user-" + statusUpdate.getUserId();
+
+        if (OFFLINE.equals(statusUpdate.getStatus())) {
+            presenceStore.remove(key);
+        } else {
+            presenceStore.put(key, statusUpdate.getUserId(), statusUpdate.getStatus(), now, expiresAt(now));
+        }
+
+        presenceFanout.publish(statusUpdate);
+    }
+
+    /**
+     * Keeps the session alive; returns false when it already expired and the client should reconnect.
+     */
+    public boolean heartbeat(String sessionId) {
+        return sessionId != null && presenceStore.refresh(sessionId, expiresAt(Instant.now()));
+    }
+
+    /**
+     * Keeps the session alive on any inbound frame. The store is written at most once per
+     * third of the TTL, which still refreshes the session well before it expires.
+     */
+    public void touch(String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        Instant last = lastTouched.get(sessionId);
+        if (last != null && now.isBefore(last.plus(Duration.ofSeconds(presenceProperties.getTtlSeconds()).dividedBy(3)))) {
+            return;
+        }
+
+        lastTouched.put(sessionId, now);
+        presenceStore.refresh(sessionId, expiresAt(now));
     }
 
     public UserStatusDTO getUserStatus(Long userId) {
-        UserStatusDTO status = userStatusMap.get(userId);
+        return getUserStatuses(List.of(userId)).get(userId);
+    }
+
+    /**
+     * Status of every requested user in one store lookup, for the conversation list.
+     */
+    public Map<Long, UserStatusDTO> getUserStatuses(Collection<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+
+        Map<Long, PresenceEntry> live = presenceStore.findLive(ids, Instant.now());
 
-        if (status == null) {
-            return new UserStatusDTO(userId, "OFFLINE", LocalDateTime.now());
+        Map<Long, UserStatusDTO> statuses = new LinkedHashMap<>();
+        for (Long userId : ids) {
+            PresenceEntry entry = live.get(userId);
+            statuses.put(userId, entry != null
+                    ? new UserStatusDTO(userId, entry.status(), toLocalDateTime(entry.updatedAt()))
+                    : new UserStatusDTO(userId, OFFLINE, LocalDateTime.now()));
         }
+        return statuses;
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        if (!(event.getUser() instanceof StompPrincipal principal) || principal.userId() == null) {
+            return;
+        }
+
+        String sessionId = StompHeaderAccessor.wrap(event.getMessage()).getSessionId();
+        if (sessionId == null) {
+            return;
+        }
+
+        Long userId = principal.userId();
+        boolean wasOnline = presenceStore.findLive(List.of(userId), Instant.now()).containsKey(userId);
+
+        Instant now = Instant.now();
+        presenceStore.put(sessionId, userId, ONLINE, now, expiresAt(now));
+
+        if (!wasOnline) {
+            broadcast(userId, ONLINE);
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        lastTouched.remove(event.getSessionId());
+        presenceStore.remove(event.getSessionId()).ifPresent(userId -> {
+            if (!presenceStore.findLive(List.of(userId), Instant.now()).containsKey(userId)) {
+                broadcast(userId, OFFLINE);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${presence.sweep-interval-ms:15000}")
+    public void sweepExpiredSessions() {
+        try {
+            List<Long> offline = presenceStore.purgeExpired(Instant.now());
+            offline.forEach(userId -> broadcast(userId, OFFLINE));
+        } catch (Exception e) {
+            logger.warn("Falha ao expirar sessões de presença: {}", e.getMessage());
+        }
+    }
+
+    private void broadcast(Long userId, String status) {
+        presenceFanout.publish(new UserStatusDTO(userId, status, LocalDateTime.now()));
+    }
+
+    private Instant expiresAt(Instant now) {
+        return now.plusSeconds(presenceProperties.getTtlSeconds());
+    }
 
-        return status;
+    private LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
     }
-}
\ No newline at end of file
+}
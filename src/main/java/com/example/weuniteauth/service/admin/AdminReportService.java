@@ -1,6 +1,7 @@
 package com.example.weuniteauth.service.admin;
 
 import com.example.weuniteauth.domain.opportunity.Opportunity;
+import com.example.weuniteauth.domain.opportunity.OpportunityChangedEvent;
 import com.example.weuniteauth.domain.post.Comment;
 import com.example.weuniteauth.domain.post.Post;
 import com.example.weuniteauth.domain.report.Report;
@@ -9,11 +10,16 @@ import com.example.weuniteauth.dto.OpportunityDTO;
 import com.example.weuniteauth.dto.PostDTO;
 import com.example.weuniteauth.dto.ResponseDTO;
 import com.example.weuniteauth.dto.report.ReportDTO;
+import com.example.weuniteauth.dto.report.ReportEntryDTO;
+import com.example.weuniteauth.dto.report.ReportQueueItemDTO;
+import com.example.weuniteauth.dto.report.ReportQueuePageDTO;
 import com.example.weuniteauth.dto.report.ReportSummaryDTO;
+import com.example.weuniteauth.dto.report.ReportedContentSummaryDTO;
 import com.example.weuniteauth.dto.report.ReportedCommentDetailDTO;
 import com.example.weuniteauth.dto.report.ReportedOpportunityDetailDTO;
 import com.example.weuniteauth.dto.report.ReportedPostDetailDTO;
 import com.example.weuniteauth.dto.UserDTO;
+import com.example.weuniteauth.dto.admin.BulkReportActionRequestDTO;
 import com.example.weuniteauth.exceptions.comment.CommentNotFoundException;
 import com.example.weuniteauth.exceptions.opportunity.OpportunityNotFoundException;
 import com.example.weuniteauth.exceptions.post.PostNotFoundException;
@@ -25,12 +31,20 @@ import com.example.weuniteauth.repository.CommentRepository;
 import com.example.weuniteauth.repository.OpportunityRepository;
 import com.example.weuniteauth.repository.PostRepository;
 import com.example.weuniteauth.repository.ReportRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -48,8 +62,17 @@ public class AdminReportService {
     private final OpportunityMapper opportunityMapper;
     private final CommentMapper commentMapper;
     private final ReportMapper reportMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final Long REPORT_THRESHOLD = 1L;
+    private static final int MAX_QUEUE_PAGE_SIZE = 100;
+
+    private static final Set<Report.ReportStatus> ALL_STATUSES = EnumSet.allOf(Report.ReportStatus.class);
+    // Descartar não toca denúncias já resolvidas; resolver as carimba de novo com a data atual
+    private static final Set<Report.ReportStatus> OPEN_STATUSES =
+            EnumSet.of(Report.ReportStatus.PENDING, Report.ReportStatus.REVIEWED);
+    private static final Set<Report.ReportStatus> RESOLVABLE_STATUSES =
+            EnumSet.of(Report.ReportStatus.PENDING, Report.ReportStatus.REVIEWED, Report.ReportStatus.RESOLVED);
 
     public AdminReportService(ReportRepository reportRepository,
                               PostRepository postRepository,
@@ -58,7 +81,8 @@ public class AdminReportService {
                               PostMapper postMapper,
                               OpportunityMapper opportunityMapper,
                               CommentMapper commentMapper,
-                              ReportMapper reportMapper) {
+                              ReportMapper reportMapper,
+                              ApplicationEventPublisher eventPublisher) {
         this.reportRepository = reportRepository;
         this.postRepository = postRepository;
         this.opportunityRepository = opportunityRepository;
@@ -67,6 +91,7 @@ public class AdminReportService {
         this.opportunityMapper = opportunityMapper;
         this.commentMapper = commentMapper;
         this.reportMapper = reportMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     // ========== Posts Reportados ==========
@@ -89,71 +114,30 @@ public class AdminReportService {
 
     @Transactional(readOnly = true)
     public List<ReportedPostDetailDTO> getReportedPostsDetails() {
-        List<Object[]> results = reportRepository.findAllEntitiesWithReports(
-                Report.ReportType.POST,
-                REPORT_THRESHOLD
-        );
-
-        return results.stream()
-                .map(result -> {
-                    Long postId = (Long) result[0];
-
-                    Post post = postRepository.findById(postId).orElse(null);
-                    
-                    List<Report> allReports = reportRepository.findByEntityIdAndType(
-                            postId,
-                            Report.ReportType.POST
-                    );
-
-                    PostDTO postDTO;
-                    if (post != null) {
-                        postDTO = postMapper.toPostDTO(post);
-                    } else {
-                        // Cria um DTO placeholder para post deletado permanentemente
-                        postDTO = new PostDTO(
-                            String.valueOf(postId),
-                            "Conteúdo removido permanentemente",
-                            null,
-                            null,
-                            List.of(),
-                            List.of(),
-                            List.of(),
-                            Instant.now(),
-                            Instant.now(),
-                            new UserDTO("0", "Usuário Desconhecido", "unknown", "USER", "", "", "", "", false, Instant.now(), Instant.now(), null, null, null, null, null, List.of()),
-                            null,
-                            null
-                        );
-                    }
-
-                    List<ReportDTO> reportDTOs = reportMapper.toReportDTOList(allReports);
-
-                    boolean hasPending = allReports.stream()
-                            .anyMatch(r -> r.getStatus() == Report.ReportStatus.PENDING);
-                    boolean hasReviewed = allReports.stream()
-                            .anyMatch(r -> r.getStatus() == Report.ReportStatus.REVIEWED);
-
-                    String status;
-                    if (post != null && post.isDeleted()) {
-                        status = "deleted";
-                    } else if (post == null) {
-                        status = "deleted";
-                    } else if (hasPending) {
-                        status = "pending";
-                    } else if (hasReviewed) {
-                        status = "reviewed";
-                    } else {
-                        status = "resolved";
-                    }
-
-                    return new ReportedPostDetailDTO(
-                            postDTO,
-                            reportDTOs,
-                            (long) allReports.size(),
-                            status
-                    );
-                })
-                .collect(Collectors.toList());
+        List<Long> postIds = reportedEntityIds(Report.ReportType.POST);
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+
+        // Posts e denúncias carregados com um IN cada, em vez de duas consultas por post
+        Map<Long, Post> posts = postRepository.findAllWithUserByIdIn(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        Map<Long, List<Report>> reportsByPost = reportsByEntity(Report.ReportType.POST, postIds);
+
+        List<ReportedPostDetailDTO> details = new ArrayList<>(postIds.size());
+        for (Long postId : postIds) {
+            Post post = posts.get(postId);
+            List<Report> allReports = reportsByPost.getOrDefault(postId, List.of());
+            PostDTO postDTO = post != null ? postMapper.toPostDTO(post) : removedPost(postId);
+
+            details.add(new ReportedPostDetailDTO(
+                    postDTO,
+                    reportMapper.toReportDTOList(allReports),
+                    (long) allReports.size(),
+                    queueStatus(post == null || post.isDeleted(), statusesOf(allReports))
+            ));
+        }
+        return details;
     }
 
     @Transactional(readOnly = true)
@@ -183,16 +167,7 @@ public class AdminReportService {
         Post post = postRepository.findById(postId)
                 .orElseThrow(PostNotFoundException::new);
 
-        // Marcar todas as denúncias relacionadas como RESOLVED (pois o conteúdo foi removido)
-        List<Report> reports = reportRepository.findByEntityIdAndType(postId, Report.ReportType.POST);
-        reports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.CONTENT_REMOVED);
-        });
-        reportRepository.saveAll(reports);
-
-        post.setDeleted(true);
-        postRepository.save(post);
+        removePost(post);
 
         return postMapper.toResponseDTO("Post excluído com sucesso pelo administrador", post);
     }
@@ -206,13 +181,7 @@ public class AdminReportService {
         postRepository.save(post);
 
         // Atualizar status dos reports relacionados para RESOLVED
-        List<Report> reports = reportRepository.findByEntityIdAndType(postId, Report.ReportType.POST);
-        reports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.NONE);
-            report.setResolvedAt(Instant.now());
-        });
-        reportRepository.saveAll(reports);
+        transition(Report.ReportType.POST, List.of(postId), ALL_STATUSES, Report.ReportStatus.RESOLVED, Report.ActionTaken.NONE);
 
         return postMapper.toResponseDTO("Post restaurado com sucesso pelo administrador", post);
     }
@@ -237,69 +206,31 @@ public class AdminReportService {
 
     @Transactional(readOnly = true)
     public List<ReportedOpportunityDetailDTO> getReportedOpportunitiesDetails() {
-        List<Object[]> results = reportRepository.findAllEntitiesWithReports(
-                Report.ReportType.OPPORTUNITY,
-                REPORT_THRESHOLD
-        );
-
-        return results.stream()
-                .map(result -> {
-                    Long opportunityId = (Long) result[0];
-
-                    Opportunity opportunity = opportunityRepository.findById(opportunityId).orElse(null);
-
-                    List<Report> allReports = reportRepository.findByEntityIdAndType(
-                            opportunityId,
-                            Report.ReportType.OPPORTUNITY
-                    );
-
-                    OpportunityDTO opportunityDTO;
-                    if (opportunity != null) {
-                        opportunityDTO = opportunityMapper.toOpportunityDTO(opportunity);
-                    } else {
-                        // Cria um DTO placeholder para oportunidade deletada permanentemente
-                        opportunityDTO = new OpportunityDTO(
-                            opportunityId,
-                            "Oportunidade removida permanentemente",
-                            "Conteúdo indisponível",
-                            "Localização indisponível",
-                            null,
-                            Set.of(),
-                            Instant.now(),
-                            Instant.now(),
-                            new UserDTO("0", "Empresa Desconhecida", "unknown", "COMPANY", "", "", "", "", false, Instant.now(), Instant.now(), null, null, null, null, null, List.of()),
-                            0
-                        );
-                    }
-
-                    List<ReportDTO> reportDTOs = reportMapper.toReportDTOList(allReports);
-
-                    boolean hasPending = allReports.stream()
-                            .anyMatch(r -> r.getStatus() == Report.ReportStatus.PENDING);
-                    boolean hasReviewed = allReports.stream()
-                            .anyMatch(r -> r.getStatus() == Report.ReportStatus.REVIEWED);
-
-                    String status;
-                    if (opportunity != null && opportunity.isDeleted()) {
-                        status = "deleted";
-                    } else if (opportunity == null) {
-                        status = "deleted";
-                    } else if (hasPending) {
-                        status = "pending";
-                    } else if (hasReviewed) {
-                        status = "reviewed";
-                    } else {
-                        status = "resolved";
-                    }
-
-                    return new ReportedOpportunityDetailDTO(
-                            opportunityDTO,
-                            reportDTOs,
-                            (long) allReports.size(),
-                            status
-                    );
-                })
-                .collect(Collectors.toList());
+        List<Long> opportunityIds = reportedEntityIds(Report.ReportType.OPPORTUNITY);
+        if (opportunityIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Opportunity> opportunities = opportunityRepository.findAllWithCompanyByIdIn(opportunityIds).stream()
+                .collect(Collectors.toMap(Opportunity::getId, Function.identity()));
+        Map<Long, List<Report>> reportsByOpportunity = reportsByEntity(Report.ReportType.OPPORTUNITY, opportunityIds);
+
+        List<ReportedOpportunityDetailDTO> details = new ArrayList<>(opportunityIds.size());
+        for (Long opportunityId : opportunityIds) {
+            Opportunity opportunity = opportunities.get(opportunityId);
+            List<Report> allReports = reportsByOpportunity.getOrDefault(opportunityId, List.of());
+            OpportunityDTO opportunityDTO = opportunity != null
+                    ? opportunityMapper.toOpportunityDTO(opportunity)
+                    : removedOpportunity(opportunityId);
+
+            details.add(new ReportedOpportunityDetailDTO(
+                    opportunityDTO,
+                    reportMapper.toReportDTOList(allReports),
+                    (long) allReports.size(),
+                    queueStatus(opportunity == null || opportunity.isDeleted(), statusesOf(allReports))
+            ));
+        }
+        return details;
     }
 
     @Transactional(readOnly = true)
@@ -329,16 +260,7 @@ public class AdminReportService {
         Opportunity opportunity = opportunityRepository.findById(opportunityId)
                 .orElseThrow(OpportunityNotFoundException::new);
 
-        // Marcar todas as denúncias relacionadas como RESOLVED (pois o conteúdo foi removido)
-        List<Report> reports = reportRepository.findByEntityIdAndType(opportunityId, Report.ReportType.OPPORTUNITY);
-        reports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.CONTENT_REMOVED);
-        });
-        reportRepository.saveAll(reports);
-
-        opportunity.setDeleted(true);
-        opportunityRepository.save(opportunity);
+        removeOpportunity(opportunity);
 
         return opportunityMapper.toResponseDTO("Oportunidade excluída com sucesso pelo administrador", opportunity);
     }
@@ -350,15 +272,10 @@ public class AdminReportService {
 
         opportunity.setDeleted(false);
         opportunityRepository.save(opportunity);
+        eventPublisher.publishEvent(new OpportunityChangedEvent(opportunityId));
 
         // Atualizar status dos reports relacionados para RESOLVED
-        List<Report> reports = reportRepository.findByEntityIdAndType(opportunityId, Report.ReportType.OPPORTUNITY);
-        reports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.NONE);
-            report.setResolvedAt(Instant.now());
-        });
-        reportRepository.saveAll(reports);
+        transition(Report.ReportType.OPPORTUNITY, List.of(opportunityId), ALL_STATUSES, Report.ReportStatus.RESOLVED, Report.ActionTaken.NONE);
 
         return opportunityMapper.toResponseDTO("Oportunidade restaurada com sucesso pelo administrador", opportunity);
     }
@@ -383,68 +300,29 @@ public class AdminReportService {
 
     @Transactional(readOnly = true)
     public List<ReportedCommentDetailDTO> getReportedCommentsDetails() {
-        List<Object[]> results = reportRepository.findAllEntitiesWithReports(
-                Report.ReportType.COMMENT,
-                REPORT_THRESHOLD
-        );
-
-        return results.stream()
-                .map(result -> {
-                    Long commentId = (Long) result[0];
-
-                    Comment comment = commentRepository.findById(commentId).orElse(null);
-
-                    List<Report> allReports = reportRepository.findByEntityIdAndType(
-                            commentId,
-                            Report.ReportType.COMMENT
-                    );
-
-                    CommentDTO commentDTO;
-                    if (comment != null) {
-                        commentDTO = commentMapper.toCommentDTO(comment);
-                    } else {
-                        // Cria um DTO placeholder para comentário deletado permanentemente
-                        commentDTO = new CommentDTO(
-                            String.valueOf(commentId),
-                            new UserDTO("0", "Usuário Desconhecido", "unknown", "USER", "", "", "", "", false, Instant.now(), Instant.now(), null, null, null, null, null, List.of()),
-                            null,
-                            "Comentário removido permanentemente",
-                            null,
-                            null,
-                            List.of(),
-                            Instant.now(),
-                            Instant.now()
-                        );
-                    }
-
-                    List<ReportDTO> reportDTOs = reportMapper.toReportDTOList(allReports);
-
-                    boolean hasPending = allReports.stream()
-                            .anyMatch(r -> r.getStatus() == Report.ReportStatus.PENDING);
-                    boolean hasReviewed = allReports.stream()
-                            .anyMatch(r -> r.getStatus() == Report.ReportStatus.REVIEWED);
-
-                    String status;
-                    if (comment != null && comment.isDeleted()) {
-                        status = "deleted";
-                    } else if (comment == null) {
-                        status = "deleted";
-                    } else if (hasPending) {
-                        status = "pending";
-                    } else if (hasReviewed) {
-                        status = "reviewed";
-                    } else {
-                        status = "resolved";
-                    }
-
-                    return new ReportedCommentDetailDTO(
-                            commentDTO,
-                            reportDTOs,
-                            (long) allReports.size(),
-                            status
-                    );
-                })
-                .collect(Collectors.toList());
+        List<Long> commentIds = reportedEntityIds(Report.ReportType.COMMENT);
+        if (commentIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Comment> comments = commentRepository.findAllWithUserByIdIn(commentIds).stream()
+                .collect(Collectors.toMap(Comment::getId, Function.identity()));
+        Map<Long, List<Report>> reportsByComment = reportsByEntity(Report.ReportType.COMMENT, commentIds);
+
+        List<ReportedCommentDetailDTO> details = new ArrayList<>(commentIds.size());
+        for (Long commentId : commentIds) {
+            Comment comment = comments.get(commentId);
+            List<Report> allReports = reportsByComment.getOrDefault(commentId, List.of());
+            CommentDTO commentDTO = comment != null ? commentMapper.toCommentDTO(comment) : removedComment(commentId);
+
+            details.add(new ReportedCommentDetailDTO(
+                    commentDTO,
+                    reportMapper.toReportDTOList(allReports),
+                    (long) allReports.size(),
+                    queueStatus(comment == null || comment.isDeleted(), statusesOf(allReports))
+            ));
+        }
+        return details;
     }
 
     @Transactional(readOnly = true)
@@ -474,16 +352,7 @@ public class AdminReportService {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(CommentNotFoundException::new);
 
-        // Marcar todas as denúncias relacionadas como RESOLVED (pois o conteúdo foi removido)
-        List<Report> reports = reportRepository.findByEntityIdAndType(commentId, Report.ReportType.COMMENT);
-        reports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.CONTENT_REMOVED);
-        });
-        reportRepository.saveAll(reports);
-
-        comment.setDeleted(true);
-        commentRepository.save(comment);
+        removeComment(comment);
 
         return commentMapper.toResponseDTO("Comentário excluído com sucesso pelo administrador", comment);
     }
@@ -493,128 +362,324 @@ public class AdminReportService {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(CommentNotFoundException::new);
 
+        if (comment.isDeleted()) {
+            postRepository.adjustCommentCount(comment.getPost().getId(), 1);
+        }
+
         comment.setDeleted(false);
         commentRepository.save(comment);
 
         // Atualizar status dos reports relacionados para RESOLVED
-        List<Report> reports = reportRepository.findByEntityIdAndType(commentId, Report.ReportType.COMMENT);
-        reports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.NONE);
-            report.setResolvedAt(Instant.now());
-        });
-        reportRepository.saveAll(reports);
+        transition(Report.ReportType.COMMENT, List.of(commentId), ALL_STATUSES, Report.ReportStatus.RESOLVED, Report.ActionTaken.NONE);
 
         return commentMapper.toResponseDTO("Comentário restaurado com sucesso pelo administrador", comment);
     }
 
+    // ========== Fila de Moderação ==========
+
+    /**
+     * Página da fila de moderação de um tipo de conteúdo, mais denunciados primeiro. Só entram
+     * denúncias pendentes ou em revisão; conteúdo com todas as denúncias resolvidas sai da fila.
+     * O cursor é o par (totalReports, id) do último item da página anterior. Cada página custa
+     * três consultas: a agregação das denúncias, o resumo do conteúdo e as denúncias, as duas
+     * últimas com IN sobre os ids da página.
+     */
+    @Transactional(readOnly = true)
+    public ReportQueuePageDTO getReportQueue(Report.ReportType type, Long cursorCount, Long cursorId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_QUEUE_PAGE_SIZE));
+        Long startCount = cursorCount != null ? cursorCount : Long.MAX_VALUE;
+        Long startId = cursorId != null ? cursorId : Long.MAX_VALUE;
+
+        // Uma linha a mais indica se existe outra página
+        List<Object[]> rows = reportRepository.findReportQueuePage(type, OPEN_STATUSES, REPORT_THRESHOLD,
+                startCount, startId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<Object[]> page = hasMore ? rows.subList(0, pageSize) : rows;
+        if (page.isEmpty()) {
+            return new ReportQueuePageDTO(List.of(), null, null, false);
+        }
+
+        List<Long> ids = page.stream().map(row -> (Long) row[0]).toList();
+        Map<Long, ReportedContentSummaryDTO> summaries = loadSummaries(type, ids);
+        Map<Long, List<Object[]>> entriesByEntity = reportRepository.findEntriesByTypeAndEntityIdIn(type, ids).stream()
+                .collect(Collectors.groupingBy(row -> (Long) row[1]));
+
+        List<ReportQueueItemDTO> items = new ArrayList<>(page.size());
+        for (Object[] row : page) {
+            Long id = (Long) row[0];
+            ReportedContentSummaryDTO content = summaries.get(id);
+            if (content == null) {
+                content = removedContent(type, id);
+            }
+            List<Object[]> entries = entriesByEntity.getOrDefault(id, List.of());
+
+            items.add(new ReportQueueItemDTO(
+                    content,
+                    entries.stream().map(AdminReportService::toReportEntry).toList(),
+                    ((Number) row[1]).longValue(),
+                    queueStatus(content.deleted(), entries.stream().map(entry -> (Report.ReportStatus) entry[5]).toList())
+            ));
+        }
+
+        if (!hasMore) {
+            return new ReportQueuePageDTO(items, null, null, false);
+        }
+        Object[] last = page.get(page.size() - 1);
+        return new ReportQueuePageDTO(items, ((Number) last[1]).longValue(), (Long) last[0], true);
+    }
+
     // ========== Ações sobre Reports ==========
 
+    /**
+     * Decisões aplicáveis às denúncias de um conteúdo. As três primeiras são um único UPDATE
+     * sobre as denúncias; REMOVE_CONTENT também remove o conteúdo.
+     */
+    public enum ReportDecision {
+        DISMISS,
+        REVIEW,
+        RESOLVE,
+        REMOVE_CONTENT
+    }
+
     @Transactional
     public ResponseDTO<String> dismissReports(Long entityId, String type) {
-        Report.ReportType reportType = Report.ReportType.valueOf(type.toUpperCase());
-        List<Report> pendingReports = reportRepository.findByEntityIdAndTypeAndStatus(
-                entityId,
-                reportType,
-                Report.ReportStatus.PENDING
-        );
-        
-        List<Report> reviewedReports = reportRepository.findByEntityIdAndTypeAndStatus(
-                entityId,
-                reportType,
-                Report.ReportStatus.REVIEWED
-        );
-
-        pendingReports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.NONE);
-            report.setResolvedAt(Instant.now());
-        });
-        reviewedReports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.NONE);
-            report.setResolvedAt(Instant.now());
-        });
-        
-        reportRepository.saveAll(pendingReports);
-        reportRepository.saveAll(reviewedReports);
+        int dismissed = decide(Report.ReportType.valueOf(type.toUpperCase()), List.of(entityId), ReportDecision.DISMISS);
 
         return new ResponseDTO<>(
                 "Denúncias descartadas com sucesso",
-                (pendingReports.size() + reviewedReports.size()) + " denúncias foram descartadas"
+                dismissed + " denúncias foram descartadas"
         );
     }
 
     @Transactional
     public ResponseDTO<String> markReportAsReviewed(Long entityId, String type) {
-        Report.ReportType reportType = Report.ReportType.valueOf(type.toUpperCase());
-        List<Report> reports = reportRepository.findByEntityIdAndTypeAndStatus(
-                entityId,
-                reportType,
-                Report.ReportStatus.PENDING
-        );
-
-        reports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.REVIEWED);
-            report.setResolvedAt(Instant.now());
-        });
-        reportRepository.saveAll(reports);
+        int reviewed = decide(Report.ReportType.valueOf(type.toUpperCase()), List.of(entityId), ReportDecision.REVIEW);
 
         return new ResponseDTO<>(
                 "Denúncias marcadas como em análise",
-                reports.size() + " denúncias foram marcadas como em análise"
+                reviewed + " denúncias foram marcadas como em análise"
         );
     }
 
     @Transactional
     public ResponseDTO<String> resolveReports(Long entityId, String type) {
-        Report.ReportType reportType = Report.ReportType.valueOf(type.toUpperCase());
-        List<Report> pendingReports = reportRepository.findByEntityIdAndTypeAndStatus(
-                entityId,
-                reportType,
-                Report.ReportStatus.PENDING
-        );
+        int totalResolved = decide(Report.ReportType.valueOf(type.toUpperCase()), List.of(entityId), ReportDecision.RESOLVE);
 
-        List<Report> reviewedReports = reportRepository.findByEntityIdAndTypeAndStatus(
-                entityId,
-                reportType,
-                Report.ReportStatus.REVIEWED
+        return new ResponseDTO<>(
+                "Denúncias resolvidas com sucesso",
+                totalResolved + " denúncias foram resolvidas e o conteúdo foi mantido"
         );
+    }
 
-        List<Report> resolvedReports = reportRepository.findByEntityIdAndTypeAndStatus(
-                entityId,
-                reportType,
-                Report.ReportStatus.RESOLVED
-        );
+    /**
+     * Aplica a mesma decisão a vários conteúdos do mesmo tipo numa única transação:
+     * se algum item falhar, nenhuma alteração é mantida.
+     */
+    @Transactional
+    public ResponseDTO<String> applyBulkAction(BulkReportActionRequestDTO request) {
+        Report.ReportType reportType = Report.ReportType.valueOf(request.type().toUpperCase());
+        ReportDecision decision = ReportDecision.valueOf(request.action().toUpperCase());
+        List<Long> entityIds = request.entityIds().stream().distinct().toList();
 
-        pendingReports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.NONE);
-            report.setResolvedAt(Instant.now());
-        });
-        reviewedReports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.NONE);
-            report.setResolvedAt(Instant.now());
-        });
-        resolvedReports.forEach(report -> {
-            report.setStatus(Report.ReportStatus.RESOLVED);
-            report.setActionTaken(Report.ActionTaken.NONE);
-            report.setResolvedAt(Instant.now());
-        });
-
-        reportRepository.saveAll(pendingReports);
-        reportRepository.saveAll(reviewedReports);
-        reportRepository.saveAll(resolvedReports);
-
-        int totalResolved = pendingReports.size() + reviewedReports.size() + resolvedReports.size();
+        int updated = decide(reportType, entityIds, decision);
 
         return new ResponseDTO<>(
-                "Denúncias resolvidas com sucesso",
-                totalResolved + " denúncias foram resolvidas e o conteúdo foi mantido"
+                "Ação aplicada com sucesso",
+                updated + " denúncias atualizadas em " + entityIds.size() + " itens"
         );
     }
 
+    /**
+     * Retorna quantas denúncias mudaram. REMOVE_CONTENT passa pela remoção item a item, que
+     * também ajusta contadores e a marcação de excluído do conteúdo.
+     */
+    private int decide(Report.ReportType type, List<Long> entityIds, ReportDecision decision) {
+        return switch (decision) {
+            case DISMISS -> transition(type, entityIds, OPEN_STATUSES, Report.ReportStatus.RESOLVED, Report.ActionTaken.NONE);
+            // Em análise não é um desfecho: actionTaken fica como está
+            case REVIEW -> reportRepository.transitionReportStatus(type, entityIds, EnumSet.of(Report.ReportStatus.PENDING),
+                    Report.ReportStatus.REVIEWED, Instant.now());
+            case RESOLVE -> transition(type, entityIds, RESOLVABLE_STATUSES, Report.ReportStatus.RESOLVED, Report.ActionTaken.NONE);
+            case REMOVE_CONTENT -> {
+                int removed = 0;
+                for (Long entityId : entityIds) {
+                    removed += removeContent(type, entityId);
+                }
+                yield removed;
+            }
+        };
+    }
+
+    private int removeContent(Report.ReportType type, Long entityId) {
+        return switch (type) {
+            case POST -> removePost(postRepository.findById(entityId)
+                    .orElseThrow(PostNotFoundException::new));
+            case OPPORTUNITY -> removeOpportunity(opportunityRepository.findById(entityId)
+                    .orElseThrow(OpportunityNotFoundException::new));
+            case COMMENT -> removeComment(commentRepository.findById(entityId)
+                    .orElseThrow(CommentNotFoundException::new));
+        };
+    }
+
+    // Marcam todas as denúncias relacionadas como RESOLVED (pois o conteúdo foi removido)
+
+    private int removePost(Post post) {
+        int resolved = transition(Report.ReportType.POST, List.of(post.getId()), ALL_STATUSES,
+                Report.ReportStatus.RESOLVED, Report.ActionTaken.CONTENT_REMOVED);
+
+        post.setDeleted(true);
+        postRepository.save(post);
+        return resolved;
+    }
+
+    private int removeOpportunity(Opportunity opportunity) {
+        int resolved = transition(Report.ReportType.OPPORTUNITY, List.of(opportunity.getId()), ALL_STATUSES,
+                Report.ReportStatus.RESOLVED, Report.ActionTaken.CONTENT_REMOVED);
+
+        opportunity.setDeleted(true);
+        opportunityRepository.save(opportunity);
+        // O ranking de skills do painel ignora oportunidades excluídas
+        eventPublisher.publishEvent(new OpportunityChangedEvent(opportunity.getId()));
+        return resolved;
+    }
+
+    private int removeComment(Comment comment) {
+        int resolved = transition(Report.ReportType.COMMENT, List.of(comment.getId()), ALL_STATUSES,
+                Report.ReportStatus.RESOLVED, Report.ActionTaken.CONTENT_REMOVED);
+
+        if (!comment.isDeleted()) {
+            postRepository.adjustCommentCount(comment.getPost().getId(), -1);
+        }
+
+        comment.setDeleted(true);
+        commentRepository.save(comment);
+        return resolved;
+    }
+
     // ========== Métodos Privados ==========
-}
 
+    private int transition(Report.ReportType type, Collection<Long> entityIds, Set<Report.ReportStatus> fromStatuses,
+                           Report.ReportStatus status, Report.ActionTaken action) {
+        return reportRepository.transitionReports(type, entityIds, fromStatuses, status, action, Instant.now());
+    }
+
+    private List<Long> reportedEntityIds(Report.ReportType type) {
+        return reportRepository.findAllEntitiesWithReports(type, REPORT_THRESHOLD).stream()
+                .map(result -> (Long) result[0])
+                .toList();
+    }
+
+    private Map<Long, List<Report>> reportsByEntity(Report.ReportType type, List<Long> entityIds) {
+        return reportRepository.findWithReporterByTypeAndEntityIdIn(type, entityIds).stream()
+                .collect(Collectors.groupingBy(Report::getEntityId));
+    }
+
+    private static List<Report.ReportStatus> statusesOf(List<Report> reports) {
+        return reports.stream().map(Report::getStatus).toList();
+    }
+
+    /**
+     * Conteúdo removido (ou apagado permanentemente) vem primeiro; depois, qualquer denúncia
+     * pendente deixa o item pendente, e só então em análise.
+     */
+    private static String queueStatus(boolean removed, Collection<Report.ReportStatus> statuses) {
+        if (removed) {
+            return "deleted";
+        } else if (statuses.contains(Report.ReportStatus.PENDING)) {
+            return "pending";
+        } else if (statuses.contains(Report.ReportStatus.REVIEWED)) {
+            return "reviewed";
+        }
+        return "resolved";
+    }
+
+    private Map<Long, ReportedContentSummaryDTO> loadSummaries(Report.ReportType type, List<Long> ids) {
+        Map<Long, ReportedContentSummaryDTO> summaries = new HashMap<>();
+        switch (type) {
+            case POST -> postRepository.findSummariesByIdIn(ids).forEach(row -> summaries.put((Long) row[0],
+                    new ReportedContentSummaryDTO(
+                            (Long) row[0], type.name(), null, (String) row[1],
+                            row[2] != null ? (String) row[2] : (String) row[3], null,
+                            (Long) row[6], (String) row[7], (String) row[8], (String) row[9],
+                            (Boolean) row[4], true, (Instant) row[5])));
+            case OPPORTUNITY -> opportunityRepository.findSummariesByIdIn(ids).forEach(row -> summaries.put((Long) row[0],
+                    new ReportedContentSummaryDTO(
+                            (Long) row[0], type.name(), (String) row[1], (String) row[2], null, null,
+                            (Long) row[5], (String) row[6], (String) row[7], (String) row[8],
+                            (Boolean) row[3], true, (Instant) row[4])));
+            case COMMENT -> commentRepository.findSummariesByIdIn(ids).forEach(row -> summaries.put((Long) row[0],
+                    new ReportedContentSummaryDTO(
+                            (Long) row[0], type.name(), null, (String) row[1], (String) row[2], (Long) row[9],
+                            (Long) row[5], (String) row[6], (String) row[7], (String) row[8],
+                            (Boolean) row[3], true, (Instant) row[4])));
+        }
+        return summaries;
+    }
+
+    private static ReportEntryDTO toReportEntry(Object[] row) {
+        return new ReportEntryDTO(
+                (Long) row[0],
+                (Long) row[2],
+                (String) row[3],
+                (String) row[4],
+                ((Report.ReportStatus) row[5]).name().toLowerCase(),
+                row[6] != null ? ((Report.ActionTaken) row[6]).name() : null,
+                (Instant) row[7],
+                (Instant) row[8]
+        );
+    }
+
+    private static ReportedContentSummaryDTO removedContent(Report.ReportType type, Long id) {
+        return new ReportedContentSummaryDTO(id, type.name(), null, "Conteúdo removido permanentemente",
+                null, null, null, null, null, null, true, false, null);
+    }
+
+    // Placeholders para conteúdo apagado permanentemente
+
+    private static PostDTO removedPost(Long postId) {
+        return new PostDTO(
+                String.valueOf(postId),
+                "Conteúdo removido permanentemente",
+                null,
+                null,
+                null,
+                List.of(),
+                List.of(),
+                List.of(),
+                Instant.now(),
+                Instant.now(),
+                new UserDTO("0", "Usuário Desconhecido", "unknown", "USER", "", "", "", "", false, Instant.now(), Instant.now(), null, null, null, null, null, List.of()),
+                null,
+                null
+        );
+    }
+
+    private static OpportunityDTO removedOpportunity(Long opportunityId) {
+        return new OpportunityDTO(
+                opportunityId,
+                "Oportunidade removida permanentemente",
+                "Conteúdo indisponível",
+                "Localização indisponível",
+                null,
+                Set.of(),
+                Instant.now(),
+                Instant.now(),
+                new UserDTO("0", "Empresa Desconhecida", "unknown", "COMPANY", "", "", "", "", false, Instant.now(), Instant.now(), null, null, null, null, null, List.of()),
+                0
+        );
+    }
+
+    private static CommentDTO removedComment(Long commentId) {
+        return new CommentDTO(
+                String.valueOf(commentId),
+                new UserDTO("0", "Usuário Desconhecido", "unknown", "USER", "", "", "", "", false, Instant.now(), Instant.now(), null, null, null, null, null, List.of()),
+                null,
+                "Comentário removido permanentemente",
+                null,
+                null,
+                List.of(),
+                Instant.now(),
+                Instant.now()
+        );
+    }
+}
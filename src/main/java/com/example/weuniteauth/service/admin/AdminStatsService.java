@@ -1,42 +1,74 @@
 package com.example.weuniteauth.service.admin;
 
+import com.example.weuniteauth.config.AdminStatsProperties;
+import com.example.weuniteauth.domain.admin.DailyMetric;
+import com.example.weuniteauth.domain.opportunity.OpportunityChangedEvent;
 import com.example.weuniteauth.dto.admin.AdminStatsDTO;
 import com.example.weuniteauth.dto.admin.MonthlyDataDTO;
 import com.example.weuniteauth.dto.admin.PreviousMonthStatsDTO;
 import com.example.weuniteauth.dto.admin.UserTypeDataDTO;
 import com.example.weuniteauth.dto.admin.OpportunityCategoryWithSkillsDTO;
+import com.example.weuniteauth.exceptions.BusinessRuleException;
+import com.example.weuniteauth.repository.DailyMetricRepository;
 import com.example.weuniteauth.repository.OpportunityRepository;
-import com.example.weuniteauth.repository.PostRepository;
 import com.example.weuniteauth.repository.user.UserRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.format.TextStyle;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.Locale;
 
 /**
  * Serviço responsável por calcular estatísticas do dashboard admin.
  * Lida com métricas gerais, dados mensais e distribuição de usuários.
+ * Totais e séries mensais são lidos do rollup diário mantido por {@link DailyStatsRollupService}
+ * e reaproveitados por alguns segundos entre chamadas; o ranking de skills também, até a
+ * próxima alteração de oportunidade.
  */
 @Service
 public class AdminStatsService {
 
-    private final PostRepository postRepository;
+    static final int MAX_TOP_SKILLS = 100;
+    static final int MAX_WINDOW_DAYS = 3650;
+    private static final int MAX_CACHED_RANKINGS = 64;
+
     private final OpportunityRepository opportunityRepository;
     private final UserRepository userRepository;
+    private final DailyMetricRepository dailyMetricRepository;
+    private final AdminStatsProperties properties;
+
+    private volatile Cached<AdminStatsDTO> cachedStats;
+    private volatile Cached<List<MonthlyDataDTO>> cachedMonthlyData;
+    private final Map<TopSkillsKey, Cached<List<OpportunityCategoryWithSkillsDTO>>> cachedTopSkills = new ConcurrentHashMap<>();
+    private final AtomicLong topSkillsGeneration = new AtomicLong();
 
-    public AdminStatsService(PostRepository postRepository, 
-                             OpportunityRepository opportunityRepository, 
-                             UserRepository userRepository) {
-        this.postRepository = postRepository;
+    private record TopSkillsKey(int limit, Integer days) {
+    }
+
+    private record Cached<T>(T value, long expiresAtMillis) {
+        boolean isFresh() {
+            return System.currentTimeMillis() < expiresAtMillis;
+        }
+    }
+
+    public AdminStatsService(OpportunityRepository opportunityRepository, 
+                             UserRepository userRepository,
+                             DailyMetricRepository dailyMetricRepository,
+                             AdminStatsProperties properties) {
         this.opportunityRepository = opportunityRepository;
         this.userRepository = userRepository;
+        this.dailyMetricRepository = dailyMetricRepository;
+        this.properties = properties;
     }
 
     /**
@@ -44,46 +76,56 @@ public class AdminStatsService {
      */
     @Transactional(readOnly = true)
     public AdminStatsDTO getAdminStats() {
-        Instant now = Instant.now();
-        Instant tenDaysAgo = now.minus(10, ChronoUnit.DAYS);
-        
-        // Estatísticas do mês atual
-        LocalDate today = LocalDate.now();
+        Cached<AdminStatsDTO> cached = cachedStats;
+        if (cached != null && cached.isFresh()) {
+            return cached.value();
+        }
+
+        AdminStatsDTO stats = computeAdminStats();
+        cachedStats = new Cached<>(stats, expiresAt());
+        return stats;
+    }
+
+    private AdminStatsDTO computeAdminStats() {
+        LocalDate today = LocalDate.now(properties.zoneId());
         LocalDate startOfMonth = today.withDayOfMonth(1);
         LocalDate startOfPreviousMonth = startOfMonth.minusMonths(1);
-        LocalDate endOfPreviousMonth = startOfMonth.minusDays(1);
-        
-        Instant startOfLastMonth = startOfPreviousMonth.atStartOfDay(ZoneId.systemDefault()).toInstant();
-        Instant endOfLastMonth = endOfPreviousMonth.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant();
-        
-        // Totais atuais
-        Long totalPosts = postRepository.count();
-        Long totalOpportunities = opportunityRepository.count();
-        Long activeUsers = userRepository.countActiveUsersByPostActivity(tenDaysAgo);
-        
+
+        // Totais atuais: soma das linhas diárias de cada métrica
+        Map<DailyMetric.Metric, Long> totals = toMap(dailyMetricRepository.sumByMetric(List.of(
+                DailyMetric.Metric.POSTS, DailyMetric.Metric.OPPORTUNITIES,
+                DailyMetric.Metric.LIKES, DailyMetric.Metric.COMMENTS)));
+
+        Long totalPosts = totals.getOrDefault(DailyMetric.Metric.POSTS, 0L);
+        Long totalOpportunities = totals.getOrDefault(DailyMetric.Metric.OPPORTUNITIES, 0L);
+        // Usuários que publicaram nos últimos 10 dias, calculado pelo rollup
+        Long activeUsers = latest(DailyMetric.Metric.ACTIVE_USERS_10D);
+
         // Calcular taxa de engajamento
-        Long totalLikes = postRepository.countTotalLikes();
-        Long totalComments = postRepository.countTotalComments();
+        Long totalLikes = totals.getOrDefault(DailyMetric.Metric.LIKES, 0L);
+        Long totalComments = totals.getOrDefault(DailyMetric.Metric.COMMENTS, 0L);
         Double engagementRate = calculateEngagementRate(totalPosts, totalLikes, totalComments, activeUsers);
-        
+
         // Estatísticas do mês anterior
-        Long previousMonthPosts = postRepository.countPostsBetweenDates(startOfLastMonth, endOfLastMonth);
-        Long previousMonthOpportunities = opportunityRepository.countOpportunitiesBetweenDates(startOfLastMonth, endOfLastMonth);
-        
-        // Para o mês anterior, vamos usar uma aproximação baseada na tendência
-        Instant thirtyDaysAgo = now.minus(30, ChronoUnit.DAYS);
-        Long previousActiveUsers = userRepository.countActiveUsersByPostActivity(thirtyDaysAgo);
-        
+        Map<DailyMetric.Metric, Long> previousTotals = toMap(dailyMetricRepository.sumByMetricBetween(
+                List.of(DailyMetric.Metric.POSTS, DailyMetric.Metric.OPPORTUNITIES),
+                startOfPreviousMonth, startOfMonth));
+        Long previousMonthPosts = previousTotals.getOrDefault(DailyMetric.Metric.POSTS, 0L);
+        Long previousMonthOpportunities = previousTotals.getOrDefault(DailyMetric.Metric.OPPORTUNITIES, 0L);
+
+        // Para o mês anterior, vamos usar uma aproximação baseada na tendência (últimos 30 dias)
+        Long previousActiveUsers = latest(DailyMetric.Metric.ACTIVE_USERS_30D);
+
         // Engajamento do mês anterior (simplificado)
         Double previousEngagementRate = engagementRate * 0.95; // Aproximação: 95% do atual
-        
+
         PreviousMonthStatsDTO previousMonth = new PreviousMonthStatsDTO(
                 previousMonthPosts,
                 previousMonthOpportunities,
                 previousActiveUsers,
                 previousEngagementRate
         );
-        
+
         return new AdminStatsDTO(
                 totalPosts,
                 totalOpportunities,
@@ -92,7 +134,25 @@ public class AdminStatsService {
                 previousMonth
         );
     }
-    
+
+    private Long latest(DailyMetric.Metric metric) {
+        return dailyMetricRepository.findFirstByMetricOrderByDayDesc(metric)
+                .map(DailyMetric::getValue)
+                .orElse(0L);
+    }
+
+    private static Map<DailyMetric.Metric, Long> toMap(List<Object[]> rows) {
+        Map<DailyMetric.Metric, Long> sums = new EnumMap<>(DailyMetric.Metric.class);
+        for (Object[] row : rows) {
+            sums.put((DailyMetric.Metric) row[0], row[1] != null ? ((Number) row[1]).longValue() : 0L);
+        }
+        return sums;
+    }
+
+    private long expiresAt() {
+        return System.currentTimeMillis() + properties.getCacheTtlSeconds() * 1000;
+    }
+
     /**
      * Calcula a taxa de engajamento.
      * Fórmula: ((Likes + Comentários) / (Posts * Usuários ativos)) * 100
@@ -119,20 +179,35 @@ public class AdminStatsService {
      */
     @Transactional(readOnly = true)
     public List<MonthlyDataDTO> getMonthlyData() {
-        LocalDate today = LocalDate.now();
+        Cached<List<MonthlyDataDTO>> cached = cachedMonthlyData;
+        if (cached != null && cached.isFresh()) {
+            return cached.value();
+        }
+
+        List<MonthlyDataDTO> monthlyData = computeMonthlyData();
+        cachedMonthlyData = new Cached<>(monthlyData, expiresAt());
+        return monthlyData;
+    }
+
+    private List<MonthlyDataDTO> computeMonthlyData() {
+        YearMonth currentMonth = YearMonth.now(properties.zoneId());
+        YearMonth firstMonth = currentMonth.minusMonths(5);
+
+        // Uma leitura das linhas diárias dos 6 meses, agrupadas por mês em memória
+        Map<YearMonth, Long> postsByMonth = new HashMap<>();
+        Map<YearMonth, Long> opportunitiesByMonth = new HashMap<>();
+        List<DailyMetric> rows = dailyMetricRepository.findByMetricInAndDayGreaterThanEqual(
+                List.of(DailyMetric.Metric.POSTS, DailyMetric.Metric.OPPORTUNITIES), firstMonth.atDay(1));
+        for (DailyMetric row : rows) {
+            Map<YearMonth, Long> target = row.getMetric() == DailyMetric.Metric.POSTS ? postsByMonth : opportunitiesByMonth;
+            target.merge(YearMonth.from(row.getDay()), row.getValue(), Long::sum);
+        }
+
         List<MonthlyDataDTO> monthlyData = new ArrayList<>();
         
         // Últimos 6 meses
         for (int i = 5; i >= 0; i--) {
-            LocalDate targetMonth = today.minusMonths(i);
-            LocalDate startOfMonth = targetMonth.withDayOfMonth(1);
-            LocalDate endOfMonth = targetMonth.withDayOfMonth(targetMonth.lengthOfMonth());
-            
-            Instant startInstant = startOfMonth.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant endInstant = endOfMonth.atTime(23, 59, 59).atZone(ZoneId.systemDefault()).toInstant();
-            
-            Long postsCount = postRepository.countPostsBetweenDates(startInstant, endInstant);
-            Long opportunitiesCount = opportunityRepository.countOpportunitiesBetweenDates(startInstant, endInstant);
+            YearMonth targetMonth = currentMonth.minusMonths(i);
             
             // Nome do mês abreviado em português
             String monthName = targetMonth.getMonth()
@@ -141,8 +216,8 @@ public class AdminStatsService {
             
             monthlyData.add(new MonthlyDataDTO(
                     monthName.substring(0, 1).toUpperCase() + monthName.substring(1),
-                    postsCount,
-                    opportunitiesCount
+                    postsByMonth.getOrDefault(targetMonth, 0L),
+                    opportunitiesByMonth.getOrDefault(targetMonth, 0L)
             ));
         }
         
@@ -165,63 +240,63 @@ public class AdminStatsService {
     }
 
     /**
-     * Retorna top 5 skills mais frequentes baseado no número de oportunidades que as usam
-     * Simples: apenas contar quantas oportunidades cada skill aparece
+     * Retorna as {@code limit} skills presentes em mais oportunidades, contadas por um único
+     * GROUP BY sobre opportunity_skills. Com {@code days}, considera apenas oportunidades criadas
+     * nos últimos N dias (incluindo hoje). O resultado fica em cache até a próxima alteração de
+     * oportunidade ou até expirar o TTL.
      */
     @Transactional(readOnly = true)
-    public List<OpportunityCategoryWithSkillsDTO> getOpportunitiesWithSkills() {
-        // Mapa para contar quantas oportunidades usam cada skill
-        Map<String, Long> skillCountMap = new HashMap<>();
-        
-        try {
-            // Buscar todas as oportunidades
-            var allOpportunities = opportunityRepository.findAll();
-            
-            if (allOpportunities == null || allOpportunities.isEmpty()) {
-                return new ArrayList<>();
-            }
-            
-            // Contar: para cada skill única, quantas oportunidades a possuem
-            for (var opportunity : allOpportunities) {
-                if (opportunity.getSkills() != null && !opportunity.getSkills().isEmpty()) {
-                    // Usar Set para evitar contar a mesma skill múltiplas vezes na mesma oportunidade
-                    Set<String> uniqueSkillNames = new HashSet<>();
-                    for (var skill : opportunity.getSkills()) {
-                        if (skill != null && skill.getName() != null) {
-                            uniqueSkillNames.add(skill.getName());
-                        }
-                    }
-                    
-                    // Incrementar contagem para cada skill única
-                    for (String skillName : uniqueSkillNames) {
-                        skillCountMap.put(skillName, skillCountMap.getOrDefault(skillName, 0L) + 1);
-                    }
-                }
-            }
-            
-            // Se não houver skills, retornar lista vazia
-            if (skillCountMap.isEmpty()) {
-                return new ArrayList<>();
+    public List<OpportunityCategoryWithSkillsDTO> getOpportunitiesWithSkills(int limit, Integer days) {
+        if (limit < 1 || limit > MAX_TOP_SKILLS) {
+            throw new BusinessRuleException("O limite de skills deve estar entre 1 e " + MAX_TOP_SKILLS);
+        }
+        if (days != null && (days < 1 || days > MAX_WINDOW_DAYS)) {
+            throw new BusinessRuleException("A janela deve estar entre 1 e " + MAX_WINDOW_DAYS + " dias");
+        }
+
+        TopSkillsKey key = new TopSkillsKey(limit, days);
+        Cached<List<OpportunityCategoryWithSkillsDTO>> cached = cachedTopSkills.get(key);
+        if (cached != null && cached.isFresh()) {
+            return cached.value();
+        }
+
+        // Uma alteração durante a consulta invalida o resultado, que então não é guardado
+        long generation = topSkillsGeneration.get();
+        List<OpportunityCategoryWithSkillsDTO> result = computeTopSkills(limit, days);
+        if (topSkillsGeneration.get() == generation) {
+            if (cachedTopSkills.size() >= MAX_CACHED_RANKINGS) {
+                cachedTopSkills.clear();
             }
-            
-            // Pegar top 5 skills mais frequentes e criar DTOs
-            List<OpportunityCategoryWithSkillsDTO> result = skillCountMap.entrySet().stream()
-                .sorted((a, b) -> b.getValue().compareTo(a.getValue()))
-                .limit(5)
-                .map(entry -> new OpportunityCategoryWithSkillsDTO(
-                    entry.getKey(),  // skill name como "category"
-                    entry.getValue(), // count de oportunidades
-                    new ArrayList<>() // topSkills vazio (sem skills relacionadas)
-                ))
-                .collect(Collectors.toList());
-            
-            return result;
-            
-        } catch (Exception e) {
-            System.err.println("Erro ao buscar skills: " + e.getMessage());
-            e.printStackTrace();
-            return new ArrayList<>();
+            cachedTopSkills.put(key, new Cached<>(result, expiresAt()));
         }
+        return result;
     }
-}
 
+    private List<OpportunityCategoryWithSkillsDTO> computeTopSkills(int limit, Integer days) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<Object[]> rows;
+        if (days == null) {
+            rows = opportunityRepository.findTopSkills(page);
+        } else {
+            ZoneId zone = properties.zoneId();
+            Instant since = LocalDate.now(zone).minusDays(days - 1L).atStartOfDay(zone).toInstant();
+            rows = opportunityRepository.findTopSkillsSince(since, page);
+        }
+
+        List<OpportunityCategoryWithSkillsDTO> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new OpportunityCategoryWithSkillsDTO(
+                    (String) row[0],             // skill name como "category"
+                    ((Number) row[1]).longValue(), // count de oportunidades
+                    new ArrayList<>()             // topSkills vazio (sem skills relacionadas)
+            ));
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOpportunityChanged(OpportunityChangedEvent event) {
+        topSkillsGeneration.incrementAndGet();
+        cachedTopSkills.clear();
+    }
+}
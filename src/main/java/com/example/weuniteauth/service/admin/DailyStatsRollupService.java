@@ -0,0 +1,92 @@
+package com.example.weuniteauth.service.admin;
+
+import com.example.weuniteauth.config.AdminStatsProperties;
+import com.example.weuniteauth.domain.admin.DailyMetric;
+import com.example.weuniteauth.repository.DailyMetricBatchRepository;
+import com.example.weuniteauth.repository.DailyMetricBatchRepository.MetricRow;
+import com.example.weuniteauth.repository.DailyMetricRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Maintains tb_daily_metric for the admin dashboard. The last two days are recounted every few
+ * minutes with one grouped query per metric; a nightly pass recounts the whole history, which
+ * also picks up deletions on older days. Each pass replaces its day range in one transaction.
+ */
+@Service
+public class DailyStatsRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyStatsRollupService.class);
+
+    private static final LocalDate HISTORY_START = LocalDate.of(1970, 1, 1);
+    private static final List<DailyMetric.Metric> SNAPSHOT_METRICS =
+            List.of(DailyMetric.Metric.ACTIVE_USERS_10D, DailyMetric.Metric.ACTIVE_USERS_30D);
+
+    private final DailyMetricBatchRepository batchRepository;
+    private final DailyMetricRepository metricRepository;
+    private final AdminStatsProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean historyLoaded;
+
+    public DailyStatsRollupService(DailyMetricBatchRepository batchRepository,
+                                   DailyMetricRepository metricRepository,
+                                   AdminStatsProperties properties,
+                                   PlatformTransactionManager transactionManager) {
+        this.batchRepository = batchRepository;
+        this.metricRepository = metricRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${admin.stats.refresh-interval-ms:300000}",
+            initialDelayString = "${admin.stats.refresh-initial-delay-ms:30000}")
+    public void refreshRecent() {
+        if (!historyLoaded && metricRepository.count() == 0) {
+            rebuildAll();
+            return;
+        }
+        LocalDate today = LocalDate.now(properties.zoneId());
+        // Yesterday is recounted too, so rows committed around midnight are not left out
+        refresh(today.minusDays(1), today.plusDays(1));
+    }
+
+    @Scheduled(cron = "${admin.stats.rebuild-cron:0 30 3 * * *}")
+    public void rebuildAll() {
+        LocalDate today = LocalDate.now(properties.zoneId());
+        refresh(HISTORY_START, today.plusDays(1));
+        historyLoaded = true;
+        logger.info("Rollup diário das estatísticas do admin reconstruído");
+    }
+
+    void refresh(LocalDate fromDay, LocalDate toDay) {
+        ZoneId zone = properties.zoneId();
+        Instant from = fromDay.atStartOfDay(zone).toInstant();
+        Instant to = toDay.atStartOfDay(zone).toInstant();
+        List<MetricRow> dailyRows = batchRepository.countPerDay(from, to, zone);
+
+        Instant now = Instant.now();
+        LocalDate today = LocalDate.now(zone);
+        List<MetricRow> snapshotRows = List.of(
+                new MetricRow(today, DailyMetric.Metric.ACTIVE_USERS_10D,
+                        batchRepository.countDistinctPosters(now.minus(10, ChronoUnit.DAYS), now)),
+                new MetricRow(today, DailyMetric.Metric.ACTIVE_USERS_30D,
+                        batchRepository.countDistinctPosters(now.minus(30, ChronoUnit.DAYS), now))
+        );
+
+        transactionTemplate.executeWithoutResult(status -> {
+            batchRepository.replace(DailyMetricBatchRepository.dailyMetrics(), fromDay, toDay, dailyRows);
+            batchRepository.replace(SNAPSHOT_METRICS, today, today.plusDays(1), snapshotRows);
+        });
+    }
+}
@@ -3,26 +3,58 @@ package com.example.weuniteauth.service.cloudinary;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.Transformation;
 import com.example.weuniteauth.config.CloudinaryImageProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class CloudinaryService {
 
     private final Cloudinary cloudinary;
     private final CloudinaryImageProperties imageProperties;
+    private final MeterRegistry meterRegistry;
+
+    private static final Logger logger = LoggerFactory.getLogger(CloudinaryService.class);
 
-    public CloudinaryService(Cloudinary cloudinary, CloudinaryImageProperties imageProperties) {
+    public CloudinaryService(Cloudinary cloudinary, CloudinaryImageProperties imageProperties, MeterRegistry meterRegistry) {
         this.cloudinary = cloudinary;
         this.imageProperties = imageProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     public String uploadPost(MultipartFile file, Long userId) {
+        Path spooled = null;
+        try {
+            // The upload is read from disk by the HTTP client instead of being copied into a byte[]
+            spooled = spool(file);
+            return uploadPost(spooled, file.getContentType(), userId);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao fazer upload do arquivo do post", e);
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    /**
+     * Uploads post media already on disk; the caller keeps ownership of the file.
+     */
+    public String uploadPost(Path file, String contentType, Long userId) {
         try {
-            String contentType = file.getContentType();
             boolean isVideo = contentType != null && contentType.startsWith("video/");
 
             if (isVideo) {
@@ -35,7 +67,7 @@ public class CloudinaryService {
         }
     }
 
-    private String uploadVideoPost(MultipartFile file, Long userId) throws IOException {
+    private String uploadVideoPost(Path file, Long userId) throws IOException {
         // ✅ MUDANÇA 1: Detectar se é vídeo vertical ou horizontal
         // Para isso, vamos usar uma transformação genérica que o Cloudinary vai processar
 
@@ -67,20 +99,18 @@ public class CloudinaryService {
                 "streaming_profile", "hd"
         );
 
-        Map<?, ?> uploadResult = cloudinary.uploader().upload(file.getBytes(), options);
-        return (String) uploadResult.get("secure_url");
+        return upload(file, options, "video");
     }
 
-    private String uploadImagePost(MultipartFile file, Long userId) throws IOException {
-        // Primeiro, fazemos upload temporário para analisar dimensões
-        Map<?, ?> tempUpload = cloudinary.uploader().upload(file.getBytes(), Map.of("resource_type", "auto"));
-
-        int originalWidth = (Integer) tempUpload.get("width");
-        int originalHeight = (Integer) tempUpload.get("height");
-        String publicId = (String) tempUpload.get("public_id");
+    private String uploadImagePost(Path file, Long userId) throws IOException {
+        // Dimensões lidas localmente do cabeçalho da imagem, sem upload temporário
+        Optional<ImageSize> size = readImageSize(file);
+        if (size.isEmpty()) {
+            logger.warn("Não foi possível ler as dimensões da imagem do post do usuário {}, usando limites horizontais", userId);
+        }
 
         // Calcula a proporção da imagem
-        double aspectRatio = (double) originalWidth / originalHeight;
+        double aspectRatio = size.map(ImageSize::aspectRatio).orElse(Double.MAX_VALUE);
 
         Transformation transformation;
         String tags;
@@ -106,10 +136,7 @@ public class CloudinaryService {
             tags = "post, user_content, vertical";
         }
 
-        // Remove imagem temporária
-        cloudinary.uploader().destroy(publicId, Map.of());
-
-        // Faz upload final com transformação correta
+        // Upload único já com a transformação correta
         Map<String, Object> options = Map.of(
                 "folder", "posts/" + userId,
                 "tags", tags,
@@ -117,15 +144,108 @@ public class CloudinaryService {
                 "resource_type", "auto"
         );
 
-        Map<?, ?> uploadResult = cloudinary.uploader().upload(file.getBytes(), options);
+        return upload(file, options, "image");
+    }
+
+    private String upload(Path file, Map<String, Object> options, String kind) throws IOException {
+        long bytes = Files.size(file);
+        Map<?, ?> uploadResult = cloudinary.uploader().upload(file.toFile(), options);
+        meterRegistry.summary("cloudinary.post.upload.bytes", "kind", kind).record(bytes);
         return (String) uploadResult.get("secure_url");
     }
 
-    public String uploadProfileImg(MultipartFile file, String username) {
+    /**
+     * Width and height from the image header; the pixel data is never decoded. Empty for
+     * formats ImageIO cannot read (e.g. WebP or HEIC without a plugin).
+     */
+    static Optional<ImageSize> readImageSize(Path file) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) {
+                return Optional.empty();
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                return Optional.of(new ImageSize(reader.getWidth(0), reader.getHeight(0)));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    record ImageSize(int width, int height) {
+        double aspectRatio() {
+            return height == 0 ? Double.MAX_VALUE : (double) width / height;
+        }
+    }
+
+    private Path spool(MultipartFile file) throws IOException {
+        Path tmp = Files.createTempFile("post-upload-", ".tmp");
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(tmp);
+            throw e;
+        }
+        return tmp;
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o arquivo temporário {}", path);
+        }
+    }
+
+    public String uploadProfileImg(Path file, String username) {
+        try {
+            Map<?, ?> uploadResult = cloudinary.uploader().upload(file.toFile(), profileOptions(username));
+            return (String) uploadResult.get("secure_url");
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao fazer upload da imagem de perfil", e);
+        }
+    }
+
+    public String uploadBannerImg(Path file, String username) {
+        try {
+            Map<?, ?> uploadResult = cloudinary.uploader().upload(file.toFile(), bannerOptions(username));
+            return (String) uploadResult.get("secure_url");
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao fazer upload da imagem de banner", e);
+        }
+    }
+
+    /**
+     * Uploads a chat attachment as is; Cloudinary detects whether it is an image, video or raw file.
+     */
+    public String uploadChatAttachment(Path file, String conversationId) {
+        Map<String, Object> options = Map.of(
+                "folder", "chat/" + conversationId,
+                "tags", "chat, attachment",
+                "resource_type", "auto"
+        );
 
+        try {
+            Map<?, ?> uploadResult = cloudinary.uploader().upload(file.toFile(), options);
+            return (String) uploadResult.get("secure_url");
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao fazer upload do anexo", e);
+        }
+    }
+
+    private Map<String, Object> profileOptions(String username) {
         int profileHeight = imageProperties.getProfile().getHeight();
 
-       
         Transformation transformation = new Transformation()
                 .width(profileHeight)
                 .height(profileHeight)
@@ -134,23 +254,15 @@ public class CloudinaryService {
                 .quality("auto")
                 .fetchFormat("auto");
 
-        Map<String, Object> options = Map.of(
+        return Map.of(
                 "folder", "profile/" + username,
                 "tags", "profile, img, circular",
                 "transformation", transformation,
                 "resource_type", "auto"
         );
-
-        try {
-            Map<?, ?> uploadResult = cloudinary.uploader().upload(file.getBytes(), options);
-            return (String) uploadResult.get("secure_url");
-        } catch (IOException e) {
-            throw new RuntimeException("Erro ao fazer upload da imagem de perfil", e);
-        }
     }
 
-    public String uploadBannerImg(MultipartFile file, String username) {
-
+    private Map<String, Object> bannerOptions(String username) {
         Transformation transformation = new Transformation()
                 .height(imageProperties.getBanner().getHeight())
                 .crop("fill")
@@ -158,19 +270,12 @@ public class CloudinaryService {
                 .quality("auto")
                 .fetchFormat("auto");
 
-        Map<String, Object> options = Map.of(
+        return Map.of(
                 "folder", "banner/" + username,
                 "tags", "profile, img, banner",
                 "transformation", transformation,
                 "resource_type", "auto"
         );
-
-        try {
-            Map<?, ?> uploadResult = cloudinary.uploader().upload(file.getBytes(), options);
-            return (String) uploadResult.get("secure_url");
-        } catch (IOException e) {
-            throw new RuntimeException("Erro ao fazer upload da imagem de banner", e);
-        }
     }
 
     /**
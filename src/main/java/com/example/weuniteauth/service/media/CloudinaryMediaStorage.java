@@ -0,0 +1,82 @@
+package com.example.weuniteauth.service.media;
+
+import com.example.weuniteauth.config.ChatAttachmentProperties;
+import com.example.weuniteauth.exceptions.chat.AttachmentTooLargeException;
+import com.example.weuniteauth.service.cloudinary.CloudinaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Cloudinary backend. The content is spooled to a temporary file so the HTTP client streams it
+ * from disk, then handed to {@link CloudinaryService} with the transformation for its kind.
+ */
+@Service
+public class CloudinaryMediaStorage implements MediaStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(CloudinaryMediaStorage.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CloudinaryService cloudinaryService;
+    private final ChatAttachmentProperties attachmentProperties;
+
+    public CloudinaryMediaStorage(CloudinaryService cloudinaryService, ChatAttachmentProperties attachmentProperties) {
+        this.cloudinaryService = cloudinaryService;
+        this.attachmentProperties = attachmentProperties;
+    }
+
+    @Override
+    public StoredMedia store(MediaUpload upload, InputStream content, long declaredLength) throws IOException {
+        // Other kinds are already capped by the multipart limits
+        long maxSize = upload.kind() == MediaKind.CHAT_ATTACHMENT ? attachmentProperties.getMaxSizeBytes() : Long.MAX_VALUE;
+        if (declaredLength > maxSize) {
+            throw new AttachmentTooLargeException(maxSize);
+        }
+
+        Path spooled = Files.createTempFile("media-upload-", ".tmp");
+        try {
+            long size = copy(content, spooled, maxSize);
+            String url = switch (upload.kind()) {
+                case POST -> cloudinaryService.uploadPost(spooled, upload.contentType(), Long.valueOf(upload.owner()));
+                case PROFILE -> cloudinaryService.uploadProfileImg(spooled, upload.owner());
+                case BANNER -> cloudinaryService.uploadBannerImg(spooled, upload.owner());
+                case CHAT_ATTACHMENT -> cloudinaryService.uploadChatAttachment(spooled, upload.owner());
+            };
+            return new StoredMedia(url, size);
+        } finally {
+            try {
+                Files.deleteIfExists(spooled);
+            } catch (IOException e) {
+                logger.warn("Não foi possível remover o arquivo temporário {}", spooled);
+            }
+        }
+    }
+
+    @Override
+    public String backend() {
+        return "cloudinary";
+    }
+
+    private long copy(InputStream content, Path target, long maxSize) throws IOException {
+        long size = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                size += read;
+                if (size > maxSize) {
+                    throw new AttachmentTooLargeException(maxSize);
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.weuniteauth.service.media;
+
+import com.example.weuniteauth.config.CloudinaryImageProperties;
+import com.example.weuniteauth.exceptions.BusinessRuleException;
+import com.example.weuniteauth.service.ChatAttachmentStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Local-disk backend. Files go into the content-addressed {@link ChatAttachmentStorage} and are
+ * served by /api/attachments; images get a URL asking for the variant matching their kind.
+ * Variants are produced on the first request and cached next to the originals, so the
+ * application can run without Cloudinary.
+ */
+@Service
+public class LocalMediaStorage implements MediaStorage {
+
+    private static final String URL_PREFIX = "/api/attachments/";
+    private static final String VARIANTS_DIR = "variants";
+
+    // Larger images are served untouched rather than decoded into memory
+    private static final long MAX_SOURCE_PIXELS = 40_000_000L;
+
+    private final ChatAttachmentStorage fileStore;
+    private final CloudinaryImageProperties imageProperties;
+    private final MeterRegistry meterRegistry;
+    private final Timer variantTimer;
+
+    public record Variant(Path path, String etag) {
+    }
+
+    // 0 leaves a dimension unconstrained
+    record VariantSize(int width, int height) {
+
+        String query() {
+            return width > 0 ? "?w=" + width + "&h=" + height : "?h=" + height;
+        }
+    }
+
+    public LocalMediaStorage(ChatAttachmentStorage fileStore,
+                             CloudinaryImageProperties imageProperties,
+                             MeterRegistry meterRegistry) {
+        this.fileStore = fileStore;
+        this.imageProperties = imageProperties;
+        this.meterRegistry = meterRegistry;
+        this.variantTimer = meterRegistry.timer("media.storage.variant.generate");
+    }
+
+    @Override
+    public StoredMedia store(MediaUpload upload, InputStream content, long declaredLength) throws IOException {
+        ChatAttachmentStorage.StoredAttachment stored = upload.kind() == MediaKind.CHAT_ATTACHMENT
+                ? fileStore.store(content, declaredLength, upload.originalFilename())
+                // Other kinds are already capped by the multipart limits
+                : fileStore.store(content, declaredLength, upload.originalFilename(), Long.MAX_VALUE);
+
+        return new StoredMedia(URL_PREFIX + stored.fileName() + variantQuery(upload, stored.fileName()), stored.size());
+    }
+
+    @Override
+    public String backend() {
+        return "local";
+    }
+
+    /**
+     * The stored file scaled down to fit within {@code width} x {@code height}, keeping its
+     * aspect ratio; 0 leaves a dimension unconstrained. Only the sizes handed out in stored
+     * URLs are accepted, so a public request cannot make the node decode and cache arbitrary
+     * sizes; 0 x 0 asks for the original. Formats that cannot be resized, and images already
+     * small enough, resolve to the original file. Empty when the file does not exist.
+     */
+    public Optional<Variant> variant(String fileName, int width, int height) throws IOException {
+        if (!(width == 0 && height == 0) && !isServedSize(width, height)) {
+            throw new BusinessRuleException("Tamanho de imagem não suportado");
+        }
+
+        Optional<Path> original = fileStore.find(fileName);
+        if (original.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String hash = fileStore.hashOf(fileName);
+        Variant untouched = new Variant(original.get(), hash);
+        String format = formatOf(fileName);
+        if ((width == 0 && height == 0) || format == null) {
+            return Optional.of(untouched);
+        }
+
+        String size = width + "x" + height;
+        Path cached = fileStore.derivedDir(VARIANTS_DIR).resolve(size).resolve(fileName.substring(0, 2)).resolve(fileName);
+        if (Files.isRegularFile(cached)) {
+            meterRegistry.counter("media.storage.variant.requests", "result", "hit").increment();
+            return Optional.of(new Variant(cached, hash + "-" + size));
+        }
+
+        meterRegistry.counter("media.storage.variant.requests", "result", "miss").increment();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            BufferedImage resized = resize(original.get(), width, height, format);
+            if (resized == null) {
+                return Optional.of(untouched);
+            }
+            write(resized, format, cached);
+            return Optional.of(new Variant(cached, hash + "-" + size));
+        } finally {
+            sample.stop(variantTimer);
+        }
+    }
+
+    private String variantQuery(MediaUpload upload, String fileName) {
+        if (!upload.isImage() || formatOf(fileName) == null) {
+            return "";
+        }
+        return variantSize(upload.kind()).map(VariantSize::query).orElse("");
+    }
+
+    private Optional<VariantSize> variantSize(MediaKind kind) {
+        return switch (kind) {
+            case POST -> Optional.of(new VariantSize(imageProperties.getPost().getWidth(), imageProperties.getPost().getHeight()));
+            case PROFILE -> Optional.of(new VariantSize(imageProperties.getProfile().getHeight(), imageProperties.getProfile().getHeight()));
+            case BANNER -> Optional.of(new VariantSize(0, imageProperties.getBanner().getHeight()));
+            case CHAT_ATTACHMENT -> Optional.empty();
+        };
+    }
+
+    private boolean isServedSize(int width, int height) {
+        VariantSize requested = new VariantSize(width, height);
+        return Arrays.stream(MediaKind.values())
+                .map(this::variantSize)
+                .flatMap(Optional::stream)
+                .anyMatch(requested::equals);
+    }
+
+    /**
+     * Decodes and scales the image, or returns null when it does not need scaling or cannot be decoded.
+     */
+    private BufferedImage resize(Path original, int width, int height, String format) throws IOException {
+        BufferedImage source;
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > MAX_SOURCE_PIXELS
+                        || scaleFor(sourceWidth, sourceHeight, width, height) >= 1.0) {
+                    return null;
+                }
+                source = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        double scale = scaleFor(source.getWidth(), source.getHeight(), width, height);
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        // JPEG has no alpha channel, so only PNG variants keep transparency
+        int type = source.getColorModel().hasAlpha() && "png".equals(format)
+                ? BufferedImage.TYPE_INT_ARGB
+                : BufferedImage.TYPE_INT_RGB;
+
+        // Halving steps keep bilinear filtering from skipping pixels on large reductions
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (currentWidth > targetWidth || currentHeight > targetHeight);
+
+        return current;
+    }
+
+    private static double scaleFor(int sourceWidth, int sourceHeight, int width, int height) {
+        double scale = 1.0;
+        if (width > 0 && sourceWidth > 0) {
+            scale = Math.min(scale, (double) width / sourceWidth);
+        }
+        if (height > 0 && sourceHeight > 0) {
+            scale = Math.min(scale, (double) height / sourceHeight);
+        }
+        return scale;
+    }
+
+    private void write(BufferedImage image, String format, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), "variant-", ".part");
+        try {
+            if (!ImageIO.write(image, format, tmp.toFile())) {
+                throw new IOException("Nenhum encoder disponível para " + format);
+            }
+            // Concurrent requests for the same variant produce identical files, the last move wins
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * ImageIO writer name for extensions that can be resized, null for everything else.
+     */
+    private static String formatOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return switch (extension) {
+            case "png" -> "png";
+            case "jpg", "jpeg" -> "jpg";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.weuniteauth.service.media;
+
+/**
+ * What an upload is used for; backends pick transformations and folders from it.
+ */
+public enum MediaKind {
+    POST,
+    PROFILE,
+    BANNER,
+    CHAT_ATTACHMENT
+}
@@ -0,0 +1,22 @@
+package com.example.weuniteauth.service.media;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Where uploaded media ends up. Every upload path (posts, profile and banner images, chat
+ * attachments) goes through this interface, so backends can be swapped by configuration.
+ */
+public interface MediaStorage {
+
+    /**
+     * Stores the content and returns the URL clients should use. The stream is read to the end
+     * but not closed; a negative declared length means unknown.
+     */
+    StoredMedia store(MediaUpload upload, InputStream content, long declaredLength) throws IOException;
+
+    /**
+     * Short backend name used as a metric tag.
+     */
+    String backend();
+}
@@ -0,0 +1,17 @@
+package com.example.weuniteauth.service.media;
+
+/**
+ * Describes an upload handed to a {@link MediaStorage}. The owner is the folder key of the
+ * upload: the user id for posts, the username for profile and banner images and the
+ * conversation id for chat attachments.
+ */
+public record MediaUpload(MediaKind kind, String owner, String contentType, String originalFilename) {
+
+    public boolean isImage() {
+        return contentType != null && contentType.startsWith("image/");
+    }
+
+    public boolean isVideo() {
+        return contentType != null && contentType.startsWith("video/");
+    }
+}
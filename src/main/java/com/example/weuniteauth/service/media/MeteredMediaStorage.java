@@ -0,0 +1,55 @@
+package com.example.weuniteauth.service.media;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Routes each upload to the backend configured for its kind and records latency and bytes
+ * per backend and kind.
+ */
+public class MeteredMediaStorage implements MediaStorage {
+
+    private final Map<MediaKind, MediaStorage> backends;
+    private final MeterRegistry meterRegistry;
+
+    public MeteredMediaStorage(Map<MediaKind, MediaStorage> backends, MeterRegistry meterRegistry) {
+        this.backends = new EnumMap<>(backends);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public StoredMedia store(MediaUpload upload, InputStream content, long declaredLength) throws IOException {
+        MediaStorage target = backendFor(upload.kind());
+        String kind = upload.kind().name().toLowerCase(Locale.ROOT);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            StoredMedia stored = target.store(upload, content, declaredLength);
+            meterRegistry.summary("media.storage.bytes", "backend", target.backend(), "kind", kind).record(stored.size());
+            outcome = "success";
+            return stored;
+        } finally {
+            sample.stop(meterRegistry.timer("media.storage.store",
+                    "backend", target.backend(), "kind", kind, "outcome", outcome));
+        }
+    }
+
+    @Override
+    public String backend() {
+        return "routing";
+    }
+
+    public MediaStorage backendFor(MediaKind kind) {
+        MediaStorage target = backends.get(kind);
+        if (target == null) {
+            throw new IllegalStateException("Nenhum armazenamento configurado para " + kind);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,4 @@
+package com.example.weuniteauth.service.media;
+
+public record StoredMedia(String url, long size) {
+}
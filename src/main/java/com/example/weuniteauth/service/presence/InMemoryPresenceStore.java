@@ -0,0 +1,88 @@
+package com.example.weuniteauth.service.presence;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Presence store for single-node deployments. Sessions are indexed by user as well so bulk
+ * lookups for a conversation list do not scan every session.
+ */
+public class InMemoryPresenceStore implements PresenceStore {
+
+    private record Session(Long userId, String status, Instant updatedAt, Instant expiresAt) {
+    }
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String sessionId, Long userId, String status, Instant updatedAt, Instant expiresAt) {
+        // Added inside compute so a concurrent unindex cannot drop the set between lookup and add
+        sessionsByUser.compute(userId, (id, ids) -> {
+            Set<String> updated = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            updated.add(sessionId);
+            return updated;
+        });
+        sessions.put(sessionId, new Session(userId, status, updatedAt, expiresAt));
+    }
+
+    @Override
+    public boolean refresh(String sessionId, Instant expiresAt) {
+        return sessions.computeIfPresent(sessionId,
+                (id, session) -> new Session(session.userId(), session.status(), session.updatedAt(), expiresAt)) != null;
+    }
+
+    @Override
+    public Optional<Long> remove(String sessionId) {
+        Session removed = sessions.remove(sessionId);
+        if (removed == null) {
+            return Optional.empty();
+        }
+        unindex(removed.userId(), sessionId);
+        return Optional.of(removed.userId());
+    }
+
+    @Override
+    public Map<Long, PresenceEntry> findLive(Collection<Long> userIds, Instant now) {
+        Map<Long, PresenceEntry> result = new HashMap<>();
+        for (Long userId : userIds) {
+            Set<String> ids = sessionsByUser.get(userId);
+            if (ids == null) {
+                continue;
+            }
+            ids.stream()
+                    .map(sessions::get)
+                    .filter(session -> session != null && session.expiresAt().isAfter(now))
+                    .max(Comparator.comparing(Session::updatedAt))
+                    .ifPresent(session -> result.put(userId, new PresenceEntry(userId, session.status(), session.updatedAt())));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Long> purgeExpired(Instant now) {
+        Set<Long> affected = new HashSet<>();
+        sessions.forEach((sessionId, session) -> {
+            if (!session.expiresAt().isAfter(now) && sessions.remove(sessionId, session)) {
+                unindex(session.userId(), sessionId);
+                affected.add(session.userId());
+            }
+        });
+
+        List<Long> offline = new ArrayList<>();
+        for (Long userId : affected) {
+            if (!sessionsByUser.containsKey(userId)) {
+                offline.add(userId);
+            }
+        }
+        return offline;
+    }
+
+    private void unindex(Long userId, String sessionId) {
+        sessionsByUser.computeIfPresent(userId, (id, ids) -> {
+            ids.remove(sessionId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+}
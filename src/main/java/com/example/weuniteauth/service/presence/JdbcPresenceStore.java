@@ -0,0 +1,99 @@
+package com.example.weuniteauth.service.presence;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Presence store backed by tb_presence_session so every node sees the same sessions. Expired
+ * rows are deleted by whichever node sweeps first, and that node reports the users that went
+ * offline, so each transition is broadcast once.
+ */
+public class JdbcPresenceStore implements PresenceStore {
+
+    private static final String UPSERT_SESSION = """
+            INSERT INTO tb_presence_session (session_id, user_id, status, updated_at, expires_at)
+            VALUES (:sessionId, :userId, :status, :updatedAt, :expiresAt)
+            ON CONFLICT (session_id) DO UPDATE
+            SET user_id = EXCLUDED.user_id, status = EXCLUDED.status,
+                updated_at = EXCLUDED.updated_at, expires_at = EXCLUDED.expires_at
+            """;
+
+    private static final String REFRESH_SESSION =
+            "UPDATE tb_presence_session SET expires_at = :expiresAt WHERE session_id = :sessionId";
+
+    private static final String DELETE_SESSION =
+            "DELETE FROM tb_presence_session WHERE session_id = :sessionId RETURNING user_id";
+
+    private static final String FIND_LIVE = """
+            SELECT DISTINCT ON (user_id) user_id, status, updated_at
+            FROM tb_presence_session
+            WHERE user_id IN (:userIds) AND expires_at > :now
+            ORDER BY user_id, updated_at DESC
+            """;
+
+    // The outer SELECT sees the table as it was before the DELETE, hence the expires_at filter
+    private static final String PURGE_EXPIRED = """
+            WITH expired AS (
+                DELETE FROM tb_presence_session WHERE expires_at <= :now RETURNING user_id
+            )
+            SELECT DISTINCT e.user_id FROM expired e
+            WHERE NOT EXISTS (SELECT 1 FROM tb_presence_session s
+                              WHERE s.user_id = e.user_id AND s.expires_at > :now)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcPresenceStore(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void put(String sessionId, Long userId, String status, Instant updatedAt, Instant expiresAt) {
+        jdbcTemplate.update(UPSERT_SESSION, new MapSqlParameterSource()
+                .addValue("sessionId", sessionId)
+                .addValue("userId", userId)
+                .addValue("status", status)
+                .addValue("updatedAt", Timestamp.from(updatedAt))
+                .addValue("expiresAt", Timestamp.from(expiresAt)));
+    }
+
+    @Override
+    public boolean refresh(String sessionId, Instant expiresAt) {
+        return jdbcTemplate.update(REFRESH_SESSION, new MapSqlParameterSource()
+                .addValue("sessionId", sessionId)
+                .addValue("expiresAt", Timestamp.from(expiresAt))) > 0;
+    }
+
+    @Override
+    public Optional<Long> remove(String sessionId) {
+        List<Long> userIds = jdbcTemplate.queryForList(DELETE_SESSION,
+                new MapSqlParameterSource("sessionId", sessionId), Long.class);
+        return userIds.stream().findFirst();
+    }
+
+    @Override
+    public Map<Long, PresenceEntry> findLive(Collection<Long> userIds, Instant now) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, PresenceEntry> result = new HashMap<>();
+        jdbcTemplate.query(FIND_LIVE, new MapSqlParameterSource()
+                .addValue("userIds", userIds)
+                .addValue("now", Timestamp.from(now)), rs -> {
+            long userId = rs.getLong("user_id");
+            result.put(userId, new PresenceEntry(userId, rs.getString("status"), rs.getTimestamp("updated_at").toInstant()));
+        });
+        return result;
+    }
+
+    @Override
+    public List<Long> purgeExpired(Instant now) {
+        return jdbcTemplate.queryForList(PURGE_EXPIRED,
+                new MapSqlParameterSource("now", Timestamp.from(now)), Long.class);
+    }
+}
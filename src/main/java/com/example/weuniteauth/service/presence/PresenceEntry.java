@@ -0,0 +1,9 @@
+package com.example.weuniteauth.service.presence;
+
+import java.time.Instant;
+
+/**
+ * Current presence of a user: the status of their most recently updated live session.
+ */
+public record PresenceEntry(Long userId, String status, Instant updatedAt) {
+}
@@ -0,0 +1,176 @@
+package com.example.weuniteauth.service.presence;
+
+import com.example.weuniteauth.config.PresenceProperties;
+import com.example.weuniteauth.config.WebSocketBrokerProperties;
+import com.example.weuniteauth.dto.chat.UserStatusDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Delivers presence changes to /topic/user/{id}/status without flooding clients. Changes are
+ * coalesced per user and flushed periodically; a user gets at most one frame per
+ * {@code presence.fanout.min-interval-ms}, a change back to the last delivered status is
+ * dropped, and with the simple broker nothing is sent for users nobody on this node watches.
+ */
+@Component
+public class PresenceFanout {
+
+    private static final long DELIVERY_RETENTION_MS = 10 * 60 * 1000;
+
+    private static final Pattern STATUS_TOPIC = Pattern.compile("^/topic/user/(\\d+)/status$");
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceProperties properties;
+    private final WebSocketBrokerProperties brokerProperties;
+
+    private final ConcurrentHashMap<Long, UserStatusDTO> pending = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Delivered> lastDelivered = new ConcurrentHashMap<>();
+
+    // Watched user -> number of subscriptions on this node, and sessionId -> (subscriptionId -> watched user)
+    private final ConcurrentHashMap<Long, Integer> watchers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Map<String, Long>> subscriptions = new ConcurrentHashMap<>();
+
+    private final Counter deliveredCounter;
+    private final Counter coalescedCounter;
+    private final Counter unchangedCounter;
+    private final Counter unwatchedCounter;
+
+    private record Delivered(String status, long deliveredAt) {
+    }
+
+    public PresenceFanout(SimpMessagingTemplate messagingTemplate,
+                          PresenceProperties properties,
+                          WebSocketBrokerProperties brokerProperties,
+                          MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.properties = properties;
+        this.brokerProperties = brokerProperties;
+        this.deliveredCounter = meterRegistry.counter("presence.updates.delivered");
+        this.coalescedCounter = meterRegistry.counter("presence.updates.suppressed", "reason", "coalesced");
+        this.unchangedCounter = meterRegistry.counter("presence.updates.suppressed", "reason", "unchanged");
+        this.unwatchedCounter = meterRegistry.counter("presence.updates.suppressed", "reason", "unwatched");
+    }
+
+    /**
+     * Queues a status change; a newer change for the same user replaces one still pending.
+     */
+    public void publish(UserStatusDTO status) {
+        if (pending.put(status.getUserId(), status) != null) {
+            coalescedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${presence.fanout.flush-interval-ms:1000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        long minInterval = properties.getFanout().getMinIntervalMs();
+
+        for (Long userId : pending.keySet()) {
+            Delivered previous = lastDelivered.get(userId);
+            if (previous != null && now - previous.deliveredAt() < minInterval) {
+                // Too soon for this user; the change stays pending (and may still be coalesced)
+                continue;
+            }
+
+            UserStatusDTO status = pending.remove(userId);
+            if (status == null) {
+                continue;
+            }
+
+            if (previous != null && Objects.equals(previous.status(), status.getStatus())) {
+                unchangedCounter.increment();
+                continue;
+            }
+
+            if (!isWatched(userId)) {
+                // Nobody saw this change, so the last delivered status no longer says what watchers will have
+                lastDelivered.remove(userId);
+                unwatchedCounter.increment();
+                continue;
+            }
+
+            messagingTemplate.convertAndSend("/topic/user/" + userId + "/status", status);
+            lastDelivered.put(userId, new Delivered(status.getStatus(), now));
+            deliveredCounter.increment();
+        }
+
+        // Delivery records only matter while a user flaps; keep the map from growing with every user ever seen
+        long retention = Math.max(minInterval, DELIVERY_RETENTION_MS);
+        lastDelivered.entrySet().removeIf(entry ->
+                now - entry.getValue().deliveredAt() > retention && !pending.containsKey(entry.getKey()));
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        Matcher matcher = STATUS_TOPIC.matcher(destination);
+        if (!matcher.matches()) {
+            return;
+        }
+
+        Long watchedUserId = Long.parseLong(matcher.group(1));
+        Long replaced = subscriptions
+                .computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), watchedUserId);
+        if (replaced != null) {
+            unwatch(replaced);
+        }
+        watchers.merge(watchedUserId, 1, Integer::sum);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        Map<String, Long> sessionSubscriptions = subscriptions.get(accessor.getSessionId());
+        if (sessionSubscriptions != null) {
+            Long watchedUserId = sessionSubscriptions.remove(accessor.getSubscriptionId());
+            if (watchedUserId != null) {
+                unwatch(watchedUserId);
+            }
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Long> sessionSubscriptions = subscriptions.remove(event.getSessionId());
+        if (sessionSubscriptions != null) {
+            sessionSubscriptions.values().forEach(this::unwatch);
+        }
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private boolean isWatched(Long userId) {
+        // Behind a relay, subscribers may be connected to other nodes and the broker does the filtering
+        return brokerProperties.getMode() == WebSocketBrokerProperties.Mode.RELAY || watchers.containsKey(userId);
+    }
+
+    private void unwatch(Long watchedUserId) {
+        watchers.computeIfPresent(watchedUserId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.weuniteauth.service.presence;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Storage of live WebSocket sessions behind the presence service. Implementations only keep
+ * sessions; deciding when a user goes online or offline is left to the caller.
+ */
+public interface PresenceStore {
+
+    /**
+     * Creates or replaces the session with the given status.
+     */
+    void put(String sessionId, Long userId, String status, Instant updatedAt, Instant expiresAt);
+
+    /**
+     * Pushes the expiry of an existing session forward; returns false when the session is unknown.
+     */
+    boolean refresh(String sessionId, Instant expiresAt);
+
+    /**
+     * Removes the session and returns the user it belonged to.
+     */
+    Optional<Long> remove(String sessionId);
+
+    /**
+     * Presence of the given users that still have a live session at {@code now}; users
+     * without one are absent from the result.
+     */
+    Map<Long, PresenceEntry> findLive(Collection<Long> userIds, Instant now);
+
+    /**
+     * Drops sessions expired at {@code now} and returns the users left without any live session.
+     */
+    List<Long> purgeExpired(Instant now);
+}
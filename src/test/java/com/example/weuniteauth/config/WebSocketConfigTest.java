@@ -0,0 +1,217 @@
+package com.example.weuniteauth.config;
+
+import com.example.weuniteauth.service.UserStatusService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WebSocketConfig Tests")
+class WebSocketConfigTest {
+
+    @Mock
+    private StompAuthenticationResolver authenticationResolver;
+
+    @Mock
+    private MessageBrokerRegistry brokerRegistry;
+
+    @Mock
+    private ObjectProvider<UserStatusService> userStatusServiceProvider;
+
+    @Mock
+    private UserStatusService userStatusService;
+
+    private WebSocketBrokerProperties brokerProperties;
+    private WebSocketTransportProperties transportProperties;
+    private WebSocketConfig webSocketConfig;
+
+    @BeforeEach
+    void setUp() {
+        brokerProperties = new WebSocketBrokerProperties();
+        transportProperties = new WebSocketTransportProperties();
+
+        webSocketConfig = new WebSocketConfig();
+        ReflectionTestUtils.setField(webSocketConfig, "authenticationResolver", authenticationResolver);
+        ReflectionTestUtils.setField(webSocketConfig, "brokerProperties", brokerProperties);
+        ReflectionTestUtils.setField(webSocketConfig, "transportProperties", transportProperties);
+        ReflectionTestUtils.setField(webSocketConfig, "userStatusService", userStatusServiceProvider);
+    }
+
+    @Test
+    @DisplayName("Should refresh presence on inbound frames and heart-beats of an authenticated session")
+    void inboundFramesRefreshPresence() {
+        when(userStatusServiceProvider.getObject()).thenReturn(userStatusService);
+        ChannelRegistration registration = mock(ChannelRegistration.class);
+        webSocketConfig.configureClientInboundChannel(registration);
+
+        ArgumentCaptor<ChannelInterceptor> captor = ArgumentCaptor.forClass(ChannelInterceptor.class);
+        verify(registration).interceptors(captor.capture());
+        ChannelInterceptor interceptor = captor.getValue();
+        MessageChannel channel = mock(MessageChannel.class);
+
+        interceptor.preSend(frame(StompHeaderAccessor.create(StompCommand.SEND), "s1", true), channel);
+        interceptor.preSend(frame(StompHeaderAccessor.createForHeartbeat(), "s1", true), channel);
+        interceptor.preSend(frame(StompHeaderAccessor.create(StompCommand.SEND), "s2", false), channel);
+        interceptor.preSend(frame(StompHeaderAccessor.create(StompCommand.DISCONNECT), "s1", true), channel);
+
+        verify(userStatusService, times(2)).touch("s1");
+        verifyNoMoreInteractions(userStatusService);
+    }
+
+    private static Message<byte[]> frame(StompHeaderAccessor accessor, String sessionId, boolean authenticated) {
+        accessor.setSessionId(sessionId);
+        if (authenticated) {
+            accessor.setUser(new StompPrincipal("user1", 1L));
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    @DisplayName("Should register the in-memory broker in simple mode")
+    void simpleModeRegistersSimpleBroker() {
+        webSocketConfig.configureMessageBroker(brokerRegistry);
+
+        verify(brokerRegistry).enableSimpleBroker("/topic", "/queue");
+        verify(brokerRegistry, never()).enableStompBrokerRelay(any(String[].class));
+        verify(brokerRegistry).setApplicationDestinationPrefixes("/app");
+        verify(brokerRegistry).setUserDestinationPrefix("/user");
+    }
+
+    @Test
+    @DisplayName("Should register the STOMP relay with the configured broker in relay mode")
+    void relayModeRegistersBrokerRelay() {
+        brokerProperties.setMode(WebSocketBrokerProperties.Mode.RELAY);
+        brokerProperties.setRelayHost("broker.internal");
+        brokerProperties.setRelayPort(61614);
+        brokerProperties.setVirtualHost("weunite");
+        brokerProperties.setSystemLogin("system");
+        brokerProperties.setSystemPasscode("secret");
+        brokerProperties.setSystemHeartbeatSendIntervalMs(5000);
+
+        StompBrokerRelayRegistration relay = mock(StompBrokerRelayRegistration.class, RETURNS_SELF);
+        when(brokerRegistry.enableStompBrokerRelay("/topic", "/queue")).thenReturn(relay);
+
+        webSocketConfig.configureMessageBroker(brokerRegistry);
+
+        verify(relay).setRelayHost("broker.internal");
+        verify(relay).setRelayPort(61614);
+        verify(relay).setVirtualHost("weunite");
+        verify(relay).setSystemLogin("system");
+        verify(relay).setSystemPasscode("secret");
+        verify(relay).setSystemHeartbeatSendInterval(5000);
+        verify(brokerRegistry, never()).enableSimpleBroker(any(String[].class));
+        verify(brokerRegistry).setApplicationDestinationPrefixes("/app");
+        verify(brokerRegistry).setUserDestinationPrefix("/user");
+    }
+
+    @Test
+    @DisplayName("Should leave the virtual host unset when none is configured")
+    void relayModeWithoutVirtualHost() {
+        brokerProperties.setMode(WebSocketBrokerProperties.Mode.RELAY);
+
+        StompBrokerRelayRegistration relay = mock(StompBrokerRelayRegistration.class, RETURNS_SELF);
+        when(brokerRegistry.enableStompBrokerRelay("/topic", "/queue")).thenReturn(relay);
+
+        webSocketConfig.configureMessageBroker(brokerRegistry);
+
+        verify(relay).setRelayHost("localhost");
+        verify(relay).setRelayPort(61613);
+        verify(relay, never()).setVirtualHost(anyString());
+    }
+
+    @Test
+    @DisplayName("Should apply the configured transport limits")
+    void transportLimitsReachRegistration() {
+        transportProperties.setSendTimeLimitMs(5000);
+        transportProperties.setSendBufferSizeLimit(256 * 1024);
+        transportProperties.setMessageSizeLimit(32 * 1024);
+        transportProperties.setTimeToFirstMessageMs(10000);
+
+        WebSocketTransportRegistration registration = mock(WebSocketTransportRegistration.class, RETURNS_SELF);
+
+        webSocketConfig.configureWebSocketTransport(registration);
+
+        verify(registration).setSendTimeLimit(5000);
+        verify(registration).setSendBufferSizeLimit(256 * 1024);
+        verify(registration).setMessageSizeLimit(32 * 1024);
+        verify(registration).setTimeToFirstMessage(10000);
+    }
+
+    @Test
+    @DisplayName("Should register executors sized from the configured pools on both channels")
+    void poolLimitsReachChannels() {
+        transportProperties.getInbound().setCorePoolSize(3);
+        transportProperties.getInbound().setMaxPoolSize(6);
+        transportProperties.getInbound().setQueueCapacity(100);
+        transportProperties.getOutbound().setCorePoolSize(2);
+        transportProperties.getOutbound().setMaxPoolSize(4);
+        transportProperties.getOutbound().setQueueCapacity(50);
+        transportProperties.getOutbound().setKeepAliveSeconds(30);
+
+        ChannelRegistration inbound = mock(ChannelRegistration.class);
+        ChannelRegistration outbound = mock(ChannelRegistration.class);
+
+        webSocketConfig.configureClientInboundChannel(inbound);
+        webSocketConfig.configureClientOutboundChannel(outbound);
+
+        ArgumentCaptor<ThreadPoolTaskExecutor> inboundExecutor = ArgumentCaptor.forClass(ThreadPoolTaskExecutor.class);
+        verify(inbound).taskExecutor(inboundExecutor.capture());
+        assertEquals(3, inboundExecutor.getValue().getCorePoolSize());
+        assertEquals(6, inboundExecutor.getValue().getMaxPoolSize());
+        assertEquals(100, inboundExecutor.getValue().getQueueCapacity());
+        assertEquals("ws-inbound-", inboundExecutor.getValue().getThreadNamePrefix());
+
+        ArgumentCaptor<ThreadPoolTaskExecutor> outboundExecutor = ArgumentCaptor.forClass(ThreadPoolTaskExecutor.class);
+        verify(outbound).taskExecutor(outboundExecutor.capture());
+        assertEquals(2, outboundExecutor.getValue().getCorePoolSize());
+        assertEquals(4, outboundExecutor.getValue().getMaxPoolSize());
+        assertEquals(50, outboundExecutor.getValue().getQueueCapacity());
+        assertEquals(30, outboundExecutor.getValue().getKeepAliveSeconds());
+        assertEquals("ws-outbound-", outboundExecutor.getValue().getThreadNamePrefix());
+    }
+
+    @Test
+    @DisplayName("Should bind queue and thread gauges for both channel executors")
+    void meterBinderBindsChannelGauges() {
+        webSocketConfig.configureClientInboundChannel(mock(ChannelRegistration.class));
+        webSocketConfig.configureClientOutboundChannel(mock(ChannelRegistration.class));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        webSocketConfig.webSocketChannelMetrics().bindTo(meterRegistry);
+
+        for (String channel : new String[]{"inbound", "outbound"}) {
+            Gauge queueSize = meterRegistry.find("websocket.channel.queue.size").tag("channel", channel).gauge();
+            Gauge activeThreads = meterRegistry.find("websocket.channel.active.threads").tag("channel", channel).gauge();
+
+            assertNotNull(queueSize);
+            assertNotNull(activeThreads);
+            // Executors are not initialized outside the Spring context, which the gauges must tolerate
+            assertEquals(0.0, queueSize.value());
+            assertEquals(0.0, activeThreads.value());
+        }
+    }
+}
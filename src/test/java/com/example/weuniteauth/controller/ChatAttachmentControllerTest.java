@@ -0,0 +1,95 @@
+package com.example.weuniteauth.controller;
+
+import com.example.weuniteauth.config.ChatAttachmentProperties;
+import com.example.weuniteauth.exceptions.UnauthorizedException;
+import com.example.weuniteauth.service.ConversationMembershipCache;
+import com.example.weuniteauth.service.media.LocalMediaStorage;
+import com.example.weuniteauth.service.media.MediaStorage;
+import com.example.weuniteauth.service.media.MediaUpload;
+import com.example.weuniteauth.service.media.StoredMedia;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatAttachmentControllerTest {
+
+    @Mock
+    private MediaStorage mediaStorage;
+
+    @Mock
+    private LocalMediaStorage localMediaStorage;
+
+    @Mock
+    private ConversationMembershipCache membershipCache;
+
+    private ChatAttachmentController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ChatAttachmentController(mediaStorage, localMediaStorage, new ChatAttachmentProperties(),
+                membershipCache, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldUploadAsTheAuthenticatedUser() throws IOException {
+        when(membershipCache.isParticipant(1L, 7L)).thenReturn(true);
+        when(mediaStorage.store(any(MediaUpload.class), any(InputStream.class), anyLong()))
+                .thenReturn(new StoredMedia("/api/attachments/abc.png", 3));
+
+        Map<String, Object> body = controller.uploadAttachment(1L, "a.png", token("7"), upload()).getBody();
+
+        assertThat(body).containsEntry("fileUrl", "/api/attachments/abc.png").containsEntry("fileType", "IMAGE");
+    }
+
+    @Test
+    void shouldRejectUploadWhenTokenUserIsNotParticipant() {
+        when(membershipCache.isParticipant(1L, 8L)).thenReturn(false);
+
+        assertThatThrownBy(() -> controller.uploadAttachment(1L, "a.png", token("8"), upload()))
+                .isInstanceOf(UnauthorizedException.class);
+
+        verify(membershipCache).isParticipant(1L, 8L);
+        verifyNoInteractions(mediaStorage);
+    }
+
+    @Test
+    void shouldRejectUploadWithoutUserIdInToken() {
+        assertThatThrownBy(() -> controller.uploadAttachment(1L, "a.png", token(null), upload()))
+                .isInstanceOf(UnauthorizedException.class);
+
+        verifyNoInteractions(membershipCache, mediaStorage);
+    }
+
+    private static Jwt token(String userId) {
+        Jwt.Builder builder = Jwt.withTokenValue("token").header("alg", "RS256").subject("user");
+        if (userId != null) {
+            builder.claim("id", userId);
+        }
+        return builder.build();
+    }
+
+    private static MockHttpServletRequest upload() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/messages/attachments");
+        request.setContentType("image/png");
+        request.setContent(new byte[]{1, 2, 3});
+        return request;
+    }
+}
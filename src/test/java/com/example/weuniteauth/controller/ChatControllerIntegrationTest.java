@@ -12,6 +12,7 @@ import org.springframework.mock.web.MockMultipartFile;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Comparator;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -29,14 +30,14 @@ class ChatControllerIntegrationTest {
     void cleanUploads() throws IOException {
         Path uploads = Path.of("uploads");
         if (Files.exists(uploads)) {
-            try (var paths = Files.list(uploads)) {
-                paths.forEach(path -> {
+            // Attachments are sharded into nested directories, so delete children before parents
+            try (var paths = Files.walk(uploads)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> {
                     try {
                         Files.deleteIfExists(path);
                     } catch (IOException ignored) {}
                 });
             }
-            Files.deleteIfExists(uploads);
         }
     }
 
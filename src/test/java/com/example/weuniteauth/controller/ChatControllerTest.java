@@ -1,9 +1,15 @@
 package com.example.weuniteauth.controller;
 
+import com.example.weuniteauth.config.StompPrincipal;
 import com.example.weuniteauth.domain.chat.Message;
 import com.example.weuniteauth.dto.chat.MessageDTO;
 import com.example.weuniteauth.dto.chat.SendMessageRequestDTO;
+import com.example.weuniteauth.exceptions.UnauthorizedException;
+import com.example.weuniteauth.exceptions.chat.AttachmentTooLargeException;
 import com.example.weuniteauth.service.MessageService;
+import com.example.weuniteauth.service.media.MediaStorage;
+import com.example.weuniteauth.service.media.MediaUpload;
+import com.example.weuniteauth.service.media.StoredMedia;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -19,9 +25,12 @@ import java.time.Instant;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -34,6 +43,9 @@ class ChatControllerTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    @Mock
+    private MediaStorage mediaStorage;
+
     @InjectMocks
     private ChatController chatController;
 
@@ -44,12 +56,22 @@ class ChatControllerTest {
 
         when(messageService.sendMessage(any(SendMessageRequestDTO.class))).thenReturn(messageDTO);
 
-        chatController.sendMessage(request);
+        chatController.sendMessage(request, new StompPrincipal("sender", 2L));
 
         verify(messageService).sendMessage(request);
         verify(messagingTemplate).convertAndSend("/topic/conversation/1", messageDTO);
     }
 
+    @Test
+    void shouldRejectMessageSentAsAnotherUser() {
+        SendMessageRequestDTO request = new SendMessageRequestDTO(1L, 2L, "hi", Message.MessageType.TEXT);
+
+        assertThatThrownBy(() -> chatController.sendMessage(request, new StompPrincipal("other", 3L)))
+                .isInstanceOf(UnauthorizedException.class);
+
+        verify(messageService, never()).sendMessage(any(SendMessageRequestDTO.class));
+    }
+
     @Test
     void shouldMarkAsRead() {
         Map<String, Long> payload = Map.of("conversationId", 1L, "userId", 2L);
@@ -66,18 +88,34 @@ class ChatControllerTest {
     }
 
     @Test
-    void uploadFileShouldRejectLargeFiles() {
+    void uploadFileShouldRejectLargeFiles() throws IOException {
         byte[] large = new byte[(10 * 1024 * 1024) + 1];
         MockMultipartFile largeFile = new MockMultipartFile("file", "large.txt", "text/plain", large);
+        when(mediaStorage.store(any(MediaUpload.class), any(), eq((long) large.length)))
+                .thenThrow(new AttachmentTooLargeException(10 * 1024 * 1024));
+
         ResponseEntity<?> response = chatController.uploadFile(largeFile, 1L, 2L);
         assertThat(response.getStatusCodeValue()).isEqualTo(400);
     }
 
+    @Test
+    void uploadFileShouldReturnContentAddressedUrl() throws IOException {
+        MockMultipartFile file = new MockMultipartFile("file", "photo.png", "image/png", "png".getBytes());
+        String hash = "a".repeat(64);
+        when(mediaStorage.store(any(MediaUpload.class), any(), eq(3L)))
+                .thenReturn(new StoredMedia("/api/attachments/" + hash + ".png", 3L));
+
+        ResponseEntity<?> response = chatController.uploadFile(file, 1L, 2L);
+
+        assertThat(response.getStatusCodeValue()).isEqualTo(200);
+        assertThat(response.getBody()).isEqualTo(Map.of("fileUrl", "/api/attachments/" + hash + ".png", "fileType", "IMAGE"));
+    }
+
     @Test
     void uploadFileShouldHandleIOException() throws IOException {
         MultipartFile file = org.mockito.Mockito.mock(MultipartFile.class);
         when(file.isEmpty()).thenReturn(false);
-        when(file.getSize()).thenReturn(100L);
+        lenient().when(file.getSize()).thenReturn(100L);
         lenient().when(file.getOriginalFilename()).thenReturn("error.txt");
         lenient().when(file.getContentType()).thenReturn("text/plain");
         doThrow(new IOException("fail")).when(file).getInputStream();
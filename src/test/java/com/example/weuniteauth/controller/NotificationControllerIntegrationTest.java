@@ -44,7 +44,9 @@ class NotificationControllerIntegrationTest {
                 5L,
                 "commented",
                 false,
-                LocalDateTime.now()
+                1,
+                LocalDateTime.now(),
+                null
         );
     }
 
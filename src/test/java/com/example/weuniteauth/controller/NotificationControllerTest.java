@@ -30,7 +30,7 @@ class NotificationControllerTest {
     @Test
     void shouldReturnNotifications() {
         Notification notification = new Notification(1L, 2L, "POST", 3L,
-                "Actor", "actor", null, 4L, "msg", false, LocalDateTime.now());
+                "Actor", "actor", null, 4L, "msg", false, 1, LocalDateTime.now(), null);
         when(notificationService.getUserNotifications(2L)).thenReturn(List.of(notification));
 
         ResponseEntity<List<Notification>> response = notificationController.getUserNotifications(2L);
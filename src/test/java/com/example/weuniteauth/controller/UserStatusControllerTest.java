@@ -1,5 +1,6 @@
 package com.example.weuniteauth.controller;
 
+import com.example.weuniteauth.config.StompPrincipal;
 import com.example.weuniteauth.dto.chat.UserStatusDTO;
 import com.example.weuniteauth.service.UserStatusService;
 import org.junit.jupiter.api.Test;
@@ -7,21 +8,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class UserStatusControllerTest {
 
-    @Mock
-    private SimpMessagingTemplate messagingTemplate;
-
     @Mock
     private UserStatusService userStatusService;
 
@@ -32,10 +34,27 @@ class UserStatusControllerTest {
     void shouldUpdateStatusViaWebsocket() {
         UserStatusDTO statusDTO = new UserStatusDTO(1L, "ONLINE", null);
 
-        userStatusController.updateUserStatus(statusDTO);
+        userStatusController.updateUserStatus(statusDTO, new StompPrincipal("user1", 1L), "session-1");
+
+        verify(userStatusService).updateUserStatus(any(UserStatusDTO.class), eq("session-1"));
+        assertThat(statusDTO.getTimestamp()).isNotNull();
+    }
+
+    @Test
+    void shouldTakeStatusOwnerFromPrincipal() {
+        UserStatusDTO statusDTO = new UserStatusDTO(2L, "AWAY", null);
+
+        userStatusController.updateUserStatus(statusDTO, new StompPrincipal("user1", 1L), "session-1");
 
-        verify(userStatusService).updateUserStatus(any(UserStatusDTO.class));
-        verify(messagingTemplate).convertAndSend("/topic/user/1/status", statusDTO);
+        verify(userStatusService).updateUserStatus(statusDTO, "session-1");
+        assertThat(statusDTO.getUserId()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldIgnoreStatusFromUnauthenticatedSession() {
+        userStatusController.updateUserStatus(new UserStatusDTO(1L, "ONLINE", null), null, "session-1");
+
+        verifyNoInteractions(userStatusService);
     }
 
     @Test
@@ -45,4 +64,23 @@ class UserStatusControllerTest {
 
         assertThat(userStatusController.getUserStatus(1L).getBody()).isEqualTo(statusDTO);
     }
+
+    @Test
+    void shouldGetUserStatusesInBulk() {
+        UserStatusDTO online = new UserStatusDTO(1L, "ONLINE", LocalDateTime.now());
+        UserStatusDTO offline = new UserStatusDTO(2L, "OFFLINE", LocalDateTime.now());
+        Map<Long, UserStatusDTO> statuses = new LinkedHashMap<>();
+        statuses.put(1L, online);
+        statuses.put(2L, offline);
+        when(userStatusService.getUserStatuses(List.of(1L, 2L))).thenReturn(statuses);
+
+        assertThat(userStatusController.getUserStatuses(List.of(1L, 2L)).getBody()).containsExactly(online, offline);
+    }
+
+    @Test
+    void shouldRefreshSessionOnHeartbeat() {
+        userStatusController.heartbeat("session-1");
+
+        verify(userStatusService).heartbeat("session-1");
+    }
 }
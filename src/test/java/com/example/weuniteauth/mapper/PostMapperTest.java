@@ -81,6 +81,16 @@ class PostMapperTest {
         assertEquals("http://image.url/post.jpg", result.imageUrl());
     }
 
+    @Test
+    @DisplayName("Should expose the media status of a post still waiting for its upload")
+    void toPostDTOWithPendingMedia() {
+        testPost.setMediaStatus(Post.MediaStatus.PENDING_MEDIA);
+
+        PostDTO result = postMapper.toPostDTO(testPost);
+
+        assertEquals("PENDING_MEDIA", result.mediaStatus());
+    }
+
     @Test
     @DisplayName("Should convert post with likes")
     void toPostDTOWithLikes() {
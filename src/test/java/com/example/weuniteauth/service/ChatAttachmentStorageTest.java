@@ -0,0 +1,109 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.ChatAttachmentProperties;
+import com.example.weuniteauth.exceptions.BusinessRuleException;
+import com.example.weuniteauth.exceptions.chat.AttachmentTooLargeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ChatAttachmentStorage Tests")
+class ChatAttachmentStorageTest {
+
+    @TempDir
+    Path root;
+
+    private ChatAttachmentProperties properties;
+    private ChatAttachmentStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ChatAttachmentProperties();
+        properties.setRoot(root.toString());
+        properties.setMaxSizeBytes(16);
+        storage = new ChatAttachmentStorage(properties);
+    }
+
+    @Test
+    @DisplayName("Should store files under a sharded path named by their SHA-256")
+    void shouldStoreContentAddressed() throws IOException {
+        ChatAttachmentStorage.StoredAttachment stored = storage.store(body("hello"), 5, "Photo.PNG");
+
+        // sha256("hello")
+        assertThat(stored.hash()).isEqualTo("2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824");
+        assertThat(stored.fileName()).isEqualTo(stored.hash() + ".png");
+        assertThat(stored.deduplicated()).isFalse();
+
+        Path path = storage.find(stored.fileName()).orElseThrow();
+        assertThat(path).isEqualTo(root.resolve("2c").resolve("f2").resolve(stored.fileName()));
+        assertThat(Files.readString(path)).isEqualTo("hello");
+    }
+
+    @Test
+    @DisplayName("Should store identical uploads once")
+    void shouldDeduplicateIdenticalFiles() throws IOException {
+        ChatAttachmentStorage.StoredAttachment first = storage.store(body("same"), -1, "a.txt");
+        ChatAttachmentStorage.StoredAttachment second = storage.store(body("same"), -1, "b.txt");
+
+        assertThat(second.fileName()).isEqualTo(first.fileName());
+        assertThat(second.deduplicated()).isTrue();
+        try (var files = Files.list(root.resolve("tmp"))) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a declared length over the limit without reading the body")
+    void shouldRejectDeclaredOversizeBeforeReading() {
+        InputStream unread = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("body must not be read");
+            }
+        };
+
+        assertThatThrownBy(() -> storage.store(unread, 17, "big.bin"))
+                .isInstanceOf(AttachmentTooLargeException.class);
+    }
+
+    @Test
+    @DisplayName("Should stop streaming once an undeclared body crosses the limit")
+    void shouldRejectStreamedOversize() throws IOException {
+        assertThatThrownBy(() -> storage.store(body("01234567890123456789"), -1, "big.bin"))
+                .isInstanceOf(AttachmentTooLargeException.class);
+
+        try (var files = Files.list(root.resolve("tmp"))) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject empty files")
+    void shouldRejectEmptyFiles() {
+        assertThatThrownBy(() -> storage.store(body(""), 0, "empty.txt"))
+                .isInstanceOf(BusinessRuleException.class)
+                .hasMessage("Arquivo vazio");
+    }
+
+    @Test
+    @DisplayName("Should not resolve names that are not stored hashes")
+    void shouldIgnoreMalformedNames() {
+        assertThat(storage.find("../../etc/passwd")).isEmpty();
+        assertThat(storage.find("abc.png")).isEmpty();
+    }
+
+    private InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
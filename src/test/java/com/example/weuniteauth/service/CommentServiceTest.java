@@ -102,6 +102,7 @@ public class CommentServiceTest {
                 "Test post",
                 null,
                 null,
+                null,
                 new ArrayList<>(),
                 new ArrayList<>(),
                 new ArrayList<>(),
@@ -142,6 +143,7 @@ public class CommentServiceTest {
         verify(userRepository).findById(userId);
         verify(postRepository).findById(postId);
         verify(commentRepository).save(any(Comment.class));
+        verify(postRepository).adjustCommentCount(postId, 1);
         verify(commentMapper).toResponseDTO(eq("Comentário criado com sucesso!"), any(Comment.class));
     }
 
@@ -349,9 +351,13 @@ public class CommentServiceTest {
         mockUser.setId(userId);
         mockUser.setUsername("testuser");
 
+        Post commentedPost = new Post();
+        commentedPost.setId(10L);
+
         Comment existingComment = new Comment();
         existingComment.setId(commentId);
         existingComment.setUser(mockUser);
+        existingComment.setPost(commentedPost);
         existingComment.setText("Comment to be deleted");
 
         UserDTO userDTO = new UserDTO(
@@ -403,6 +409,7 @@ public class CommentServiceTest {
 
         verify(commentRepository).findById(commentId);
         verify(commentRepository).save(existingComment);
+        verify(postRepository).adjustCommentCount(10L, -1);
         verify(commentMapper).toResponseDTO(eq("Comentário excluída com sucesso"), eq(existingComment));
     }
 
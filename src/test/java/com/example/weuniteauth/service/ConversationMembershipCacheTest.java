@@ -0,0 +1,77 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.repository.ConversationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConversationMembershipCache Tests")
+class ConversationMembershipCacheTest {
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    private ConversationMembershipCache membershipCache;
+
+    @BeforeEach
+    void setUp() {
+        membershipCache = new ConversationMembershipCache(conversationRepository, 2);
+    }
+
+    @Test
+    @DisplayName("Should load participants once and serve later lookups from memory")
+    void shouldCacheParticipants() {
+        when(conversationRepository.findParticipantIds(1L)).thenReturn(List.of(1L, 2L));
+
+        assertThat(membershipCache.isParticipant(1L, 1L)).isTrue();
+        assertThat(membershipCache.isParticipant(1L, 3L)).isFalse();
+        assertThat(membershipCache.getParticipantIds(1L)).containsExactlyInAnyOrder(1L, 2L);
+
+        verify(conversationRepository, times(1)).findParticipantIds(1L);
+    }
+
+    @Test
+    @DisplayName("Should not cache unknown conversations")
+    void shouldNotCacheEmptyResults() {
+        when(conversationRepository.findParticipantIds(1L)).thenReturn(List.of(), List.of(1L, 2L));
+
+        assertThat(membershipCache.getParticipantIds(1L)).isEmpty();
+        assertThat(membershipCache.getParticipantIds(1L)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should reload participants after invalidation")
+    void shouldReloadAfterInvalidate() {
+        when(conversationRepository.findParticipantIds(1L)).thenReturn(List.of(1L, 2L), List.of(1L, 2L, 3L));
+
+        membershipCache.getParticipantIds(1L);
+        membershipCache.invalidate(1L);
+
+        assertThat(membershipCache.isParticipant(1L, 3L)).isTrue();
+        verify(conversationRepository, times(2)).findParticipantIds(1L);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used conversation when full")
+    void shouldEvictLeastRecentlyUsed() {
+        when(conversationRepository.findParticipantIds(anyLong())).thenReturn(List.of(1L, 2L));
+
+        membershipCache.getParticipantIds(1L);
+        membershipCache.getParticipantIds(2L);
+        membershipCache.getParticipantIds(1L);
+        membershipCache.getParticipantIds(3L);
+        membershipCache.getParticipantIds(2L);
+
+        verify(conversationRepository, times(1)).findParticipantIds(1L);
+        verify(conversationRepository, times(2)).findParticipantIds(2L);
+    }
+}
@@ -43,6 +43,9 @@ class ConversationServiceTest {
     @Mock
     private ConversationMapper conversationMapper;
 
+    @Mock
+    private ConversationMembershipCache membershipCache;
+
     @InjectMocks
     private ConversationService conversationService;
 
@@ -214,11 +217,13 @@ class ConversationServiceTest {
     @DisplayName("Should get user conversations successfully")
     void shouldGetUserConversationsSuccessfully() {
         // Given
-        List<Conversation> conversations = Arrays.asList(conversation);
+        Object[] row = new Object[15];
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(row);
 
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(conversationRepository.findAllByUserId(1L)).thenReturn(conversations);
-        when(conversationMapper.toDTO(any(Conversation.class), anyLong())).thenReturn(conversationDTO);
+        when(conversationRepository.findInboxByUserId(1L)).thenReturn(rows);
+        when(conversationMapper.fromInboxRow(row)).thenReturn(conversationDTO);
 
         // When
         List<ConversationDTO> result = conversationService.getUserConversations(1L);
@@ -227,7 +232,8 @@ class ConversationServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).hasSize(1);
 
-        verify(conversationRepository).findAllByUserId(1L);
+        verify(conversationRepository).findInboxByUserId(1L);
+        verify(conversationMapper, never()).toDTO(any(Conversation.class), anyLong());
     }
 
     @Test
@@ -241,7 +247,7 @@ class ConversationServiceTest {
                 .isInstanceOf(NotFoundResourceException.class)
                 .hasMessageContaining("User not found with id: 1");
 
-        verify(conversationRepository, never()).findAllByUserId(anyLong());
+        verify(conversationRepository, never()).findInboxByUserId(anyLong());
     }
 
     @Test
@@ -249,7 +255,7 @@ class ConversationServiceTest {
     void shouldReturnEmptyListWhenUserHasNoConversations() {
         // Given
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(conversationRepository.findAllByUserId(1L)).thenReturn(Collections.emptyList());
+        when(conversationRepository.findInboxByUserId(1L)).thenReturn(Collections.emptyList());
 
         // When
         List<ConversationDTO> result = conversationService.getUserConversations(1L);
@@ -258,7 +264,7 @@ class ConversationServiceTest {
         assertThat(result).isNotNull();
         assertThat(result).isEmpty();
 
-        verify(conversationRepository).findAllByUserId(1L);
+        verify(conversationRepository).findInboxByUserId(1L);
     }
 
     @Test
@@ -0,0 +1,60 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.repository.CommentRepository;
+import com.example.weuniteauth.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CounterReconciliationServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @InjectMocks
+    private CounterReconciliationService counterReconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(counterReconciliationService, "batchSize", 100L);
+    }
+
+    @Test
+    @DisplayName("Should reconcile posts and comments in id ranges up to the highest id")
+    void reconcileCountersInRanges() {
+        when(postRepository.findMaxId()).thenReturn(250L);
+        when(commentRepository.findMaxId()).thenReturn(80L);
+
+        counterReconciliationService.reconcileCounters();
+
+        verify(postRepository).reconcileCounters(1L, 100L);
+        verify(postRepository).reconcileCounters(101L, 200L);
+        verify(postRepository).reconcileCounters(201L, 300L);
+        verify(postRepository, times(3)).reconcileCounters(anyLong(), anyLong());
+        verify(commentRepository).reconcileLikeCounts(1L, 100L);
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when there is nothing to reconcile")
+    void reconcileCountersWithEmptyTables() {
+        when(postRepository.findMaxId()).thenReturn(0L);
+        when(commentRepository.findMaxId()).thenReturn(0L);
+
+        counterReconciliationService.reconcileCounters();
+
+        verify(postRepository, never()).reconcileCounters(anyLong(), anyLong());
+        verify(commentRepository, never()).reconcileLikeCounts(anyLong(), anyLong());
+    }
+}
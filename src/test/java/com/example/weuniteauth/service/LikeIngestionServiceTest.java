@@ -0,0 +1,231 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.WebSocketBrokerProperties;
+import com.example.weuniteauth.exceptions.post.PostNotFoundException;
+import com.example.weuniteauth.repository.LikeBatchRepository;
+import com.example.weuniteauth.repository.LikeBatchRepository.UserPostPair;
+import com.example.weuniteauth.repository.LikeRepository;
+import com.example.weuniteauth.repository.PostRepository;
+import com.example.weuniteauth.repository.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LikeIngestionService Tests")
+class LikeIngestionServiceTest {
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private LikeBatchRepository likeBatchRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private WebSocketBrokerProperties brokerProperties;
+
+    @InjectMocks
+    private LikeIngestionService likeIngestionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(likeIngestionService, "enabled", true);
+        ReflectionTestUtils.setField(likeIngestionService, "maxPending", 2);
+    }
+
+    @Test
+    @DisplayName("Should turn write-behind off when the broker relay runs several nodes")
+    void relayModeDisablesWriteBehind() {
+        when(brokerProperties.getMode()).thenReturn(WebSocketBrokerProperties.Mode.RELAY);
+
+        likeIngestionService.requireSingleNode();
+
+        assertFalse(likeIngestionService.accepts());
+        assertFalse(likeIngestionService.accepts(1L, 10L));
+    }
+
+    @Test
+    @DisplayName("Should keep write-behind on with the in-memory broker")
+    void simpleModeKeepsWriteBehind() {
+        when(brokerProperties.getMode()).thenReturn(WebSocketBrokerProperties.Mode.SIMPLE);
+
+        likeIngestionService.requireSingleNode();
+
+        assertTrue(likeIngestionService.accepts());
+    }
+
+    @Test
+    @DisplayName("Should expose a buffered like through the overlay")
+    void toggleBuffersLike() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findActiveAuthorId(10L)).thenReturn(Optional.of(2L));
+        when(likeRepository.existsByUserIdAndPostId(1L, 10L)).thenReturn(false);
+
+        boolean liked = likeIngestionService.toggle(1L, 10L);
+
+        assertTrue(liked);
+        assertEquals(1L, likeIngestionService.pendingLikeDelta(10L));
+        assertTrue(likeIngestionService.pendingLikeState(10L, 1L));
+        verifyNoInteractions(likeBatchRepository);
+    }
+
+    @Test
+    @DisplayName("Should list buffered toggles by post and by user")
+    void pendingLikesByPostAndUser() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(postRepository.findActiveAuthorId(anyLong())).thenReturn(Optional.of(2L));
+        when(likeRepository.existsByUserIdAndPostId(1L, 10L)).thenReturn(false);
+        when(likeRepository.existsByUserIdAndPostId(1L, 11L)).thenReturn(true);
+        when(likeRepository.existsByUserIdAndPostId(3L, 10L)).thenReturn(false);
+
+        likeIngestionService.toggle(1L, 10L);
+        likeIngestionService.toggle(1L, 11L);
+        likeIngestionService.toggle(3L, 10L);
+
+        assertEquals(Map.of(1L, true, 3L, true), likeIngestionService.pendingLikesOnPost(10L));
+        assertEquals(Map.of(10L, true, 11L, false), likeIngestionService.pendingLikesOfUser(1L));
+        assertTrue(likeIngestionService.pendingLikesOfUser(2L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should collapse a like and unlike into nothing on flush")
+    void flushCollapsesToggles() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findActiveAuthorId(10L)).thenReturn(Optional.of(2L));
+        when(likeRepository.existsByUserIdAndPostId(1L, 10L)).thenReturn(false);
+
+        likeIngestionService.toggle(1L, 10L);
+        assertFalse(likeIngestionService.toggle(1L, 10L));
+        assertEquals(0L, likeIngestionService.pendingLikeDelta(10L));
+
+        likeIngestionService.flush();
+
+        verifyNoInteractions(likeBatchRepository, notificationService);
+        assertNull(likeIngestionService.pendingLikeState(10L, 1L));
+    }
+
+    @Test
+    @DisplayName("Should batch-insert likes, adjust counters and notify the owner on flush")
+    void flushAppliesBatch() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(postRepository.findActiveAuthorId(10L)).thenReturn(Optional.of(2L));
+        when(likeRepository.existsByUserIdAndPostId(anyLong(), eq(10L))).thenReturn(false);
+        when(likeBatchRepository.insertPostLikes(anyList())).thenReturn(new int[]{1, 1});
+
+        likeIngestionService.toggle(1L, 10L);
+        likeIngestionService.toggle(2L, 10L);
+        assertFalse(likeIngestionService.accepts());
+
+        likeIngestionService.flush();
+
+        verify(likeBatchRepository).insertPostLikes(argThat(pairs -> ((List<?>) pairs).size() == 2));
+        verify(likeBatchRepository).adjustPostLikeCounts(Map.of(10L, 2L));
+        verify(notificationService).createNotification(2L, "POST_LIKE", 1L, 10L, null);
+        verify(notificationService, never()).createNotification(eq(2L), eq("POST_LIKE"), eq(2L), anyLong(), any());
+        assertTrue(likeIngestionService.accepts());
+        assertEquals(0L, likeIngestionService.pendingLikeDelta(10L));
+    }
+
+    @Test
+    @DisplayName("Should write rows one by one when the batch fails and drop only the broken row")
+    void flushIsolatesFailingRow() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(postRepository.findActiveAuthorId(10L)).thenReturn(Optional.of(2L));
+        when(likeRepository.existsByUserIdAndPostId(anyLong(), eq(10L))).thenReturn(false);
+        when(likeBatchRepository.insertPostLikes(anyList())).thenAnswer(invocation -> {
+            List<UserPostPair> pairs = invocation.getArgument(0);
+            if (pairs.stream().anyMatch(pair -> pair.userId().equals(3L))) {
+                throw new DataIntegrityViolationException("usuário removido");
+            }
+            return new int[]{1};
+        });
+
+        likeIngestionService.toggle(1L, 10L);
+        likeIngestionService.toggle(3L, 10L);
+
+        likeIngestionService.flush();
+
+        verify(likeBatchRepository, times(3)).insertPostLikes(anyList());
+        verify(likeBatchRepository).adjustPostLikeCounts(Map.of(10L, 1L));
+        verify(notificationService).createNotification(2L, "POST_LIKE", 1L, 10L, null);
+        verify(notificationService, never()).createNotification(eq(2L), eq("POST_LIKE"), eq(3L), anyLong(), any());
+        assertNull(likeIngestionService.pendingLikeState(10L, 3L));
+        assertTrue(likeIngestionService.accepts());
+    }
+
+    @Test
+    @DisplayName("Should re-queue a row that fails transiently and give up after the last attempt")
+    void flushRequeuesTransientFailure() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findActiveAuthorId(10L)).thenReturn(Optional.of(2L));
+        when(likeRepository.existsByUserIdAndPostId(1L, 10L)).thenReturn(false);
+        when(likeBatchRepository.insertPostLikes(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        likeIngestionService.toggle(1L, 10L);
+
+        likeIngestionService.flush();
+        assertTrue(likeIngestionService.pendingLikeState(10L, 1L));
+        assertEquals(1L, likeIngestionService.pendingLikeDelta(10L));
+
+        likeIngestionService.flush();
+        likeIngestionService.flush();
+
+        assertNull(likeIngestionService.pendingLikeState(10L, 1L));
+        assertEquals(0L, likeIngestionService.pendingLikeDelta(10L));
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    @DisplayName("Should take a toggle for a pending key even when the buffer is full")
+    void acceptsPendingKeyWhenFull() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(postRepository.findActiveAuthorId(10L)).thenReturn(Optional.of(2L));
+        when(likeRepository.existsByUserIdAndPostId(anyLong(), eq(10L))).thenReturn(false);
+
+        likeIngestionService.toggle(1L, 10L);
+        likeIngestionService.toggle(2L, 10L);
+
+        assertFalse(likeIngestionService.accepts(3L, 10L));
+        assertTrue(likeIngestionService.accepts(1L, 10L));
+        assertFalse(likeIngestionService.toggle(1L, 10L));
+        assertEquals(1L, likeIngestionService.pendingLikeDelta(10L));
+    }
+
+    @Test
+    @DisplayName("Should reject toggles on deleted posts")
+    void toggleDeletedPost() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(postRepository.findActiveAuthorId(10L)).thenReturn(Optional.empty());
+
+        assertThrows(PostNotFoundException.class, () -> likeIngestionService.toggle(1L, 10L));
+        assertEquals(0L, likeIngestionService.pendingLikeDelta(10L));
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.ChatAttachmentProperties;
+import com.example.weuniteauth.config.MediaProcessingProperties;
+import com.example.weuniteauth.domain.post.MediaUploadFailure;
+import com.example.weuniteauth.domain.post.MediaUploadRequestedEvent;
+import com.example.weuniteauth.domain.post.Post;
+import com.example.weuniteauth.dto.post.PostMediaEventDTO;
+import com.example.weuniteauth.repository.MediaUploadFailureRepository;
+import com.example.weuniteauth.repository.PostRepository;
+import com.example.weuniteauth.service.cloudinary.StubCloudinaryService;
+import com.example.weuniteauth.service.media.CloudinaryMediaStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MediaProcessingService Tests")
+class MediaProcessingServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private MediaUploadFailureRepository failureRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path spoolDir;
+
+    private StubCloudinaryService cloudinary;
+    private SimpleMeterRegistry meterRegistry;
+    private MediaProcessingService mediaProcessingService;
+
+    @BeforeEach
+    void setUp() {
+        MediaProcessingProperties properties = new MediaProcessingProperties();
+        properties.setMaxAttempts(3);
+        properties.setRetryBackoffMs(1);
+        properties.setSpoolDir(spoolDir.toString());
+
+        cloudinary = new StubCloudinaryService();
+        meterRegistry = new SimpleMeterRegistry();
+        mediaProcessingService = new MediaProcessingService(new CloudinaryMediaStorage(cloudinary, new ChatAttachmentProperties()), postRepository, failureRepository,
+                messagingTemplate, eventPublisher, properties, meterRegistry, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should spool the upload and publish it for after commit")
+    void shouldSpoolAndPublish() throws IOException {
+        MockMultipartFile media = new MockMultipartFile("media", "photo.png", "image/png", "png".getBytes());
+
+        mediaProcessingService.submit(10L, 1L, media);
+
+        ArgumentCaptor<MediaUploadRequestedEvent> event = ArgumentCaptor.forClass(MediaUploadRequestedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().postId()).isEqualTo(10L);
+        assertThat(event.getValue().contentType()).isEqualTo("image/png");
+        assertThat(event.getValue().spoolPath()).isEqualTo(spoolDir.resolve("post-media-10.png"));
+        assertThat(Files.readString(event.getValue().spoolPath())).isEqualTo("png");
+    }
+
+    @Test
+    @DisplayName("Should attach the image URL and push a READY event")
+    void shouldCompleteImageUpload() throws IOException {
+        Path spooled = spool("image");
+        when(postRepository.completeMedia(eq(10L), any(), eq(null))).thenReturn(1);
+
+        mediaProcessingService.process(new MediaUploadRequestedEvent(10L, 1L, "image/png", "photo.png", spooled));
+
+        ArgumentCaptor<PostMediaEventDTO> pushed = ArgumentCaptor.forClass(PostMediaEventDTO.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/posts/10/media"), pushed.capture());
+        assertThat(pushed.getValue().mediaStatus()).isEqualTo("READY");
+        assertThat(pushed.getValue().imageUrl()).startsWith("https://stub.cloudinary.local/image/posts/1/");
+        assertThat(Files.exists(spooled)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should store videos in videoUrl")
+    void shouldCompleteVideoUpload() throws IOException {
+        Path spooled = spool("video");
+        when(postRepository.completeMedia(eq(10L), eq(null), any())).thenReturn(1);
+
+        mediaProcessingService.process(new MediaUploadRequestedEvent(10L, 1L, "video/mp4", "clip.mp4", spooled));
+
+        verify(postRepository).completeMedia(eq(10L), eq(null), argThat(url -> url.contains("/video/")));
+    }
+
+    @Test
+    @DisplayName("Should retry failed uploads before succeeding")
+    void shouldRetryFailedUploads() throws IOException {
+        Path spooled = spool("image");
+        cloudinary.failNext(2);
+        when(postRepository.completeMedia(eq(10L), any(), any())).thenReturn(1);
+
+        mediaProcessingService.process(new MediaUploadRequestedEvent(10L, 1L, "image/png", "photo.png", spooled));
+
+        assertThat(cloudinary.uploads()).hasSize(3);
+        verify(failureRepository, never()).save(any());
+        assertThat(meterRegistry.counter("media.processing.retried").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("media.processing.completed").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter uploads that fail every attempt and keep the file")
+    void shouldDeadLetterAfterMaxAttempts() throws IOException {
+        Path spooled = spool("image");
+        cloudinary.failNext(3);
+
+        mediaProcessingService.process(new MediaUploadRequestedEvent(10L, 1L, "image/png", "photo.png", spooled));
+
+        ArgumentCaptor<MediaUploadFailure> failure = ArgumentCaptor.forClass(MediaUploadFailure.class);
+        verify(failureRepository).save(failure.capture());
+        assertThat(failure.getValue().getPostId()).isEqualTo(10L);
+        assertThat(failure.getValue().getAttempts()).isEqualTo(3);
+        assertThat(failure.getValue().getSpoolPath()).isEqualTo(spooled.toString());
+
+        verify(postRepository).updateMediaStatus(10L, Post.MediaStatus.FAILED);
+        verify(postRepository, never()).completeMedia(any(), any(), any());
+        verify(messagingTemplate).convertAndSend(eq("/topic/posts/10/media"),
+                eq(new PostMediaEventDTO(10L, "FAILED", null, null)));
+        assertThat(Files.exists(spooled)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep the post pending when the queue is full and upload it once the pool has room")
+    void shouldDeferUploadsWhileQueueIsFull() throws Exception {
+        Path spooled = spool("image");
+        MediaUploadRequestedEvent event = new MediaUploadRequestedEvent(10L, 1L, "image/png", "a.png", spooled);
+        when(postRepository.completeMedia(eq(10L), any(), eq(null))).thenReturn(1);
+
+        // A stopped pool rejects every job, like a full one
+        mediaProcessingService.start();
+        mediaProcessingService.stop();
+        mediaProcessingService.onUploadRequested(event);
+        mediaProcessingService.requeueDeferred();
+
+        assertThat(meterRegistry.get("media.processing.deferred").gauge().value()).isEqualTo(1.0);
+        verifyNoInteractions(failureRepository, messagingTemplate);
+        verify(postRepository, never()).updateMediaStatus(any(), any());
+
+        mediaProcessingService.start();
+        try {
+            mediaProcessingService.requeueDeferred();
+
+            verify(postRepository, timeout(2000)).completeMedia(eq(10L), argThat(url -> url.contains("/image/")), eq(null));
+        } finally {
+            mediaProcessingService.stop();
+        }
+        assertThat(meterRegistry.get("media.processing.deferred").gauge().value()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("Should re-queue stale pending posts from their spool file on startup")
+    void shouldRecoverStalePendingFromSpool() throws Exception {
+        Path spooled = spoolDir.resolve("post-media-10.mp4");
+        Files.writeString(spooled, "video");
+        when(postRepository.findStalePendingMedia(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 1L}));
+        when(postRepository.completeMedia(eq(10L), eq(null), any())).thenReturn(1);
+
+        mediaProcessingService.start();
+        try {
+            mediaProcessingService.recoverStalePending();
+
+            verify(postRepository, timeout(2000)).completeMedia(eq(10L), eq(null), argThat(url -> url.contains("/video/")));
+        } finally {
+            mediaProcessingService.stop();
+        }
+        assertThat(Files.exists(spooled)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should mark stale pending posts as failed when the spool file is gone")
+    void shouldFailStalePendingWithoutSpool() {
+        when(postRepository.findStalePendingMedia(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.<Object[]>of(new Object[]{11L, 1L}));
+
+        mediaProcessingService.recoverStalePending();
+
+        verify(postRepository).updateMediaStatus(11L, Post.MediaStatus.FAILED);
+        verify(messagingTemplate).convertAndSend(eq("/topic/posts/11/media"),
+                eq(new PostMediaEventDTO(11L, "FAILED", null, null)));
+        assertThat(cloudinary.uploads()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should purge expired dead letters together with their spool files")
+    void shouldPurgeExpiredDeadLetters() throws IOException {
+        Path spooled = spool("image");
+        MediaUploadFailure failure = new MediaUploadFailure();
+        failure.setPostId(10L);
+        failure.setSpoolPath(spooled.toString());
+        failure.setFailedAt(Instant.now().minus(Duration.ofDays(30)));
+        when(failureRepository.findByFailedAtBeforeOrderByFailedAt(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(failure));
+
+        mediaProcessingService.purgeDeadLetters();
+
+        verify(failureRepository).deleteAllInBatch(List.of(failure));
+        assertThat(Files.exists(spooled)).isFalse();
+    }
+
+    private Path spool(String content) throws IOException {
+        Path file = Files.createTempFile(spoolDir, "post-media-", ".upload");
+        Files.writeString(file, content);
+        return file;
+    }
+}
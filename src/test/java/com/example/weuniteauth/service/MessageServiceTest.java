@@ -1,13 +1,16 @@
 package com.example.weuniteauth.service;
 
 import com.example.weuniteauth.domain.chat.Conversation;
+import com.example.weuniteauth.domain.chat.ConversationReadCursor;
 import com.example.weuniteauth.domain.chat.Message;
 import com.example.weuniteauth.domain.users.User;
 import com.example.weuniteauth.dto.chat.MessageDTO;
+import com.example.weuniteauth.dto.chat.MessagePageDTO;
 import com.example.weuniteauth.dto.chat.SendMessageRequestDTO;
 import com.example.weuniteauth.exceptions.NotFoundResourceException;
 import com.example.weuniteauth.exceptions.UnauthorizedException;
 import com.example.weuniteauth.mapper.MessageMapper;
+import com.example.weuniteauth.repository.ConversationReadCursorRepository;
 import com.example.weuniteauth.repository.ConversationRepository;
 import com.example.weuniteauth.repository.MessageRepository;
 import com.example.weuniteauth.repository.user.UserRepository;
@@ -19,6 +22,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.Instant;
 import java.util.*;
@@ -26,6 +30,7 @@ import java.util.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +43,9 @@ class MessageServiceTest {
     @Mock
     private ConversationRepository conversationRepository;
 
+    @Mock
+    private ConversationReadCursorRepository readCursorRepository;
+
     @Mock
     private UserRepository userRepository;
 
@@ -47,6 +55,9 @@ class MessageServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private ConversationMembershipCache membershipCache;
+
     @InjectMocks
     private MessageService messageService;
 
@@ -113,8 +124,9 @@ class MessageServiceTest {
     @DisplayName("Should send message successfully")
     void shouldSendMessageSuccessfully() {
         // Given
-        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(sender));
+        when(membershipCache.getParticipantIds(1L)).thenReturn(Set.of(1L, 2L));
+        when(conversationRepository.getReferenceById(1L)).thenReturn(conversation);
+        when(userRepository.getReferenceById(1L)).thenReturn(sender);
         when(messageRepository.save(any(Message.class))).thenReturn(message);
         when(messageMapper.toDTO(any(Message.class))).thenReturn(messageDTO);
 
@@ -135,14 +147,17 @@ class MessageServiceTest {
         assertThat(capturedMessage.getConversation()).isEqualTo(conversation);
         assertThat(capturedMessage.isRead()).isFalse();
 
-        verify(conversationRepository).save(conversation);
+        verify(conversationRepository).touchUpdatedAt(eq(1L), any(Instant.class));
+        verify(conversationRepository, never()).findById(any());
+        verify(userRepository, never()).findById(any());
+        verify(notificationService).createNotification(2L, "NEW_MESSAGE", 1L, 1L, null);
     }
 
     @Test
     @DisplayName("Should throw exception when conversation not found")
     void shouldThrowExceptionWhenConversationNotFound() {
         // Given
-        when(conversationRepository.findById(1L)).thenReturn(Optional.empty());
+        when(membershipCache.getParticipantIds(1L)).thenReturn(Set.of());
 
         // When & Then
         assertThatThrownBy(() -> messageService.sendMessage(sendMessageRequest))
@@ -152,29 +167,10 @@ class MessageServiceTest {
         verify(messageRepository, never()).save(any(Message.class));
     }
 
-    @Test
-    @DisplayName("Should throw exception when sender not found")
-    void shouldThrowExceptionWhenSenderNotFound() {
-        // Given
-        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
-
-        // When & Then
-        assertThatThrownBy(() -> messageService.sendMessage(sendMessageRequest))
-                .isInstanceOf(NotFoundResourceException.class)
-                .hasMessageContaining("User not found with id: 1");
-
-        verify(messageRepository, never()).save(any(Message.class));
-    }
-
     @Test
     @DisplayName("Should throw exception when sender is not a participant")
     void shouldThrowExceptionWhenSenderIsNotParticipant() {
         // Given
-        User nonParticipant = new User();
-        nonParticipant.setId(3L);
-        nonParticipant.setUsername("nonparticipant");
-
         SendMessageRequestDTO request = new SendMessageRequestDTO(
                 1L,
                 3L,
@@ -182,8 +178,7 @@ class MessageServiceTest {
                 Message.MessageType.TEXT
         );
 
-        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
-        when(userRepository.findById(3L)).thenReturn(Optional.of(nonParticipant));
+        when(membershipCache.getParticipantIds(1L)).thenReturn(Set.of(1L, 2L));
 
         // When & Then
         assertThatThrownBy(() -> messageService.sendMessage(request))
@@ -245,48 +240,99 @@ class MessageServiceTest {
     }
 
     @Test
-    @DisplayName("Should mark messages as read successfully")
-    void shouldMarkMessagesAsReadSuccessfully() {
+    @DisplayName("Should return the newest page in chronological order with a cursor")
+    void shouldGetConversationMessagesPage() {
+        // Given
+        Message newest = new Message();
+        newest.setId(12L);
+        Message middle = new Message();
+        middle.setId(11L);
+        Message oldest = new Message();
+        oldest.setId(10L);
+
+        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
+        when(messageRepository.findPageBefore(eq(1L), any(Instant.class), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(newest, middle, oldest));
+        when(messageMapper.toDTOList(List.of(middle, newest))).thenReturn(List.of(messageDTO, messageDTO));
+
+        // When
+        MessagePageDTO page = messageService.getConversationMessagesPage(1L, 1L, null, 2);
+
+        // Then
+        assertThat(page.messages()).hasSize(2);
+        assertThat(page.hasMore()).isTrue();
+        assertThat(page.nextBeforeId()).isEqualTo(11L);
+    }
+
+    @Test
+    @DisplayName("Should page from the given message id")
+    void shouldGetConversationMessagesPageBeforeId() {
         // Given
-        Message unreadMessage1 = new Message();
-        unreadMessage1.setId(1L);
-        unreadMessage1.setSender(receiver);
-        unreadMessage1.setRead(false);
+        Instant cursorAt = Instant.parse("2025-01-01T10:00:00Z");
+        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
+        when(messageRepository.findCreatedAtInConversation(10L, 1L)).thenReturn(Optional.of(cursorAt));
+        when(messageRepository.findPageBefore(eq(1L), eq(cursorAt), eq(10L), any(Pageable.class)))
+                .thenReturn(List.of(message));
+        when(messageMapper.toDTOList(List.of(message))).thenReturn(List.of(messageDTO));
 
-        Message unreadMessage2 = new Message();
-        unreadMessage2.setId(2L);
-        unreadMessage2.setSender(receiver);
-        unreadMessage2.setRead(false);
+        // When
+        MessagePageDTO page = messageService.getConversationMessagesPage(1L, 1L, 10L, 20);
 
-        List<Message> unreadMessages = Arrays.asList(unreadMessage1, unreadMessage2);
+        // Then
+        assertThat(page.messages()).hasSize(1);
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.nextBeforeId()).isNull();
+    }
 
-        when(messageRepository.findUnreadMessagesByConversationAndUser(1L, 1L))
-                .thenReturn(unreadMessages);
+    @Test
+    @DisplayName("Should mark messages as read by advancing the read cursor")
+    void shouldMarkMessagesAsReadSuccessfully() {
+        // Given
+        when(conversationRepository.findLastMessageId(1L)).thenReturn(Optional.of(42L));
 
         // When
         messageService.markMessagesAsRead(1L, 1L);
 
         // Then
-        assertThat(unreadMessage1.isRead()).isTrue();
-        assertThat(unreadMessage1.getReadAt()).isNotNull();
-        assertThat(unreadMessage2.isRead()).isTrue();
-        assertThat(unreadMessage2.getReadAt()).isNotNull();
-
-        verify(messageRepository).saveAll(unreadMessages);
+        verify(readCursorRepository).advance(eq(1L), eq(1L), eq(42L), any(Instant.class));
+        verify(messageRepository, never()).saveAll(any());
     }
 
     @Test
-    @DisplayName("Should handle marking messages as read when no unread messages exist")
+    @DisplayName("Should handle marking messages as read when the conversation has no messages")
     void shouldHandleMarkingMessagesAsReadWhenNoUnreadMessagesExist() {
         // Given
-        when(messageRepository.findUnreadMessagesByConversationAndUser(1L, 1L))
-                .thenReturn(Collections.emptyList());
+        when(conversationRepository.findLastMessageId(1L)).thenReturn(Optional.empty());
 
         // When
         messageService.markMessagesAsRead(1L, 1L);
 
         // Then
-        verify(messageRepository).saveAll(Collections.emptyList());
+        verifyNoInteractions(readCursorRepository);
+    }
+
+    @Test
+    @DisplayName("Should derive read receipts from the other participant's cursor")
+    void shouldDeriveReadReceiptsFromCursors() {
+        // Given
+        ConversationReadCursor receiverCursor = new ConversationReadCursor();
+        receiverCursor.setConversationId(1L);
+        receiverCursor.setUserId(2L);
+        receiverCursor.setLastReadMessageId(1L);
+        receiverCursor.setReadAt(Instant.parse("2025-01-01T10:00:00Z"));
+
+        List<Message> messages = List.of(message);
+        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
+        when(messageRepository.findByConversationIdOrderByCreatedAtAsc(1L)).thenReturn(messages);
+        when(messageMapper.toDTOList(messages)).thenReturn(List.of(messageDTO));
+        when(readCursorRepository.findByConversationId(1L)).thenReturn(List.of(receiverCursor));
+
+        // When
+        List<MessageDTO> result = messageService.getConversationMessages(1L, 1L);
+
+        // Then
+        assertThat(result.get(0).isRead()).isTrue();
+        assertThat(result.get(0).readAt()).isEqualTo(receiverCursor.getReadAt());
     }
 
     @Test
@@ -322,8 +368,9 @@ class MessageServiceTest {
                 null
         );
 
-        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(sender));
+        when(membershipCache.getParticipantIds(1L)).thenReturn(Set.of(1L, 2L));
+        when(conversationRepository.getReferenceById(1L)).thenReturn(conversation);
+        when(userRepository.getReferenceById(1L)).thenReturn(sender);
         when(messageRepository.save(any(Message.class))).thenReturn(imageMessage);
         when(messageMapper.toDTO(any(Message.class))).thenReturn(imageMessageDTO);
 
@@ -342,10 +389,11 @@ class MessageServiceTest {
     @DisplayName("Should update conversation updatedAt timestamp when sending message")
     void shouldUpdateConversationUpdatedAtWhenSendingMessage() {
         // Given
-        Instant originalUpdatedAt = conversation.getUpdatedAt();
+        Instant before = Instant.now();
 
-        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(sender));
+        when(membershipCache.getParticipantIds(1L)).thenReturn(Set.of(1L, 2L));
+        when(conversationRepository.getReferenceById(1L)).thenReturn(conversation);
+        when(userRepository.getReferenceById(1L)).thenReturn(sender);
         when(messageRepository.save(any(Message.class))).thenReturn(message);
         when(messageMapper.toDTO(any(Message.class))).thenReturn(messageDTO);
 
@@ -353,10 +401,11 @@ class MessageServiceTest {
         messageService.sendMessage(sendMessageRequest);
 
         // Then
-        ArgumentCaptor<Conversation> conversationCaptor = ArgumentCaptor.forClass(Conversation.class);
-        verify(conversationRepository).save(conversationCaptor.capture());
-        Conversation capturedConversation = conversationCaptor.getValue();
+        ArgumentCaptor<Instant> updatedAtCaptor = ArgumentCaptor.forClass(Instant.class);
+        verify(conversationRepository).touchUpdatedAt(eq(1L), updatedAtCaptor.capture());
 
-        assertThat(capturedConversation.getUpdatedAt()).isAfterOrEqualTo(originalUpdatedAt);
+        assertThat(updatedAtCaptor.getValue()).isAfterOrEqualTo(before);
+        verify(conversationRepository).advanceLastMessage(1L, 1L, message.getCreatedAt());
+        verify(conversationRepository, never()).save(any(Conversation.class));
     }
 }
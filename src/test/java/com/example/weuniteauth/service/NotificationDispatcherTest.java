@@ -0,0 +1,191 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.NotificationProperties;
+import com.example.weuniteauth.domain.notification.Notification;
+import com.example.weuniteauth.domain.notification.NotificationEvent;
+import com.example.weuniteauth.domain.users.User;
+import com.example.weuniteauth.repository.NotificationBatchRepository;
+import com.example.weuniteauth.repository.NotificationBatchRepository.AggregatedNotification;
+import com.example.weuniteauth.repository.NotificationBatchRepository.AggregationResult;
+import com.example.weuniteauth.repository.NotificationBatchRepository.MergeResult;
+import com.example.weuniteauth.repository.user.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationDispatcher Tests")
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationBatchRepository notificationBatchRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private UnreadNotificationCounter unreadCounter;
+
+    private NotificationProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private User actor;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationProperties();
+        properties.setQueueCapacity(2);
+        properties.setWorkers(1);
+        properties.setBatchSize(10);
+
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new NotificationDispatcher(notificationBatchRepository, userRepository, messagingTemplate,
+                unreadCounter, properties, meterRegistry);
+
+        actor = new User();
+        actor.setId(3L);
+        actor.setName("Actor");
+        actor.setUsername("actor_user");
+    }
+
+    @Test
+    @DisplayName("Should insert queued events in one batch and push them")
+    void drainDeliversBatch() throws InterruptedException {
+        properties.getAggregation().setEnabled(false);
+        when(userRepository.findAllById(anySet())).thenReturn(List.of(actor));
+
+        dispatcher.onNotificationEvent(new NotificationEvent(5L, "POST_LIKE", 3L, 9L, "curtiu sua publicação"));
+        dispatcher.onNotificationEvent(new NotificationEvent(6L, "NEW_FOLLOWER", 3L, 6L, "começou a seguir você"));
+
+        assertEquals(2, dispatcher.drainOnce(0));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationBatchRepository).insertAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals("Actor", captor.getValue().get(0).getActorName());
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/5/notifications"), any(Notification.class));
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/6/notifications"), any(Notification.class));
+        verify(unreadCounter).increment(5L, 1);
+        verify(unreadCounter).increment(6L, 1);
+    }
+
+    @Test
+    @DisplayName("Should fold likes on the same post into the recent aggregate row")
+    void drainAggregatesIntoRecentRow() throws InterruptedException {
+        User other = new User();
+        other.setId(4L);
+        other.setName("Ana");
+        other.setUsername("ana");
+
+        Notification aggregate = new Notification();
+        aggregate.setId(50L);
+        aggregate.setUserId(5L);
+        aggregate.setActorCount(42);
+        MergeResult merged = new MergeResult(aggregate, true);
+
+        when(userRepository.findAllById(anySet())).thenReturn(List.of(actor, other));
+        when(notificationBatchRepository.mergeOrInsert(anyCollection(), any()))
+                .thenReturn(new AggregationResult(List.of(merged), List.of()));
+
+        dispatcher.onNotificationEvent(new NotificationEvent(5L, "POST_LIKE", 3L, 9L, "curtiu sua publicação"));
+        dispatcher.onNotificationEvent(new NotificationEvent(5L, "POST_LIKE", 4L, 9L, "curtiu sua publicação"));
+
+        assertEquals(2, dispatcher.drainOnce(0));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<AggregatedNotification>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(notificationBatchRepository).mergeOrInsert(captor.capture(), any());
+        assertEquals(1, captor.getValue().size());
+        AggregatedNotification group = captor.getValue().iterator().next();
+        assertEquals(Set.of(3L, 4L), group.actorIds());
+        assertEquals(2, group.notification().getActorCount());
+        assertEquals("Ana", group.notification().getActorName());
+
+        verify(notificationBatchRepository, never()).insertAll(anyList());
+        verify(messagingTemplate, times(1)).convertAndSend("/topic/user/5/notifications", aggregate);
+        verify(unreadCounter).increment(5L, 1);
+    }
+
+    @Test
+    @DisplayName("Should insert a new aggregate row when nothing recent exists")
+    void drainInsertsWhenNoRecentRow() throws InterruptedException {
+        when(userRepository.findAllById(anySet())).thenReturn(List.of(actor));
+        when(notificationBatchRepository.mergeOrInsert(anyCollection(), any()))
+                .thenAnswer(invocation -> new AggregationResult(List.of(),
+                        invocation.<Collection<AggregatedNotification>>getArgument(0).stream()
+                                .map(AggregatedNotification::notification)
+                                .toList()));
+
+        dispatcher.onNotificationEvent(new NotificationEvent(5L, "POST_LIKE", 3L, 9L, "curtiu sua publicação"));
+
+        assertEquals(1, dispatcher.drainOnce(0));
+
+        verify(notificationBatchRepository).mergeOrInsert(argThat(groups -> groups.size() == 1
+                && groups.iterator().next().notification().getActorCount() == 1
+                && groups.iterator().next().actorIds().equals(Set.of(3L))), any());
+        verify(notificationBatchRepository, never()).insertAll(anyList());
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/5/notifications"), any(Notification.class));
+        verify(unreadCounter).increment(5L, 1);
+    }
+
+    @Test
+    @DisplayName("Should not push or count again when the actor was already folded into the row")
+    void drainSkipsRepeatedActor() throws InterruptedException {
+        when(userRepository.findAllById(anySet())).thenReturn(List.of(actor));
+        when(notificationBatchRepository.mergeOrInsert(anyCollection(), any()))
+                .thenReturn(new AggregationResult(List.of(new MergeResult(null, false)), List.of()));
+
+        dispatcher.onNotificationEvent(new NotificationEvent(5L, "POST_LIKE", 3L, 9L, "curtiu sua publicação"));
+
+        assertEquals(1, dispatcher.drainOnce(0));
+
+        verify(notificationBatchRepository, never()).insertAll(anyList());
+        verifyNoInteractions(messagingTemplate, unreadCounter);
+    }
+
+    @Test
+    @DisplayName("Should merge duplicates and drop events when the queue is full")
+    void saturatedQueueMergesAndDrops() {
+        NotificationEvent like = new NotificationEvent(5L, "POST_LIKE", 3L, 9L, "curtiu sua publicação");
+
+        dispatcher.onNotificationEvent(like);
+        dispatcher.onNotificationEvent(like);
+        dispatcher.onNotificationEvent(new NotificationEvent(5L, "POST_LIKE", 4L, 9L, "curtiu sua publicação"));
+        dispatcher.onNotificationEvent(new NotificationEvent(5L, "POST_LIKE", 7L, 9L, "curtiu sua publicação"));
+
+        assertEquals(2, dispatcher.pending());
+        assertEquals(1.0, meterRegistry.counter("notifications.merged").count());
+        assertEquals(1.0, meterRegistry.counter("notifications.dropped").count());
+        verifyNoInteractions(notificationBatchRepository, messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("Should skip events whose actor no longer exists")
+    void drainSkipsMissingActors() throws InterruptedException {
+        when(userRepository.findAllById(anySet())).thenReturn(List.of());
+
+        dispatcher.onNotificationEvent(new NotificationEvent(5L, "POST_LIKE", 3L, 9L, "curtiu sua publicação"));
+
+        assertEquals(1, dispatcher.drainOnce(0));
+        verifyNoInteractions(notificationBatchRepository, messagingTemplate);
+    }
+}
@@ -1,17 +1,17 @@
 package com.example.weuniteauth.service;
 
 import com.example.weuniteauth.domain.notification.Notification;
-import com.example.weuniteauth.domain.users.User;
+import com.example.weuniteauth.domain.notification.NotificationEvent;
+import com.example.weuniteauth.dto.notification.NotificationPageDTO;
 import com.example.weuniteauth.repository.NotificationRepository;
-import com.example.weuniteauth.repository.user.UserRepository;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,6 +19,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -29,59 +30,38 @@ class NotificationServiceTest {
     private NotificationRepository notificationRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private UnreadNotificationCounter unreadCounter;
 
     @InjectMocks
     private NotificationService notificationService;
 
-    private User actor;
-
-    @BeforeEach
-    void setUp() {
-        actor = new User();
-        actor.setId(3L);
-        actor.setName("Actor");
-        actor.setUsername("actor_user");
-        actor.setProfileImg("img");
-    }
-
     @Test
-    void createNotificationShouldPersistAndBroadcast() {
-        when(userRepository.findById(3L)).thenReturn(Optional.of(actor));
-        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
-            Notification notification = invocation.getArgument(0);
-            notification.setId(10L);
-            notification.setCreatedAt(LocalDateTime.now());
-            return notification;
-        });
-
-        Notification notification = notificationService.createNotification(5L, "POST_LIKE", 3L, 9L, null);
-
-        ArgumentCaptor<Notification> notificationCaptor = ArgumentCaptor.forClass(Notification.class);
-        verify(notificationRepository).save(notificationCaptor.capture());
-        assertThat(notificationCaptor.getValue().getUserId()).isEqualTo(5L);
-        assertThat(notificationCaptor.getValue().getActorName()).isEqualTo("Actor");
-
-        verify(messagingTemplate).convertAndSend(eq("/topic/user/5/notifications"), any(Notification.class));
-        assertThat(notification.getId()).isEqualTo(10L);
+    void createNotificationShouldPublishEvent() {
+        notificationService.createNotification(5L, "POST_LIKE", 3L, 9L, null);
+
+        ArgumentCaptor<NotificationEvent> eventCaptor = ArgumentCaptor.forClass(NotificationEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().userId()).isEqualTo(5L);
+        assertThat(eventCaptor.getValue().actorId()).isEqualTo(3L);
+        assertThat(eventCaptor.getValue().message()).isEqualTo("curtiu sua publicação");
+        verifyNoInteractions(notificationRepository);
     }
 
     @Test
-    void createNotificationShouldReturnNullWhenActorIsTarget() {
-        Notification notification = notificationService.createNotification(3L, "POST_LIKE", 3L, 9L, null);
+    void createNotificationShouldSkipWhenActorIsTarget() {
+        notificationService.createNotification(3L, "POST_LIKE", 3L, 9L, null);
 
-        assertThat(notification).isNull();
-        verifyNoInteractions(notificationRepository, messagingTemplate);
+        verifyNoInteractions(notificationRepository, eventPublisher);
     }
 
     @Test
     void getMethodsShouldDelegateToRepository() {
         Notification notification = buildNotification();
         when(notificationRepository.findByUserIdOrderByCreatedAtDesc(5L)).thenReturn(List.of(notification));
-        when(notificationRepository.countByUserIdAndIsReadFalse(5L)).thenReturn(2L);
+        when(unreadCounter.get(5L)).thenReturn(2L);
 
         assertThat(notificationService.getUserNotifications(5L)).containsExactly(notification);
         assertThat(notificationService.getUnreadCount(5L)).isEqualTo(2L);
@@ -96,23 +76,70 @@ class NotificationServiceTest {
 
         assertThat(notification.getIsRead()).isTrue();
         verify(notificationRepository).save(notification);
+        verify(unreadCounter).decrement(5L);
+    }
+
+    @Test
+    void markAsReadShouldNotDecrementWhenAlreadyRead() {
+        Notification notification = buildNotification();
+        notification.setIsRead(true);
+        when(notificationRepository.findById(1L)).thenReturn(Optional.of(notification));
+
+        notificationService.markAsRead(1L);
+
+        verify(unreadCounter, never()).decrement(anyLong());
     }
 
     @Test
     void markAllAsReadShouldInvokeRepository() {
         notificationService.markAllAsRead(5L);
         verify(notificationRepository).markAllAsReadByUserId(5L);
+        verify(unreadCounter).reset(5L);
     }
 
     @Test
     void deleteNotificationShouldCallRepository() {
+        when(notificationRepository.findById(9L)).thenReturn(Optional.of(buildNotification()));
+
         notificationService.deleteNotification(9L);
+
         verify(notificationRepository).deleteById(9L);
+        verify(unreadCounter).decrement(5L);
+    }
+
+    @Test
+    void getNotificationPageShouldReturnCursorWhenMoreRowsExist() {
+        Notification newest = buildNotification();
+        Notification older = buildNotification();
+        older.setId(2L);
+        when(notificationRepository.findInboxPage(eq(5L), any(LocalDateTime.class), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(newest, older));
+
+        NotificationPageDTO page = notificationService.getNotificationPage(5L, null, null, 1);
+
+        assertThat(page.notifications()).containsExactly(newest);
+        assertThat(page.hasMore()).isTrue();
+        assertThat(page.nextCursorId()).isEqualTo(1L);
+        assertThat(page.nextCursorAt()).isEqualTo(newest.getCreatedAt());
+    }
+
+    @Test
+    void getNotificationPageShouldUseLastActivityAsCursor() {
+        Notification merged = buildNotification();
+        merged.setUpdatedAt(merged.getCreatedAt().plusMinutes(5));
+        Notification older = buildNotification();
+        older.setId(2L);
+        when(notificationRepository.findInboxPage(eq(5L), any(LocalDateTime.class), eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(merged, older));
+
+        NotificationPageDTO page = notificationService.getNotificationPage(5L, null, null, 1);
+
+        assertThat(page.nextCursorAt()).isEqualTo(merged.getUpdatedAt());
     }
 
     private Notification buildNotification() {
         return new Notification(1L, 5L, "POST", 3L, "Actor",
-                "actor_user", null, 9L, "message", false, LocalDateTime.now());
+                "actor_user", null, 9L, "message", false, 1, LocalDateTime.now(), null);
     }
 }
 
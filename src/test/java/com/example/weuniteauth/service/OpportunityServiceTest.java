@@ -19,10 +19,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -34,15 +36,6 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class OpportunityServiceTest {
 
-    @Mock
-    private UserRepository userRepository;
-
-    @Mock
-    private CompanyRepository companyRepository;
-
-    @Mock
-    private SkillRepository skillRepository;
-
     @Mock
     private OpportunityRepository opportunityRepository;
 
@@ -55,6 +48,12 @@ public class OpportunityServiceTest {
     @Mock
     private com.example.weuniteauth.repository.SkillRepository skillRepository;
 
+    @Mock
+    private SkillResolver skillResolver;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private OpportunityService opportunityService;
 
@@ -110,7 +109,7 @@ public class OpportunityServiceTest {
                 )
         );
 
-        when(companyRepository.findById(userId)).thenReturn(Optional.of(mockCompany));
+        when(companyRepository.findById(companyId)).thenReturn(Optional.of(mockCompany));
         when(opportunityRepository.save(any(Opportunity.class))).thenReturn(createdOpportunity);
         when(opportunityMapper.toResponseDTO(eq("Oportunidade criada com sucesso!"), any(Opportunity.class)))
                 .thenReturn(expectedResponse);
@@ -120,9 +119,9 @@ public class OpportunityServiceTest {
         assertNotNull(result);
         assertEquals("Oportunidade criada com sucesso!", result.message());
         assertNotNull(result.data());
-        assertEquals("Software Developer", result.data().title());
+        assertEquals("Lateral Esquerdo no Santos", result.data().title());
 
-        verify(companyRepository).findById(userId);
+        verify(companyRepository).findById(companyId);
         verify(opportunityRepository).save(any(Opportunity.class));
         verify(opportunityMapper).toResponseDTO(eq("Oportunidade criada com sucesso!"), any(Opportunity.class));
     }
@@ -213,7 +212,7 @@ public class OpportunityServiceTest {
         );
 
         when(opportunityRepository.findById(opportunityId)).thenReturn(Optional.of(existingOpportunity));
-        when(skillRepository.findByName("Python")).thenReturn(new Skill("Python"));
+        when(skillResolver.resolve(List.of("Python"))).thenReturn(new LinkedHashSet<>(List.of(new Skill("Python"))));
         when(opportunityRepository.save(any(Opportunity.class))).thenReturn(existingOpportunity);
         when(opportunityMapper.toResponseDTO(eq("Oportunidade atualizada com sucesso!"), any(Opportunity.class)))
                 .thenReturn(expectedResponse);
@@ -225,7 +224,7 @@ public class OpportunityServiceTest {
         assertNotNull(result.data());
 
         verify(opportunityRepository).findById(opportunityId);
-        verify(skillRepository).findByName("Python");
+        verify(skillResolver).resolve(List.of("Python"));
         verify(opportunityRepository).save(any(Opportunity.class));
         verify(opportunityMapper).toResponseDTO(eq("Oportunidade atualizada com sucesso!"), any(Opportunity.class));
     }
@@ -1,29 +1,42 @@
 package com.example.weuniteauth.service;
 
+import com.example.weuniteauth.domain.post.Like;
 import com.example.weuniteauth.domain.post.Post;
 import com.example.weuniteauth.domain.users.User;
+import com.example.weuniteauth.dto.LikeDTO;
 import com.example.weuniteauth.dto.PostDTO;
 import com.example.weuniteauth.dto.ResponseDTO;
 import com.example.weuniteauth.dto.UserDTO;
+import com.example.weuniteauth.dto.post.FeedEntryDTO;
+import com.example.weuniteauth.dto.post.FeedPageDTO;
+import com.example.weuniteauth.dto.post.FeedPostDTO;
 import com.example.weuniteauth.dto.post.PostRequestDTO;
+import com.example.weuniteauth.dto.post.PostStatsDTO;
 import com.example.weuniteauth.exceptions.UnauthorizedException;
 import com.example.weuniteauth.exceptions.post.PostNotFoundException;
 import com.example.weuniteauth.exceptions.user.UserNotFoundException;
 import com.example.weuniteauth.mapper.PostMapper;
+import com.example.weuniteauth.repository.CommentRepository;
 import com.example.weuniteauth.repository.PostRepository;
+import com.example.weuniteauth.repository.RepostRepository;
 import com.example.weuniteauth.repository.user.UserRepository;
-import com.example.weuniteauth.service.cloudinary.CloudinaryService;
+import com.example.weuniteauth.service.media.MediaStorage;
+import com.example.weuniteauth.service.media.MediaUpload;
+import com.example.weuniteauth.service.media.StoredMedia;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,11 +52,26 @@ public class PostServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Mock
+    private RepostRepository repostRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
     @Mock
     private PostMapper postMapper;
 
     @Mock
-    private CloudinaryService cloudinaryService;
+    private MediaStorage mediaStorage;
+
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private LikeIngestionService likeIngestionService;
+
+    @Mock
+    private MediaProcessingService mediaProcessingService;
 
     @InjectMocks
     private PostService postService;
@@ -52,7 +80,7 @@ public class PostServiceTest {
 
     @Test
     @DisplayName("Should create a post with image successfully")
-    void createPostWithImageSuccessfully() {
+    void createPostWithImageSuccessfully() throws IOException {
         Long userId = 1L;
         PostRequestDTO postRequest = new PostRequestDTO("This is a test post");
         MultipartFile image = mock(MultipartFile.class);
@@ -90,6 +118,7 @@ public class PostServiceTest {
                 "This is a test post",
                 "http://image.url/test.jpg",
                 null,
+                null,
                 new ArrayList<>(),
                 new ArrayList<>(),
                 new ArrayList<>(),
@@ -104,8 +133,11 @@ public class PostServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(mockUser));
         when(image.isEmpty()).thenReturn(false);
-        when(cloudinaryService.uploadPost(image, userId)).thenReturn("http://image.url/test.jpg");
-        when(postRepository.save(any(Post.class))).thenReturn(createdPost);
+        when(postRepository.save(any(Post.class))).thenAnswer(invocation -> {
+            Post saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
         when(postMapper.toResponseDTO(eq("Publicação criada com sucesso!"), any(Post.class)))
                 .thenReturn(expectedResponse);
 
@@ -119,8 +151,12 @@ public class PostServiceTest {
 
         verify(userRepository).findById(userId);
         verify(image).isEmpty();
-        verify(cloudinaryService).uploadPost(image, userId);
-        verify(postRepository).save(any(Post.class));
+        verify(mediaStorage, never()).store(any(), any(), anyLong());
+        verify(mediaProcessingService).submit(1L, userId, image);
+
+        ArgumentCaptor<Post> savedPost = ArgumentCaptor.forClass(Post.class);
+        verify(postRepository).save(savedPost.capture());
+        assertEquals(Post.MediaStatus.PENDING_MEDIA, savedPost.getValue().getMediaStatus());
         verify(postMapper).toResponseDTO(eq("Publicação criada com sucesso!"), any(Post.class));
     }
 
@@ -163,6 +199,7 @@ public class PostServiceTest {
                 "This is a test post without image",
                 null,
                 null,
+                null,
                 new ArrayList<>(),
                 new ArrayList<>(),
                 new ArrayList<>(),
@@ -190,8 +227,9 @@ public class PostServiceTest {
 
         verify(userRepository).findById(userId);
         verify(postRepository).save(any(Post.class));
+        verify(timelineService).fanOutPost(any(Post.class));
         verify(postMapper).toResponseDTO(eq("Publicação criada com sucesso!"), any(Post.class));
-        verifyNoInteractions(cloudinaryService);
+        verifyNoInteractions(mediaStorage);
     }
 
     @Test
@@ -208,14 +246,14 @@ public class PostServiceTest {
 
         assertNotNull(exception);
         verify(userRepository).findById(userId);
-        verifyNoInteractions(postRepository, postMapper, cloudinaryService);
+        verifyNoInteractions(postRepository, postMapper, mediaStorage);
     }
 
     // UPDATE POST TESTS
 
     @Test
     @DisplayName("Should update post successfully when user is owner and data is valid")
-    void updatePostSuccess() {
+    void updatePostSuccess() throws IOException {
         Long userId = 1L;
         Long postId = 1L;
         PostRequestDTO updatedPostRequest = new PostRequestDTO("Updated post text");
@@ -256,6 +294,7 @@ public class PostServiceTest {
                 "Updated post text",
                 "http://new-image.url",
                 null,
+                null,
                 new ArrayList<>(),
                 new ArrayList<>(),
                 new ArrayList<>(),
@@ -273,7 +312,7 @@ public class PostServiceTest {
 
         when(postRepository.findById(postId)).thenReturn(Optional.of(existingPost));
         when(image.isEmpty()).thenReturn(false);
-        when(cloudinaryService.uploadPost(image, userId)).thenReturn("http://new-image.url");
+        when(mediaStorage.store(any(MediaUpload.class), any(), anyLong())).thenReturn(new StoredMedia("http://new-image.url", 0L));
         when(postRepository.save(existingPost)).thenReturn(existingPost);
         when(postMapper.toResponseDTO(eq("Publicação atualizada com sucesso!"), eq(existingPost)))
                 .thenReturn(expectedResponse);
@@ -286,7 +325,7 @@ public class PostServiceTest {
 
         verify(postRepository).findById(postId);
         verify(image).isEmpty();
-        verify(cloudinaryService).uploadPost(image, userId);
+        verify(mediaStorage).store(any(MediaUpload.class), any(), anyLong());
         verify(postRepository).save(existingPost);
         verify(postMapper).toResponseDTO(eq("Publicação atualizada com sucesso!"), eq(existingPost));
     }
@@ -306,7 +345,7 @@ public class PostServiceTest {
 
         assertNotNull(exception);
         verify(postRepository).findById(postId);
-        verifyNoInteractions(postMapper, cloudinaryService);
+        verifyNoInteractions(postMapper, mediaStorage);
     }
 
     @Test
@@ -333,7 +372,7 @@ public class PostServiceTest {
 
         assertEquals("Você precisa estar logado para atualizar esta publicação", exception.getMessage());
         verify(postRepository).findById(postId);
-        verifyNoInteractions(postMapper, cloudinaryService);
+        verifyNoInteractions(postMapper, mediaStorage);
     }
 
     // DELETE POST TESTS
@@ -378,6 +417,7 @@ public class PostServiceTest {
                 "Post to be deleted",
                 null,
                 null,
+                null,
                 new ArrayList<>(),
                 new ArrayList<>(),
                 new ArrayList<>(),
@@ -452,4 +492,135 @@ public class PostServiceTest {
         verify(postRepository, never()).delete(any());
         verifyNoInteractions(postMapper);
     }
+
+    // GET POST TESTS
+
+    @Test
+    @DisplayName("Should apply like toggles still buffered to the likes of a single post")
+    void getPostAppliesPendingLikes() {
+        User author = new User();
+        author.setId(1L);
+        Post post = new Post(author, "post");
+        post.setId(10L);
+        User newLiker = new User();
+        newLiker.setId(4L);
+
+        LikeDTO kept = new LikeDTO("1", likerDTO("2"), null);
+        LikeDTO unliked = new LikeDTO("2", likerDTO("3"), null);
+        LikeDTO added = new LikeDTO(null, likerDTO("4"), null);
+        PostDTO dto = new PostDTO("10", "post", null, null, null, List.of(kept, unliked), List.of(), List.of(),
+                null, null, null, null, null);
+
+        when(postRepository.findById(10L)).thenReturn(Optional.of(post));
+        when(postMapper.toResponseDTO("Publicação consultada com sucesso!", post))
+                .thenReturn(new ResponseDTO<>("Publicação consultada com sucesso!", dto));
+        when(likeIngestionService.pendingLikesOnPost(10L)).thenReturn(Map.of(3L, false, 4L, true));
+        when(userRepository.findAllById(List.of(4L))).thenReturn(List.of(newLiker));
+        when(postMapper.mapLikeWithoutPost(argThat((Like like) -> like.getUser() == newLiker && like.getPost() == post)))
+                .thenReturn(added);
+
+        ResponseDTO<PostDTO> result = postService.getPost(10L);
+
+        assertEquals("Publicação consultada com sucesso!", result.message());
+        assertEquals(List.of(kept, added), result.data().likes());
+        assertEquals("post", result.data().text());
+    }
+
+    private static UserDTO likerDTO(String id) {
+        return new UserDTO(id, null, null, null, null, null, null, null, false,
+                null, null, null, null, null, null, null, null);
+    }
+
+    // FEED TESTS
+
+    @Test
+    @DisplayName("Should return a feed page with a cursor pointing at the last entry when more rows exist")
+    void getFeedReturnsCursorWhenMoreEntriesExist() {
+        User author = new User();
+        author.setId(1L);
+
+        Post first = new Post(author, "first");
+        first.setId(10L);
+        Post second = new Post(author, "second");
+        second.setId(9L);
+
+        Instant firstAt = Instant.parse("2025-01-02T10:00:00Z");
+        Instant secondAt = Instant.parse("2025-01-02T09:00:00Z");
+        Instant thirdAt = Instant.parse("2025-01-02T08:00:00Z");
+
+        List<Object[]> rows = List.of(
+                new Object[]{10L, null, firstAt, 20L},
+                new Object[]{9L, null, secondAt, 18L},
+                new Object[]{8L, null, thirdAt, 16L}
+        );
+
+        when(postRepository.findFeedEntriesBefore(any(Instant.class), eq(Long.MAX_VALUE), eq(3))).thenReturn(rows);
+        when(postRepository.findAllWithUserByIdIn(anyCollection())).thenReturn(List.of(first, second));
+        List<Object[]> stats = new ArrayList<>();
+        stats.add(new Object[]{10L, 5L, 2L, 1L, 1L, 0L});
+        stats.add(new Object[]{9L, 0L, 0L, 0L, 0L, 0L});
+        when(postRepository.findStatsByIdIn(anyCollection(), eq(7L))).thenReturn(stats);
+        // Nothing buffered: the persisted like state stands
+        when(likeIngestionService.pendingLikeState(anyLong(), eq(7L))).thenReturn(null);
+        when(postMapper.toFeedPostDTO(any(Post.class), any(PostStatsDTO.class), anyList())).thenReturn(mock(FeedPostDTO.class));
+
+        FeedPageDTO page = postService.getFeed(7L, null, null, 2);
+
+        assertEquals(2, page.posts().size());
+        assertTrue(page.hasMore());
+        assertEquals(secondAt, page.nextCursorAt());
+        assertEquals(18L, page.nextCursorId());
+        verify(postMapper).toFeedPostDTO(eq(first), argThat(s -> s.likeCount() == 5L && s.likedByViewer()), anyList());
+        verify(commentRepository).findPreviewCommentIds(anyCollection(), eq(3));
+        verifyNoInteractions(repostRepository);
+    }
+
+    @Test
+    @DisplayName("Should return the last feed page without a cursor")
+    void getFeedReturnsLastPageWithoutCursor() {
+        Instant cursorAt = Instant.parse("2025-01-02T08:00:00Z");
+
+        when(postRepository.findFeedEntriesBefore(cursorAt, 16L, 21)).thenReturn(new ArrayList<>());
+
+        FeedPageDTO page = postService.getFeed(null, cursorAt, 16L, 20);
+
+        assertTrue(page.posts().isEmpty());
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursorAt());
+        assertNull(page.nextCursorId());
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    @DisplayName("Should read the home timeline from the user's inbox")
+    void getTimelineReadsFromInbox() {
+        Long userId = 3L;
+        Instant entryAt = Instant.parse("2025-01-02T10:00:00Z");
+
+        User author = new User();
+        author.setId(1L);
+        Post post = new Post(author, "from a followed account");
+        post.setId(10L);
+
+        when(userRepository.existsById(userId)).thenReturn(true);
+        when(timelineService.findEntriesBefore(eq(userId), any(Instant.class), eq(Long.MAX_VALUE), eq(21), eq(true)))
+                .thenReturn(List.of(new FeedEntryDTO(10L, null, entryAt, 20L)));
+        when(postRepository.findAllWithUserByIdIn(anyCollection())).thenReturn(List.of(post));
+        when(postMapper.toFeedPostDTO(eq(post), any(PostStatsDTO.class), anyList())).thenReturn(mock(FeedPostDTO.class));
+
+        FeedPageDTO page = postService.getTimeline(userId, null, null, 20);
+
+        assertEquals(1, page.posts().size());
+        assertFalse(page.hasMore());
+        verify(postRepository, never()).findFeedEntriesBefore(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should throw UserNotFoundException when reading the timeline of an unknown user")
+    void getTimelineWithUnknownUser() {
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> postService.getTimeline(99L, null, null, 20));
+        verifyNoInteractions(timelineService);
+    }
 }
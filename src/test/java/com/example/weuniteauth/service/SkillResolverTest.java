@@ -0,0 +1,103 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.domain.opportunity.Skill;
+import com.example.weuniteauth.repository.SkillBatchRepository;
+import com.example.weuniteauth.repository.SkillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SkillResolver Tests")
+class SkillResolverTest {
+
+    @Mock
+    private SkillRepository skillRepository;
+
+    @Mock
+    private SkillBatchRepository skillBatchRepository;
+
+    private SkillResolver skillResolver;
+
+    @BeforeEach
+    void setUp() {
+        skillResolver = new SkillResolver(skillRepository, skillBatchRepository, 100);
+    }
+
+    @Test
+    @DisplayName("Should look up unknown names in one query and batch insert the missing ones")
+    void shouldResolveAndCreateInBulk() {
+        when(skillRepository.findByNameIn(List.of("Java", "Python", "Go")))
+                .thenReturn(List.of(skill(1L, "Java")));
+        when(skillRepository.findByNameIn(List.of("Python", "Go")))
+                .thenReturn(List.of(skill(2L, "Python"), skill(3L, "Go")));
+
+        Set<Skill> resolved = skillResolver.resolve(List.of("Java", " Python ", "Go", "Java", ""));
+
+        assertThat(resolved).extracting(Skill::getName).containsExactly("Java", "Python", "Go");
+        verify(skillBatchRepository).insertMissing(List.of("Python", "Go"));
+        verify(skillRepository, never()).findByName(any());
+        verify(skillRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should load cached names by id without a lookup by name")
+    void shouldUseWarmCache() {
+        when(skillRepository.findNamesAndIds(any(Pageable.class)))
+                .thenReturn(List.of(row("Java", 1L), row("Python", 2L)));
+        when(skillRepository.findAllById(List.of(1L, 2L)))
+                .thenReturn(List.of(skill(1L, "Java"), skill(2L, "Python")));
+
+        skillResolver.warmUp();
+        Set<Skill> resolved = skillResolver.resolve(List.of("Java", "Python"));
+
+        assertThat(resolved).extracting(Skill::getId).containsExactly(1L, 2L);
+        verify(skillRepository, never()).findByNameIn(anyCollection());
+        verifyNoInteractions(skillBatchRepository);
+    }
+
+    @Test
+    @DisplayName("Should fall back to a lookup by name when a cached skill was deleted")
+    void shouldRecoverFromStaleCache() {
+        when(skillRepository.findNamesAndIds(any(Pageable.class)))
+                .thenReturn(List.<Object[]>of(row("Java", 1L)));
+        when(skillRepository.findAllById(List.of(1L))).thenReturn(List.of());
+        when(skillRepository.findByNameIn(List.of("Java"))).thenReturn(List.of(skill(7L, "Java")));
+
+        skillResolver.warmUp();
+        Set<Skill> resolved = skillResolver.resolve(List.of("Java"));
+
+        assertThat(resolved).extracting(Skill::getId).containsExactly(7L);
+        verifyNoInteractions(skillBatchRepository);
+    }
+
+    @Test
+    @DisplayName("Should not query when no names are given")
+    void shouldSkipEmptyInput() {
+        assertThat(skillResolver.resolve(Arrays.asList(null, " "))).isEmpty();
+        verifyNoInteractions(skillRepository, skillBatchRepository);
+    }
+
+    private static Skill skill(Long id, String name) {
+        Skill skill = new Skill(name);
+        skill.setId(id);
+        return skill;
+    }
+
+    private static Object[] row(String name, Long id) {
+        return new Object[]{name, id};
+    }
+}
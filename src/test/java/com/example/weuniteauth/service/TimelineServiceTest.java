@@ -0,0 +1,143 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.TimelineProperties;
+import com.example.weuniteauth.domain.post.HighFanoutAuthor;
+import com.example.weuniteauth.domain.post.TimelineBootstrapRequestedEvent;
+import com.example.weuniteauth.domain.users.Follow;
+import com.example.weuniteauth.dto.post.FeedEntryDTO;
+import com.example.weuniteauth.repository.FollowRepository;
+import com.example.weuniteauth.repository.HighFanoutAuthorRepository;
+import com.example.weuniteauth.repository.PostRepository;
+import com.example.weuniteauth.repository.TimelineEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TimelineService Tests")
+class TimelineServiceTest {
+
+    @Mock
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private HighFanoutAuthorRepository highFanoutAuthorRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TimelineProperties timelineProperties;
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        timelineProperties = new TimelineProperties();
+        timelineService = new TimelineService(timelineEntryRepository, followRepository, postRepository,
+                highFanoutAuthorRepository, timelineProperties, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should pull an empty first page from followed authors and rebuild the inbox off the request")
+    void emptyInboxIsPulledAndBootstrappedAsync() {
+        Instant now = Instant.now();
+        when(timelineEntryRepository.findEntriesBefore(eq(1L), any(), anyLong(), eq(20))).thenReturn(List.of());
+        when(followRepository.findFollowedIds(1L, Follow.FollowStatus.ACCEPTED)).thenReturn(List.of(2L));
+        when(postRepository.findFeedEntriesByAuthorsBefore(argThat(ids -> ids.containsAll(List.of(1L, 2L))), any(), anyLong(), eq(20)))
+                .thenReturn(List.<Object[]>of(new Object[]{10L, null, now, 20L}));
+
+        List<FeedEntryDTO> first = timelineService.findEntriesBefore(1L, now, Long.MAX_VALUE, 20, true);
+        timelineService.findEntriesBefore(1L, now, Long.MAX_VALUE, 20, true);
+
+        assertEquals(List.of(new FeedEntryDTO(10L, null, now, 20L)), first);
+        // The second read finds the bootstrap still running and does not queue another one
+        verify(eventPublisher, times(1)).publishEvent(new TimelineBootstrapRequestedEvent(1L));
+        verify(timelineEntryRepository, never()).deleteByOwner(anyLong());
+        verify(timelineEntryRepository, never()).rebuildForOwner(anyLong(), anyInt());
+
+        timelineService.onBootstrapRequested(new TimelineBootstrapRequestedEvent(1L));
+        verify(timelineEntryRepository).deleteByOwner(1L);
+        verify(timelineEntryRepository).rebuildForOwner(1L, timelineProperties.getMaxEntries());
+    }
+
+    @Test
+    @DisplayName("Should not bootstrap an inbox with nothing to fill it")
+    void emptyInboxWithoutFollowedPostsIsLeftAlone() {
+        Instant now = Instant.now();
+        when(timelineEntryRepository.findEntriesBefore(eq(1L), any(), anyLong(), eq(20))).thenReturn(List.of());
+        when(followRepository.findFollowedIds(1L, Follow.FollowStatus.ACCEPTED)).thenReturn(List.of());
+        when(postRepository.findFeedEntriesByAuthorsBefore(anyCollection(), any(), anyLong(), eq(20))).thenReturn(List.of());
+
+        assertTrue(timelineService.findEntriesBefore(1L, now, Long.MAX_VALUE, 20, true).isEmpty());
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should push again authors that dropped below the threshold and backfill them once settled")
+    void droppedAuthorsArePushedAndBackfilled() {
+        Instant since = Instant.now().minus(Duration.ofDays(3));
+        HighFanoutAuthor above = author(2L, since, null);
+        HighFanoutAuthor recentlyDropped = author(3L, since, Instant.now());
+        HighFanoutAuthor settled = author(4L, since, Instant.now().minus(Duration.ofHours(1)));
+        when(highFanoutAuthorRepository.findAll()).thenReturn(List.of(above, recentlyDropped, settled));
+        when(timelineEntryRepository.backfillAuthorPosts(4L, since, timelineProperties.getMaxEntries())).thenReturn(5);
+        when(timelineEntryRepository.backfillAuthorReposts(4L, since, timelineProperties.getMaxEntries())).thenReturn(1);
+
+        timelineService.refreshHighFanoutAuthors();
+
+        verify(highFanoutAuthorRepository).recordCrossedAbove(eq((long) timelineProperties.getFanoutThreshold()), any(Instant.class));
+        verify(highFanoutAuthorRepository).recordDroppedBelow(eq((long) timelineProperties.getFanoutThreshold()), any(Instant.class));
+        assertTrue(timelineService.isHighFanout(2L));
+        assertFalse(timelineService.isHighFanout(3L));
+        assertFalse(timelineService.isHighFanout(4L));
+
+        verify(timelineEntryRepository, never()).backfillAuthorPosts(eq(3L), any(), anyInt());
+        verify(highFanoutAuthorRepository).deleteDropped(4L);
+        verify(highFanoutAuthorRepository, never()).deleteDropped(3L);
+    }
+
+    @Test
+    @DisplayName("Should keep pulling a dropped author until the backfill ran")
+    void droppedAuthorIsStillPulled() {
+        Instant now = Instant.now();
+        when(highFanoutAuthorRepository.findAll()).thenReturn(List.of(author(3L, now.minus(Duration.ofDays(1)), now)));
+        timelineService.refreshHighFanoutAuthors();
+
+        when(timelineEntryRepository.findEntriesBefore(eq(1L), any(), anyLong(), eq(20)))
+                .thenReturn(List.<Object[]>of(new Object[]{8L, null, now.minusSeconds(60), 16L}));
+        when(followRepository.findFollowedIdsAmong(eq(1L), eq(Follow.FollowStatus.ACCEPTED), anyCollection())).thenReturn(List.of(3L));
+        when(postRepository.findFeedEntriesByAuthorsBefore(List.of(3L), now, Long.MAX_VALUE, 20))
+                .thenReturn(List.<Object[]>of(new Object[]{9L, null, now.minusSeconds(30), 18L}));
+
+        List<FeedEntryDTO> entries = timelineService.findEntriesBefore(1L, now, Long.MAX_VALUE, 20, true);
+
+        assertEquals(List.of(18L, 16L), entries.stream().map(FeedEntryDTO::entryKey).toList());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static HighFanoutAuthor author(Long authorId, Instant since, Instant droppedAt) {
+        HighFanoutAuthor author = new HighFanoutAuthor();
+        author.setAuthorId(authorId);
+        author.setSince(since);
+        author.setDroppedAt(droppedAt);
+        return author;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.weuniteauth.service;
+
+import com.example.weuniteauth.config.PresenceProperties;
+import com.example.weuniteauth.config.StompPrincipal;
+import com.example.weuniteauth.dto.chat.UserStatusDTO;
+import com.example.weuniteauth.service.presence.InMemoryPresenceStore;
+import com.example.weuniteauth.service.presence.PresenceFanout;
+import com.example.weuniteauth.service.presence.PresenceStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserStatusService Tests")
+class UserStatusServiceTest {
+
+    @Mock
+    private PresenceFanout presenceFanout;
+
+    private PresenceProperties properties;
+    private UserStatusService userStatusService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PresenceProperties();
+        userStatusService = new UserStatusService(new InMemoryPresenceStore(), properties, presenceFanout);
+    }
+
+    @Test
+    @DisplayName("Should report unknown users as offline")
+    void shouldReportUnknownUsersAsOffline() {
+        UserStatusDTO status = userStatusService.getUserStatus(1L);
+
+        assertThat(status.getUserId()).isEqualTo(1L);
+        assertThat(status.getStatus()).isEqualTo("OFFLINE");
+    }
+
+    @Test
+    @DisplayName("Should go online on connect and broadcast the transition once")
+    void shouldGoOnlineOnConnect() {
+        userStatusService.onSessionConnected(connected("s1", 1L));
+        userStatusService.onSessionConnected(connected("s2", 1L));
+
+        assertThat(userStatusService.getUserStatus(1L).getStatus()).isEqualTo("ONLINE");
+
+        ArgumentCaptor<UserStatusDTO> captor = ArgumentCaptor.forClass(UserStatusDTO.class);
+        verify(presenceFanout, times(1)).publish(captor.capture());
+        assertThat(captor.getValue().getUserId()).isEqualTo(1L);
+        assertThat(captor.getValue().getStatus()).isEqualTo("ONLINE");
+    }
+
+    @Test
+    @DisplayName("Should go offline only when the last session disconnects")
+    void shouldGoOfflineWhenLastSessionCloses() {
+        userStatusService.onSessionConnected(connected("s1", 1L));
+        userStatusService.onSessionConnected(connected("s2", 1L));
+
+        userStatusService.onSessionDisconnect(disconnected("s1"));
+        assertThat(userStatusService.getUserStatus(1L).getStatus()).isEqualTo("ONLINE");
+
+        userStatusService.onSessionDisconnect(disconnected("s2"));
+        assertThat(userStatusService.getUserStatus(1L).getStatus()).isEqualTo("OFFLINE");
+
+        verify(presenceFanout, times(2)).publish(any(UserStatusDTO.class));
+    }
+
+    @Test
+    @DisplayName("Should expire sessions that stop sending heartbeats")
+    void shouldExpireSessionsWithoutHeartbeat() {
+        properties.setTtlSeconds(0);
+        userStatusService.onSessionConnected(connected("s1", 1L));
+
+        userStatusService.sweepExpiredSessions();
+
+        assertThat(userStatusService.getUserStatus(1L).getStatus()).isEqualTo("OFFLINE");
+        assertThat(userStatusService.heartbeat("s1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep a session alive from inbound frames without an explicit heartbeat")
+    void shouldKeepSessionAliveOnInboundFrames() {
+        PresenceStore store = mock(PresenceStore.class);
+        properties.setTtlSeconds(90);
+        userStatusService = new UserStatusService(store, properties, presenceFanout);
+
+        userStatusService.touch("s1");
+        userStatusService.touch("s1");
+        userStatusService.touch(null);
+
+        // Frames within a third of the TTL reuse the last refresh
+        verify(store, times(1)).refresh(eq("s1"), any(Instant.class));
+        verifyNoMoreInteractions(store);
+    }
+
+    @Test
+    @DisplayName("Should return statuses for many users in one call")
+    void shouldReturnStatusesInBulk() {
+        userStatusService.updateUserStatus(new UserStatusDTO(1L, "AWAY", LocalDateTime.now()), "s1");
+        userStatusService.onSessionConnected(connected("s2", 2L));
+
+        Map<Long, UserStatusDTO> statuses = userStatusService.getUserStatuses(List.of(1L, 2L, 3L));
+
+        assertThat(statuses).containsOnlyKeys(1L, 2L, 3L);
+        assertThat(statuses.get(1L).getStatus()).isEqualTo("AWAY");
+        assertThat(statuses.get(2L).getStatus()).isEqualTo("ONLINE");
+        assertThat(statuses.get(3L).getStatus()).isEqualTo("OFFLINE");
+    }
+
+    @Test
+    @DisplayName("Should ignore connections without a resolved user")
+    void shouldIgnoreAnonymousConnections() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECTED);
+        accessor.setSessionId("s1");
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        userStatusService.onSessionConnected(new SessionConnectedEvent(this, message, null));
+
+        verify(presenceFanout, never()).publish(any(UserStatusDTO.class));
+    }
+
+    private SessionConnectedEvent connected(String sessionId, Long userId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECTED);
+        accessor.setSessionId(sessionId);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return new SessionConnectedEvent(this, message, new StompPrincipal("user" + userId, userId));
+    }
+
+    private SessionDisconnectEvent disconnected(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+        return new SessionDisconnectEvent(this, message, sessionId, CloseStatus.NORMAL);
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.weuniteauth.service.admin;
 
 import com.example.weuniteauth.domain.opportunity.Opportunity;
+import com.example.weuniteauth.domain.opportunity.OpportunityChangedEvent;
 import com.example.weuniteauth.domain.post.Post;
 import com.example.weuniteauth.domain.report.Report;
 import com.example.weuniteauth.domain.users.User;
 import com.example.weuniteauth.dto.OpportunityDTO;
 import com.example.weuniteauth.dto.PostDTO;
 import com.example.weuniteauth.dto.ResponseDTO;
+import com.example.weuniteauth.dto.admin.BulkReportActionRequestDTO;
+import com.example.weuniteauth.dto.report.ReportQueueItemDTO;
+import com.example.weuniteauth.dto.report.ReportQueuePageDTO;
 import com.example.weuniteauth.dto.report.ReportSummaryDTO;
 import com.example.weuniteauth.dto.report.ReportedPostDetailDTO;
 import com.example.weuniteauth.exceptions.post.PostNotFoundException;
@@ -23,10 +27,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -56,6 +62,9 @@ class AdminReportServiceTest {
     @Mock
     private ReportMapper reportMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AdminReportService adminReportService;
 
@@ -126,20 +135,19 @@ class AdminReportServiceTest {
     // GET REPORTED POSTS DETAILS TESTS
 
     @Test
-    @DisplayName("Should get reported posts details successfully")
+    @DisplayName("Should load reported posts and their reports with one query each")
     void getReportedPostsDetailsSuccess() {
         Object[] mockResult = new Object[]{1L, Report.ReportType.POST, 3L};
         List<Object[]> mockResults = new ArrayList<>();
         mockResults.add(mockResult);
 
-        PostDTO mockPostDTO = new PostDTO("1", "Test post", null, null, null, null, null, Instant.now(), null, null, null, null);
+        PostDTO mockPostDTO = new PostDTO("1", "Test post", null, null, null, null, null, null, Instant.now(), null, null, null, null);
 
         when(reportRepository.findAllEntitiesWithReports(eq(Report.ReportType.POST), eq(1L)))
                 .thenReturn(mockResults);
-        when(postRepository.existsById(1L)).thenReturn(true);
-        when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
-        when(reportRepository.findByEntityIdAndType(1L, Report.ReportType.POST))
-                .thenReturn(new ArrayList<>());
+        when(postRepository.findAllWithUserByIdIn(List.of(1L))).thenReturn(List.of(testPost));
+        when(reportRepository.findWithReporterByTypeAndEntityIdIn(Report.ReportType.POST, List.of(1L)))
+                .thenReturn(List.of(testReport));
         when(postMapper.toPostDTO(any(Post.class))).thenReturn(mockPostDTO);
         when(reportMapper.toReportDTOList(anyList())).thenReturn(new ArrayList<>());
 
@@ -147,30 +155,92 @@ class AdminReportServiceTest {
 
         assertNotNull(result);
         assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).totalReports());
+        assertEquals("pending", result.get(0).status());
 
         verify(reportRepository).findAllEntitiesWithReports(Report.ReportType.POST, 1L);
-        verify(postRepository).existsById(1L);
-        verify(postRepository).findById(1L);
+        verify(postRepository, never()).findById(anyLong());
+        verify(reportRepository, never()).findByEntityIdAndType(anyLong(), any());
     }
 
     @Test
-    @DisplayName("Should filter out non-existent posts")
-    void getReportedPostsDetailsFilterNonExistent() {
+    @DisplayName("Should show permanently removed posts as deleted placeholders")
+    void getReportedPostsDetailsRemovedPost() {
         Object[] mockResult = new Object[]{999L, Report.ReportType.POST, 3L};
         List<Object[]> mockResults = new ArrayList<>();
         mockResults.add(mockResult);
 
         when(reportRepository.findAllEntitiesWithReports(eq(Report.ReportType.POST), eq(1L)))
                 .thenReturn(mockResults);
-        when(postRepository.existsById(999L)).thenReturn(false);
+        when(postRepository.findAllWithUserByIdIn(List.of(999L))).thenReturn(List.of());
+        when(reportRepository.findWithReporterByTypeAndEntityIdIn(Report.ReportType.POST, List.of(999L)))
+                .thenReturn(List.of());
+        when(reportMapper.toReportDTOList(anyList())).thenReturn(new ArrayList<>());
 
         List<ReportedPostDetailDTO> result = adminReportService.getReportedPostsDetails();
 
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertEquals(1, result.size());
+        assertEquals("999", result.get(0).post().id());
+        assertEquals("deleted", result.get(0).status());
+        verify(postMapper, never()).toPostDTO(any());
+    }
+
+    // REPORT QUEUE TESTS
+
+    @Test
+    @DisplayName("Should page the report queue by report count with projected summaries")
+    void getReportQueueFirstPage() {
+        Instant now = Instant.now();
+        when(reportRepository.findReportQueuePage(eq(Report.ReportType.POST),
+                eq(EnumSet.of(Report.ReportStatus.PENDING, Report.ReportStatus.REVIEWED)), eq(1L),
+                eq(Long.MAX_VALUE), eq(Long.MAX_VALUE), any()))
+                .thenReturn(List.of(
+                        new Object[]{7L, 5L},
+                        new Object[]{3L, 2L},
+                        new Object[]{9L, 2L}
+                ));
+        when(postRepository.findSummariesByIdIn(List.of(7L, 3L))).thenReturn(List.<Object[]>of(
+                new Object[]{7L, "Post denunciado", null, null, false, now, 1L, "Test", "testuser", null}
+        ));
+        when(reportRepository.findEntriesByTypeAndEntityIdIn(Report.ReportType.POST, List.of(7L, 3L))).thenReturn(List.<Object[]>of(
+                new Object[]{10L, 7L, 2L, "reporter", "Spam", Report.ReportStatus.REVIEWED, Report.ActionTaken.NONE, now, null},
+                new Object[]{11L, 3L, 2L, "reporter", "Spam", Report.ReportStatus.PENDING, Report.ActionTaken.NONE, now, null}
+        ));
+
+        ReportQueuePageDTO page = adminReportService.getReportQueue(Report.ReportType.POST, null, null, 2);
+
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasMore());
+        assertEquals(2L, page.nextCursorCount());
+        assertEquals(3L, page.nextCursorId());
+
+        ReportQueueItemDTO first = page.items().get(0);
+        assertEquals("Post denunciado", first.content().text());
+        assertEquals("testuser", first.content().authorUsername());
+        assertEquals(5L, first.totalReports());
+        assertEquals("reviewed", first.status());
+        assertEquals("reviewed", first.reports().get(0).status());
+
+        ReportQueueItemDTO removed = page.items().get(1);
+        assertFalse(removed.content().exists());
+        assertEquals("deleted", removed.status());
 
-        verify(postRepository).existsById(999L);
         verify(postRepository, never()).findById(anyLong());
+        verifyNoInteractions(postMapper, reportMapper);
+    }
+
+    @Test
+    @DisplayName("Should continue the report queue after the given cursor")
+    void getReportQueueLastPage() {
+        when(reportRepository.findReportQueuePage(eq(Report.ReportType.POST), anySet(), eq(1L), eq(2L), eq(3L), any()))
+                .thenReturn(List.of());
+
+        ReportQueuePageDTO page = adminReportService.getReportQueue(Report.ReportType.POST, 2L, 3L, 20);
+
+        assertTrue(page.items().isEmpty());
+        assertFalse(page.hasMore());
+        assertNull(page.nextCursorCount());
+        verify(reportRepository, never()).findEntriesByTypeAndEntityIdIn(any(), anyList());
     }
 
     // GET REPORTED POST DETAIL TESTS
@@ -178,7 +248,7 @@ class AdminReportServiceTest {
     @Test
     @DisplayName("Should get reported post detail successfully")
     void getReportedPostDetailSuccess() {
-        PostDTO mockPostDTO = new PostDTO("1", "Test post", null, null, null, null, null, Instant.now(), null, null, null, null);
+        PostDTO mockPostDTO = new PostDTO("1", "Test post", null, null, null, null, null, null, Instant.now(), null, null, null, null);
 
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(reportRepository.findByEntityIdAndTypeAndStatus(1L, Report.ReportType.POST, Report.ReportStatus.PENDING))
@@ -211,7 +281,7 @@ class AdminReportServiceTest {
     @Test
     @DisplayName("Should return resolved status when no pending reports")
     void getReportedPostDetailResolvedStatus() {
-        PostDTO mockPostDTO = new PostDTO("1", "Test post", null, null, null, null, null, Instant.now(), null, null, null, null);
+        PostDTO mockPostDTO = new PostDTO("1", "Test post", null, null, null, null, null, null, Instant.now(), null, null, null, null);
 
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
         when(reportRepository.findByEntityIdAndTypeAndStatus(1L, Report.ReportType.POST, Report.ReportStatus.PENDING))
@@ -231,20 +301,24 @@ class AdminReportServiceTest {
     @Test
     @DisplayName("Should delete post by admin successfully")
     void deletePostByAdminSuccess() {
-        PostDTO mockPostDTO = new PostDTO("1", "Test post", null, null, null, null, null, Instant.now(), null, null, null, null);
+        PostDTO mockPostDTO = new PostDTO("1", "Test post", null, null, null, null, null, null, Instant.now(), null, null, null, null);
         ResponseDTO<PostDTO> expectedResponse = new ResponseDTO<>("Post excluído com sucesso pelo administrador", mockPostDTO);
 
         when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
-        doNothing().when(postRepository).delete(testPost);
         when(postMapper.toResponseDTO(anyString(), any(Post.class))).thenReturn(expectedResponse);
 
         ResponseDTO<PostDTO> result = adminReportService.deletePostByAdmin(1L);
 
         assertNotNull(result);
         assertEquals("Post excluído com sucesso pelo administrador", result.message());
+        assertTrue(testPost.isDeleted());
 
         verify(postRepository).findById(1L);
-        verify(postRepository).delete(testPost);
+        verify(postRepository).save(testPost);
+        verify(reportRepository).transitionReports(eq(Report.ReportType.POST), eq(List.of(1L)),
+                eq(EnumSet.allOf(Report.ReportStatus.class)), eq(Report.ReportStatus.RESOLVED),
+                eq(Report.ActionTaken.CONTENT_REMOVED), any(Instant.class));
+        verify(reportRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -257,7 +331,8 @@ class AdminReportServiceTest {
         );
 
         verify(postRepository).findById(999L);
-        verify(postRepository, never()).delete(any(Post.class));
+        verify(postRepository, never()).save(any(Post.class));
+        verifyNoInteractions(reportRepository);
     }
 
     // DELETE OPPORTUNITY BY ADMIN TESTS
@@ -269,50 +344,122 @@ class AdminReportServiceTest {
         ResponseDTO<OpportunityDTO> expectedResponse = new ResponseDTO<>("Oportunidade excluída com sucesso", mockOpportunityDTO);
 
         when(opportunityRepository.findById(1L)).thenReturn(Optional.of(testOpportunity));
-        doNothing().when(opportunityRepository).delete(testOpportunity);
         when(opportunityMapper.toResponseDTO(anyString(), any(Opportunity.class))).thenReturn(expectedResponse);
 
         ResponseDTO<OpportunityDTO> result = adminReportService.deleteOpportunityByAdmin(1L);
 
         assertNotNull(result);
         assertEquals("Oportunidade excluída com sucesso", result.message());
+        assertTrue(testOpportunity.isDeleted());
 
         verify(opportunityRepository).findById(1L);
-        verify(opportunityRepository).delete(testOpportunity);
+        verify(opportunityRepository).save(testOpportunity);
+        verify(reportRepository).transitionReports(eq(Report.ReportType.OPPORTUNITY), eq(List.of(1L)), anySet(),
+                eq(Report.ReportStatus.RESOLVED), eq(Report.ActionTaken.CONTENT_REMOVED), any(Instant.class));
+        verify(eventPublisher).publishEvent(new OpportunityChangedEvent(1L));
+    }
+
+    @Test
+    @DisplayName("Should restore opportunity by admin and publish the change")
+    void restoreOpportunityByAdminSuccess() {
+        testOpportunity.setDeleted(true);
+        OpportunityDTO mockOpportunityDTO = new OpportunityDTO(1L, "Test opportunity", null, null, null, null, null, null, null, 0);
+        ResponseDTO<OpportunityDTO> expectedResponse = new ResponseDTO<>("Oportunidade restaurada com sucesso", mockOpportunityDTO);
+
+        when(opportunityRepository.findById(1L)).thenReturn(Optional.of(testOpportunity));
+        when(opportunityMapper.toResponseDTO(anyString(), any(Opportunity.class))).thenReturn(expectedResponse);
+
+        adminReportService.restoreOpportunityByAdmin(1L);
+
+        assertFalse(testOpportunity.isDeleted());
+        verify(opportunityRepository).save(testOpportunity);
+        verify(eventPublisher).publishEvent(new OpportunityChangedEvent(1L));
     }
 
-    // DISMISS REPORTS TESTS
+    // REPORT ACTION TESTS
 
     @Test
-    @DisplayName("Should dismiss post reports successfully")
+    @DisplayName("Should dismiss open post reports with a single update")
     void dismissPostReportsSuccess() {
-        List<Report> reports = Arrays.asList(testReport);
-
-        when(reportRepository.findByEntityIdAndTypeAndStatus(1L, Report.ReportType.POST, Report.ReportStatus.PENDING))
-                .thenReturn(reports);
-        when(reportRepository.saveAll(anyList())).thenReturn(reports);
+        when(reportRepository.transitionReports(eq(Report.ReportType.POST), eq(List.of(1L)), anySet(),
+                eq(Report.ReportStatus.RESOLVED), eq(Report.ActionTaken.NONE), any(Instant.class)))
+                .thenReturn(2);
 
-        ResponseDTO<String> result = adminReportService.dismissReports(1L, "POST");
+        ResponseDTO<String> result = adminReportService.dismissReports(1L, "post");
 
         assertNotNull(result);
         assertTrue(result.message().contains("Denúncias descartadas"));
+        assertEquals("2 denúncias foram descartadas", result.data());
 
-        verify(reportRepository).findByEntityIdAndTypeAndStatus(1L, Report.ReportType.POST, Report.ReportStatus.PENDING);
-        verify(reportRepository).saveAll(anyList());
+        verify(reportRepository).transitionReports(any(), anyList(),
+                eq(EnumSet.of(Report.ReportStatus.PENDING, Report.ReportStatus.REVIEWED)), any(), any(), any());
+        verify(reportRepository, never()).findByEntityIdAndTypeAndStatus(anyLong(), any(), any());
+        verify(reportRepository, never()).saveAll(anyList());
     }
 
     @Test
-    @DisplayName("Should handle dismiss with no pending reports")
-    void dismissReportsNoPending() {
-        when(reportRepository.findByEntityIdAndTypeAndStatus(1L, Report.ReportType.POST, Report.ReportStatus.PENDING))
-                .thenReturn(Arrays.asList());
+    @DisplayName("Should only move pending reports to reviewed")
+    void markReportAsReviewedOnlyPending() {
+        when(reportRepository.transitionReportStatus(any(), anyList(), anySet(), any(), any())).thenReturn(0);
 
-        ResponseDTO<String> result = adminReportService.dismissReports(1L, "POST");
+        ResponseDTO<String> result = adminReportService.markReportAsReviewed(1L, "COMMENT");
 
-        assertNotNull(result);
+        assertEquals("0 denúncias foram marcadas como em análise", result.data());
+        verify(reportRepository).transitionReportStatus(eq(Report.ReportType.COMMENT), eq(List.of(1L)),
+                eq(EnumSet.of(Report.ReportStatus.PENDING)), eq(Report.ReportStatus.REVIEWED), any(Instant.class));
+        verify(reportRepository, never()).transitionReports(any(), anyList(), anySet(), any(), any(), any());
+    }
 
-        verify(reportRepository).findByEntityIdAndTypeAndStatus(1L, Report.ReportType.POST, Report.ReportStatus.PENDING);
-        verify(reportRepository).saveAll(anyList());
+    @Test
+    @DisplayName("Should resolve reports of every open status in one statement")
+    void resolveReportsSingleStatement() {
+        when(reportRepository.transitionReports(any(), anyList(), anySet(), any(), any(), any())).thenReturn(3);
+
+        ResponseDTO<String> result = adminReportService.resolveReports(1L, "POST");
+
+        assertEquals("3 denúncias foram resolvidas e o conteúdo foi mantido", result.data());
+        verify(reportRepository, times(1)).transitionReports(any(), anyList(), anySet(), any(), any(), any());
     }
-}
 
+    @Test
+    @DisplayName("Should apply one bulk decision to many entities with a single update")
+    void applyBulkActionDismiss() {
+        when(reportRepository.transitionReports(any(), anyList(), anySet(), any(), any(), any())).thenReturn(7);
+
+        ResponseDTO<String> result = adminReportService.applyBulkAction(
+                new BulkReportActionRequestDTO("POST", List.of(1L, 2L, 2L, 3L), "dismiss"));
+
+        assertEquals("7 denúncias atualizadas em 3 itens", result.data());
+        verify(reportRepository).transitionReports(eq(Report.ReportType.POST), eq(List.of(1L, 2L, 3L)), anySet(),
+                eq(Report.ReportStatus.RESOLVED), eq(Report.ActionTaken.NONE), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should remove every post in a bulk removal")
+    void applyBulkActionRemoveContent() {
+        Post otherPost = new Post();
+        otherPost.setId(2L);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
+        when(postRepository.findById(2L)).thenReturn(Optional.of(otherPost));
+        when(reportRepository.transitionReports(any(), anyList(), anySet(), any(), any(), any())).thenReturn(1);
+
+        ResponseDTO<String> result = adminReportService.applyBulkAction(
+                new BulkReportActionRequestDTO("POST", List.of(1L, 2L), "REMOVE_CONTENT"));
+
+        assertEquals("2 denúncias atualizadas em 2 itens", result.data());
+        assertTrue(testPost.isDeleted());
+        assertTrue(otherPost.isDeleted());
+        verify(reportRepository, times(2)).transitionReports(eq(Report.ReportType.POST), anyList(), anySet(),
+                eq(Report.ReportStatus.RESOLVED), eq(Report.ActionTaken.CONTENT_REMOVED), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should fail the whole bulk removal when one post does not exist")
+    void applyBulkActionRemoveContentMissing() {
+        when(postRepository.findById(1L)).thenReturn(Optional.of(testPost));
+        when(postRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(PostNotFoundException.class, () -> adminReportService.applyBulkAction(
+                new BulkReportActionRequestDTO("POST", List.of(1L, 999L), "REMOVE_CONTENT")));
+    }
+}
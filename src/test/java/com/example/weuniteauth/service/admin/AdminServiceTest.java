@@ -117,6 +117,7 @@ class AdminServiceTest {
                 "Post content",
                 null,
                 null,
+                null,
                 Arrays.asList(),
                 Arrays.asList(),
                 Arrays.asList(),
@@ -1,54 +1,61 @@
 package com.example.weuniteauth.service.admin;
 
+import com.example.weuniteauth.config.AdminStatsProperties;
+import com.example.weuniteauth.domain.admin.DailyMetric;
+import com.example.weuniteauth.domain.opportunity.OpportunityChangedEvent;
 import com.example.weuniteauth.dto.admin.AdminStatsDTO;
 import com.example.weuniteauth.dto.admin.MonthlyDataDTO;
+import com.example.weuniteauth.dto.admin.OpportunityCategoryWithSkillsDTO;
 import com.example.weuniteauth.dto.admin.UserTypeDataDTO;
+import com.example.weuniteauth.exceptions.BusinessRuleException;
+import com.example.weuniteauth.repository.DailyMetricRepository;
 import com.example.weuniteauth.repository.OpportunityRepository;
-import com.example.weuniteauth.repository.PostRepository;
 import com.example.weuniteauth.repository.user.UserRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("AdminStatsService Tests")
 class AdminStatsServiceTest {
 
-    @Mock
-    private PostRepository postRepository;
-
     @Mock
     private OpportunityRepository opportunityRepository;
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private DailyMetricRepository dailyMetricRepository;
+
+    @Spy
+    private AdminStatsProperties properties = new AdminStatsProperties();
+
     @InjectMocks
     private AdminStatsService adminStatsService;
 
     // GET ADMIN STATS TESTS
 
     @Test
-    @DisplayName("Should calculate admin stats successfully")
+    @DisplayName("Should calculate admin stats from the daily rollup")
     void getAdminStatsSuccess() {
-        // Mock dos repositórios
-        when(postRepository.count()).thenReturn(100L);
-        when(opportunityRepository.count()).thenReturn(50L);
-        when(userRepository.countActiveUsersByPostActivity(any(Instant.class))).thenReturn(30L);
-        when(postRepository.countTotalLikes()).thenReturn(500L);
-        when(postRepository.countTotalComments()).thenReturn(300L);
-        when(postRepository.countPostsBetweenDates(any(Instant.class), any(Instant.class))).thenReturn(80L);
-        when(opportunityRepository.countOpportunitiesBetweenDates(any(Instant.class), any(Instant.class))).thenReturn(40L);
+        stubRollup(100L, 50L, 500L, 300L, 30L);
 
         AdminStatsDTO result = adminStatsService.getAdminStats();
 
@@ -58,24 +65,18 @@ class AdminStatsServiceTest {
         assertEquals(30L, result.activeUsers());
         assertNotNull(result.engagementRate());
         assertNotNull(result.previousMonth());
+        assertEquals(80L, result.previousMonth().totalPosts());
+        assertEquals(45L, result.previousMonth().activeUsers());
 
-        verify(postRepository).count();
-        verify(opportunityRepository).count();
-        verify(userRepository, times(2)).countActiveUsersByPostActivity(any(Instant.class));
-        verify(postRepository).countTotalLikes();
-        verify(postRepository).countTotalComments();
+        verify(dailyMetricRepository).sumByMetric(anyList());
+        verify(dailyMetricRepository).sumByMetricBetween(anyList(), any(LocalDate.class), any(LocalDate.class));
+        verifyNoInteractions(opportunityRepository, userRepository);
     }
 
     @Test
     @DisplayName("Should calculate engagement rate correctly")
     void calculateEngagementRateCorrectly() {
-        when(postRepository.count()).thenReturn(100L);
-        when(opportunityRepository.count()).thenReturn(50L);
-        when(userRepository.countActiveUsersByPostActivity(any(Instant.class))).thenReturn(30L);
-        when(postRepository.countTotalLikes()).thenReturn(500L);
-        when(postRepository.countTotalComments()).thenReturn(300L);
-        when(postRepository.countPostsBetweenDates(any(Instant.class), any(Instant.class))).thenReturn(80L);
-        when(opportunityRepository.countOpportunitiesBetweenDates(any(Instant.class), any(Instant.class))).thenReturn(40L);
+        stubRollup(100L, 50L, 500L, 300L, 30L);
 
         AdminStatsDTO result = adminStatsService.getAdminStats();
 
@@ -86,13 +87,7 @@ class AdminStatsServiceTest {
     @Test
     @DisplayName("Should handle zero posts when calculating engagement rate")
     void handleZeroPostsEngagementRate() {
-        when(postRepository.count()).thenReturn(0L);
-        when(opportunityRepository.count()).thenReturn(50L);
-        when(userRepository.countActiveUsersByPostActivity(any(Instant.class))).thenReturn(30L);
-        when(postRepository.countTotalLikes()).thenReturn(0L);
-        when(postRepository.countTotalComments()).thenReturn(0L);
-        when(postRepository.countPostsBetweenDates(any(Instant.class), any(Instant.class))).thenReturn(0L);
-        when(opportunityRepository.countOpportunitiesBetweenDates(any(Instant.class), any(Instant.class))).thenReturn(40L);
+        stubRollup(0L, 50L, 0L, 0L, 30L);
 
         AdminStatsDTO result = adminStatsService.getAdminStats();
 
@@ -102,53 +97,72 @@ class AdminStatsServiceTest {
     @Test
     @DisplayName("Should handle zero active users when calculating engagement rate")
     void handleZeroActiveUsersEngagementRate() {
-        when(postRepository.count()).thenReturn(100L);
-        when(opportunityRepository.count()).thenReturn(50L);
-        when(userRepository.countActiveUsersByPostActivity(any(Instant.class))).thenReturn(0L);
-        when(postRepository.countTotalLikes()).thenReturn(200L);
-        when(postRepository.countTotalComments()).thenReturn(150L);
-        when(postRepository.countPostsBetweenDates(any(Instant.class), any(Instant.class))).thenReturn(80L);
-        when(opportunityRepository.countOpportunitiesBetweenDates(any(Instant.class), any(Instant.class))).thenReturn(40L);
+        stubRollup(100L, 50L, 200L, 150L, 0L);
+
+        AdminStatsDTO result = adminStatsService.getAdminStats();
+
+        assertEquals(0.0, result.engagementRate());
+    }
+
+    @Test
+    @DisplayName("Should return zeros before the first rollup")
+    void handleEmptyRollup() {
+        when(dailyMetricRepository.sumByMetric(anyList())).thenReturn(List.of());
+        when(dailyMetricRepository.sumByMetricBetween(anyList(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.of());
+        when(dailyMetricRepository.findFirstByMetricOrderByDayDesc(any())).thenReturn(Optional.empty());
 
         AdminStatsDTO result = adminStatsService.getAdminStats();
 
+        assertEquals(0L, result.totalPosts());
+        assertEquals(0L, result.activeUsers());
         assertEquals(0.0, result.engagementRate());
     }
 
+    @Test
+    @DisplayName("Should reuse the computed stats within the cache TTL")
+    void cachesAdminStats() {
+        stubRollup(100L, 50L, 500L, 300L, 30L);
+
+        AdminStatsDTO first = adminStatsService.getAdminStats();
+        AdminStatsDTO second = adminStatsService.getAdminStats();
+
+        assertSame(first, second);
+        verify(dailyMetricRepository, times(1)).sumByMetric(anyList());
+    }
+
     // GET MONTHLY DATA TESTS
 
     @Test
-    @DisplayName("Should get monthly data for last 6 months")
+    @DisplayName("Should get monthly data for last 6 months from one read of the rollup")
     void getMonthlyDataSuccess() {
-        when(postRepository.countPostsBetweenDates(any(Instant.class), any(Instant.class)))
-                .thenReturn(10L, 20L, 30L, 40L, 50L, 60L);
-        when(opportunityRepository.countOpportunitiesBetweenDates(any(Instant.class), any(Instant.class)))
-                .thenReturn(5L, 10L, 15L, 20L, 25L, 30L);
+        YearMonth current = YearMonth.now();
+        when(dailyMetricRepository.findByMetricInAndDayGreaterThanEqual(anyList(), any(LocalDate.class)))
+                .thenReturn(List.of(
+                        metric(current.atDay(1), DailyMetric.Metric.POSTS, 10L),
+                        metric(current.atDay(1), DailyMetric.Metric.POSTS, 5L),
+                        metric(current.atDay(1), DailyMetric.Metric.OPPORTUNITIES, 3L),
+                        metric(current.minusMonths(5).atDay(1), DailyMetric.Metric.POSTS, 7L)
+                ));
 
         List<MonthlyDataDTO> result = adminStatsService.getMonthlyData();
 
         assertNotNull(result);
         assertEquals(6, result.size());
+        assertEquals(7L, result.get(0).posts());
+        assertEquals(15L, result.get(5).posts());
+        assertEquals(3L, result.get(5).opportunities());
+        assertEquals(0L, result.get(2).posts());
 
-        // Verificar que cada mês tem dados
-        result.forEach(month -> {
-            assertNotNull(month.month());
-            assertNotNull(month.posts());
-            assertNotNull(month.opportunities());
-        });
-
-        // Verificar que countPostsBetweenDates foi chamado 6 vezes
-        verify(postRepository, times(6)).countPostsBetweenDates(any(Instant.class), any(Instant.class));
-        verify(opportunityRepository, times(6)).countOpportunitiesBetweenDates(any(Instant.class), any(Instant.class));
+        verify(dailyMetricRepository, times(1))
+                .findByMetricInAndDayGreaterThanEqual(anyList(), eq(current.minusMonths(5).atDay(1)));
     }
 
     @Test
     @DisplayName("Should return monthly data with correct month names")
     void monthlyDataHasCorrectMonthNames() {
-        when(postRepository.countPostsBetweenDates(any(Instant.class), any(Instant.class)))
-                .thenReturn(10L);
-        when(opportunityRepository.countOpportunitiesBetweenDates(any(Instant.class), any(Instant.class)))
-                .thenReturn(5L);
+        when(dailyMetricRepository.findByMetricInAndDayGreaterThanEqual(anyList(), any(LocalDate.class)))
+                .thenReturn(List.of());
 
         List<MonthlyDataDTO> result = adminStatsService.getMonthlyData();
 
@@ -160,6 +174,32 @@ class AdminStatsServiceTest {
         });
     }
 
+    private void stubRollup(long posts, long opportunities, long likes, long comments, long activeUsers) {
+        when(dailyMetricRepository.sumByMetric(anyList())).thenReturn(List.of(
+                new Object[]{DailyMetric.Metric.POSTS, posts},
+                new Object[]{DailyMetric.Metric.OPPORTUNITIES, opportunities},
+                new Object[]{DailyMetric.Metric.LIKES, likes},
+                new Object[]{DailyMetric.Metric.COMMENTS, comments}
+        ));
+        when(dailyMetricRepository.sumByMetricBetween(anyList(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(List.<Object[]>of(
+                        new Object[]{DailyMetric.Metric.POSTS, 80L},
+                        new Object[]{DailyMetric.Metric.OPPORTUNITIES, 40L}
+                ));
+        when(dailyMetricRepository.findFirstByMetricOrderByDayDesc(DailyMetric.Metric.ACTIVE_USERS_10D))
+                .thenReturn(Optional.of(metric(LocalDate.now(), DailyMetric.Metric.ACTIVE_USERS_10D, activeUsers)));
+        when(dailyMetricRepository.findFirstByMetricOrderByDayDesc(DailyMetric.Metric.ACTIVE_USERS_30D))
+                .thenReturn(Optional.of(metric(LocalDate.now(), DailyMetric.Metric.ACTIVE_USERS_30D, 45L)));
+    }
+
+    private static DailyMetric metric(LocalDate day, DailyMetric.Metric name, long value) {
+        DailyMetric metric = new DailyMetric();
+        metric.setDay(day);
+        metric.setMetric(name);
+        metric.setValue(value);
+        return metric;
+    }
+
     // GET USER TYPE DATA TESTS
 
     @Test
@@ -208,5 +248,60 @@ class AdminStatsServiceTest {
             assertEquals(0L, data.value());
         });
     }
-}
 
+    // TOP SKILLS TESTS
+
+    @Test
+    @DisplayName("Should rank skills with a single aggregate query limited to K")
+    void getOpportunitiesWithSkillsSuccess() {
+        when(opportunityRepository.findTopSkills(any(Pageable.class))).thenReturn(List.of(
+                new Object[]{"Velocidade", 12L},
+                new Object[]{"Perna Esquerda", 7L}
+        ));
+
+        List<OpportunityCategoryWithSkillsDTO> result = adminStatsService.getOpportunitiesWithSkills(2, null);
+
+        assertEquals(2, result.size());
+        assertEquals("Velocidade", result.get(0).category());
+        assertEquals(12L, result.get(0).count());
+        assertTrue(result.get(0).topSkills().isEmpty());
+        verify(opportunityRepository).findTopSkills(argThat(page -> page.getPageSize() == 2));
+        verify(opportunityRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should only count opportunities created inside the requested window")
+    void getOpportunitiesWithSkillsWithinWindow() {
+        when(opportunityRepository.findTopSkillsSince(any(Instant.class), any(Pageable.class))).thenReturn(List.of());
+
+        adminStatsService.getOpportunitiesWithSkills(5, 7);
+
+        Instant expectedSince = LocalDate.now().minusDays(6).atStartOfDay(properties.zoneId()).toInstant();
+        verify(opportunityRepository).findTopSkillsSince(eq(expectedSince), any(Pageable.class));
+        verify(opportunityRepository, never()).findTopSkills(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reuse the ranking until an opportunity changes")
+    void cachesTopSkillsUntilOpportunityChanges() {
+        when(opportunityRepository.findTopSkills(any(Pageable.class))).thenReturn(List.<Object[]>of(new Object[]{"Velocidade", 3L}));
+
+        adminStatsService.getOpportunitiesWithSkills(5, null);
+        adminStatsService.getOpportunitiesWithSkills(5, null);
+        verify(opportunityRepository, times(1)).findTopSkills(any(Pageable.class));
+
+        adminStatsService.onOpportunityChanged(new OpportunityChangedEvent(1L));
+        adminStatsService.getOpportunitiesWithSkills(5, null);
+        verify(opportunityRepository, times(2)).findTopSkills(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a K or window outside the allowed range")
+    void rejectsInvalidTopSkillsParameters() {
+        assertThrows(BusinessRuleException.class, () -> adminStatsService.getOpportunitiesWithSkills(0, null));
+        assertThrows(BusinessRuleException.class,
+                () -> adminStatsService.getOpportunitiesWithSkills(AdminStatsService.MAX_TOP_SKILLS + 1, null));
+        assertThrows(BusinessRuleException.class, () -> adminStatsService.getOpportunitiesWithSkills(5, 0));
+        verifyNoInteractions(opportunityRepository);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.weuniteauth.service.admin;
+
+import com.example.weuniteauth.config.AdminStatsProperties;
+import com.example.weuniteauth.domain.admin.DailyMetric;
+import com.example.weuniteauth.repository.DailyMetricBatchRepository;
+import com.example.weuniteauth.repository.DailyMetricBatchRepository.MetricRow;
+import com.example.weuniteauth.repository.DailyMetricRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DailyStatsRollupService Tests")
+class DailyStatsRollupServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    @Mock
+    private DailyMetricBatchRepository batchRepository;
+
+    @Mock
+    private DailyMetricRepository metricRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DailyStatsRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        AdminStatsProperties properties = new AdminStatsProperties();
+        properties.setZone(ZONE.getId());
+        rollupService = new DailyStatsRollupService(batchRepository, metricRepository, properties, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should rebuild the whole history when the rollup is empty")
+    void shouldRebuildWhenEmpty() {
+        when(metricRepository.count()).thenReturn(0L);
+        when(batchRepository.countPerDay(any(Instant.class), any(Instant.class), eq(ZONE))).thenReturn(new ArrayList<>());
+
+        rollupService.refreshRecent();
+
+        LocalDate tomorrow = LocalDate.now(ZONE).plusDays(1);
+        verify(batchRepository).replace(anyList(), eq(LocalDate.of(1970, 1, 1)), eq(tomorrow), anyList());
+    }
+
+    @Test
+    @DisplayName("Should only recount yesterday and today once the history is loaded")
+    void shouldRefreshRecentDays() {
+        LocalDate today = LocalDate.now(ZONE);
+        when(metricRepository.count()).thenReturn(10L);
+        when(batchRepository.countPerDay(any(Instant.class), any(Instant.class), eq(ZONE)))
+                .thenReturn(new ArrayList<>(List.of(new MetricRow(today, DailyMetric.Metric.POSTS, 4L))));
+        when(batchRepository.countDistinctPosters(any(Instant.class), any(Instant.class))).thenReturn(3L, 9L);
+
+        rollupService.refreshRecent();
+
+        ArgumentCaptor<Instant> from = ArgumentCaptor.forClass(Instant.class);
+        verify(batchRepository).countPerDay(from.capture(), any(Instant.class), eq(ZONE));
+        assertThat(from.getValue()).isEqualTo(today.minusDays(1).atStartOfDay(ZONE).toInstant());
+
+        verify(batchRepository).replace(eq(DailyMetricBatchRepository.dailyMetrics()),
+                eq(today.minusDays(1)), eq(today.plusDays(1)),
+                eq(List.of(new MetricRow(today, DailyMetric.Metric.POSTS, 4L))));
+        verify(batchRepository).replace(
+                eq(List.of(DailyMetric.Metric.ACTIVE_USERS_10D, DailyMetric.Metric.ACTIVE_USERS_30D)),
+                eq(today), eq(today.plusDays(1)),
+                eq(List.of(new MetricRow(today, DailyMetric.Metric.ACTIVE_USERS_10D, 3L),
+                        new MetricRow(today, DailyMetric.Metric.ACTIVE_USERS_30D, 9L))));
+    }
+}
@@ -9,15 +9,24 @@ import com.example.weuniteauth.config.CloudinaryImageProperties.Banner;
 import com.example.weuniteauth.config.CloudinaryImageProperties.Post;
 import com.example.weuniteauth.config.CloudinaryImageProperties.Profile;
 import com.example.weuniteauth.config.CloudinaryImageProperties.VideoProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -56,9 +65,22 @@ class CloudinaryServiceTest {
     @Mock
     private Banner bannerProps;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
+
     private CloudinaryService cloudinaryService;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cloudinaryService = new CloudinaryService(cloudinary, imageProperties, meterRegistry);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
     private void configureCommonImagePropsForVideo() {
         when(imageProperties.getVideo()).thenReturn(videoProps);
         when(videoProps.getQualityLevel()).thenReturn(90);
@@ -88,7 +110,7 @@ class CloudinaryServiceTest {
         configureCommonImagePropsForVideo();
 
         when(multipartFile.getContentType()).thenReturn("video/mp4");
-        when(multipartFile.getBytes()).thenReturn("video-data".getBytes());
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("video-data".getBytes()));
         when(cloudinary.uploader()).thenReturn(uploader);
 
         Map<String, Object> result = new HashMap<>();
@@ -99,7 +121,9 @@ class CloudinaryServiceTest {
 
         assertEquals("https://cloudinary.com/video.mp4", url);
         verify(cloudinary).uploader();
-        verify(uploader).upload(any(), any(Map.class));
+        verify(uploader).upload(any(File.class), any(Map.class));
+        verify(multipartFile, never()).getBytes();
+        assertEquals(10.0, meterRegistry.summary("cloudinary.post.upload.bytes", "kind", "video").totalAmount());
     }
 
     @Test
@@ -107,53 +131,86 @@ class CloudinaryServiceTest {
     void uploadPost_imagem_deveChamarUploadImagePost() throws Exception {
         configureCommonImagePropsForImage();
 
+        byte[] image = png(1920, 1080);
         when(multipartFile.getContentType()).thenReturn("image/png");
-        when(multipartFile.getBytes()).thenReturn("image-data".getBytes());
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(image));
         when(cloudinary.uploader()).thenReturn(uploader);
 
-        Map<String, Object> tempUpload = new HashMap<>();
-        tempUpload.put("width", 1920);
-        tempUpload.put("height", 1080);
-        tempUpload.put("public_id", "temp_id");
-
         Map<String, Object> finalUpload = new HashMap<>();
         finalUpload.put("secure_url", "https://cloudinary.com/image.png");
-
-        when(uploader.upload(any(), any())).thenReturn(tempUpload, finalUpload);
-        when(uploader.destroy(eq("temp_id"), any())).thenReturn(new HashMap<>());
+        when(uploader.upload(any(), any())).thenReturn(finalUpload);
 
         String url = cloudinaryService.uploadPost(multipartFile, 1L);
 
         assertEquals("https://cloudinary.com/image.png", url);
-        verify(uploader, times(2)).upload(any(), any(Map.class));
-        verify(uploader).destroy(eq("temp_id"), any(Map.class));
+        ArgumentCaptor<Map> options = ArgumentCaptor.forClass(Map.class);
+        verify(uploader, times(1)).upload(any(File.class), options.capture());
+        assertEquals("post, user_content, horizontal", options.getValue().get("tags"));
+        verify(uploader, never()).destroy(any(), any());
+        assertEquals(image.length, meterRegistry.summary("cloudinary.post.upload.bytes", "kind", "image").totalAmount());
+    }
+
+    @Test
+    @DisplayName("uploadPost deve usar limites verticais lendo as dimensoes do cabecalho da imagem")
+    void uploadPost_imagemVertical_deveUsarLimitesVerticais() throws Exception {
+        when(imageProperties.getPost()).thenReturn(postProps);
+        when(postProps.getVerticalMaxWidth()).thenReturn(375);
+        when(postProps.getVerticalMaxHeight()).thenReturn(500);
+
+        when(multipartFile.getContentType()).thenReturn("image/png");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(png(600, 1200)));
+        when(cloudinary.uploader()).thenReturn(uploader);
+        when(uploader.upload(any(), any())).thenReturn(Map.of("secure_url", "https://cloudinary.com/vertical.png"));
+
+        String url = cloudinaryService.uploadPost(multipartFile, 1L);
+
+        assertEquals("https://cloudinary.com/vertical.png", url);
+        ArgumentCaptor<Map> options = ArgumentCaptor.forClass(Map.class);
+        verify(uploader).upload(any(File.class), options.capture());
+        assertEquals("post, user_content, vertical", options.getValue().get("tags"));
+    }
+
+    @Test
+    @DisplayName("readImageSize deve retornar vazio para formatos desconhecidos")
+    void readImageSize_formatoDesconhecido() throws Exception {
+        Path file = Files.createTempFile("not-an-image", ".bin");
+        try {
+            Files.write(file, "not an image".getBytes());
+            assertTrue(CloudinaryService.readImageSize(file).isEmpty());
+        } finally {
+            Files.deleteIfExists(file);
+        }
     }
 
     @Test
     @DisplayName("uploadPost deve lancar RuntimeException quando ocorrer IOException")
     void uploadPost_deveLancarRuntimeExceptionQuandoIOException() throws Exception {
-        when(multipartFile.getContentType()).thenReturn("image/png");
-        when(multipartFile.getBytes()).thenThrow(new IOException("erro IO"));
+        lenient().when(multipartFile.getContentType()).thenReturn("image/png");
+        when(multipartFile.getInputStream()).thenThrow(new IOException("erro IO"));
 
         assertThrows(RuntimeException.class, () -> cloudinaryService.uploadPost(multipartFile, 1L));
     }
 
     @Test
-    @DisplayName("uploadProfileImg deve fazer upload com transformacao para perfil")
+    @DisplayName("uploadProfileImg deve fazer upload do arquivo em disco com transformacao para perfil")
     void uploadProfileImg_sucesso() throws Exception {
         configureCommonImagePropsForProfile();
 
-        when(cloudinary.uploader()).thenReturn(uploader);
-        when(multipartFile.getBytes()).thenReturn("profile".getBytes());
+        Path file = Files.createTempFile("profile", ".jpg");
+        try {
+            when(cloudinary.uploader()).thenReturn(uploader);
 
-        Map<String, Object> uploadResult = new HashMap<>();
-        uploadResult.put("secure_url", "https://cloudinary.com/profile.jpg");
-        when(uploader.upload(any(), any())).thenReturn(uploadResult);
+            Map<String, Object> uploadResult = new HashMap<>();
+            uploadResult.put("secure_url", "https://cloudinary.com/profile.jpg");
+            when(uploader.upload(any(), any())).thenReturn(uploadResult);
 
-        String url = cloudinaryService.uploadProfileImg(multipartFile, "user1");
+            String url = cloudinaryService.uploadProfileImg(file, "user1");
 
-        assertEquals("https://cloudinary.com/profile.jpg", url);
-        verify(uploader).upload(any(), any(Map.class));
+            assertEquals("https://cloudinary.com/profile.jpg", url);
+            verify(uploader).upload(eq(file.toFile()), any(Map.class));
+        } finally {
+            Files.deleteIfExists(file);
+        }
     }
 
     @Test
@@ -162,27 +219,31 @@ class CloudinaryServiceTest {
         configureCommonImagePropsForProfile();
 
         when(cloudinary.uploader()).thenReturn(uploader);
-        when(multipartFile.getBytes()).thenThrow(new IOException("erro IO"));
+        when(uploader.upload(any(), any())).thenThrow(new IOException("erro IO"));
 
-        assertThrows(RuntimeException.class, () -> cloudinaryService.uploadProfileImg(multipartFile, "user1"));
+        assertThrows(RuntimeException.class, () -> cloudinaryService.uploadProfileImg(Path.of("profile.jpg"), "user1"));
     }
 
     @Test
-    @DisplayName("uploadBannerImg deve fazer upload com transformacao para banner")
+    @DisplayName("uploadBannerImg deve fazer upload do arquivo em disco com transformacao para banner")
     void uploadBannerImg_sucesso() throws Exception {
         configureCommonImagePropsForBanner();
 
-        when(cloudinary.uploader()).thenReturn(uploader);
-        when(multipartFile.getBytes()).thenReturn("banner".getBytes());
+        Path file = Files.createTempFile("banner", ".jpg");
+        try {
+            when(cloudinary.uploader()).thenReturn(uploader);
 
-        Map<String, Object> uploadResult = new HashMap<>();
-        uploadResult.put("secure_url", "https://cloudinary.com/banner.jpg");
-        when(uploader.upload(any(), any())).thenReturn(uploadResult);
+            Map<String, Object> uploadResult = new HashMap<>();
+            uploadResult.put("secure_url", "https://cloudinary.com/banner.jpg");
+            when(uploader.upload(any(), any())).thenReturn(uploadResult);
 
-        String url = cloudinaryService.uploadBannerImg(multipartFile, "user1");
+            String url = cloudinaryService.uploadBannerImg(file, "user1");
 
-        assertEquals("https://cloudinary.com/banner.jpg", url);
-        verify(uploader).upload(any(), any(Map.class));
+            assertEquals("https://cloudinary.com/banner.jpg", url);
+            verify(uploader).upload(eq(file.toFile()), any(Map.class));
+        } finally {
+            Files.deleteIfExists(file);
+        }
     }
 
     @Test
@@ -191,9 +252,9 @@ class CloudinaryServiceTest {
         configureCommonImagePropsForBanner();
 
         when(cloudinary.uploader()).thenReturn(uploader);
-        when(multipartFile.getBytes()).thenThrow(new IOException("erro IO"));
+        when(uploader.upload(any(), any())).thenThrow(new IOException("erro IO"));
 
-        assertThrows(RuntimeException.class, () -> cloudinaryService.uploadBannerImg(multipartFile, "user1"));
+        assertThrows(RuntimeException.class, () -> cloudinaryService.uploadBannerImg(Path.of("banner.jpg"), "user1"));
     }
 
     @Test
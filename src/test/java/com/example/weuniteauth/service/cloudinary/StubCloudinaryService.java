@@ -0,0 +1,49 @@
+package com.example.weuniteauth.service.cloudinary;
+
+import com.cloudinary.Cloudinary;
+import com.example.weuniteauth.config.CloudinaryImageProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for Cloudinary in tests: never touches the network, returns predictable
+ * URLs and can be told to fail a number of uploads first.
+ */
+public class StubCloudinaryService extends CloudinaryService {
+
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final List<Path> uploads = Collections.synchronizedList(new ArrayList<>());
+
+    public StubCloudinaryService() {
+        super(new Cloudinary(Map.of("cloud_name", "stub")), new CloudinaryImageProperties(), new SimpleMeterRegistry());
+    }
+
+    public StubCloudinaryService failNext(int uploads) {
+        failuresLeft.set(uploads);
+        return this;
+    }
+
+    public List<Path> uploads() {
+        return uploads;
+    }
+
+    @Override
+    public String uploadPost(Path file, String contentType, Long userId) {
+        uploads.add(file);
+        if (!Files.exists(file)) {
+            throw new RuntimeException("Arquivo não encontrado: " + file);
+        }
+        if (failuresLeft.getAndUpdate(left -> Math.max(left - 1, 0)) > 0) {
+            throw new RuntimeException("Falha simulada no upload");
+        }
+        String kind = contentType != null && contentType.startsWith("video/") ? "video" : "image";
+        return "https://stub.cloudinary.local/" + kind + "/posts/" + userId + "/" + file.getFileName();
+    }
+}
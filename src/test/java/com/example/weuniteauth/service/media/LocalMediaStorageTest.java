@@ -0,0 +1,156 @@
+package com.example.weuniteauth.service.media;
+
+import com.example.weuniteauth.config.ChatAttachmentProperties;
+import com.example.weuniteauth.config.CloudinaryImageProperties;
+import com.example.weuniteauth.exceptions.BusinessRuleException;
+import com.example.weuniteauth.service.ChatAttachmentStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LocalMediaStorage Tests")
+class LocalMediaStorageTest {
+
+    @TempDir
+    Path root;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocalMediaStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        ChatAttachmentProperties attachmentProperties = new ChatAttachmentProperties();
+        attachmentProperties.setRoot(root.toString());
+
+        meterRegistry = new SimpleMeterRegistry();
+        storage = new LocalMediaStorage(new ChatAttachmentStorage(attachmentProperties),
+                new CloudinaryImageProperties(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should return a URL asking for the post variant")
+    void shouldStorePostImageWithVariantUrl() throws IOException {
+        byte[] png = png(400, 200);
+
+        StoredMedia stored = storage.store(new MediaUpload(MediaKind.POST, "1", "image/png", "photo.png"),
+                new ByteArrayInputStream(png), png.length);
+
+        assertThat(stored.url()).startsWith("/api/attachments/").endsWith(".png?w=1280&h=720");
+        assertThat(stored.size()).isEqualTo(png.length);
+    }
+
+    @Test
+    @DisplayName("Should not add variant parameters to chat attachments")
+    void shouldStoreChatAttachmentAsIs() throws IOException {
+        StoredMedia stored = storage.store(new MediaUpload(MediaKind.CHAT_ATTACHMENT, "7", "text/plain", "notes.txt"),
+                new ByteArrayInputStream("hello".getBytes()), 5);
+
+        assertThat(stored.url()).matches("/api/attachments/[0-9a-f]{64}\\.txt");
+    }
+
+    @Test
+    @DisplayName("Should generate a variant once and serve it from disk afterwards")
+    void shouldGenerateAndCacheVariant() throws IOException {
+        String fileName = storeImage(800, 600);
+
+        // Banner size: height 300, width unconstrained
+        LocalMediaStorage.Variant first = storage.variant(fileName, 0, 300).orElseThrow();
+        LocalMediaStorage.Variant second = storage.variant(fileName, 0, 300).orElseThrow();
+
+        BufferedImage resized = ImageIO.read(first.path().toFile());
+        assertThat(resized.getWidth()).isEqualTo(400);
+        assertThat(resized.getHeight()).isEqualTo(300);
+        assertThat(first.path()).startsWith(root.resolve("variants")).isEqualTo(second.path());
+        assertThat(first.etag()).endsWith("-0x300");
+        assertThat(meterRegistry.counter("media.storage.variant.requests", "result", "miss").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("media.storage.variant.requests", "result", "hit").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should serve the original when it already fits")
+    void shouldServeOriginalWhenSmallEnough() throws IOException {
+        String fileName = storeImage(80, 40);
+
+        // Profile size
+        LocalMediaStorage.Variant variant = storage.variant(fileName, 400, 400).orElseThrow();
+
+        assertThat(variant.path().getFileName().toString()).isEqualTo(fileName);
+        assertThat(variant.path().startsWith(root.resolve("variants"))).isFalse();
+        assertThat(variant.etag()).isEqualTo(fileName.substring(0, 64));
+    }
+
+    @Test
+    @DisplayName("Should reject sizes that no stored URL asks for")
+    void shouldRejectUnservedSize() throws IOException {
+        String fileName = storeImage(10, 10);
+
+        assertThatThrownBy(() -> storage.variant(fileName, 5000, 0))
+                .isInstanceOf(BusinessRuleException.class);
+        assertThatThrownBy(() -> storage.variant(fileName, 100, 0))
+                .isInstanceOf(BusinessRuleException.class);
+        assertThatThrownBy(() -> storage.variant(fileName, 1280, 719))
+                .isInstanceOf(BusinessRuleException.class);
+        assertThat(meterRegistry.find("media.storage.variant.requests").counters()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should serve the original when no size is requested")
+    void shouldServeOriginalWithoutSize() throws IOException {
+        String fileName = storeImage(400, 200);
+
+        LocalMediaStorage.Variant variant = storage.variant(fileName, 0, 0).orElseThrow();
+
+        assertThat(variant.path().getFileName().toString()).isEqualTo(fileName);
+    }
+
+    @Test
+    @DisplayName("Should return empty for unknown files")
+    void shouldReturnEmptyForUnknownFile() throws IOException {
+        assertThat(storage.variant("b".repeat(64) + ".png", 0, 300)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should route by kind and record bytes per backend")
+    void shouldRouteAndMeter() throws IOException {
+        MeteredMediaStorage metered = new MeteredMediaStorage(Map.of(
+                MediaKind.POST, storage,
+                MediaKind.PROFILE, storage,
+                MediaKind.BANNER, storage,
+                MediaKind.CHAT_ATTACHMENT, storage), meterRegistry);
+
+        metered.store(new MediaUpload(MediaKind.CHAT_ATTACHMENT, "7", "text/plain", "a.txt"),
+                new ByteArrayInputStream("hello".getBytes()), 5);
+
+        assertThat(meterRegistry.summary("media.storage.bytes", "backend", "local", "kind", "chat_attachment").totalAmount())
+                .isEqualTo(5);
+        assertThat(meterRegistry.timer("media.storage.store",
+                "backend", "local", "kind", "chat_attachment", "outcome", "success").count()).isEqualTo(1);
+    }
+
+    private String storeImage(int width, int height) throws IOException {
+        byte[] png = png(width, height);
+        StoredMedia stored = storage.store(new MediaUpload(MediaKind.CHAT_ATTACHMENT, "1", "image/png", "image.png"),
+                new ByteArrayInputStream(png), png.length);
+        return stored.url().substring("/api/attachments/".length());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
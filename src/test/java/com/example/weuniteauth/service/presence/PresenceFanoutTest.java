@@ -0,0 +1,156 @@
+package com.example.weuniteauth.service.presence;
+
+import com.example.weuniteauth.config.PresenceProperties;
+import com.example.weuniteauth.config.WebSocketBrokerProperties;
+import com.example.weuniteauth.dto.chat.UserStatusDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PresenceFanout Tests")
+class PresenceFanoutTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private PresenceProperties properties;
+    private WebSocketBrokerProperties brokerProperties;
+    private SimpleMeterRegistry meterRegistry;
+    private PresenceFanout fanout;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PresenceProperties();
+        properties.getFanout().setMinIntervalMs(0);
+        brokerProperties = new WebSocketBrokerProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        fanout = new PresenceFanout(messagingTemplate, properties, brokerProperties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should coalesce changes of the same user into one frame")
+    void shouldCoalescePendingChanges() {
+        fanout.onSubscribe(subscribe("s1", "sub-1", "/topic/user/1/status"));
+
+        fanout.publish(status(1L, "OFFLINE"));
+        fanout.publish(status(1L, "ONLINE"));
+        fanout.flush();
+
+        verify(messagingTemplate, times(1)).convertAndSend(eq("/topic/user/1/status"), any(UserStatusDTO.class));
+        assertThat(meterRegistry.counter("presence.updates.delivered").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("presence.updates.suppressed", "reason", "coalesced").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop changes back to the last delivered status")
+    void shouldDropUnchangedStatus() {
+        fanout.onSubscribe(subscribe("s1", "sub-1", "/topic/user/1/status"));
+
+        fanout.publish(status(1L, "ONLINE"));
+        fanout.flush();
+        fanout.publish(status(1L, "ONLINE"));
+        fanout.flush();
+
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(UserStatusDTO.class));
+        assertThat(meterRegistry.counter("presence.updates.suppressed", "reason", "unchanged").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should hold changes that arrive before the minimum interval")
+    void shouldThrottlePerUser() {
+        properties.getFanout().setMinIntervalMs(60_000);
+        fanout.onSubscribe(subscribe("s1", "sub-1", "/topic/user/1/status"));
+
+        fanout.publish(status(1L, "ONLINE"));
+        fanout.flush();
+        fanout.publish(status(1L, "AWAY"));
+        fanout.flush();
+
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(UserStatusDTO.class));
+        assertThat(fanout.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not send changes of users nobody is subscribed to")
+    void shouldSkipUnwatchedUsers() {
+        fanout.onSubscribe(subscribe("s1", "sub-1", "/topic/user/1/status"));
+        fanout.onDisconnect(new SessionDisconnectEvent(this, message(StompCommand.DISCONNECT, "s1", null, null), "s1", CloseStatus.NORMAL));
+
+        fanout.publish(status(1L, "ONLINE"));
+        fanout.publish(status(2L, "ONLINE"));
+        fanout.flush();
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        assertThat(meterRegistry.counter("presence.updates.suppressed", "reason", "unwatched").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should deliver a status again after a change was dropped while unwatched")
+    void shouldForgetDeliveredStatusWhenDroppedUnwatched() {
+        fanout.onSubscribe(subscribe("s1", "sub-1", "/topic/user/1/status"));
+        fanout.publish(status(1L, "ONLINE"));
+        fanout.flush();
+
+        fanout.onDisconnect(new SessionDisconnectEvent(this, message(StompCommand.DISCONNECT, "s1", null, null), "s1", CloseStatus.NORMAL));
+        fanout.publish(status(1L, "OFFLINE"));
+        fanout.flush();
+
+        fanout.onSubscribe(subscribe("s2", "sub-2", "/topic/user/1/status"));
+        fanout.publish(status(1L, "ONLINE"));
+        fanout.flush();
+
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/user/1/status"), any(UserStatusDTO.class));
+        assertThat(meterRegistry.counter("presence.updates.suppressed", "reason", "unchanged").count()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Should leave subscriber filtering to the broker in relay mode")
+    void shouldDeliverWithoutLocalSubscribersInRelayMode() {
+        brokerProperties.setMode(WebSocketBrokerProperties.Mode.RELAY);
+
+        fanout.publish(status(1L, "ONLINE"));
+        fanout.flush();
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/1/status"), any(UserStatusDTO.class));
+    }
+
+    private UserStatusDTO status(Long userId, String status) {
+        return new UserStatusDTO(userId, status, LocalDateTime.now());
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String subscriptionId, String destination) {
+        return new SessionSubscribeEvent(this, message(StompCommand.SUBSCRIBE, sessionId, subscriptionId, destination));
+    }
+
+    private Message<byte[]> message(StompCommand command, String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (subscriptionId != null) {
+            accessor.setSubscriptionId(subscriptionId);
+        }
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
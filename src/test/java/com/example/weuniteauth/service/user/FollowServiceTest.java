@@ -11,6 +11,7 @@ import com.example.weuniteauth.repository.FollowRepository;
 import com.example.weuniteauth.repository.user.UserRepository;
 import com.example.weuniteauth.service.FollowService;
 import com.example.weuniteauth.service.NotificationService;
+import com.example.weuniteauth.service.TimelineService;
 import com.example.weuniteauth.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -50,6 +51,9 @@ class FollowServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private TimelineService timelineService;
+
     @InjectMocks
     private FollowService followService;
 
@@ -96,8 +100,6 @@ class FollowServiceTest {
         ResponseDTO<FollowDTO> expectedResponse = new ResponseDTO<>("Seguiu com sucesso", followDTO);
 
         when(followRepository.save(any(Follow.class))).thenReturn(follow);
-        when(notificationService.createNotification(anyLong(), anyString(), anyLong(), anyLong(), any()))
-                .thenReturn(null);
         when(followMapper.toResponseDTO(eq("Seguiu com sucesso"), any(Follow.class)))
                 .thenReturn(expectedResponse);
 
@@ -127,6 +129,7 @@ class FollowServiceTest {
         assertEquals("Deixou de seguir com sucesso", result.message());
 
         verify(followRepository).delete(follow);
+        verify(timelineService).removeAuthor(follow.getFollower().getId(), follow.getFollowed().getId());
     }
 
     // FOLLOW AND UNFOLLOW TOGGLE TESTS
@@ -139,9 +142,6 @@ class FollowServiceTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(follower));
         when(userRepository.findById(2L)).thenReturn(Optional.of(followed));
         when(followRepository.findByFollowerIdAndFollowedId(1L, 2L)).thenReturn(Optional.empty());
-        when(notificationService.createNotification(anyLong(), anyString(), anyLong(), anyLong(), any()))
-                .thenReturn(null);
-        when(notificationService.createNotification(anyLong(), anyString(), anyLong(), anyLong(), any())).thenReturn(null);
         when(followMapper.toResponseDTO(eq("Seguiu com sucesso"), any(Follow.class)))
                 .thenReturn(expectedResponse);
 
@@ -14,6 +14,7 @@ import com.example.weuniteauth.repository.CommentRepository;
 import com.example.weuniteauth.repository.LikeRepository;
 import com.example.weuniteauth.repository.PostRepository;
 import com.example.weuniteauth.repository.user.UserRepository;
+import com.example.weuniteauth.service.LikeIngestionService;
 import com.example.weuniteauth.service.LikeService;
 import com.example.weuniteauth.service.NotificationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,7 +25,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -52,6 +56,9 @@ class LikeServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private LikeIngestionService likeIngestionService;
+
     @InjectMocks
     private LikeService likeService;
 
@@ -88,8 +95,58 @@ class LikeServiceTest {
         likeDTO = new LikeDTO("1", null, null);
     }
 
+    // GET LIKES TESTS
+
+    @Test
+    @DisplayName("Should apply the user's buffered toggles to the likes list")
+    void getLikesAppliesPendingToggles() {
+        Post unlikedPost = new Post();
+        unlikedPost.setId(3L);
+        Like unliked = new Like(unlikedPost, user);
+        Post newPost = new Post();
+        newPost.setId(4L);
+        newPost.setUser(postOwner);
+
+        LikeDTO keptDTO = new LikeDTO("1", null, null);
+        LikeDTO newDTO = new LikeDTO(null, null, null);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(likeRepository.findByUser(user)).thenReturn(Set.of(like, unliked));
+        when(likeIngestionService.pendingLikesOfUser(1L)).thenReturn(Map.of(3L, false, 4L, true));
+        when(postRepository.findAllWithUserByIdIn(List.of(4L))).thenReturn(List.of(newPost));
+        when(likeMapper.mapLikes(anyList())).thenCallRealMethod();
+        when(likeMapper.toLikeDTO(like)).thenReturn(keptDTO);
+        when(likeMapper.toLikeDTO(argThat(pending -> pending != null && pending.getPost() == newPost))).thenReturn(newDTO);
+
+        ResponseDTO<List<LikeDTO>> result = likeService.getLikes(1L);
+
+        // Pending likes are the newest, so they come first
+        assertEquals(List.of(newDTO, keptDTO), result.data());
+        verify(likeMapper, never()).toLikeDTO(unliked);
+    }
+
     // TOGGLE LIKE POST TESTS
 
+    @Test
+    @DisplayName("Should buffer the toggle when the write-behind pipeline accepts it")
+    void toggleLikeWriteBehind() {
+        when(likeIngestionService.accepts(1L, 2L)).thenReturn(true);
+        when(likeIngestionService.toggle(1L, 2L)).thenReturn(true);
+        when(likeMapper.toPendingResponseDTO(anyString(), anyLong(), anyLong())).thenCallRealMethod();
+
+        ResponseDTO<LikeDTO> result = likeService.toggleLike(1L, 2L);
+
+        assertEquals("Curtida criada com sucesso!", result.message());
+        assertNull(result.data().id());
+        assertEquals("1", result.data().user().id());
+        assertEquals("2", result.data().post().id());
+
+        verify(likeIngestionService).toggle(1L, 2L);
+        verifyNoInteractions(postRepository, userRepository, likeRepository);
+        verify(likeRepository, never()).save(any(Like.class));
+        verify(postRepository, never()).adjustLikeCount(anyLong(), anyLong());
+    }
+
     @Test
     @DisplayName("Should create like when post is not liked yet")
     void toggleLikeCreateLike() {
@@ -99,7 +156,6 @@ class LikeServiceTest {
         when(postRepository.findById(1L)).thenReturn(Optional.of(post));
         when(likeRepository.findByUserAndPost(user, post)).thenReturn(Optional.empty());
         when(likeRepository.save(any(Like.class))).thenReturn(like);
-        when(notificationService.createNotification(anyLong(), anyString(), anyLong(), anyLong(), any())).thenReturn(null);
         when(likeMapper.toResponseDTO(eq("Curtida criada com sucesso!"), any(Like.class)))
                 .thenReturn(expectedResponse);
 
@@ -112,6 +168,7 @@ class LikeServiceTest {
         verify(postRepository).findById(1L);
         verify(likeRepository).findByUserAndPost(user, post);
         verify(likeRepository).save(any(Like.class));
+        verify(postRepository).adjustLikeCount(1L, 1);
         verify(notificationService).createNotification(eq(2L), eq("POST_LIKE"), eq(1L), eq(1L), isNull());
         verify(likeMapper).toResponseDTO(eq("Curtida criada com sucesso!"), any(Like.class));
     }
@@ -137,6 +194,7 @@ class LikeServiceTest {
         verify(postRepository).findById(1L);
         verify(likeRepository).findByUserAndPost(user, post);
         verify(likeRepository).delete(like);
+        verify(postRepository).adjustLikeCount(1L, -1);
         verify(notificationService, never()).createNotification(anyLong(), anyString(), anyLong(), anyLong(), any());
         verify(likeMapper).toResponseDTO(eq("Curtida deletada com sucesso!"), any(Like.class));
     }
@@ -202,8 +260,6 @@ class LikeServiceTest {
         when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
         when(likeRepository.findByUserAndComment(user, comment)).thenReturn(Optional.empty());
         when(likeRepository.save(any(Like.class))).thenReturn(commentLike);
-        when(notificationService.createNotification(anyLong(), anyString(), anyLong(), anyLong(), any()))
-                .thenReturn(null);
         when(likeMapper.toResponseDTO(eq("Curtida criada com sucesso!"), any(Like.class)))
                 .thenReturn(expectedResponse);
 
@@ -240,6 +296,7 @@ class LikeServiceTest {
         assertEquals("Curtida deletada com sucesso!", result.message());
 
         verify(likeRepository).delete(commentLike);
+        verify(commentRepository).adjustLikeCount(1L, -1);
         verify(notificationService, never()).createNotification(anyLong(), anyString(), anyLong(), anyLong(), any());
     }
 
@@ -11,9 +11,11 @@ import com.example.weuniteauth.exceptions.user.UserAlreadyExistsException;
 import com.example.weuniteauth.exceptions.user.UserNotFoundException;
 import com.example.weuniteauth.mapper.UserMapper;
 import com.example.weuniteauth.repository.RoleRepository;
+import com.example.weuniteauth.repository.user.AthleteRepository;
 import com.example.weuniteauth.repository.user.UserRepository;
+import com.example.weuniteauth.service.SkillResolver;
 import com.example.weuniteauth.service.UserService;
-import com.example.weuniteauth.service.cloudinary.CloudinaryService;
+import com.example.weuniteauth.service.media.MediaStorage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -50,7 +52,13 @@ class UserServiceTest {
     private RoleRepository roleRepository;
 
     @Mock
-    private CloudinaryService cloudinaryService;
+    private MediaStorage mediaStorage;
+
+    @Mock
+    private SkillResolver skillResolver;
+
+    @Mock
+    private AthleteRepository athleteRepository;
 
     @InjectMocks
     private UserService userService;
@@ -238,18 +246,18 @@ class UserServiceTest {
                 List.of()
         );
 
-        ResponseDTO<UserDTO> expectedResponse = new ResponseDTO<>("Usuário atualizado com sucesso!", userDTO);
+        ResponseDTO<UserDTO> expectedResponse = new ResponseDTO<>("Perfil atualizado com sucesso!", userDTO);
 
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
         when(userRepository.existsByUsername("updateduser")).thenReturn(false);
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(userMapper.toResponseDTO(eq("Usuário atualizado com sucesso!"), any(User.class)))
+        when(userMapper.toResponseDTO(eq("Perfil atualizado com sucesso!"), any(User.class)))
                 .thenReturn(expectedResponse);
 
         ResponseDTO<UserDTO> result = userService.updateUser(updateRequest, "testuser", null, null);
 
         assertNotNull(result);
-        assertEquals("Usuário atualizado com sucesso!", result.message());
+        assertEquals("Perfil atualizado com sucesso!", result.message());
 
         verify(userRepository).findByUsername("testuser");
         verify(userRepository).save(testUser);